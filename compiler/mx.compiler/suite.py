@@ -1021,6 +1021,23 @@ suite = {
       "testProject" : True,
     },
 
+    "org.graalvm.compiler.truffle.benchmark" : {
+      "subDir" : "src",
+      "sourceDirs" : ["src"],
+      "dependencies" : [
+        "mx:JMH_1_21",
+        "org.graalvm.compiler.microbenchmarks",
+        "org.graalvm.compiler.truffle.test",
+      ],
+      "checkstyle" : "org.graalvm.compiler.graph",
+      "javaCompliance" : "1.8",
+      "checkPackagePrefix" : "false",
+      "annotationProcessors" : ["mx:JMH_1_21"],
+      "findbugsIgnoresGenerated" : True,
+      "workingSets" : "Graal,Truffle,Bench",
+      "testProject" : True,
+    },
+
     "org.graalvm.compiler.loop" : {
       "subDir" : "src",
       "sourceDirs" : ["src"],
@@ -1879,6 +1896,7 @@ suite = {
       "dependencies" : [
         "org.graalvm.compiler.virtual.bench",
         "org.graalvm.compiler.microbenchmarks",
+        "org.graalvm.compiler.truffle.benchmark",
       ],
       "distDependencies" : [
         "GRAAL_TEST",
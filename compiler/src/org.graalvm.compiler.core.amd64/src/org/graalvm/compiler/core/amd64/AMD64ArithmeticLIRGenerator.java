@@ -53,6 +53,36 @@ import static org.graalvm.compiler.asm.amd64.AMD64Assembler.AMD64Shift.ROR;
 import static org.graalvm.compiler.asm.amd64.AMD64Assembler.AMD64Shift.SAR;
 import static org.graalvm.compiler.asm.amd64.AMD64Assembler.AMD64Shift.SHL;
 import static org.graalvm.compiler.asm.amd64.AMD64Assembler.AMD64Shift.SHR;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexMoveOp.VMOVDQU;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexMoveOp.VMOVUPD;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexMoveOp.VMOVUPS;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRMOp.VBROADCASTSD;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRMOp.VBROADCASTSS;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRMOp.VPBROADCASTB;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRMOp.VPBROADCASTD;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRMOp.VPBROADCASTQ;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRMOp.VPBROADCASTW;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VADDPD;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VADDPS;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VDIVPD;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VDIVPS;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VMULPD;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VMULPS;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VPADDB;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VPADDD;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VPADDQ;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VPADDW;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VPAND;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VPMULLD;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VPMULLW;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VPOR;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VPSUBB;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VPSUBD;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VPSUBQ;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VPSUBW;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VPXOR;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VSUBPD;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp.VSUBPS;
 import static org.graalvm.compiler.asm.amd64.AMD64BaseAssembler.OperandSize.BYTE;
 import static org.graalvm.compiler.asm.amd64.AMD64BaseAssembler.OperandSize.DWORD;
 import static org.graalvm.compiler.asm.amd64.AMD64BaseAssembler.OperandSize.PD;
@@ -84,7 +114,12 @@ import org.graalvm.compiler.asm.amd64.AMD64Assembler.AMD64RMIOp;
 import org.graalvm.compiler.asm.amd64.AMD64Assembler.AMD64RMOp;
 import org.graalvm.compiler.asm.amd64.AMD64Assembler.AMD64Shift;
 import org.graalvm.compiler.asm.amd64.AMD64Assembler.SSEOp;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.VexMoveOp;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRMOp;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp;
 import org.graalvm.compiler.asm.amd64.AMD64BaseAssembler.OperandSize;
+import org.graalvm.compiler.asm.amd64.AVXKind;
+import org.graalvm.compiler.asm.amd64.AVXKind.AVXSize;
 import org.graalvm.compiler.core.common.LIRKind;
 import org.graalvm.compiler.core.common.NumUtil;
 import org.graalvm.compiler.core.common.calc.FloatConvert;
@@ -106,6 +141,12 @@ import org.graalvm.compiler.lir.amd64.AMD64MulDivOp;
 import org.graalvm.compiler.lir.amd64.AMD64ShiftOp;
 import org.graalvm.compiler.lir.amd64.AMD64SignExtendOp;
 import org.graalvm.compiler.lir.amd64.AMD64Unary;
+import org.graalvm.compiler.lir.amd64.vector.AMD64VectorBinary.AVXBinaryOp;
+import org.graalvm.compiler.lir.amd64.vector.AMD64VectorMove.VectorLoadOp;
+import org.graalvm.compiler.lir.amd64.vector.AMD64VectorMove.VectorStoreOp;
+import org.graalvm.compiler.lir.amd64.vector.AMD64VectorShuffle.IntToVectorOp;
+import org.graalvm.compiler.lir.amd64.vector.AMD64VectorShuffle.LongToVectorOp;
+import org.graalvm.compiler.lir.amd64.vector.AMD64VectorUnary.AVXBroadcastOp;
 import org.graalvm.compiler.lir.gen.ArithmeticLIRGenerator;
 import org.graalvm.compiler.lir.gen.LIRGenerator;
 
@@ -296,6 +337,9 @@ public class AMD64ArithmeticLIRGenerator extends ArithmeticLIRGenerator implemen
 
     @Override
     public Variable emitAdd(LIRKind resultKind, Value a, Value b, boolean setFlags) {
+        if (isVector(a)) {
+            return emitVectorBinary(resultKind, selectVectorOp(a, VPADDB, VPADDW, VPADDD, VPADDQ, VADDPS, VADDPD), a, b);
+        }
         switch ((AMD64Kind) a.getPlatformKind()) {
             case DWORD:
                 if (isJavaConstant(b) && !setFlags) {
@@ -324,6 +368,9 @@ public class AMD64ArithmeticLIRGenerator extends ArithmeticLIRGenerator implemen
 
     @Override
     public Variable emitSub(LIRKind resultKind, Value a, Value b, boolean setFlags) {
+        if (isVector(a)) {
+            return emitVectorBinary(resultKind, selectVectorOp(a, VPSUBB, VPSUBW, VPSUBD, VPSUBQ, VSUBPS, VSUBPD), a, b);
+        }
         switch ((AMD64Kind) a.getPlatformKind()) {
             case DWORD:
                 return emitBinary(resultKind, SUB, DWORD, false, a, b, setFlags);
@@ -370,6 +417,9 @@ public class AMD64ArithmeticLIRGenerator extends ArithmeticLIRGenerator implemen
     @Override
     public Variable emitMul(Value a, Value b, boolean setFlags) {
         LIRKind resultKind = LIRKind.combine(a, b);
+        if (isVector(a)) {
+            return emitVectorBinary(resultKind, selectVectorOp(a, null, VPMULLW, VPMULLD, null, VMULPS, VMULPD), a, b);
+        }
         switch ((AMD64Kind) a.getPlatformKind()) {
             case DWORD:
                 return emitIMUL(DWORD, a, b);
@@ -503,6 +553,9 @@ public class AMD64ArithmeticLIRGenerator extends ArithmeticLIRGenerator implemen
     @Override
     public Value emitDiv(Value a, Value b, LIRFrameState state) {
         LIRKind resultKind = LIRKind.combine(a, b);
+        if (isVector(a)) {
+            return emitVectorBinary(resultKind, selectVectorOp(a, null, null, null, null, VDIVPS, VDIVPD), a, b);
+        }
         switch ((AMD64Kind) a.getPlatformKind()) {
             case DWORD:
                 AMD64MulDivOp op = emitIDIV(DWORD, a, b, state);
@@ -578,6 +631,9 @@ public class AMD64ArithmeticLIRGenerator extends ArithmeticLIRGenerator implemen
     @Override
     public Variable emitAnd(Value a, Value b) {
         LIRKind resultKind = LIRKind.combine(a, b);
+        if (isVector(a)) {
+            return emitVectorBinary(resultKind, VPAND, a, b);
+        }
         switch ((AMD64Kind) a.getPlatformKind()) {
             case DWORD:
                 return emitBinary(resultKind, AND, DWORD, true, a, b, false);
@@ -595,6 +651,9 @@ public class AMD64ArithmeticLIRGenerator extends ArithmeticLIRGenerator implemen
     @Override
     public Variable emitOr(Value a, Value b) {
         LIRKind resultKind = LIRKind.combine(a, b);
+        if (isVector(a)) {
+            return emitVectorBinary(resultKind, VPOR, a, b);
+        }
         switch ((AMD64Kind) a.getPlatformKind()) {
             case DWORD:
                 return emitBinary(resultKind, OR, DWORD, true, a, b, false);
@@ -612,6 +671,9 @@ public class AMD64ArithmeticLIRGenerator extends ArithmeticLIRGenerator implemen
     @Override
     public Variable emitXor(Value a, Value b) {
         LIRKind resultKind = LIRKind.combine(a, b);
+        if (isVector(a)) {
+            return emitVectorBinary(resultKind, VPXOR, a, b);
+        }
         switch ((AMD64Kind) a.getPlatformKind()) {
             case DWORD:
                 return emitBinary(resultKind, XOR, DWORD, true, a, b, false);
@@ -626,6 +688,104 @@ public class AMD64ArithmeticLIRGenerator extends ArithmeticLIRGenerator implemen
         }
     }
 
+    private static boolean isVector(Value a) {
+        return ((AMD64Kind) a.getPlatformKind()).getVectorLength() > 1;
+    }
+
+    private static VexRVMOp selectVectorOp(Value a, VexRVMOp byteOp, VexRVMOp wordOp, VexRVMOp dwordOp, VexRVMOp qwordOp, VexRVMOp singleOp, VexRVMOp doubleOp) {
+        AMD64Kind kind = (AMD64Kind) a.getPlatformKind();
+        VexRVMOp op;
+        switch (kind.getScalar()) {
+            case BYTE:
+                op = byteOp;
+                break;
+            case WORD:
+                op = wordOp;
+                break;
+            case DWORD:
+                op = dwordOp;
+                break;
+            case QWORD:
+                op = qwordOp;
+                break;
+            case SINGLE:
+                op = singleOp;
+                break;
+            case DOUBLE:
+                op = doubleOp;
+                break;
+            default:
+                op = null;
+        }
+        if (op == null) {
+            throw GraalError.shouldNotReachHere("unsupported vector operation on " + kind);
+        }
+        return op;
+    }
+
+    private Variable emitVectorBinary(LIRKind resultKind, VexRVMOp op, Value a, Value b) {
+        Variable result = getLIRGen().newVariable(resultKind);
+        getLIRGen().append(new AVXBinaryOp(op, AVXKind.getRegisterSize(a), result, asAllocatable(a), asAllocatable(b)));
+        return result;
+    }
+
+    private static VexMoveOp getVectorMoveOp(AMD64Kind kind) {
+        switch (kind.getScalar()) {
+            case SINGLE:
+                return VMOVUPS;
+            case DOUBLE:
+                return VMOVUPD;
+            default:
+                return VMOVDQU;
+        }
+    }
+
+    @Override
+    public Variable emitVectorBroadcast(LIRKind resultKind, Value input) {
+        AMD64Kind kind = (AMD64Kind) resultKind.getPlatformKind();
+        AVXSize size = AVXKind.getRegisterSize(kind);
+        VexRMOp op;
+        switch (kind.getScalar()) {
+            case BYTE:
+                op = VPBROADCASTB;
+                break;
+            case WORD:
+                op = VPBROADCASTW;
+                break;
+            case DWORD:
+                op = VPBROADCASTD;
+                break;
+            case QWORD:
+                op = VPBROADCASTQ;
+                break;
+            case SINGLE:
+                op = VBROADCASTSS;
+                break;
+            case DOUBLE:
+                // VBROADCASTSD has no 128-bit form
+                op = size == AVXSize.XMM ? VPBROADCASTQ : VBROADCASTSD;
+                break;
+            default:
+                throw GraalError.shouldNotReachHere("unexpected kind " + kind);
+        }
+        Variable result = getLIRGen().newVariable(resultKind);
+        Value source;
+        if (isJavaConstant(input) || kind.getScalar().isXMM()) {
+            // constants are broadcast from the data section, floating point values from their XMM register
+            source = isJavaConstant(input) ? input : asAllocatable(input);
+        } else if (kind.getScalar() == AMD64Kind.QWORD) {
+            Variable vector = getLIRGen().newVariable(LIRKind.value(AMD64Kind.V128_QWORD));
+            getLIRGen().append(new LongToVectorOp(vector, asAllocatable(input)));
+            source = vector;
+        } else {
+            Variable vector = getLIRGen().newVariable(LIRKind.value(AMD64Kind.V128_DWORD));
+            getLIRGen().append(new IntToVectorOp(vector, asAllocatable(input)));
+            source = vector;
+        }
+        getLIRGen().append(new AVXBroadcastOp(op, size, result, source));
+        return result;
+    }
+
     private Variable emitShift(AMD64Shift op, OperandSize size, Value a, Value b) {
         Variable result = getLIRGen().newVariable(LIRKind.combine(a, b).changeType(a.getPlatformKind()));
         AllocatableValue input = asAllocatable(a);
@@ -1034,7 +1194,12 @@ public class AMD64ArithmeticLIRGenerator extends ArithmeticLIRGenerator implemen
     public Variable emitLoad(LIRKind kind, Value address, LIRFrameState state) {
         AMD64AddressValue loadAddress = getAMD64LIRGen().asAddressValue(address);
         Variable result = getLIRGen().newVariable(getLIRGen().toRegisterKind(kind));
-        switch ((AMD64Kind) kind.getPlatformKind()) {
+        AMD64Kind loadKind = (AMD64Kind) kind.getPlatformKind();
+        if (loadKind.getVectorLength() > 1) {
+            getLIRGen().append(new VectorLoadOp(AVXKind.getRegisterSize(loadKind), getVectorMoveOp(loadKind), result, loadAddress, state));
+            return result;
+        }
+        switch (loadKind) {
             case BYTE:
                 getLIRGen().append(new AMD64Unary.MemoryOp(MOVSXB, DWORD, result, loadAddress, state));
                 break;
@@ -1125,6 +1290,10 @@ public class AMD64ArithmeticLIRGenerator extends ArithmeticLIRGenerator implemen
     }
 
     protected void emitStore(AMD64Kind kind, AMD64AddressValue address, AllocatableValue value, LIRFrameState state) {
+        if (kind.getVectorLength() > 1) {
+            getLIRGen().append(new VectorStoreOp(AVXKind.getRegisterSize(kind), getVectorMoveOp(kind), address, value, state));
+            return;
+        }
         switch (kind) {
             case BYTE:
                 getLIRGen().append(new AMD64BinaryConsumer.MemoryMROp(AMD64MROp.MOVB, BYTE, address, value, state));
@@ -65,8 +65,11 @@ import org.graalvm.compiler.lir.Variable;
 import org.graalvm.compiler.lir.amd64.AMD64AddressValue;
 import org.graalvm.compiler.lir.amd64.AMD64ArithmeticLIRGeneratorTool;
 import org.graalvm.compiler.lir.amd64.AMD64ArrayCompareToOp;
+import org.graalvm.compiler.lir.amd64.AMD64ArrayCompressOp;
 import org.graalvm.compiler.lir.amd64.AMD64ArrayEqualsOp;
+import org.graalvm.compiler.lir.amd64.AMD64ArrayHasNegativesOp;
 import org.graalvm.compiler.lir.amd64.AMD64ArrayIndexOfOp;
+import org.graalvm.compiler.lir.amd64.AMD64ArrayInflateOp;
 import org.graalvm.compiler.lir.amd64.AMD64Binary;
 import org.graalvm.compiler.lir.amd64.AMD64BinaryConsumer;
 import org.graalvm.compiler.lir.amd64.AMD64ByteSwapOp;
@@ -88,6 +91,7 @@ import org.graalvm.compiler.lir.amd64.AMD64Move.MembarOp;
 import org.graalvm.compiler.lir.amd64.AMD64Move.StackLeaOp;
 import org.graalvm.compiler.lir.amd64.AMD64PauseOp;
 import org.graalvm.compiler.lir.amd64.AMD64StringIndexOfOp;
+import org.graalvm.compiler.lir.amd64.AMD64VectorizedMismatchOp;
 import org.graalvm.compiler.lir.amd64.AMD64ZapRegistersOp;
 import org.graalvm.compiler.lir.amd64.AMD64ZapStackOp;
 import org.graalvm.compiler.lir.gen.LIRGenerationResult;
@@ -573,6 +577,32 @@ public abstract class AMD64LIRGenerator extends LIRGenerator {
         return result;
     }
 
+    @Override
+    public Variable emitArrayHasNegatives(Value arrayPointer, Value length) {
+        Variable result = newVariable(LIRKind.value(AMD64Kind.DWORD));
+        append(new AMD64ArrayHasNegativesOp(this, result, asAllocatable(arrayPointer), asAllocatable(length)));
+        return result;
+    }
+
+    @Override
+    public Variable emitArrayCompress(Value srcPointer, Value dstPointer, Value length) {
+        Variable result = newVariable(LIRKind.value(AMD64Kind.DWORD));
+        append(new AMD64ArrayCompressOp(this, result, asAllocatable(srcPointer), asAllocatable(dstPointer), asAllocatable(length)));
+        return result;
+    }
+
+    @Override
+    public void emitArrayInflate(Value srcPointer, Value dstPointer, Value length) {
+        append(new AMD64ArrayInflateOp(this, asAllocatable(srcPointer), asAllocatable(dstPointer), asAllocatable(length)));
+    }
+
+    @Override
+    public Variable emitVectorizedMismatch(Value arrayAPointer, Value arrayBPointer, Value length) {
+        Variable result = newVariable(LIRKind.value(AMD64Kind.QWORD));
+        append(new AMD64VectorizedMismatchOp(this, result, asAllocatable(arrayAPointer), asAllocatable(arrayBPointer), asAllocatable(length)));
+        return result;
+    }
+
     @Override
     public void emitReturn(JavaKind kind, Value input) {
         AllocatableValue operand = Value.ILLEGAL;
@@ -29,6 +29,7 @@ import org.graalvm.compiler.core.common.spi.LIRKindTool;
 import org.graalvm.compiler.debug.GraalError;
 
 import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.meta.JavaKind;
 
 public abstract class AMD64LIRKindTool implements LIRKindTool {
 
@@ -68,6 +69,41 @@ public abstract class AMD64LIRKindTool implements LIRKindTool {
         return LIRKind.value(AMD64Kind.QWORD);
     }
 
+    @Override
+    public LIRKind getVectorKind(JavaKind elementKind, int length) {
+        AMD64Kind scalar;
+        switch (elementKind) {
+            case Boolean:
+            case Byte:
+                scalar = AMD64Kind.BYTE;
+                break;
+            case Short:
+            case Char:
+                scalar = AMD64Kind.WORD;
+                break;
+            case Int:
+                scalar = AMD64Kind.DWORD;
+                break;
+            case Long:
+                scalar = AMD64Kind.QWORD;
+                break;
+            case Float:
+                scalar = AMD64Kind.SINGLE;
+                break;
+            case Double:
+                scalar = AMD64Kind.DOUBLE;
+                break;
+            default:
+                throw GraalError.shouldNotReachHere(elementKind.toString());
+        }
+        for (AMD64Kind kind : AMD64Kind.values()) {
+            if (kind.getScalar() == scalar && kind.getVectorLength() == length) {
+                return LIRKind.value(kind);
+            }
+        }
+        throw GraalError.shouldNotReachHere("no vector kind for " + length + " x " + elementKind);
+    }
+
     @Override
     public abstract LIRKind getNarrowOopKind();
 
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.amd64;
+
+import org.graalvm.compiler.loop.LoopPolicies;
+import org.graalvm.compiler.loop.phases.LoopVectorizationPhase;
+import org.graalvm.compiler.nodes.vector.VectorArithmeticNode.Operator;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.JavaKind;
+
+/**
+ * Vectorizes loops with 256-bit AVX2 instructions. AVX2 is required for integer arithmetic on
+ * 256-bit vectors and for broadcasting general purpose registers.
+ */
+public class AMD64LoopVectorizationPhase extends LoopVectorizationPhase {
+
+    public AMD64LoopVectorizationPhase(LoopPolicies policies, CanonicalizerPhase canonicalizer) {
+        super(policies, canonicalizer);
+    }
+
+    @Override
+    protected int getVectorSize(TargetDescription target) {
+        if (target.arch instanceof AMD64 && ((AMD64) target.arch).getFeatures().contains(AMD64.CPUFeature.AVX2)) {
+            return 32;
+        }
+        return 0;
+    }
+
+    @Override
+    protected boolean supportsOperation(TargetDescription target, Operator operator, JavaKind elementKind) {
+        switch (elementKind) {
+            case Byte:
+                return operator != Operator.MUL && operator != Operator.DIV;
+            case Short:
+            case Int:
+                return operator != Operator.DIV;
+            case Long:
+                // there is no packed 64-bit multiplication before AVX-512
+                return operator != Operator.MUL && operator != Operator.DIV;
+            case Float:
+            case Double:
+                return operator == Operator.ADD || operator == Operator.SUB || operator == Operator.MUL || operator == Operator.DIV;
+            default:
+                return false;
+        }
+    }
+}
@@ -44,6 +44,7 @@ import org.graalvm.compiler.lir.amd64.AMD64Move.LeaOp;
 import org.graalvm.compiler.lir.amd64.AMD64Move.MoveFromConstOp;
 import org.graalvm.compiler.lir.amd64.AMD64Move.MoveFromRegOp;
 import org.graalvm.compiler.lir.amd64.AMD64Move.MoveToRegOp;
+import org.graalvm.compiler.lir.amd64.vector.AMD64VectorMove;
 
 import jdk.vm.ci.amd64.AMD64Kind;
 import jdk.vm.ci.code.Register;
@@ -91,6 +92,12 @@ public abstract class AMD64MoveFactory extends AMD64MoveFactoryBase {
             return new LeaOp(dst, (AMD64AddressValue) src, AMD64Assembler.OperandSize.QWORD);
         } else if (isConstantValue(src)) {
             return createLoad(dst, asConstant(src));
+        } else if (((AMD64Kind) dst.getPlatformKind()).getVectorLength() > 1) {
+            if (isRegister(src) || isStackSlotValue(dst)) {
+                return new AMD64VectorMove.MoveFromRegOp(dst, (AllocatableValue) src);
+            } else {
+                return new AMD64VectorMove.MoveToRegOp(dst, (AllocatableValue) src);
+            }
         } else if (isRegister(src) || isStackSlotValue(dst)) {
             return new MoveFromRegOp((AMD64Kind) dst.getPlatformKind(), dst, (AllocatableValue) src);
         } else {
@@ -100,6 +107,9 @@ public abstract class AMD64MoveFactory extends AMD64MoveFactoryBase {
 
     @Override
     public AMD64LIRInstruction createStackMove(AllocatableValue result, AllocatableValue input, Register scratchRegister, AllocatableValue backupSlot) {
+        if (((AMD64Kind) result.getPlatformKind()).getVectorLength() > 1) {
+            return new AMD64VectorMove.StackMoveOp(result, input, scratchRegister, backupSlot);
+        }
         return new AMD64StackMove(result, input, scratchRegister, backupSlot);
     }
 
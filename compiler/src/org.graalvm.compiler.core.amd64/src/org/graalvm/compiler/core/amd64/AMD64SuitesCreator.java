@@ -24,12 +24,24 @@
  */
 package org.graalvm.compiler.core.amd64;
 
+import static org.graalvm.compiler.core.common.GraalOptions.ImmutableCode;
+import static org.graalvm.compiler.core.common.GraalOptions.OptLoopTransform;
+import static org.graalvm.compiler.core.common.GraalOptions.VectorizeLoops;
+
+import java.util.ListIterator;
+
 import org.graalvm.compiler.java.DefaultSuitesCreator;
 import org.graalvm.compiler.lir.amd64.phases.StackMoveOptimizationPhase;
 import org.graalvm.compiler.lir.phases.LIRSuites;
+import org.graalvm.compiler.loop.DefaultLoopPolicies;
 import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderConfiguration.Plugins;
 import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.BasePhase;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.common.FrameStateAssignmentPhase;
 import org.graalvm.compiler.phases.tiers.CompilerConfiguration;
+import org.graalvm.compiler.phases.tiers.MidTierContext;
+import org.graalvm.compiler.phases.tiers.Suites;
 
 public class AMD64SuitesCreator extends DefaultSuitesCreator {
 
@@ -37,6 +49,23 @@ public class AMD64SuitesCreator extends DefaultSuitesCreator {
         super(compilerConfiguration, plugins);
     }
 
+    @Override
+    public Suites createSuites(OptionValues options) {
+        Suites suites = super.createSuites(options);
+        if (OptLoopTransform.getValue(options) && VectorizeLoops.getValue(options)) {
+            // Vectorize before partial unrolling so that simple loops get widened first
+            ListIterator<BasePhase<? super MidTierContext>> position = suites.getMidTier().findPhase(FrameStateAssignmentPhase.class);
+            if (position != null) {
+                CanonicalizerPhase canonicalizer = new CanonicalizerPhase();
+                if (ImmutableCode.getValue(options)) {
+                    canonicalizer.disableReadCanonicalization();
+                }
+                position.add(new AMD64LoopVectorizationPhase(new DefaultLoopPolicies(), canonicalizer));
+            }
+        }
+        return suites;
+    }
+
     @Override
     public LIRSuites createLIRSuites(OptionValues options) {
         LIRSuites lirSuites = super.createLIRSuites(options);
@@ -86,6 +86,15 @@ public final class GraalOptions {
     @Option(help = "", type = OptionType.Expert)
     public static final OptionKey<Integer> MaximumEscapeAnalysisArrayLength = new OptionKey<>(32);
 
+    @Option(help = "Pass copies of virtual objects to calls which neither let the argument escape nor modify it, instead of materializing the object.", type = OptionType.Debug)
+    public static final OptionKey<Boolean> InterproceduralEscapeAnalysis = new OptionKey<>(false);
+
+    @Option(help = "Maximum call depth analyzed when computing whether a method lets its arguments escape.", type = OptionType.Expert)
+    public static final OptionKey<Integer> EscapeSummaryMaxDepth = new OptionKey<>(3);
+
+    @Option(help = "Maximum bytecode size of methods analyzed when computing whether a method lets its arguments escape.", type = OptionType.Expert)
+    public static final OptionKey<Integer> EscapeSummaryMaxBytecodeSize = new OptionKey<>(300);
+
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Boolean> PEAInliningHints = new OptionKey<>(false);
 
@@ -113,6 +122,15 @@ public final class GraalOptions {
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Boolean> PartialUnroll = new OptionKey<>(true);
 
+    @Option(help = "Hoist guards that are evaluated in every loop iteration out of the loop as speculative predicates.", type = OptionType.Debug)
+    public static final OptionKey<Boolean> LoopPredication = new OptionKey<>(true);
+
+    @Option(help = "Split counted loops with array range checks into pre/main/post loops and remove the checks from the main loop.", type = OptionType.Debug)
+    public static final OptionKey<Boolean> RangeCheckElimination = new OptionKey<>(true);
+
+    @Option(help = "Widen the main loop of simple counted array loops to operate on vector registers (experimental).", type = OptionType.Debug)
+    public static final OptionKey<Boolean> VectorizeLoops = new OptionKey<>(false);
+
     @Option(help = "", type = OptionType.Expert)
     public static final OptionKey<Float> MinimumPeelProbability = new OptionKey<>(0.35f);
 
@@ -187,6 +205,12 @@ public final class GraalOptions {
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Boolean> GenLoopSafepoints = new OptionKey<>(true);
 
+    @Option(help = "Nest counted loops into an outer loop which polls for safepoints instead of removing their safepoint polls entirely.", type = OptionType.Debug)
+    public static final OptionKey<Boolean> StripMineCountedLoops = new OptionKey<>(true);
+
+    @Option(help = "Maximum number of iterations a strip mined loop runs between two safepoint polls.", type = OptionType.Expert)
+    public static final OptionKey<Integer> StripMiningIterations = new OptionKey<>(1000);
+
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Boolean> UseTypeCheckHints = new OptionKey<>(true);
 
@@ -25,6 +25,9 @@
 package org.graalvm.compiler.core.common.spi;
 
 import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.debug.GraalError;
+
+import jdk.vm.ci.meta.JavaKind;
 
 /**
  * This interface can be used to access platform and VM specific kinds.
@@ -60,4 +63,12 @@ public interface LIRKindTool {
      * Gets the platform specific kind used to represent compressed metaspace pointers.
      */
     LIRKind getNarrowPointerKind();
+
+    /**
+     * Get an architecture specific kind for a vector of {@code length} elements of
+     * {@code elementKind}.
+     */
+    default LIRKind getVectorKind(JavaKind elementKind, int length) {
+        throw GraalError.unimplemented("vector kinds are not supported on this platform");
+    }
 }
@@ -25,9 +25,12 @@
 package org.graalvm.compiler.core.test;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
 
 import org.graalvm.collections.EconomicMap;
 import org.graalvm.compiler.debug.DebugOptions;
@@ -64,6 +67,60 @@ public class DumpPathTest extends GraalCompilerTest {
         scrubDirectory(dumpDirectoryPath);
     }
 
+    @Test
+    public void testAsyncDump() throws IOException, InterruptedException {
+        Path dumpDirectoryPath = Files.createTempDirectory("DumpPathTest");
+        EconomicMap<OptionKey<?>, Object> overrides = OptionValues.newOptionMap();
+        overrides.put(DebugOptions.DumpPath, dumpDirectoryPath.toString());
+        overrides.put(DebugOptions.DumpAsync, true);
+        overrides.put(DebugOptions.Dump, "*");
+        OptionValues options = new OptionValues(getInitialOptions(), overrides);
+
+        test(options, "snippet");
+        // The buffered graphs are handed to the writer thread when the debug context is closed.
+        getDebugContext(options).close();
+
+        String magic = null;
+        for (int i = 0; i < 100 && magic == null; i++) {
+            magic = readCompressedDumpMagic(dumpDirectoryPath);
+            if (magic == null) {
+                Thread.sleep(100);
+            }
+        }
+        assertTrue("BIGV".equals(magic), "no compressed graph dump found in %s", dumpDirectoryPath);
+
+        scrubDirectory(dumpDirectoryPath);
+    }
+
+    /**
+     * Reads the first bytes of a complete compressed graph dump in {@code directoryPath}.
+     *
+     * @return {@code null} if there is no such file yet
+     */
+    private static String readCompressedDumpMagic(Path directoryPath) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directoryPath, "*.bgv.gz")) {
+            for (Path filePath : stream) {
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(filePath))) {
+                    byte[] magic = new byte[4];
+                    int n = 0;
+                    while (n < magic.length) {
+                        int read = in.read(magic, n, magic.length - n);
+                        if (read < 0) {
+                            break;
+                        }
+                        n += read;
+                    }
+                    if (n == magic.length) {
+                        return new String(magic, StandardCharsets.US_ASCII);
+                    }
+                } catch (IOException e) {
+                    // the file is still being written
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Check that the given directory contains file or directory names with all the given
      * extensions.
@@ -28,18 +28,25 @@ import jdk.vm.ci.meta.ResolvedJavaMethod;
 
 import org.junit.Test;
 import org.graalvm.compiler.loop.DefaultLoopPolicies;
+import org.graalvm.compiler.loop.LoopEx;
 import org.graalvm.compiler.loop.phases.LoopFullUnrollPhase;
+import org.graalvm.compiler.loop.phases.LoopPartialUnrollPhase;
+import org.graalvm.compiler.nodes.LoopBeginNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
 import org.graalvm.compiler.nodes.java.MonitorExitNode;
 import org.graalvm.compiler.nodes.java.RawMonitorEnterNode;
 import org.graalvm.compiler.nodes.spi.LoweringTool;
+import org.graalvm.compiler.options.OptionValues;
 import org.graalvm.compiler.phases.common.CanonicalizerPhase;
 import org.graalvm.compiler.phases.common.DeadCodeEliminationPhase;
+import org.graalvm.compiler.phases.common.FrameStateAssignmentPhase;
+import org.graalvm.compiler.phases.common.GuardLoweringPhase;
 import org.graalvm.compiler.phases.common.LockEliminationPhase;
 import org.graalvm.compiler.phases.common.LoweringPhase;
 import org.graalvm.compiler.phases.common.inlining.InliningPhase;
 import org.graalvm.compiler.phases.tiers.HighTierContext;
+import org.graalvm.compiler.phases.tiers.MidTierContext;
 import org.graalvm.compiler.phases.tiers.PhaseContext;
 import org.graalvm.compiler.virtual.phases.ea.PartialEscapePhase;
 
@@ -115,9 +122,116 @@ public class LockEliminationTest extends GraalCompilerTest {
         assertDeepEquals(1, graph.getNodes().filter(MonitorExitNode.class).count());
     }
 
+    public static void testInterveningSnippet(A x, A y) {
+        synchronized (x) {
+            field1 = x.value;
+        }
+        int value = y.value;
+        synchronized (x) {
+            field2 = value;
+        }
+    }
+
+    @Test
+    public void testIntervening() {
+        test("testInterveningSnippet", new A(), new A());
+
+        StructuredGraph graph = getGraph("testInterveningSnippet", false);
+        new LockEliminationPhase().apply(graph);
+        assertDeepEquals(1, graph.getNodes().filter(RawMonitorEnterNode.class).count());
+        assertDeepEquals(1, graph.getNodes().filter(MonitorExitNode.class).count());
+    }
+
+    public static void testInterveningStoreSnippet(A x) {
+        synchronized (x) {
+            field1 = x.value;
+        }
+        // the store has a frame state which does not hold the lock
+        field2 = 42;
+        synchronized (x) {
+            field1 = x.value;
+        }
+    }
+
+    @Test
+    public void testInterveningStore() {
+        test("testInterveningStoreSnippet", new A());
+
+        StructuredGraph graph = getGraph("testInterveningStoreSnippet", false);
+        new LockEliminationPhase().apply(graph);
+        assertDeepEquals(2, graph.getNodes().filter(RawMonitorEnterNode.class).count());
+        assertDeepEquals(2, graph.getNodes().filter(MonitorExitNode.class).count());
+    }
+
+    public static void testManyRegionsSnippet(A x) {
+        for (int i = 0; i < 10; i++) {
+            synchronized (x) {
+                field1 += x.value;
+            }
+        }
+    }
+
+    @Test
+    public void testManyRegions() {
+        OptionValues options = new OptionValues(getInitialOptions(), LockEliminationPhase.Options.LockCoarseningMaxRegions, 4);
+        StructuredGraph graph = getGraph("testManyRegionsSnippet", false, options);
+        CanonicalizerPhase canonicalizer = new CanonicalizerPhase();
+        new LoopFullUnrollPhase(canonicalizer, new DefaultLoopPolicies()).apply(graph, getDefaultHighTierContext());
+        new LockEliminationPhase().apply(graph);
+        // ten unrolled regions are coarsened into regions of at most four iterations
+        int enters = graph.getNodes().filter(RawMonitorEnterNode.class).count();
+        assertTrue("lock regions must be coarsened", enters < 10);
+        assertTrue("lock regions must be bounded", enters >= 3);
+        assertDeepEquals(enters, graph.getNodes().filter(MonitorExitNode.class).count());
+    }
+
+    public static void testPartialUnrollSnippet(A x, int n) {
+        for (int i = 0; i < n; i++) {
+            synchronized (x) {
+                field1 += x.value;
+            }
+        }
+    }
+
+    /**
+     * Partially unrolls the main loop once, regardless of its profile.
+     */
+    private static final class PartialUnrollOncePolicies extends DefaultLoopPolicies {
+        @Override
+        public boolean shouldPartiallyUnroll(LoopEx loop) {
+            return loop.loopBegin().getUnrollFactor() == 1;
+        }
+    }
+
+    @Test
+    public void testPartialUnroll() {
+        test("testPartialUnrollSnippet", new A(), 10);
+
+        StructuredGraph graph = getGraph("testPartialUnrollSnippet", false);
+        MidTierContext context = getDefaultMidTierContext();
+        CanonicalizerPhase canonicalizer = new CanonicalizerPhase();
+        new GuardLoweringPhase().apply(graph, context);
+        new LoweringPhase(canonicalizer, LoweringTool.StandardLoweringStage.MID_TIER).apply(graph, context);
+        new FrameStateAssignmentPhase().apply(graph);
+        new LoopPartialUnrollPhase(new PartialUnrollOncePolicies(), canonicalizer).apply(graph, context);
+        assertTrue("main loop must be unrolled", graph.getNodes(LoopBeginNode.TYPE).filter(l -> ((LoopBeginNode) l).getUnrollFactor() == 2).isNotEmpty());
+
+        // the pre, main and post loops, with two lock regions in the body of the main loop
+        int enters = graph.getNodes().filter(RawMonitorEnterNode.class).count();
+        assertDeepEquals(enters, graph.getNodes().filter(MonitorExitNode.class).count());
+        new LockEliminationPhase().apply(graph);
+        // the two regions of the unrolled body are coarsened into one
+        assertDeepEquals(enters - 1, graph.getNodes().filter(RawMonitorEnterNode.class).count());
+        assertDeepEquals(enters - 1, graph.getNodes().filter(MonitorExitNode.class).count());
+    }
+
     private StructuredGraph getGraph(String snippet, boolean doEscapeAnalysis) {
+        return getGraph(snippet, doEscapeAnalysis, getInitialOptions());
+    }
+
+    private StructuredGraph getGraph(String snippet, boolean doEscapeAnalysis, OptionValues options) {
         ResolvedJavaMethod method = getResolvedJavaMethod(snippet);
-        StructuredGraph graph = parseEager(method, AllowAssumptions.YES);
+        StructuredGraph graph = parseEager(method, AllowAssumptions.YES, options);
         HighTierContext context = getDefaultHighTierContext();
         CanonicalizerPhase canonicalizer = new CanonicalizerPhase();
         canonicalizer.apply(graph, context);
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test.ea;
+
+import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.virtual.CommitAllocationNode;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.tiers.HighTierContext;
+import org.graalvm.compiler.virtual.phases.ea.PartialEscapePhase;
+import org.junit.Test;
+
+public class InterproceduralEscapeAnalysisTest extends GraalCompilerTest {
+
+    static int[] stored;
+
+    @BytecodeParserNeverInline
+    static int sum(int[] values) {
+        int sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    @BytecodeParserNeverInline
+    static int increment(int[] values) {
+        return ++values[0];
+    }
+
+    @BytecodeParserNeverInline
+    static int store(int[] values) {
+        stored = values;
+        return values.length;
+    }
+
+    @BytecodeParserNeverInline
+    static int sumIndirect(int[] values) {
+        return sum(values) * 2;
+    }
+
+    public static int readOnlySnippet(int a, int b) {
+        int[] values = new int[]{a, b};
+        return sum(values) + values[0];
+    }
+
+    public static int modifiedSnippet(int a, int b) {
+        int[] values = new int[]{a, b};
+        return increment(values) + values[0];
+    }
+
+    public static int escapingSnippet(int a, int b) {
+        int[] values = new int[]{a, b};
+        return store(values) + values[0];
+    }
+
+    public static int indirectSnippet(int a, int b) {
+        int[] values = new int[]{a, b};
+        return sumIndirect(values) + sum(values) + values[1];
+    }
+
+    public static int escapingLaterSnippet(int a, int b) {
+        int[] values = new int[]{a, b};
+        return sum(values) + store(values) + values[0];
+    }
+
+    public static int loopSnippet(int a, int b, int n) {
+        int[] values = new int[]{a, b};
+        int result = 0;
+        for (int i = 0; i < n; i++) {
+            result += sum(values);
+        }
+        return result + sum(values) + values[0];
+    }
+
+    public static int loopAllocationSnippet(int a, int b, int n) {
+        int result = 0;
+        for (int i = 0; i < n; i++) {
+            int[] values = new int[]{a + i, b};
+            result += sum(values) + values[0];
+        }
+        return result;
+    }
+
+    private StructuredGraph processMethod(String snippet, boolean interprocedural) {
+        OptionValues options = new OptionValues(getInitialOptions(), GraalOptions.InterproceduralEscapeAnalysis, interprocedural);
+        StructuredGraph graph = parseEager(snippet, AllowAssumptions.NO, options);
+        HighTierContext context = getDefaultHighTierContext();
+        new PartialEscapePhase(false, false, new CanonicalizerPhase(), null, graph.getOptions()).apply(graph, context);
+        return graph;
+    }
+
+    private void testCopied(String snippet, int expectedCommits) {
+        StructuredGraph graph = processMethod(snippet, true);
+        assertDeepEquals(0, graph.getNodes().filter(LoadIndexedNode.class).count());
+        assertDeepEquals(expectedCommits, graph.getNodes().filter(CommitAllocationNode.class).count());
+        graph = processMethod(snippet, false);
+        assertDeepEquals(1, graph.getNodes().filter(LoadIndexedNode.class).count());
+        test(snippet, 3, 4);
+    }
+
+    private void testMaterialized(String snippet) {
+        StructuredGraph graph = processMethod(snippet, true);
+        assertDeepEquals(1, graph.getNodes().filter(LoadIndexedNode.class).count());
+        assertDeepEquals(1, graph.getNodes().filter(CommitAllocationNode.class).count());
+        test(snippet, 3, 4);
+    }
+
+    /**
+     * Checks that the snippet allocates exactly once, either in the loop or before it.
+     */
+    private void testLoop(String snippet, boolean allocationInLoop) {
+        StructuredGraph graph = processMethod(snippet, true);
+        assertDeepEquals(1, graph.getNodes().filter(CommitAllocationNode.class).count());
+        ControlFlowGraph cfg = ControlFlowGraph.compute(graph, true, true, false, false);
+        CommitAllocationNode commit = graph.getNodes().filter(CommitAllocationNode.class).first();
+        assertDeepEquals(allocationInLoop, cfg.blockFor(commit).getLoop() != null);
+        test(snippet, 3, 4, 0);
+        test(snippet, 3, 4, 10);
+    }
+
+    @Test
+    public void testReadOnly() {
+        testCopied("readOnlySnippet", 1);
+    }
+
+    @Test
+    public void testIndirect() {
+        testCopied("indirectSnippet", 1);
+    }
+
+    @Test
+    public void testModified() {
+        testMaterialized("modifiedSnippet");
+    }
+
+    @Test
+    public void testEscaping() {
+        testMaterialized("escapingSnippet");
+    }
+
+    @Test
+    public void testEscapingLater() {
+        testMaterialized("escapingLaterSnippet");
+    }
+
+    @Test
+    public void testCallsInAndAfterLoop() {
+        testLoop("loopSnippet", false);
+    }
+
+    @Test
+    public void testAllocationInLoop() {
+        testLoop("loopAllocationSnippet", true);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test.inlining;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.Invoke;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.OptimisticOptimizations;
+import org.graalvm.compiler.phases.PhaseSuite;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.common.inlining.InlineeGraphCache;
+import org.graalvm.compiler.phases.common.inlining.InliningPhase;
+import org.graalvm.compiler.phases.tiers.HighTierContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+public class InlineeGraphCacheTest extends GraalCompilerTest {
+
+    private static int callee(int a, int b) {
+        int result = 0;
+        for (int i = 0; i < a; i++) {
+            result += i * b;
+        }
+        return result;
+    }
+
+    public static int callerSnippet1(int a) {
+        return callee(a, 3);
+    }
+
+    public static int callerSnippet2(int a, int b) {
+        return callee(a, b) + callee(b, a);
+    }
+
+    private StructuredGraph inline(String snippet, OptionValues options, HighTierContext context) {
+        StructuredGraph graph = parseEager(builder(getResolvedJavaMethod(snippet), AllowAssumptions.NO, options).useProfilingInfo(false));
+        new InliningPhase(new CanonicalizerPhase()).apply(graph, context);
+        new CanonicalizerPhase().apply(graph, context);
+        return graph;
+    }
+
+    private StructuredGraph parseEager(StructuredGraph.Builder builder) {
+        return parse(builder, getEagerGraphBuilderSuite());
+    }
+
+    @Test
+    public void testReuse() {
+        OptionValues options = new OptionValues(getInitialOptions(), InlineeGraphCache.Options.UseInlineeGraphCache, true);
+        PhaseSuite<HighTierContext> graphBuilderSuite = getDefaultGraphBuilderSuite();
+        HighTierContext context = new HighTierContext(getProviders(), graphBuilderSuite, OptimisticOptimizations.ALL);
+        ResolvedJavaMethod callee = getResolvedJavaMethod("callee");
+
+        StructuredGraph graph1 = inline("callerSnippet1", options, context);
+        assertNotInGraph(graph1, Invoke.class);
+        StructuredGraph cached1 = InlineeGraphCache.get(callee, context, graph1, graph1.trackNodeSourcePosition());
+        Assert.assertNotNull("graph of inlined method should have been cached", cached1);
+
+        StructuredGraph cached2 = InlineeGraphCache.get(callee, context, graph1, graph1.trackNodeSourcePosition());
+        Assert.assertNotSame("cache must hand out private copies", cached1, cached2);
+        Assert.assertFalse(cached1.isFrozen());
+        Assert.assertEquals(cached1.getNodeCount(), cached2.getNodeCount());
+
+        // inlining from the cache must give the same result as parsing
+        StructuredGraph graph2 = inline("callerSnippet2", options, context);
+        assertNotInGraph(graph2, Invoke.class);
+        OptionValues uncachedOptions = new OptionValues(getInitialOptions(), InlineeGraphCache.Options.UseInlineeGraphCache, false);
+        StructuredGraph expected = inline("callerSnippet2", uncachedOptions, new HighTierContext(getProviders(), getDefaultGraphBuilderSuite(), OptimisticOptimizations.ALL));
+        assertEquals(expected, graph2);
+    }
+
+    @Test
+    public void testDisabled() {
+        OptionValues options = new OptionValues(getInitialOptions(), InlineeGraphCache.Options.UseInlineeGraphCache, false);
+        HighTierContext context = new HighTierContext(getProviders(), getDefaultGraphBuilderSuite(), OptimisticOptimizations.ALL);
+        StructuredGraph graph = inline("callerSnippet1", options, context);
+        Assert.assertNull(InlineeGraphCache.get(getResolvedJavaMethod("callee"), context, graph, graph.trackNodeSourcePosition()));
+    }
+
+    @Test
+    public void testOtherGraphBuilderSuite() {
+        OptionValues options = new OptionValues(getInitialOptions(), InlineeGraphCache.Options.UseInlineeGraphCache, true);
+        HighTierContext context = new HighTierContext(getProviders(), getDefaultGraphBuilderSuite(), OptimisticOptimizations.ALL);
+        StructuredGraph graph = inline("callerSnippet1", options, context);
+        HighTierContext otherContext = new HighTierContext(getProviders(), getDefaultGraphBuilderSuite(), OptimisticOptimizations.ALL);
+        Assert.assertNull(InlineeGraphCache.get(getResolvedJavaMethod("callee"), otherContext, graph, graph.trackNodeSourcePosition()));
+    }
+}
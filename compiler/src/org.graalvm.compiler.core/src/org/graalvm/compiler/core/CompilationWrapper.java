@@ -31,7 +31,9 @@ import static org.graalvm.compiler.core.GraalCompilerOptions.ExitVMOnException;
 import static org.graalvm.compiler.core.GraalCompilerOptions.MaxCompilationProblemsPerAction;
 import static org.graalvm.compiler.debug.DebugContext.VERBOSE_LEVEL;
 import static org.graalvm.compiler.debug.DebugOptions.Dump;
+import static org.graalvm.compiler.debug.DebugOptions.DumpAsync;
 import static org.graalvm.compiler.debug.DebugOptions.DumpPath;
+import static org.graalvm.compiler.debug.DebugOptions.DumpSampleRate;
 import static org.graalvm.compiler.debug.DebugOptions.MethodFilter;
 
 import java.io.ByteArrayOutputStream;
@@ -264,6 +266,8 @@ public abstract class CompilationWrapper<T> {
 
                 OptionValues retryOptions = new OptionValues(initialOptions,
                                 Dump, ":" + VERBOSE_LEVEL,
+                                DumpSampleRate, 1,
+                                DumpAsync, false,
                                 MethodFilter, null,
                                 DumpPath, dumpPath.getPath());
 
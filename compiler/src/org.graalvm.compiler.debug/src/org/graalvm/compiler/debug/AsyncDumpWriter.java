@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.debug;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.graalvm.compiler.options.OptionValues;
+
+/**
+ * Compresses and writes the dumps buffered by {@link IgvDumpChannel}s in {@link DebugOptions#DumpAsync}
+ * mode on a single background thread. The number of pending dumps is bounded by
+ * {@link DebugOptions#DumpAsyncQueueSize}; a dump submitted while the queue is full is dropped so
+ * that the compiler threads never wait for the file system.
+ */
+final class AsyncDumpWriter implements Runnable {
+
+    private static AsyncDumpWriter instance;
+
+    static synchronized AsyncDumpWriter getInstance(OptionValues options) {
+        if (instance == null) {
+            instance = new AsyncDumpWriter(DebugOptions.DumpAsyncQueueSize.getValue(options));
+            Thread thread = new Thread(instance, "GraalDumpWriter");
+            thread.setDaemon(true);
+            thread.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::drain, "GraalDumpWriterShutdown"));
+        }
+        return instance;
+    }
+
+    private static final class Dump {
+        final Supplier<Path> pathProvider;
+        final byte[] data;
+        final int length;
+
+        Dump(Supplier<Path> pathProvider, byte[] data, int length) {
+            this.pathProvider = pathProvider;
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+    private final BlockingQueue<Dump> queue;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private AsyncDumpWriter(int queueSize) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+    }
+
+    /**
+     * Queues {@code length} bytes of {@code data} to be written to the file denoted by
+     * {@code pathProvider}. The path is only requested once the dump is written.
+     *
+     * @return {@code false} if the dump was dropped
+     */
+    boolean submit(Supplier<Path> pathProvider, byte[] data, int length) {
+        if (queue.offer(new Dump(pathProvider, data, length))) {
+            return true;
+        }
+        drop("the dump queue is full");
+        return false;
+    }
+
+    void drop(String reason) {
+        if (dropped.getAndIncrement() == 0) {
+            TTY.println("Dropping graph dumps because %s (see DumpAsyncQueueSize and DumpAsyncMaxBufferSize)", reason);
+        }
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                write(queue.take());
+            } catch (InterruptedException e) {
+                // keep writing until the VM exits
+            }
+        }
+    }
+
+    /**
+     * Writes the pending dumps on VM shutdown. A dump that is being written by the background
+     * thread is completed first since {@link #write} is synchronized.
+     */
+    private void drain() {
+        Dump dump;
+        while ((dump = queue.poll()) != null) {
+            write(dump);
+        }
+        long count = dropped.get();
+        if (count != 0) {
+            TTY.println("Dropped %d graph dumps", count);
+        }
+    }
+
+    private synchronized void write(Dump dump) {
+        Path path = null;
+        try {
+            path = dump.pathProvider.get();
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(path))) {
+                out.write(dump.data, 0, dump.length);
+            }
+        } catch (IOException | RuntimeException e) {
+            TTY.println("Failed to write graph dump to %s: %s", path, e);
+        }
+    }
+}
@@ -62,11 +62,18 @@ final class DebugConfigImpl implements DebugConfig {
     DebugConfigImpl(OptionValues options, PrintStream output,
                     List<DebugDumpHandler> dumpHandlers,
                     List<DebugVerifyHandler> verifyHandlers) {
+        this(options, output, DebugOptions.Dump.getValue(options), dumpHandlers, verifyHandlers);
+    }
+
+    DebugConfigImpl(OptionValues options, PrintStream output,
+                    String dumpFilter,
+                    List<DebugDumpHandler> dumpHandlers,
+                    List<DebugVerifyHandler> verifyHandlers) {
         this(options, DebugOptions.Log.getValue(options),
                         DebugOptions.Count.getValue(options),
                         DebugOptions.TrackMemUse.getValue(options),
                         DebugOptions.Time.getValue(options),
-                        DebugOptions.Dump.getValue(options),
+                        dumpFilter,
                         getVerifyOptionValue(options),
                         DebugOptions.MethodFilter.getValue(options),
                         output, dumpHandlers, verifyHandlers);
@@ -29,9 +29,11 @@ import static java.util.FormattableFlags.UPPERCASE;
 import static org.graalvm.compiler.debug.DebugOptions.Count;
 import static org.graalvm.compiler.debug.DebugOptions.Counters;
 import static org.graalvm.compiler.debug.DebugOptions.Dump;
+import static org.graalvm.compiler.debug.DebugOptions.DumpAsync;
 import static org.graalvm.compiler.debug.DebugOptions.DumpOnError;
 import static org.graalvm.compiler.debug.DebugOptions.DumpOnPhaseChange;
 import static org.graalvm.compiler.debug.DebugOptions.DumpPath;
+import static org.graalvm.compiler.debug.DebugOptions.DumpSampleRate;
 import static org.graalvm.compiler.debug.DebugOptions.ListMetrics;
 import static org.graalvm.compiler.debug.DebugOptions.Log;
 import static org.graalvm.compiler.debug.DebugOptions.MemUseTrackers;
@@ -57,6 +59,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.graalvm.collections.EconomicMap;
 import org.graalvm.collections.EconomicSet;
@@ -124,7 +127,8 @@ public final class DebugContext implements AutoCloseable {
             return builder.build(parentOutput);
         } else {
             if (sharedChannel == null) {
-                sharedChannel = new IgvDumpChannel(() -> getDumpPath(".bgv", false), immutable.options);
+                String extension = DumpAsync.getValue(immutable.options) ? ".bgv.gz" : ".bgv";
+                sharedChannel = new IgvDumpChannel(() -> getDumpPath(extension, false), immutable.options);
             }
             final GraphOutput<G, M> output = builder.build(sharedChannel);
             parentOutput = output;
@@ -429,7 +433,8 @@ public final class DebugContext implements AutoCloseable {
                     }
                 }
             }
-            currentConfig = new DebugConfigImpl(options, logStream, dumpHandlers, verifyHandlers);
+            String dumpFilter = isSampledForDumping(description, options) ? Dump.getValue(options) : null;
+            currentConfig = new DebugConfigImpl(options, logStream, dumpFilter, dumpHandlers, verifyHandlers);
             currentScope = new ScopeImpl(this, Thread.currentThread());
             currentScope.updateFlags(currentConfig);
             metricsEnabled = true;
@@ -438,6 +443,20 @@ public final class DebugContext implements AutoCloseable {
         }
     }
 
+    private static final AtomicLong dumpSampleCounter = new AtomicLong();
+
+    /**
+     * Determines if the {@link DebugOptions#Dump} option applies to the computation described by
+     * {@code description} given the {@link DebugOptions#DumpSampleRate}.
+     */
+    private static boolean isSampledForDumping(Description description, OptionValues options) {
+        int rate = DumpSampleRate.getValue(options);
+        if (rate <= 1 || description == null || Dump.getValue(options) == null) {
+            return true;
+        }
+        return dumpSampleCounter.getAndIncrement() % rate == 0;
+    }
+
     public Path getDumpPath(String extension, boolean directory) {
         try {
             String id = description == null ? null : description.identifier;
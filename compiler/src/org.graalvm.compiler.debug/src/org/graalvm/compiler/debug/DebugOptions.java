@@ -133,6 +133,19 @@ public class DebugOptions {
     public static final OptionKey<Boolean> PrintGraph = new OptionKey<>(true);
     @Option(help = "Print graphs to files instead of sending them over the network.", type = OptionType.Debug)
     public static final OptionKey<Boolean> PrintGraphFile = new OptionKey<>(false);
+    @Option(help = "Write binary graph dumps to files from a background thread instead of the compiler thread. " +
+                   "The graphs of a compilation are buffered in memory and written as a single gzip compressed .bgv.gz file " +
+                   "once the compilation is complete. This implies PrintGraphFile.", type = OptionType.Debug)
+    public static final OptionKey<Boolean> DumpAsync = new OptionKey<>(false);
+    @Option(help = "Maximum number of compilation dumps waiting to be written by the DumpAsync writer thread. " +
+                   "A dump that does not fit in the queue is dropped.", type = OptionType.Debug)
+    public static final OptionKey<Integer> DumpAsyncQueueSize = new OptionKey<>(64);
+    @Option(help = "Maximum size in bytes of the graphs buffered for a single compilation with DumpAsync. " +
+                   "The dump of a compilation exceeding this size is dropped.", type = OptionType.Debug)
+    public static final OptionKey<Integer> DumpAsyncMaxBufferSize = new OptionKey<>(64 * 1024 * 1024);
+    @Option(help = "Only enable the Dump option for every Nth compilation. " +
+                   "Use MethodFilter to select the dumped compilations by method instead.", type = OptionType.Debug)
+    public static final OptionKey<Integer> DumpSampleRate = new OptionKey<>(1);
 
     @Option(help = "Host part of the address to which graphs are dumped.", type = OptionType.Debug)
     public static final OptionKey<String> PrintGraphHost = new OptionKey<>("127.0.0.1");
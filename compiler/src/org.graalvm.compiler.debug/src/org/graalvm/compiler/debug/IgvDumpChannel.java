@@ -34,6 +34,7 @@ import java.nio.channels.SocketChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.function.Supplier;
 import static org.graalvm.compiler.debug.DebugOptions.PrintBinaryGraphPort;
 import static org.graalvm.compiler.debug.DebugOptions.PrintGraphHost;
@@ -72,12 +73,71 @@ final class IgvDumpChannel implements WritableByteChannel {
         }
     }
 
+    /**
+     * Collects the dump of a compilation in memory and hands it to the {@link AsyncDumpWriter}
+     * when closed.
+     */
+    private static final class BufferChannel implements WritableByteChannel {
+        private final Supplier<Path> pathProvider;
+        private final OptionValues options;
+        private final int maxSize;
+        private byte[] buffer = new byte[8192];
+        private int size;
+        private boolean open = true;
+
+        BufferChannel(Supplier<Path> pathProvider, OptionValues options) {
+            this.pathProvider = pathProvider;
+            this.options = options;
+            this.maxSize = DebugOptions.DumpAsyncMaxBufferSize.getValue(options);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int length = src.remaining();
+            if (buffer == null) {
+                // the dump has been dropped
+                src.position(src.limit());
+                return length;
+            }
+            if ((long) size + length > maxSize) {
+                buffer = null;
+                AsyncDumpWriter.getInstance(options).drop("the dump of a compilation exceeds the buffer size");
+                src.position(src.limit());
+                return length;
+            }
+            if (size + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min(maxSize, Math.max((long) buffer.length * 2, size + length)));
+            }
+            src.get(buffer, size, length);
+            size += length;
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (open) {
+                open = false;
+                if (buffer != null && size != 0) {
+                    AsyncDumpWriter.getInstance(options).submit(pathProvider, buffer, size);
+                }
+                buffer = null;
+            }
+        }
+    }
+
     WritableByteChannel channel() throws IOException {
         if (closed) {
             throw new IOException();
         }
         if (sharedChannel == null) {
-            if (DebugOptions.PrintGraphFile.getValue(options)) {
+            if (DebugOptions.DumpAsync.getValue(options)) {
+                sharedChannel = new BufferChannel(pathProvider, options);
+            } else if (DebugOptions.PrintGraphFile.getValue(options)) {
                 sharedChannel = createFileChannel(pathProvider);
             } else {
                 sharedChannel = createNetworkChannel(pathProvider, options);
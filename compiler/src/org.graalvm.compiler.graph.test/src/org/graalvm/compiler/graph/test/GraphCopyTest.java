@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.graph.test;
+
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_IGNORED;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_IGNORED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.UnmodifiableEconomicMap;
+import org.graalvm.compiler.graph.Graph;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.graph.NodeInputList;
+import org.graalvm.compiler.graph.NodeSuccessorList;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Test;
+
+/**
+ * Tests that the edge lists of duplicated nodes refer to the duplicates and are registered as
+ * usages and predecessors of them.
+ */
+public class GraphCopyTest extends GraphTest {
+
+    @NodeInfo(cycles = CYCLES_IGNORED, size = SIZE_IGNORED)
+    static final class Def extends Node {
+        public static final NodeClass<Def> TYPE = NodeClass.create(Def.class);
+
+        protected Def() {
+            super(TYPE);
+        }
+    }
+
+    @NodeInfo(cycles = CYCLES_IGNORED, size = SIZE_IGNORED)
+    static final class ListNode extends Node {
+        public static final NodeClass<ListNode> TYPE = NodeClass.create(ListNode.class);
+        @Input NodeInputList<Def> values;
+        @Successor NodeSuccessorList<Node> targets;
+
+        protected ListNode(Def[] values, Node[] targets) {
+            super(TYPE);
+            this.values = new NodeInputList<>(this, values);
+            this.targets = new NodeSuccessorList<>(this, targets);
+        }
+    }
+
+    @Test
+    public void testCopyWithLists() {
+        OptionValues options = getOptions();
+        Graph graph = new Graph(options, getDebug(options));
+        Def def0 = graph.add(new Def());
+        Def def1 = graph.add(new Def());
+        Def target0 = graph.add(new Def());
+        Def target1 = graph.add(new Def());
+        ListNode list = graph.add(new ListNode(new Def[]{def0, def1, def0}, new Node[]{target0, target1}));
+        ListNode empty = graph.add(new ListNode(new Def[0], new Node[0]));
+
+        Graph copy = new Graph(options, getDebug(options));
+        UnmodifiableEconomicMap<Node, Node> duplicates = copy.addDuplicates(graph.getNodes(), graph, graph.getNodeCount(), (EconomicMap<Node, Node>) null);
+
+        ListNode listCopy = (ListNode) duplicates.get(list);
+        assertNotSame(list.values, listCopy.values);
+        assertEquals(3, listCopy.values.size());
+        assertSame(duplicates.get(def0), listCopy.values.get(0));
+        assertSame(duplicates.get(def1), listCopy.values.get(1));
+        assertSame(duplicates.get(def0), listCopy.values.get(2));
+        assertEquals(2, duplicates.get(def0).getUsageCount());
+        assertEquals(1, duplicates.get(def1).getUsageCount());
+
+        assertEquals(2, listCopy.targets.size());
+        assertSame(duplicates.get(target0), listCopy.targets.get(0));
+        assertSame(duplicates.get(target1), listCopy.targets.get(1));
+        assertSame(listCopy, duplicates.get(target0).predecessor());
+        assertSame(listCopy, duplicates.get(target1).predecessor());
+
+        ListNode emptyCopy = (ListNode) duplicates.get(empty);
+        assertTrue(emptyCopy.values.isEmpty());
+        assertTrue(emptyCopy.targets.isEmpty());
+
+        // the original graph must not be affected by the copy
+        assertSame(def0, list.values.get(0));
+        assertSame(target1, list.targets.get(1));
+        assertEquals(2, def0.getUsageCount());
+        assertSame(list, target0.predecessor());
+        assertNull(def0.predecessor());
+    }
+}
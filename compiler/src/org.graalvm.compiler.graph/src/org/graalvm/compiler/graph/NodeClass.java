@@ -788,28 +788,36 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
         while (index < edges.getCount()) {
             NodeList<Node> list = Edges.getNodeList(node, curOffsets, index);
             if (list != null) {
-                edges.initializeList(node, index, updateEdgeListCopy(node, list, duplicationReplacement, curType));
+                updateEdgeListInPlace(node, list, duplicationReplacement, curType);
             }
             index++;
         }
     }
 
-    void updateInputSuccInPlace(Node node, InplaceUpdateClosure duplicationReplacement) {
-        updateEdgesInPlace(node, duplicationReplacement, inputs);
-        updateEdgesInPlace(node, duplicationReplacement, successors);
-    }
-
-    private static NodeList<Node> updateEdgeListCopy(Node node, NodeList<Node> list, InplaceUpdateClosure duplicationReplacement, Edges.Type type) {
-        NodeList<Node> result = type == Edges.Type.Inputs ? new NodeInputList<>(node, list.size()) : new NodeSuccessorList<>(node, list.size());
-
+    /**
+     * Replaces the elements of an edge list of a freshly cloned node. The list was copied by the
+     * clone and is not shared, so it is updated in place instead of being replaced by yet another
+     * copy. Like for the direct edges, the old elements do not have the clone registered as usage
+     * or successor and are therefore not updated.
+     */
+    private static void updateEdgeListInPlace(Node node, NodeList<Node> list, InplaceUpdateClosure duplicationReplacement, Edges.Type type) {
         for (int i = 0; i < list.count(); ++i) {
             Node oldNode = list.get(i);
             if (oldNode != null) {
                 Node newNode = duplicationReplacement.replacement(oldNode, type);
-                result.set(i, newNode);
+                if (type == Edges.Type.Inputs) {
+                    node.updateUsages(null, newNode);
+                } else {
+                    node.updatePredecessor(null, newNode);
+                }
+                list.initialize(i, newNode);
             }
         }
-        return result;
+    }
+
+    void updateInputSuccInPlace(Node node, InplaceUpdateClosure duplicationReplacement) {
+        updateEdgesInPlace(node, duplicationReplacement, inputs);
+        updateEdgesInPlace(node, duplicationReplacement, successors);
     }
 
     /**
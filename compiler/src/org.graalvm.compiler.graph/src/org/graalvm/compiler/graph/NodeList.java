@@ -52,7 +52,7 @@ public abstract class NodeList<T extends Node> extends AbstractList<T> implement
         this.self = self;
         this.size = initialSize;
         this.initialSize = initialSize;
-        this.nodes = new Node[initialSize];
+        this.nodes = initialSize == 0 ? EMPTY_NODE_ARRAY : new Node[initialSize];
     }
 
     protected NodeList(Node self, T[] elements) {
@@ -195,9 +195,13 @@ public abstract class NodeList<T extends Node> extends AbstractList<T> implement
     void copy(NodeList<? extends Node> other) {
         self.incModCount();
         incModCount();
-        Node[] newNodes = new Node[other.size];
-        System.arraycopy(other.nodes, 0, newNodes, 0, newNodes.length);
-        nodes = newNodes;
+        if (other.size == 0) {
+            nodes = EMPTY_NODE_ARRAY;
+        } else {
+            Node[] newNodes = new Node[other.size];
+            System.arraycopy(other.nodes, 0, newNodes, 0, newNodes.length);
+            nodes = newNodes;
+        }
         size = other.size;
     }
 
@@ -314,7 +318,7 @@ public abstract class NodeList<T extends Node> extends AbstractList<T> implement
         for (int i = 0; i < size(); i++) {
             update((T) nodes[i], null);
         }
-        nodes = Arrays.copyOf(values.nodes, values.size());
+        nodes = values.isEmpty() ? EMPTY_NODE_ARRAY : Arrays.copyOf(values.nodes, values.size());
         size = values.size();
 
         for (int i = 0; i < size(); i++) {
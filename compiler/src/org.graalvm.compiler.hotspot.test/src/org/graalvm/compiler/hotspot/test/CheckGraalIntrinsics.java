@@ -53,6 +53,7 @@ import org.junit.Test;
 
 import jdk.vm.ci.aarch64.AArch64;
 import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64.CPUFeature;
 import jdk.vm.ci.code.Architecture;
 import jdk.vm.ci.hotspot.HotSpotVMConfigStore;
 import jdk.vm.ci.hotspot.VMIntrinsicMethod;
@@ -255,8 +256,6 @@ public class CheckGraalIntrinsics extends GraalTest {
                         // Can share most implementation parts with with
                         // Unsafe.allocateUninitializedArray0
                         "java/lang/reflect/Array.newArray(Ljava/lang/Class;I)Ljava/lang/Object;",
-                        // HotSpot MacroAssembler-based intrinsic
-                        "sun/nio/cs/ISO_8859_1$Encoder.encodeISOArray([CI[BII)I",
                         // Stub based intrinsics but implementation seems complex in C2
                         "sun/security/provider/DigestBase.implCompressMultiBlock([BII)I");
 
@@ -268,10 +267,6 @@ public class CheckGraalIntrinsics extends GraalTest {
                             "jdk/jfr/internal/JVM.getClassId(Ljava/lang/Class;)J");
 
             add(toBeInvestigated,
-                            // Some logic and a stub call
-                            "com/sun/crypto/provider/CounterMode.implCrypt([BII[BI)I",
-                            // Stub and very little logic
-                            "com/sun/crypto/provider/GHASH.processBlocks([BII[J[J)V",
                             // HotSpot MacroAssembler-based intrinsic
                             "java/lang/Math.fma(DDD)D",
                             // HotSpot MacroAssembler-based intrinsic
@@ -280,21 +275,13 @@ public class CheckGraalIntrinsics extends GraalTest {
                             "java/lang/Thread.onSpinWait()V",
                             // Just check if the argument is a compile time constant
                             "java/lang/invoke/MethodHandleImpl.isCompileConstant(Ljava/lang/Object;)Z",
-                            // Some logic and a runtime call
-                            "java/util/ArraysSupport.vectorizedMismatch(Ljava/lang/Object;JLjava/lang/Object;JII)I",
                             // Only used as a marker for vectorization?
                             "java/util/stream/Streams$RangeIntSpliterator.forEachRemaining(Ljava/util/function/IntConsumer;)V",
-                            // Only implemented on non-AMD64 platforms (some logic and runtime call)
-                            "java/util/zip/Adler32.updateByteBuffer(IJII)I",
-                            // Only implemented on non-AMD64 platforms (some logic and runtime call)
-                            "java/util/zip/Adler32.updateBytes(I[BII)I",
                             // Emits a slow and a fast path and some dispatching logic
                             "jdk/internal/misc/Unsafe.allocateUninitializedArray0(Ljava/lang/Class;I)Ljava/lang/Object;",
 
                             // Control flow, deopts, and a cast
                             "jdk/internal/util/Preconditions.checkIndex(IILjava/util/function/BiFunction;)I",
-                            // HotSpot MacroAssembler-based intrinsic
-                            "sun/nio/cs/ISO_8859_1$Encoder.implEncodeISOArray([CI[BII)I",
                             // Runtime call and some complex compiler logic
                             "sun/security/provider/DigestBase.implCompressMultiBlock0([BII)I");
 
@@ -341,13 +328,7 @@ public class CheckGraalIntrinsics extends GraalTest {
 
             // Compact string support - HotSpot MacroAssembler-based intrinsic or complex C2 logic.
             add(toBeInvestigated,
-                            "java/lang/StringCoding.hasNegatives([BII)Z",
-                            "java/lang/StringCoding.implEncodeISOArray([BI[BII)I",
                             "java/lang/StringLatin1.indexOf([B[B)I",
-                            "java/lang/StringLatin1.inflate([BI[BII)V",
-                            "java/lang/StringLatin1.inflate([BI[CII)V",
-                            "java/lang/StringUTF16.compress([BI[BII)I",
-                            "java/lang/StringUTF16.compress([CI[BII)I",
                             "java/lang/StringUTF16.getChar([BI)C",
                             "java/lang/StringUTF16.getChars([BII[CI)V",
                             "java/lang/StringUTF16.indexOf([BI[BII)I",
@@ -365,14 +346,12 @@ public class CheckGraalIntrinsics extends GraalTest {
 
         if (isJDK10OrHigher()) {
             add(toBeInvestigated,
-                            "java/lang/Math.multiplyHigh(JJ)J",
-                            "jdk/internal/util/ArraysSupport.vectorizedMismatch(Ljava/lang/Object;JLjava/lang/Object;JII)I");
+                            "java/lang/Math.multiplyHigh(JJ)J");
         }
 
         if (isJDK11OrHigher()) {
             // Relevant for Java flight recorder
             add(toBeInvestigated,
-                            "java/util/Base64$Encoder.encodeBlock([BII[BIZ)V",
                             "jdk/jfr/internal/JVM.getEventWriter()Ljava/lang/Object;");
         }
 
@@ -383,6 +362,23 @@ public class CheckGraalIntrinsics extends GraalTest {
             add(ignore, "java/lang/Object.notifyAll()V");
         }
 
+        if (!(arch instanceof AMD64) || !((AMD64) arch).getFeatures().contains(CPUFeature.SSE4_2)) {
+            // String coding intrinsics are only implemented with SSE4.2 vector instructions
+            if (isJDK9OrHigher()) {
+                add(toBeInvestigated,
+                                "java/lang/StringCoding.hasNegatives([BII)Z",
+                                "java/lang/StringCoding.implEncodeISOArray([BI[BII)I",
+                                "java/lang/StringLatin1.inflate([BI[BII)V",
+                                "java/lang/StringLatin1.inflate([BI[CII)V",
+                                "java/lang/StringUTF16.compress([BI[BII)I",
+                                "java/lang/StringUTF16.compress([CI[BII)I",
+                                "sun/nio/cs/ISO_8859_1$Encoder.implEncodeISOArray([CI[BII)I");
+            } else {
+                add(toBeInvestigated,
+                                "sun/nio/cs/ISO_8859_1$Encoder.encodeISOArray([CI[BII)I");
+            }
+        }
+
         if (!(arch instanceof AMD64)) {
             // Can we implement these on non-AMD64 platforms? C2 seems to.
             add(toBeInvestigated,
@@ -424,6 +420,13 @@ public class CheckGraalIntrinsics extends GraalTest {
                                 "jdk/internal/misc/Unsafe.putLongUnaligned(Ljava/lang/Object;JJ)V",
                                 "jdk/internal/misc/Unsafe.putShortUnaligned(Ljava/lang/Object;JS)V");
             }
+            if (isJDK10OrHigher()) {
+                add(toBeInvestigated,
+                                "jdk/internal/util/ArraysSupport.vectorizedMismatch(Ljava/lang/Object;JLjava/lang/Object;JII)I");
+            } else if (isJDK9OrHigher()) {
+                add(toBeInvestigated,
+                                "java/util/ArraysSupport.vectorizedMismatch(Ljava/lang/Object;JLjava/lang/Object;JII)I");
+            }
         }
 
         /*
@@ -470,6 +473,32 @@ public class CheckGraalIntrinsics extends GraalTest {
             }
         }
 
+        // Adler32 intrinsics
+        if (!config.useAdler32Intrinsics()) {
+            if (isJDK9OrHigher()) {
+                add(ignore,
+                                "java/util/zip/Adler32.updateByteBuffer(IJII)I",
+                                "java/util/zip/Adler32.updateBytes(I[BII)I");
+            }
+        }
+
+        // Base64 intrinsics
+        if (!config.useBase64Intrinsics()) {
+            if (isJDK11OrHigher()) {
+                add(ignore, "java/util/Base64$Encoder.encodeBlock([BII[BIZ)V");
+            }
+        }
+
+        // AES-CTR and GHASH intrinsics
+        if (isJDK9OrHigher()) {
+            if (!config.useAESCTRIntrinsics()) {
+                add(ignore, "com/sun/crypto/provider/CounterMode.implCrypt([BII[BI)I");
+            }
+            if (!config.useGHASHIntrinsics()) {
+                add(ignore, "com/sun/crypto/provider/GHASH.processBlocks([BII[J[J)V");
+            }
+        }
+
         // BigInteger intrinsics
         if (!config.useMultiplyToLenIntrinsic()) {
             if (isJDK9OrHigher()) {
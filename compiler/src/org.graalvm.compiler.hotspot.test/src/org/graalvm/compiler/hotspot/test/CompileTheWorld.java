@@ -48,6 +48,7 @@ import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
@@ -78,12 +79,14 @@ import org.graalvm.compiler.api.replacements.Snippet;
 import org.graalvm.compiler.bytecode.Bytecodes;
 import org.graalvm.compiler.core.CompilerThreadFactory;
 import org.graalvm.compiler.core.test.ReflectionOptionDescriptors;
+import org.graalvm.compiler.debug.DebugContext;
 import org.graalvm.compiler.debug.DebugOptions;
 import org.graalvm.compiler.debug.GraalError;
 import org.graalvm.compiler.debug.MethodFilter;
 import org.graalvm.compiler.debug.TTY;
 import org.graalvm.compiler.hotspot.CompilationTask;
 import org.graalvm.compiler.hotspot.GraalHotSpotVMConfig;
+import org.graalvm.compiler.hotspot.HotSpotCompilationIdentifier;
 import org.graalvm.compiler.hotspot.HotSpotGraalCompiler;
 import org.graalvm.compiler.hotspot.HotSpotGraalRuntimeProvider;
 import org.graalvm.compiler.options.OptionDescriptors;
@@ -179,6 +182,20 @@ public final class CompileTheWorld {
 
     private boolean verbose;
 
+    /**
+     * File to which the metrics of each compilation are written.
+     *
+     * @see Options#MetricsReport
+     */
+    private final String metricsReport;
+
+    /**
+     * Metrics file of a previous run to compare against {@link #metricsReport}.
+     *
+     * @see Options#CompareTo
+     */
+    private final String compareTo;
+
     /**
      * Signal that the threads should start compiling in multithreaded mode.
      */
@@ -209,6 +226,8 @@ public final class CompileTheWorld {
         this.excludeMethodFilters = excludeMethodFilters == null || excludeMethodFilters.isEmpty() ? null : MethodFilter.parse(excludeMethodFilters);
         this.verbose = verbose;
         this.currentOptions = initialOptions;
+        this.metricsReport = Options.MetricsReport.getValue(initialOptions);
+        this.compareTo = Options.CompareTo.getValue(initialOptions);
 
         // Copy the initial options and add in any extra options
         EconomicMap<OptionKey<?>, Object> compilationOptionsCopy = EconomicMap.create(initialOptions.getMap());
@@ -220,6 +239,15 @@ public final class CompileTheWorld {
 
         // By default only report statistics for the CTW threads themselves
         DebugOptions.MetricsThreadFilter.putIfAbsent(compilationOptionsCopy, "^CompileTheWorld");
+
+        if (metricsReport != null) {
+            // Record all timers (including per-phase times), memory use trackers and counters
+            // (including per-phase graph sizes) for each compilation
+            compilationOptionsCopy.put(DebugOptions.MetricsFile, metricsReport);
+            DebugOptions.Timers.putIfAbsent(compilationOptionsCopy, "");
+            DebugOptions.MemUseTrackers.putIfAbsent(compilationOptionsCopy, "");
+            DebugOptions.Counters.putIfAbsent(compilationOptionsCopy, "");
+        }
         this.compilationOptions = compilationOptionsCopy;
     }
 
@@ -528,6 +556,7 @@ public final class CompileTheWorld {
 
         OptionValues savedOptions = currentOptions;
         currentOptions = new OptionValues(compilationOptions);
+        OptionValues compileOptions = currentOptions;
         threadPool = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new CompilerThreadFactory("CompileTheWorld"));
 
         try {
@@ -613,20 +642,20 @@ public final class CompileTheWorld {
                             for (Constructor<?> constructor : javaClass.getDeclaredConstructors()) {
                                 HotSpotResolvedJavaMethod javaMethod = (HotSpotResolvedJavaMethod) metaAccess.lookupJavaMethod(constructor);
                                 if (canBeCompiled(javaMethod, constructor.getModifiers())) {
-                                    compileMethod(javaMethod);
+                                    compileMethod(javaMethod, compileOptions);
                                 }
                             }
                             for (Method method : javaClass.getDeclaredMethods()) {
                                 HotSpotResolvedJavaMethod javaMethod = (HotSpotResolvedJavaMethod) metaAccess.lookupJavaMethod(method);
                                 if (canBeCompiled(javaMethod, method.getModifiers())) {
-                                    compileMethod(javaMethod);
+                                    compileMethod(javaMethod, compileOptions);
                                 }
                             }
 
                             // Also compile the class initializer if it exists
                             HotSpotResolvedJavaMethod clinit = (HotSpotResolvedJavaMethod) metaAccess.lookupJavaType(javaClass).getClassInitializer();
                             if (clinit != null && canBeCompiled(clinit, clinit.getModifiers())) {
-                                compileMethod(clinit);
+                                compileMethod(clinit, compileOptions);
                             }
                         }
                     } catch (Throwable t) {
@@ -667,6 +696,13 @@ public final class CompileTheWorld {
         } else {
             TTY.println("CompileTheWorld : Done (%d classes, %d methods, %d ms, %d bytes of memory used)", classFileCounter, compiledMethodsCounter.get(), compileTime.get(), memoryUsed.get());
         }
+        if (metricsReport != null) {
+            TTY.println("CompileTheWorld : Metrics of each compilation written to %s", metricsReport);
+            if (compareTo != null) {
+                TTY.println("CompileTheWorld : Comparing with %s", compareTo);
+                CompileTheWorldReport.compare(CompileTheWorldReport.load(Paths.get(compareTo)), CompileTheWorldReport.load(Paths.get(metricsReport)), TTY.out, 50);
+            }
+        }
 
         // Apart from the main thread, there should be only be daemon threads
         // alive now. If not, then a class initializer has probably started
@@ -711,8 +747,7 @@ public final class CompileTheWorld {
         }
     }
 
-    @SuppressWarnings("try")
-    private void compileMethod(HotSpotResolvedJavaMethod method) throws InterruptedException, ExecutionException {
+    private void compileMethod(HotSpotResolvedJavaMethod method, OptionValues compileOptions) throws InterruptedException, ExecutionException {
         if (methodFilters != null && !MethodFilter.matches(methodFilters, method)) {
             return;
         }
@@ -723,13 +758,7 @@ public final class CompileTheWorld {
             @Override
             public void run() {
                 waitToRun();
-                OptionValues savedOptions = currentOptions;
-                currentOptions = new OptionValues(compilationOptions);
-                try {
-                    compileMethod(method, classFileCounter);
-                } finally {
-                    currentOptions = savedOptions;
-                }
+                compileMethod(method, classFileCounter, compileOptions);
             }
         });
         if (threadPool.getCorePoolSize() == 1) {
@@ -740,7 +769,8 @@ public final class CompileTheWorld {
     /**
      * Compiles a method and gathers some statistics.
      */
-    private void compileMethod(HotSpotResolvedJavaMethod method, int counter) {
+    @SuppressWarnings("try")
+    private void compileMethod(HotSpotResolvedJavaMethod method, int counter, OptionValues compileOptions) {
         try {
             long start = System.currentTimeMillis();
             long allocatedAtStart = getCurrentThreadAllocatedBytes();
@@ -749,8 +779,12 @@ public final class CompileTheWorld {
             // For more stable CTW execution, disable use of profiling information
             boolean useProfilingInfo = false;
             boolean installAsDefault = false;
-            CompilationTask task = new CompilationTask(jvmciRuntime, compiler, request, useProfilingInfo, installAsDefault, currentOptions);
-            task.runCompilation();
+            CompilationTask task = new CompilationTask(jvmciRuntime, compiler, request, useProfilingInfo, installAsDefault, compileOptions);
+            // Use a debug context describing the method so that its metrics can be reported
+            HotSpotGraalRuntimeProvider graalRuntime = compiler.getGraalRuntime();
+            try (DebugContext debug = graalRuntime.openDebugContext(compileOptions, new HotSpotCompilationIdentifier(request), method, compiler.getDebugHandlersFactories())) {
+                task.runCompilation(debug);
+            }
 
             // Invalidate the generated code so the code cache doesn't fill up
             HotSpotInstalledCode installedCode = task.getInstalledCode();
@@ -816,6 +850,8 @@ public final class CompileTheWorld {
         public static final OptionKey<String> Config = new OptionKey<>(null);
         public static final OptionKey<Boolean> MultiThreaded = new OptionKey<>(false);
         public static final OptionKey<Integer> Threads = new OptionKey<>(0);
+        public static final OptionKey<String> MetricsReport = new OptionKey<>(null);
+        public static final OptionKey<String> CompareTo = new OptionKey<>(null);
 
         static final ReflectionOptionDescriptors DESCRIPTORS = new ReflectionOptionDescriptors(Options.class,
                            "Help", "List options and their help messages and then exit.",
@@ -832,7 +868,12 @@ public final class CompileTheWorld {
                                    "to disable inlining and partial escape analysis specify 'PartialEscapeAnalysis=false Inline=false'. " +
                                    "The format for each option is the same as on the command line just without the '-Dgraal.' prefix.",
                   "MultiThreaded", "Run using multiple threads for compilation.",
-                        "Threads", "Number of threads to use for multithreaded execution. Defaults to Runtime.getRuntime().availableProcessors().");
+                        "Threads", "Number of threads to use for multithreaded execution. Defaults to Runtime.getRuntime().availableProcessors().",
+                  "MetricsReport", "CSV file to which the timers, memory use trackers and counters of each compilation are written. " +
+                                   "This includes the time, allocated memory and input graph size of each phase. " +
+                                   "See the MetricsFile option for a description of the format.",
+                      "CompareTo", "MetricsReport of a previous run to compare with the MetricsReport of this run. " +
+                                   "The comparison can also be done offline with " + CompileTheWorldReport.class.getName() + ".");
         // @formatter:on
     }
 
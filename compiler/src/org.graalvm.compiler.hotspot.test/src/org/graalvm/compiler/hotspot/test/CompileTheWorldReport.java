@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.hotspot.test;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.graalvm.compiler.debug.CSVUtil;
+
+/**
+ * The per-compilation metrics of a {@link CompileTheWorld} run as written to a
+ * {@link org.graalvm.compiler.debug.DebugOptions#MetricsFile} in CSV format, and a comparison of
+ * two such runs.
+ *
+ * Two reports can be compared from the command line:
+ *
+ * <pre>
+ * java -cp ... org.graalvm.compiler.hotspot.test.CompileTheWorldReport base.csv new.csv [limit]
+ * </pre>
+ */
+public final class CompileTheWorldReport {
+
+    /**
+     * Metrics for which the methods with the largest changes are listed in a comparison.
+     */
+    private static final String[] PER_METHOD_METRICS = {"CompilationTime", "CompilationMemory", "InstalledCodeSize"};
+
+    /**
+     * Map from metric name to the total value of the metric over all compilations.
+     */
+    private final Map<String, Long> totals = new TreeMap<>();
+
+    /**
+     * Map from metric name to unit.
+     */
+    private final Map<String, String> units = new HashMap<>();
+
+    /**
+     * Map from metric name to map from method name to value, only for
+     * {@link #PER_METHOD_METRICS}.
+     */
+    private final Map<String, Map<String, Long>> perMethod = new HashMap<>();
+
+    private final Set<String> methods = new HashSet<>();
+
+    private CompileTheWorldReport() {
+    }
+
+    /**
+     * Reads a metrics file in the CSV format described by
+     * {@link org.graalvm.compiler.debug.DebugOptions#MetricsFile}.
+     */
+    public static CompileTheWorldReport load(Path path) throws IOException {
+        CompileTheWorldReport report = new CompileTheWorldReport();
+        for (String line : Files.readAllLines(path)) {
+            List<String> fields = parseLine(line);
+            if (fields.size() < 7) {
+                continue;
+            }
+            String method = fields.get(0);
+            String metric = fields.get(4);
+            long value;
+            try {
+                value = Long.parseLong(fields.get(5));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            report.methods.add(method);
+            report.units.putIfAbsent(metric, fields.get(6));
+            report.totals.merge(metric, value, Long::sum);
+            for (String m : PER_METHOD_METRICS) {
+                if (m.equals(metric)) {
+                    report.perMethod.computeIfAbsent(metric, k -> new HashMap<>()).merge(method, value, Long::sum);
+                }
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Splits a line into fields, removing the quoting applied by {@link CSVUtil.Escape}.
+     */
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == CSVUtil.ESCAPE && i + 1 < line.length()) {
+                    field.append(line.charAt(++i));
+                } else if (c == CSVUtil.QUOTE) {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == CSVUtil.QUOTE) {
+                quoted = true;
+            } else if (c == CSVUtil.SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    public long getTotal(String metric) {
+        Long value = totals.get(metric);
+        return value == null ? 0 : value;
+    }
+
+    public int getMethodCount() {
+        return methods.size();
+    }
+
+    /**
+     * Prints the metrics whose totals changed the most between {@code base} and {@code current},
+     * followed by the methods with the largest changes in compile time, memory use and code size.
+     *
+     * @param limit the maximum number of metrics and of methods per metric to print
+     */
+    public static void compare(CompileTheWorldReport base, CompileTheWorldReport current, PrintStream out, int limit) {
+        out.printf("Compiled methods: %d (base) vs %d (new)%n", base.getMethodCount(), current.getMethodCount());
+
+        Set<String> metrics = new HashSet<>(base.totals.keySet());
+        metrics.addAll(current.totals.keySet());
+        List<String> changed = new ArrayList<>();
+        for (String metric : metrics) {
+            if (base.getTotal(metric) != 0 || current.getTotal(metric) != 0) {
+                changed.add(metric);
+            }
+        }
+        Collections.sort(changed, Comparator.comparingDouble((String metric) -> -Math.abs(relativeChange(base.getTotal(metric), current.getTotal(metric)))).thenComparing(metric -> metric));
+        out.printf("%-60s %-6s %16s %16s %9s%n", "Metric", "Unit", "Base", "New", "Change");
+        for (String metric : changed.subList(0, Math.min(limit, changed.size()))) {
+            long b = base.getTotal(metric);
+            long c = current.getTotal(metric);
+            String unit = current.units.containsKey(metric) ? current.units.get(metric) : base.units.get(metric);
+            out.printf("%-60s %-6s %16d %16d %8.1f%%%n", metric, unit, b, c, relativeChange(b, c) * 100);
+        }
+
+        for (String metric : PER_METHOD_METRICS) {
+            Map<String, Long> b = base.perMethod.getOrDefault(metric, Collections.emptyMap());
+            Map<String, Long> c = current.perMethod.getOrDefault(metric, Collections.emptyMap());
+            if (b.isEmpty() && c.isEmpty()) {
+                continue;
+            }
+            Set<String> names = new HashSet<>(b.keySet());
+            names.retainAll(c.keySet());
+            List<String> sorted = new ArrayList<>(names);
+            Collections.sort(sorted, Comparator.comparingLong((String m) -> -Math.abs(c.get(m) - b.get(m))).thenComparing(m -> m));
+            out.printf("%nLargest changes in %s:%n", metric);
+            for (String method : sorted.subList(0, Math.min(limit, sorted.size()))) {
+                long bv = b.get(method);
+                long cv = c.get(method);
+                if (bv != cv) {
+                    out.printf("%+16d %16d %16d  %s%n", cv - bv, bv, cv, method);
+                }
+            }
+        }
+    }
+
+    private static double relativeChange(long base, long current) {
+        if (base == 0) {
+            return current == 0 ? 0 : Double.POSITIVE_INFINITY;
+        }
+        return (double) (current - base) / base;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompileTheWorldReport <base metrics csv> <new metrics csv> [limit]");
+            System.exit(1);
+        }
+        int limit = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        compare(load(Paths.get(args[0])), load(Paths.get(args[1])), System.out, limit);
+    }
+}
@@ -27,12 +27,19 @@ package org.graalvm.compiler.hotspot.test;
 import static org.graalvm.compiler.core.GraalCompilerOptions.CompilationBailoutAction;
 import static org.graalvm.compiler.core.GraalCompilerOptions.CompilationFailureAction;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
 import org.graalvm.collections.EconomicMap;
 import org.graalvm.compiler.core.CompilationWrapper.ExceptionAction;
 import org.graalvm.compiler.core.test.GraalCompilerTest;
 import org.graalvm.compiler.hotspot.HotSpotGraalCompiler;
 import org.graalvm.compiler.options.OptionKey;
 import org.graalvm.compiler.options.OptionValues;
+import org.junit.Assert;
 import org.junit.Test;
 
 import jdk.vm.ci.hotspot.HotSpotJVMCIRuntime;
@@ -55,4 +62,32 @@ public class CompileTheWorldTest extends GraalCompilerTest {
         assert CompilationBailoutAction.getValue(initialOptions) == originalBailoutAction;
         assert CompilationFailureAction.getValue(initialOptions) == originalFailureAction;
     }
+
+    @Test
+    public void testMetricsReport() throws Throwable {
+        Path report = Files.createTempFile("CompileTheWorldTest", ".csv");
+        try {
+            HotSpotJVMCIRuntime runtime = HotSpotJVMCIRuntime.runtime();
+            System.setProperty("CompileTheWorld.LimitModules", "java.base");
+            OptionValues initialOptions = new OptionValues(getInitialOptions(), CompileTheWorld.Options.MetricsReport, report.toString());
+            EconomicMap<OptionKey<?>, Object> compilationOptions = CompileTheWorld.parseOptions("Inline=false");
+            new CompileTheWorld(runtime, (HotSpotGraalCompiler) runtime.getCompiler(), CompileTheWorld.SUN_BOOT_CLASS_PATH, 1, 5, null, null, false, initialOptions, compilationOptions).compile();
+
+            CompileTheWorldReport metrics = CompileTheWorldReport.load(report);
+            Assert.assertTrue(metrics.getMethodCount() > 0);
+            Assert.assertTrue(metrics.getTotal("CompilationTime") > 0);
+            Assert.assertTrue(metrics.getTotal("CompilationMemory") > 0);
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            CompileTheWorldReport.compare(metrics, metrics, new PrintStream(baos), 10);
+            Assert.assertTrue(baos.toString().contains("CompilationTime"));
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+
+    @Test
+    public void testParseLine() {
+        Assert.assertEquals(Arrays.asList("a", "b;c", "d\"e", ""), CompileTheWorldReport.parseLine("a;\"b;c\";\"d\\\"e\";"));
+    }
 }
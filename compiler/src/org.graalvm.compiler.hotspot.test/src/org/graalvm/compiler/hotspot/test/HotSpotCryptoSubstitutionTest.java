@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.security.AlgorithmParameters;
 import java.security.SecureRandom;
+import java.util.Arrays;
 
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
@@ -104,6 +105,28 @@ public class HotSpotCryptoSubstitutionTest extends HotSpotGraalCompilerTest {
         }
     }
 
+    @Test
+    public void testCounterModeIntrinsics() throws Exception {
+        if (runtime().getVMConfig().useAESCTRIntrinsics() && compileAndInstall("com.sun.crypto.provider.CounterMode", "implCrypt")) {
+            Assert.assertArrayEquals(input, runEncryptDecrypt(aesKey, "AES/CTR/NoPadding"));
+            // a length that is not a multiple of the block size leaves a partially used key stream
+            byte[] saved = input;
+            try {
+                input = Arrays.copyOf(saved, saved.length - 5);
+                Assert.assertArrayEquals(input, runEncryptDecrypt(aesKey, "AES/CTR/NoPadding"));
+            } finally {
+                input = saved;
+            }
+        }
+    }
+
+    @Test
+    public void testGHASHIntrinsics() throws Exception {
+        if (runtime().getVMConfig().useGHASHIntrinsics() && compileAndInstall("com.sun.crypto.provider.GHASH", "processBlocks")) {
+            Assert.assertArrayEquals(input, runEncryptDecrypt(aesKey, "AES/GCM/NoPadding"));
+        }
+    }
+
     /**
      * Compiles and installs the substitution for some specified methods. Once installed, the next
      * execution of the methods will use the newly installed code.
@@ -40,6 +40,8 @@ import org.graalvm.compiler.hotspot.nodes.aot.ResolveConstantStubCall;
 import org.graalvm.compiler.hotspot.replacements.AESCryptSubstitutions;
 import org.graalvm.compiler.hotspot.replacements.BigIntegerSubstitutions;
 import org.graalvm.compiler.hotspot.replacements.CipherBlockChainingSubstitutions;
+import org.graalvm.compiler.hotspot.replacements.CounterModeSubstitutions;
+import org.graalvm.compiler.hotspot.replacements.GHASHSubstitutions;
 import org.graalvm.compiler.hotspot.replacements.SHA2Substitutions;
 import org.graalvm.compiler.hotspot.replacements.SHA5Substitutions;
 import org.graalvm.compiler.hotspot.replacements.SHASubstitutions;
@@ -162,6 +164,32 @@ public abstract class HotSpotBackend extends Backend implements FrameMap.Referen
     public static final ForeignCallDescriptor DECRYPT_WITH_ORIGINAL_KEY = new ForeignCallDescriptor("decrypt_with_original_key", void.class, Word.class, Word.class, Pointer.class, Pointer.class,
                     int.class, Pointer.class);
 
+    /**
+     * @see CounterModeSubstitutions#implCrypt
+     */
+    public static final ForeignCallDescriptor COUNTER_MODE_AESCRYPT = new ForeignCallDescriptor("counterModeAESCrypt", int.class, Word.class, Word.class, Pointer.class, Pointer.class, int.class,
+                    Pointer.class, Word.class);
+
+    public static int counterModeAESCrypt(Word inAddr, Word outAddr, Pointer kAddr, Pointer counterAddr, int len, Pointer encryptedCounterAddr, Word usedAddr) {
+        return counterModeAESCrypt(HotSpotBackend.COUNTER_MODE_AESCRYPT, inAddr, outAddr, kAddr, counterAddr, len, encryptedCounterAddr, usedAddr);
+    }
+
+    @NodeIntrinsic(ForeignCallNode.class)
+    private static native int counterModeAESCrypt(@ConstantNodeParameter ForeignCallDescriptor descriptor, Word inAddr, Word outAddr, Pointer kAddr, Pointer counterAddr, int len,
+                    Pointer encryptedCounterAddr, Word usedAddr);
+
+    /**
+     * @see GHASHSubstitutions#processBlocks
+     */
+    public static final ForeignCallDescriptor GHASH_PROCESS_BLOCKS = new ForeignCallDescriptor("ghashProcessBlocks", void.class, Word.class, Word.class, Word.class, int.class);
+
+    public static void ghashProcessBlocks(Word stateAddr, Word subkeyHAddr, Word dataAddr, int blocks) {
+        ghashProcessBlocks(HotSpotBackend.GHASH_PROCESS_BLOCKS, stateAddr, subkeyHAddr, dataAddr, blocks);
+    }
+
+    @NodeIntrinsic(ForeignCallNode.class)
+    private static native void ghashProcessBlocks(@ConstantNodeParameter ForeignCallDescriptor descriptor, Word stateAddr, Word subkeyHAddr, Word dataAddr, int blocks);
+
     /**
      * @see BigIntegerSubstitutions#multiplyToLen
      */
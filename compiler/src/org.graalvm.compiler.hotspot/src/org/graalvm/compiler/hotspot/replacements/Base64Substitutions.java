@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.hotspot.replacements;
+
+import static org.graalvm.compiler.hotspot.GraalHotSpotVMConfigBase.INJECTED_METAACCESS;
+import static org.graalvm.compiler.hotspot.replacements.HotSpotReplacementsUtil.getArrayBaseOffset;
+
+import org.graalvm.compiler.api.replacements.ClassSubstitution;
+import org.graalvm.compiler.api.replacements.MethodSubstitution;
+import org.graalvm.compiler.core.common.spi.ForeignCallDescriptor;
+import org.graalvm.compiler.graph.Node.ConstantNodeParameter;
+import org.graalvm.compiler.graph.Node.NodeIntrinsic;
+import org.graalvm.compiler.hotspot.nodes.ComputeObjectAddressNode;
+import org.graalvm.compiler.nodes.extended.ForeignCallNode;
+import org.graalvm.compiler.word.Word;
+import org.graalvm.word.WordFactory;
+
+import jdk.vm.ci.meta.JavaKind;
+
+// JaCoCo Exclude
+
+/**
+ * Substitutions for {@code java.util.Base64.Encoder} methods.
+ *
+ * Since JDK 11.
+ */
+@ClassSubstitution(className = "java.util.Base64$Encoder", optional = true)
+public class Base64Substitutions {
+
+    /**
+     * Encodes the bytes {@code src[sp..sl)} into {@code dst} starting at {@code dp}. Like C2, the
+     * stub is passed the start of the arrays together with the indexes. The caller only passes
+     * whole 3 byte groups.
+     */
+    @MethodSubstitution(isStatic = false)
+    static void encodeBlock(@SuppressWarnings("unused") Object receiver, byte[] src, int sp, int sl, byte[] dst, int dp, boolean isURL) {
+        Word srcAddr = WordFactory.unsigned(ComputeObjectAddressNode.get(src, getArrayBaseOffset(INJECTED_METAACCESS, JavaKind.Byte)));
+        Word dstAddr = WordFactory.unsigned(ComputeObjectAddressNode.get(dst, getArrayBaseOffset(INJECTED_METAACCESS, JavaKind.Byte)));
+        encodeBlockStub(ENCODE_BLOCK, srcAddr, sp, sl, dstAddr, dp, isURL);
+    }
+
+    public static final ForeignCallDescriptor ENCODE_BLOCK = new ForeignCallDescriptor("base64EncodeBlock", void.class, Word.class, int.class, int.class, Word.class, int.class, boolean.class);
+
+    @NodeIntrinsic(ForeignCallNode.class)
+    public static native void encodeBlockStub(@ConstantNodeParameter ForeignCallDescriptor descriptor, Word src, int sp, int sl, Word dst, int dp, boolean isURL);
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.hotspot.replacements;
+
+import static org.graalvm.compiler.hotspot.GraalHotSpotVMConfigBase.INJECTED_METAACCESS;
+import static org.graalvm.compiler.hotspot.replacements.HotSpotReplacementsUtil.getArrayBaseOffset;
+import static org.graalvm.compiler.hotspot.replacements.UnsafeAccess.UNSAFE;
+
+import org.graalvm.compiler.api.replacements.ClassSubstitution;
+import org.graalvm.compiler.api.replacements.Fold;
+import org.graalvm.compiler.api.replacements.MethodSubstitution;
+import org.graalvm.compiler.debug.GraalError;
+import org.graalvm.compiler.hotspot.HotSpotBackend;
+import org.graalvm.compiler.hotspot.nodes.ComputeObjectAddressNode;
+import org.graalvm.compiler.nodes.PiNode;
+import org.graalvm.compiler.nodes.extended.RawLoadNode;
+import org.graalvm.compiler.word.Word;
+import org.graalvm.word.LocationIdentity;
+import org.graalvm.word.Pointer;
+import org.graalvm.word.WordFactory;
+
+import jdk.vm.ci.meta.JavaKind;
+
+// JaCoCo Exclude
+
+/**
+ * Substitutions for {@code com.sun.crypto.provider.CounterMode} methods.
+ *
+ * Since JDK 9.
+ */
+@ClassSubstitution(className = "com.sun.crypto.provider.CounterMode", optional = true)
+public class CounterModeSubstitutions {
+
+    private static final long embeddedCipherOffset;
+    private static final long counterOffset;
+    private static final long encryptedCounterOffset;
+    private static final long usedOffset;
+    private static final Class<?> counterModeClass;
+    static {
+        try {
+            // Need to use the system class loader as com.sun.crypto.provider.FeedbackCipher
+            // is normally loaded by the extension class loader which is not delegated
+            // to by the JVMCI class loader.
+            ClassLoader cl = ClassLoader.getSystemClassLoader();
+
+            Class<?> feedbackCipherClass = Class.forName("com.sun.crypto.provider.FeedbackCipher", true, cl);
+            embeddedCipherOffset = UNSAFE.objectFieldOffset(feedbackCipherClass.getDeclaredField("embeddedCipher"));
+
+            counterModeClass = Class.forName("com.sun.crypto.provider.CounterMode", true, cl);
+            counterOffset = UNSAFE.objectFieldOffset(counterModeClass.getDeclaredField("counter"));
+            encryptedCounterOffset = UNSAFE.objectFieldOffset(counterModeClass.getDeclaredField("encryptedCounter"));
+            usedOffset = UNSAFE.objectFieldOffset(counterModeClass.getDeclaredField("used"));
+        } catch (Exception ex) {
+            throw new GraalError(ex);
+        }
+    }
+
+    @Fold
+    static Class<?> getAESCryptClass() {
+        return AESCryptSubstitutions.AESCryptClass;
+    }
+
+    /**
+     * The stub handles the partially used key stream block left over by a previous call and stores
+     * the new number of used bytes of {@code encryptedCounter} back into the {@code used} field.
+     */
+    @MethodSubstitution(isStatic = false)
+    static int implCrypt(Object rcvr, byte[] in, int inOff, int len, byte[] out, int outOff) {
+        Object realReceiver = PiNode.piCastNonNull(rcvr, counterModeClass);
+        Object embeddedCipher = RawLoadNode.load(realReceiver, embeddedCipherOffset, JavaKind.Object, LocationIdentity.any());
+        if (getAESCryptClass().isInstance(embeddedCipher)) {
+            Object aesCipher = getAESCryptClass().cast(embeddedCipher);
+            Object kObject = RawLoadNode.load(aesCipher, AESCryptSubstitutions.kOffset, JavaKind.Object, LocationIdentity.any());
+            Object counterObject = RawLoadNode.load(realReceiver, counterOffset, JavaKind.Object, LocationIdentity.any());
+            Object encryptedCounterObject = RawLoadNode.load(realReceiver, encryptedCounterOffset, JavaKind.Object, LocationIdentity.any());
+            Pointer kAddr = Word.objectToTrackedPointer(kObject).add(getArrayBaseOffset(INJECTED_METAACCESS, JavaKind.Int));
+            Pointer counterAddr = Word.objectToTrackedPointer(counterObject).add(getArrayBaseOffset(INJECTED_METAACCESS, JavaKind.Byte));
+            Pointer encryptedCounterAddr = Word.objectToTrackedPointer(encryptedCounterObject).add(getArrayBaseOffset(INJECTED_METAACCESS, JavaKind.Byte));
+            Word inAddr = WordFactory.unsigned(ComputeObjectAddressNode.get(in, getArrayBaseOffset(INJECTED_METAACCESS, JavaKind.Byte) + inOff));
+            Word outAddr = WordFactory.unsigned(ComputeObjectAddressNode.get(out, getArrayBaseOffset(INJECTED_METAACCESS, JavaKind.Byte) + outOff));
+            Word usedAddr = WordFactory.unsigned(ComputeObjectAddressNode.get(realReceiver, usedOffset));
+            return HotSpotBackend.counterModeAESCrypt(inAddr, outAddr, kAddr, counterAddr, len, encryptedCounterAddr, usedAddr);
+        } else {
+            return implCrypt(realReceiver, in, inOff, len, out, outOff);
+        }
+    }
+}
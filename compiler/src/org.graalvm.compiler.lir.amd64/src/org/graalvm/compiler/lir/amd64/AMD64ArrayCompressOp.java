@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64.CPUFeature;
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code which narrows 16-bit chars to bytes until the first char that does not fit into a
+ * byte, and returns the number of chars that were copied. This implements both
+ * {@code java.lang.StringUTF16.compress} and {@code sun.nio.cs.ISO_8859_1.Encoder.encodeISOArray}.
+ *
+ * 16 or 8 chars are tested against a vector with the high byte of every char set and are packed
+ * with {@code packuswb} if they all fit. Once a vector contains a char that does not fit, or fewer
+ * than 8 chars remain, the chars are copied one by one.
+ */
+@Opcode("AMD64_ARRAY_COMPRESS")
+public final class AMD64ArrayCompressOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64ArrayCompressOp> TYPE = LIRInstructionClass.create(AMD64ArrayCompressOp.class);
+
+    private static final int HIGH_BYTES = 0xFF00FF00;
+    private static final int CHARS_PER_VECTOR = 8;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value srcPtrValue;
+    @Alive({REG}) protected Value dstPtrValue;
+    @Alive({REG}) protected Value lengthValue;
+
+    @Temp({REG}) protected Value srcTemp;
+    @Temp({REG}) protected Value dstTemp;
+    @Temp({REG}) protected Value lengthTemp;
+    @Temp({REG}) protected Value charTemp;
+    @Temp({REG}) protected Value vectorTemp1;
+    @Temp({REG}) protected Value vectorTemp2;
+    @Temp({REG}) protected Value vectorTemp3;
+    @Temp({REG}) protected Value vectorMask;
+
+    public AMD64ArrayCompressOp(LIRGeneratorTool tool, Value result, Value srcPtr, Value dstPtr, Value length) {
+        super(TYPE);
+        assert ((AMD64) tool.target().arch).getFeatures().contains(CPUFeature.SSE4_1);
+        this.resultValue = result;
+        this.srcPtrValue = srcPtr;
+        this.dstPtrValue = dstPtr;
+        this.lengthValue = length;
+
+        this.srcTemp = tool.newVariable(LIRKind.value(AMD64Kind.QWORD));
+        this.dstTemp = tool.newVariable(LIRKind.value(AMD64Kind.QWORD));
+        this.lengthTemp = tool.newVariable(LIRKind.value(AMD64Kind.DWORD));
+        this.charTemp = tool.newVariable(LIRKind.value(AMD64Kind.DWORD));
+        this.vectorTemp1 = tool.newVariable(LIRKind.value(AMD64Kind.V128_WORD));
+        this.vectorTemp2 = tool.newVariable(LIRKind.value(AMD64Kind.V128_WORD));
+        this.vectorTemp3 = tool.newVariable(LIRKind.value(AMD64Kind.V128_WORD));
+        this.vectorMask = tool.newVariable(LIRKind.value(AMD64Kind.V128_WORD));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register src = asRegister(srcTemp);
+        Register dst = asRegister(dstTemp);
+        Register remaining = asRegister(lengthTemp);
+        Register tmp = asRegister(charTemp);
+        Register vector1 = asRegister(vectorTemp1);
+        Register vector2 = asRegister(vectorTemp2);
+        Register vector3 = asRegister(vectorTemp3);
+        Register mask = asRegister(vectorMask);
+
+        Label bulkLoop = new Label();
+        Label singleVector = new Label();
+        Label tail = new Label();
+        Label tailLoop = new Label();
+        Label done = new Label();
+
+        masm.movq(src, asRegister(srcPtrValue));
+        masm.movq(dst, asRegister(dstPtrValue));
+        masm.movl(remaining, asRegister(lengthValue));
+
+        // broadcast the high byte of every char into the mask vector
+        masm.movl(tmp, HIGH_BYTES);
+        masm.movdl(mask, tmp);
+        masm.pshufd(mask, mask, 0);
+
+        // this code is used for AVX as well because VEX-prefixed instructions are emitted if AVX
+        // is supported
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(bulkLoop);
+        masm.cmpl(remaining, CHARS_PER_VECTOR * 2);
+        masm.jcc(ConditionFlag.Below, singleVector);
+        masm.movdqu(vector1, new AMD64Address(src));
+        masm.movdqu(vector2, new AMD64Address(src, CHARS_PER_VECTOR * 2));
+        masm.movdqu(vector3, vector1);
+        masm.por(vector3, vector2);
+        masm.ptest(vector3, mask);
+        masm.jcc(ConditionFlag.NotZero, tail);
+        masm.packuswb(vector1, vector2);
+        masm.movdqu(new AMD64Address(dst), vector1);
+        masm.addq(src, CHARS_PER_VECTOR * 4);
+        masm.addq(dst, CHARS_PER_VECTOR * 2);
+        masm.subl(remaining, CHARS_PER_VECTOR * 2);
+        masm.jmp(bulkLoop);
+
+        masm.bind(singleVector);
+        masm.cmpl(remaining, CHARS_PER_VECTOR);
+        masm.jcc(ConditionFlag.Below, tail);
+        masm.movdqu(vector1, new AMD64Address(src));
+        masm.ptest(vector1, mask);
+        masm.jcc(ConditionFlag.NotZero, tail);
+        masm.packuswb(vector1, vector1);
+        masm.movdq(new AMD64Address(dst), vector1);
+        masm.addq(src, CHARS_PER_VECTOR * 2);
+        masm.addq(dst, CHARS_PER_VECTOR);
+        masm.subl(remaining, CHARS_PER_VECTOR);
+
+        // copy the remaining chars one by one, stopping at the first one that does not fit
+        masm.bind(tail);
+        masm.testl(remaining, remaining);
+        masm.jcc(ConditionFlag.Zero, done);
+        masm.bind(tailLoop);
+        masm.movzwl(tmp, new AMD64Address(src));
+        masm.testl(tmp, 0xFF00);
+        masm.jcc(ConditionFlag.NotZero, done);
+        masm.movb(new AMD64Address(dst), tmp);
+        masm.addq(src, 2);
+        masm.addq(dst, 1);
+        masm.decrementl(remaining);
+        masm.jcc(ConditionFlag.NotZero, tailLoop);
+
+        masm.bind(done);
+        // the number of chars copied
+        masm.movl(result, asRegister(lengthValue));
+        masm.subl(result, remaining);
+    }
+}
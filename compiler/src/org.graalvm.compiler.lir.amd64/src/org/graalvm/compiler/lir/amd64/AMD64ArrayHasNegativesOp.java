@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRMOp;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.asm.amd64.AVXKind.AVXSize;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64.CPUFeature;
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code which checks if any byte of a byte array is negative, i.e. has its sign bit set. This
+ * is the hot loop of {@code java.lang.StringCoding.hasNegatives}. The bytes are tested 32 (AVX2)
+ * or 16 (SSE4.1) at a time against a vector of {@code 0x80} bytes; the remaining bytes are tested
+ * one by one.
+ */
+@Opcode("AMD64_ARRAY_HAS_NEGATIVES")
+public final class AMD64ArrayHasNegativesOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64ArrayHasNegativesOp> TYPE = LIRInstructionClass.create(AMD64ArrayHasNegativesOp.class);
+
+    private static final int SIGN_BITS = 0x80808080;
+    private static final int SSE_VECTOR_SIZE = 16;
+    private static final int AVX_VECTOR_SIZE = 32;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value arrayPtrValue;
+    @Alive({REG}) protected Value lengthValue;
+
+    @Temp({REG}) protected Value arrayPtrTemp;
+    @Temp({REG}) protected Value lengthTemp;
+    @Temp({REG}) protected Value vectorTemp;
+    @Temp({REG}) protected Value vectorMask;
+
+    public AMD64ArrayHasNegativesOp(LIRGeneratorTool tool, Value result, Value arrayPtr, Value length) {
+        super(TYPE);
+        assert supports(tool, CPUFeature.SSE4_1);
+        this.resultValue = result;
+        this.arrayPtrValue = arrayPtr;
+        this.lengthValue = length;
+
+        this.arrayPtrTemp = tool.newVariable(LIRKind.value(AMD64Kind.QWORD));
+        this.lengthTemp = tool.newVariable(LIRKind.value(AMD64Kind.DWORD));
+        AMD64Kind vectorKind = supports(tool, CPUFeature.AVX2) ? AMD64Kind.V256_BYTE : AMD64Kind.V128_BYTE;
+        this.vectorTemp = tool.newVariable(LIRKind.value(vectorKind));
+        this.vectorMask = tool.newVariable(LIRKind.value(vectorKind));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register array = asRegister(arrayPtrTemp);
+        Register length = asRegister(lengthTemp);
+        Register vector = asRegister(vectorTemp);
+        Register mask = asRegister(vectorMask);
+
+        Label sseLoop = new Label();
+        Label tail = new Label();
+        Label tailLoop = new Label();
+        Label found = new Label();
+        Label notFound = new Label();
+        Label done = new Label();
+
+        masm.movq(array, asRegister(arrayPtrValue));
+        masm.movl(length, asRegister(lengthValue));
+
+        // broadcast the sign bit of every byte into the mask vector
+        masm.movl(result, SIGN_BITS);
+        masm.movdl(mask, result);
+        if (masm.supports(CPUFeature.AVX2)) {
+            VexRMOp.VPBROADCASTD.emit(masm, AVXSize.YMM, mask, mask);
+
+            Label avxLoop = new Label();
+            masm.align(crb.target.wordSize * 2);
+            masm.bind(avxLoop);
+            masm.cmpl(length, AVX_VECTOR_SIZE);
+            masm.jcc(ConditionFlag.Below, sseLoop);
+            masm.vmovdqu(vector, new AMD64Address(array));
+            masm.vptest(vector, mask);
+            masm.jcc(ConditionFlag.NotZero, found);
+            masm.addq(array, AVX_VECTOR_SIZE);
+            masm.subl(length, AVX_VECTOR_SIZE);
+            masm.jmp(avxLoop);
+        } else {
+            masm.pshufd(mask, mask, 0);
+        }
+
+        // this code is used for AVX as well because VEX-prefixed instructions are emitted if AVX
+        // is supported
+        masm.bind(sseLoop);
+        masm.cmpl(length, SSE_VECTOR_SIZE);
+        masm.jcc(ConditionFlag.Below, tail);
+        masm.movdqu(vector, new AMD64Address(array));
+        masm.ptest(vector, mask);
+        masm.jcc(ConditionFlag.NotZero, found);
+        masm.addq(array, SSE_VECTOR_SIZE);
+        masm.subl(length, SSE_VECTOR_SIZE);
+        masm.jmp(sseLoop);
+
+        // test the remaining bytes one by one
+        masm.bind(tail);
+        masm.testl(length, length);
+        masm.jcc(ConditionFlag.Zero, notFound);
+        masm.bind(tailLoop);
+        masm.movzbl(result, new AMD64Address(array));
+        masm.testl(result, 0x80);
+        masm.jcc(ConditionFlag.NotZero, found);
+        masm.addq(array, 1);
+        masm.decrementl(length);
+        masm.jcc(ConditionFlag.NotZero, tailLoop);
+
+        masm.bind(notFound);
+        masm.xorl(result, result);
+        masm.jmp(done);
+
+        masm.bind(found);
+        masm.movl(result, 1);
+        masm.bind(done);
+    }
+
+    private static boolean supports(LIRGeneratorTool tool, CPUFeature cpuFeature) {
+        return ((AMD64) tool.target().arch).getFeatures().contains(cpuFeature);
+    }
+}
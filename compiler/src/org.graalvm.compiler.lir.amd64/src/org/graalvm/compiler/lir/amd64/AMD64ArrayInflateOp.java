@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.VexMoveOp;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.asm.amd64.AVXKind.AVXSize;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64.CPUFeature;
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code which zero extends {@code length} bytes to 16-bit chars, as done by
+ * {@code java.lang.StringLatin1.inflate}. 16 (AVX2) or 8 (SSE4.2) bytes are widened at a time with
+ * {@code pmovzxbw}; the remaining bytes are copied one by one.
+ */
+@Opcode("AMD64_ARRAY_INFLATE")
+public final class AMD64ArrayInflateOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64ArrayInflateOp> TYPE = LIRInstructionClass.create(AMD64ArrayInflateOp.class);
+
+    private static final int SSE_BYTES_PER_VECTOR = 8;
+    private static final int AVX_BYTES_PER_VECTOR = 16;
+
+    @Alive({REG}) protected Value srcPtrValue;
+    @Alive({REG}) protected Value dstPtrValue;
+    @Alive({REG}) protected Value lengthValue;
+
+    @Temp({REG}) protected Value srcTemp;
+    @Temp({REG}) protected Value dstTemp;
+    @Temp({REG}) protected Value lengthTemp;
+    @Temp({REG}) protected Value charTemp;
+    @Temp({REG}) protected Value vectorTemp;
+
+    public AMD64ArrayInflateOp(LIRGeneratorTool tool, Value srcPtr, Value dstPtr, Value length) {
+        super(TYPE);
+        assert supports(tool, CPUFeature.SSE4_2);
+        this.srcPtrValue = srcPtr;
+        this.dstPtrValue = dstPtr;
+        this.lengthValue = length;
+
+        this.srcTemp = tool.newVariable(LIRKind.value(AMD64Kind.QWORD));
+        this.dstTemp = tool.newVariable(LIRKind.value(AMD64Kind.QWORD));
+        this.lengthTemp = tool.newVariable(LIRKind.value(AMD64Kind.DWORD));
+        this.charTemp = tool.newVariable(LIRKind.value(AMD64Kind.DWORD));
+        this.vectorTemp = tool.newVariable(LIRKind.value(supports(tool, CPUFeature.AVX2) ? AMD64Kind.V256_WORD : AMD64Kind.V128_WORD));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register src = asRegister(srcTemp);
+        Register dst = asRegister(dstTemp);
+        Register length = asRegister(lengthTemp);
+        Register tmp = asRegister(charTemp);
+        Register vector = asRegister(vectorTemp);
+
+        Label sseLoop = new Label();
+        Label tail = new Label();
+        Label tailLoop = new Label();
+        Label done = new Label();
+
+        masm.movq(src, asRegister(srcPtrValue));
+        masm.movq(dst, asRegister(dstPtrValue));
+        masm.movl(length, asRegister(lengthValue));
+
+        if (masm.supports(CPUFeature.AVX2)) {
+            Label avxLoop = new Label();
+            masm.align(crb.target.wordSize * 2);
+            masm.bind(avxLoop);
+            masm.cmpl(length, AVX_BYTES_PER_VECTOR);
+            masm.jcc(ConditionFlag.Below, sseLoop);
+            masm.vpmovzxbw(vector, new AMD64Address(src));
+            VexMoveOp.VMOVDQU.emit(masm, AVXSize.YMM, new AMD64Address(dst), vector);
+            masm.addq(src, AVX_BYTES_PER_VECTOR);
+            masm.addq(dst, AVX_BYTES_PER_VECTOR * 2);
+            masm.subl(length, AVX_BYTES_PER_VECTOR);
+            masm.jmp(avxLoop);
+        }
+
+        masm.bind(sseLoop);
+        masm.cmpl(length, SSE_BYTES_PER_VECTOR);
+        masm.jcc(ConditionFlag.Below, tail);
+        masm.pmovzxbw(vector, new AMD64Address(src));
+        masm.movdqu(new AMD64Address(dst), vector);
+        masm.addq(src, SSE_BYTES_PER_VECTOR);
+        masm.addq(dst, SSE_BYTES_PER_VECTOR * 2);
+        masm.subl(length, SSE_BYTES_PER_VECTOR);
+        masm.jmp(sseLoop);
+
+        // copy the remaining bytes one by one
+        masm.bind(tail);
+        masm.testl(length, length);
+        masm.jcc(ConditionFlag.Zero, done);
+        masm.bind(tailLoop);
+        masm.movzbl(tmp, new AMD64Address(src));
+        masm.movw(new AMD64Address(dst), tmp);
+        masm.addq(src, 1);
+        masm.addq(dst, 2);
+        masm.decrementl(length);
+        masm.jcc(ConditionFlag.NotZero, tailLoop);
+        masm.bind(done);
+    }
+
+    private static boolean supports(LIRGeneratorTool tool, CPUFeature cpuFeature) {
+        return ((AMD64) tool.target().arch).getFeatures().contains(cpuFeature);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Address.Scale;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.AMD64BinaryArithmetic;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRMOp;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp;
+import org.graalvm.compiler.asm.amd64.AMD64BaseAssembler.OperandSize;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.asm.amd64.AVXKind.AVXSize;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64.CPUFeature;
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code which compares two memory regions of the same length byte by byte and returns the
+ * offset of the first byte that differs, or -1 if the regions are equal. Like
+ * {@link AMD64ArrayEqualsOp} it compares 32 (AVX2) or 16 (SSE) bytes at a time, followed by 8 bytes
+ * at a time and a final byte-wise loop, but instead of just detecting a difference it locates it
+ * with a {@code bsf} on the comparison mask. This implements
+ * {@code jdk.internal.util.ArraysSupport.vectorizedMismatch}.
+ */
+@Opcode("AMD64_VECTORIZED_MISMATCH")
+public final class AMD64VectorizedMismatchOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64VectorizedMismatchOp> TYPE = LIRInstructionClass.create(AMD64VectorizedMismatchOp.class);
+
+    private static final int SSE_VECTOR_SIZE = 16;
+    private static final int AVX_VECTOR_SIZE = 32;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value aPtrValue;
+    @Alive({REG}) protected Value bPtrValue;
+    @Alive({REG}) protected Value lengthValue;
+
+    @Temp({REG}) protected Value indexTemp;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+    @Temp({REG}) protected Value vectorTemp1;
+    @Temp({REG}) protected Value vectorTemp2;
+
+    public AMD64VectorizedMismatchOp(LIRGeneratorTool tool, Value result, Value aPtr, Value bPtr, Value length) {
+        super(TYPE);
+        this.resultValue = result;
+        this.aPtrValue = aPtr;
+        this.bPtrValue = bPtr;
+        this.lengthValue = length;
+
+        this.indexTemp = tool.newVariable(LIRKind.value(AMD64Kind.QWORD));
+        this.temp1 = tool.newVariable(LIRKind.value(AMD64Kind.QWORD));
+        this.temp2 = tool.newVariable(LIRKind.value(AMD64Kind.QWORD));
+        AMD64Kind vectorKind = supportsAVX2(tool) ? AMD64Kind.V256_BYTE : AMD64Kind.V128_BYTE;
+        this.vectorTemp1 = tool.newVariable(LIRKind.value(vectorKind));
+        this.vectorTemp2 = tool.newVariable(LIRKind.value(vectorKind));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register a = asRegister(aPtrValue);
+        Register b = asRegister(bPtrValue);
+        Register length = asRegister(lengthValue);
+        Register index = asRegister(indexTemp);
+        Register tmp1 = asRegister(temp1);
+        Register tmp2 = asRegister(temp2);
+        Register vector1 = asRegister(vectorTemp1);
+        Register vector2 = asRegister(vectorTemp2);
+
+        Label sseLoop = new Label();
+        Label qwordLoop = new Label();
+        Label byteLoop = new Label();
+        Label foundInMask = new Label();
+        Label foundInQword = new Label();
+        Label found = new Label();
+        Label notFound = new Label();
+        Label done = new Label();
+
+        masm.xorl(index, index);
+
+        if (masm.supports(CPUFeature.AVX2)) {
+            Label avxLoop = new Label();
+            masm.align(crb.target.wordSize * 2);
+            masm.bind(avxLoop);
+            emitRemaining(masm, tmp1, length, index);
+            masm.cmpq(tmp1, AVX_VECTOR_SIZE);
+            masm.jcc(ConditionFlag.Below, sseLoop);
+            masm.vmovdqu(vector1, new AMD64Address(a, index, Scale.Times1));
+            masm.vmovdqu(vector2, new AMD64Address(b, index, Scale.Times1));
+            VexRVMOp.VPCMPEQB.emit(masm, AVXSize.YMM, vector1, vector1, vector2);
+            VexRMOp.VPMOVMSKB.emit(masm, AVXSize.YMM, tmp1, vector1);
+            // set bits now mark the bytes that differ
+            masm.notl(tmp1);
+            masm.testl(tmp1, tmp1);
+            masm.jcc(ConditionFlag.NotZero, foundInMask);
+            masm.addq(index, AVX_VECTOR_SIZE);
+            masm.jmp(avxLoop);
+        }
+
+        // this code is used for AVX as well because VEX-prefixed instructions are emitted if AVX
+        // is supported
+        masm.bind(sseLoop);
+        emitRemaining(masm, tmp1, length, index);
+        masm.cmpq(tmp1, SSE_VECTOR_SIZE);
+        masm.jcc(ConditionFlag.Below, qwordLoop);
+        masm.movdqu(vector1, new AMD64Address(a, index, Scale.Times1));
+        masm.movdqu(vector2, new AMD64Address(b, index, Scale.Times1));
+        masm.pcmpeqb(vector1, vector2);
+        masm.pmovmskb(tmp1, vector1);
+        // set bits now mark the bytes that differ
+        masm.notl(tmp1);
+        masm.andl(tmp1, 0xFFFF);
+        masm.jcc(ConditionFlag.NotZero, foundInMask);
+        masm.addq(index, SSE_VECTOR_SIZE);
+        masm.jmp(sseLoop);
+
+        masm.bind(qwordLoop);
+        emitRemaining(masm, tmp1, length, index);
+        masm.cmpq(tmp1, 8);
+        masm.jcc(ConditionFlag.Below, byteLoop);
+        masm.movq(tmp1, new AMD64Address(a, index, Scale.Times1));
+        AMD64BinaryArithmetic.XOR.getRMOpcode(OperandSize.QWORD).emit(masm, OperandSize.QWORD, tmp1, new AMD64Address(b, index, Scale.Times1));
+        masm.jcc(ConditionFlag.NotZero, foundInQword);
+        masm.addq(index, 8);
+        masm.jmp(qwordLoop);
+
+        masm.bind(byteLoop);
+        masm.cmpq(index, length);
+        masm.jcc(ConditionFlag.AboveEqual, notFound);
+        masm.movzbl(tmp1, new AMD64Address(a, index, Scale.Times1));
+        masm.movzbl(tmp2, new AMD64Address(b, index, Scale.Times1));
+        masm.cmpl(tmp1, tmp2);
+        masm.jcc(ConditionFlag.NotEqual, found);
+        masm.addq(index, 1);
+        masm.jmp(byteLoop);
+
+        masm.bind(foundInQword);
+        // convert the index of the lowest differing bit to a byte offset
+        masm.bsfq(tmp1, tmp1);
+        masm.shrq(tmp1, 3);
+        masm.addq(index, tmp1);
+        masm.jmp(found);
+
+        masm.bind(foundInMask);
+        masm.bsfq(tmp1, tmp1);
+        masm.addq(index, tmp1);
+
+        masm.bind(found);
+        masm.movq(result, index);
+        masm.jmp(done);
+
+        masm.bind(notFound);
+        masm.movq(result, -1L);
+        masm.bind(done);
+    }
+
+    /**
+     * Computes the number of bytes that remain to be compared.
+     */
+    private static void emitRemaining(AMD64MacroAssembler masm, Register remaining, Register length, Register index) {
+        masm.movq(remaining, length);
+        masm.subq(remaining, index);
+    }
+
+    private static boolean supportsAVX2(LIRGeneratorTool tool) {
+        return ((AMD64) tool.target().arch).getFeatures().contains(CPUFeature.AVX2);
+    }
+}
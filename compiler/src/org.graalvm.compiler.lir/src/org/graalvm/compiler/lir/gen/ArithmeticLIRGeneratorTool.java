@@ -132,4 +132,12 @@ public interface ArithmeticLIRGeneratorTool {
         throw GraalError.unimplemented("No specialized implementation available");
     }
 
+    /**
+     * Emits a vector of kind {@code resultKind} that has the scalar {@code input} in every lane.
+     */
+    @SuppressWarnings("unused")
+    default Variable emitVectorBroadcast(LIRKind resultKind, Value input) {
+        throw GraalError.unimplemented("No specialized implementation available");
+    }
+
 }
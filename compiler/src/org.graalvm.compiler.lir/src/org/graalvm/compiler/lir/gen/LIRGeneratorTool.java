@@ -273,6 +273,26 @@ public interface LIRGeneratorTool extends DiagnosticLIRGeneratorTool, ValueKindF
         throw GraalError.unimplemented("String.indexOf substitution is not implemented on this architecture");
     }
 
+    @SuppressWarnings("unused")
+    default Variable emitArrayHasNegatives(Value arrayPointer, Value length) {
+        throw GraalError.unimplemented("StringCoding.hasNegatives substitution is not implemented on this architecture");
+    }
+
+    @SuppressWarnings("unused")
+    default Variable emitArrayCompress(Value srcPointer, Value dstPointer, Value length) {
+        throw GraalError.unimplemented("StringUTF16.compress substitution is not implemented on this architecture");
+    }
+
+    @SuppressWarnings("unused")
+    default void emitArrayInflate(Value srcPointer, Value dstPointer, Value length) {
+        throw GraalError.unimplemented("StringLatin1.inflate substitution is not implemented on this architecture");
+    }
+
+    @SuppressWarnings("unused")
+    default Variable emitVectorizedMismatch(Value arrayAPointer, Value arrayBPointer, Value length) {
+        throw GraalError.unimplemented("ArraysSupport.vectorizedMismatch substitution is not implemented on this architecture");
+    }
+
     void emitBlackhole(Value operand);
 
     LIRKind getLIRKind(Stamp stamp);
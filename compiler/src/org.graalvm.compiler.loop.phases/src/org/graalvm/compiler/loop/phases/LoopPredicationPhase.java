@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.phases;
+
+import static org.graalvm.compiler.loop.MathUtil.add;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.graalvm.collections.EconomicSet;
+import org.graalvm.collections.Equivalence;
+import org.graalvm.compiler.core.common.cfg.AbstractControlFlowGraph;
+import org.graalvm.compiler.core.common.type.IntegerStamp;
+import org.graalvm.compiler.loop.BasicInductionVariable;
+import org.graalvm.compiler.loop.CountedLoopInfo;
+import org.graalvm.compiler.loop.InductionVariable;
+import org.graalvm.compiler.loop.InductionVariable.Direction;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.GuardNode;
+import org.graalvm.compiler.nodes.LogicNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.ShortCircuitOrNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.IntegerBelowNode;
+import org.graalvm.compiler.nodes.calc.IntegerEqualsNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.cfg.Block;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+import org.graalvm.compiler.phases.BasePhase;
+import org.graalvm.compiler.phases.tiers.MidTierContext;
+
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.SpeculationLog;
+import jdk.vm.ci.meta.SpeculationLog.SpeculationReason;
+
+/**
+ * Hoists guards that are executed in every iteration of a loop to the loop entry. A guard is
+ * hoisted if its condition is loop invariant or if it is a bounds check {@code i + c |<| length}
+ * of the counter {@code i} of a counted loop against an invariant length; in the latter case the
+ * hoisted guard checks the first and the last value the index takes in the loop.
+ *
+ * Hoisting is speculative: the hoisted guard may fail although the loop would have left before
+ * reaching the original guard. All guards hoisted out of a loop therefore share one speculation.
+ * Once it failed, the loop is compiled with the guards left in place.
+ */
+public class LoopPredicationPhase extends BasePhase<MidTierContext> {
+
+    @Override
+    protected void run(StructuredGraph graph, MidTierContext context) {
+        SpeculationLog speculationLog = graph.getSpeculationLog();
+        if (speculationLog == null || !graph.hasLoops() || !graph.getGuardsStage().allowsFloatingGuards()) {
+            return;
+        }
+        boolean useLoopLimitChecks = context.getOptimisticOptimizations().useLoopLimitChecks(graph.getOptions());
+        EconomicSet<GuardNode> predicates = EconomicSet.create(Equivalence.IDENTITY);
+        boolean progress;
+        do {
+            // floating nodes only become invariant once the guards they depend on are hoisted
+            progress = false;
+            LoopsData loops = new LoopsData(graph);
+            if (useLoopLimitChecks) {
+                loops.detectedCountedLoops();
+            }
+            List<LoopEx> innerFirst = new ArrayList<>(loops.outerFirst());
+            Collections.reverse(innerFirst);
+            for (LoopEx loop : innerFirst) {
+                progress |= predicate(loop, loops.getCFG(), speculationLog, predicates);
+            }
+            loops.deleteUnusedNodes();
+        } while (progress);
+    }
+
+    private static boolean predicate(LoopEx loop, ControlFlowGraph cfg, SpeculationLog speculationLog, EconomicSet<GuardNode> predicates) {
+        FrameState state = loop.loopBegin().stateAfter();
+        if (state == null) {
+            return false;
+        }
+        SpeculationReason reason = new LoopPredicationSpeculationReason(state.getMethod(), state.bci);
+        if (!speculationLog.maySpeculate(reason)) {
+            return false;
+        }
+        SpeculationLog.Speculation speculation = null;
+        for (GuardNode guard : loop.whole().nodes().filter(GuardNode.class).snapshot()) {
+            if (!isCandidate(loop, cfg, guard, predicates)) {
+                continue;
+            }
+            LogicNode condition = guard.getCondition();
+            boolean negated = guard.isNegated();
+            if (!loop.isOutsideLoop(condition)) {
+                condition = boundsCheckFailure(loop, guard);
+                if (condition == null) {
+                    continue;
+                }
+                negated = true;
+            }
+            if (loop.isCounted()) {
+                condition = entryCondition(loop, condition, negated);
+                negated = false;
+            }
+            if (speculation == null) {
+                speculation = speculationLog.speculate(reason);
+            }
+            StructuredGraph graph = loop.loopBegin().graph();
+            GuardNode predicate = graph.unique(new GuardNode(condition, AbstractBeginNode.prevBegin(loop.entryPoint()), guard.getReason(), DeoptimizationAction.InvalidateRecompile, negated,
+                            speculation, guard.getNoDeoptSuccessorPosition()));
+            predicates.add(predicate);
+            guard.replaceAtUsages(predicate);
+            predicates.remove(guard);
+            GraphUtil.killWithUnusedFloatingInputs(guard, true);
+        }
+        return speculation != null;
+    }
+
+    /**
+     * Guards are only hoisted if they are evaluated in every iteration. Guards carrying a
+     * speculation other than one of the predicates created by this phase are left alone since
+     * hoisting them would lose the connection to their speculation.
+     */
+    private static boolean isCandidate(LoopEx loop, ControlFlowGraph cfg, GuardNode guard, EconomicSet<GuardNode> predicates) {
+        if (guard.getReason() == DeoptimizationReason.LoopLimitCheck) {
+            return false;
+        }
+        if (guard.getSpeculation() != SpeculationLog.NO_SPECULATION && !predicates.contains(guard)) {
+            return false;
+        }
+        if (loop.isOutsideLoop(guard.getAnchor().asNode())) {
+            return false;
+        }
+        Block anchorBlock = cfg.blockFor(guard.getAnchor().asNode());
+        if (anchorBlock == null) {
+            return false;
+        }
+        for (LoopEndNode loopEnd : loop.loopBegin().loopEnds()) {
+            if (!AbstractControlFlowGraph.dominates(anchorBlock, cfg.blockFor(loopEnd))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a condition that holds at the loop entry if {@code condition} (or its negation) holds
+     * or the loop body is never entered.
+     */
+    private static LogicNode entryCondition(LoopEx loop, LogicNode condition, boolean negated) {
+        StructuredGraph graph = loop.loopBegin().graph();
+        CountedLoopInfo counted = loop.counted();
+        counted.createOverFlowGuard();
+        ValueNode tripCount = counted.maxTripCountNode();
+        LogicNode noIterations = graph.unique(new IntegerEqualsNode(tripCount, ConstantNode.forIntegerStamp(tripCount.stamp(NodeView.DEFAULT), 0, graph)));
+        return graph.unique(new ShortCircuitOrNode(noIterations, false, condition, negated, 0.0));
+    }
+
+    /**
+     * Derives the failure condition of a guard {@code i + c |<| length} where {@code i} is the
+     * counter of the loop, {@code c} a constant and {@code length} loop invariant. The index must
+     * stay in bounds for the first and the last iteration and must not wrap around in between.
+     */
+    private static LogicNode boundsCheckFailure(LoopEx loop, GuardNode guard) {
+        if (!loop.isCounted() || guard.isNegated() || !(guard.getCondition() instanceof IntegerBelowNode)) {
+            return null;
+        }
+        IntegerBelowNode below = (IntegerBelowNode) guard.getCondition();
+        ValueNode length = below.getY();
+        if (!loop.isOutsideLoop(length)) {
+            return null;
+        }
+        InductionVariable counter = loop.counted().getCounter();
+        if (!(counter instanceof BasicInductionVariable) || !counter.isConstantStride() || ((IntegerStamp) counter.valueNode().stamp(NodeView.DEFAULT)).getBits() != 32) {
+            return null;
+        }
+        ValueNode index = below.getX();
+        ValueNode offset = null;
+        if (index instanceof AddNode) {
+            AddNode add = (AddNode) index;
+            if (add.getX() != counter.valueNode() || !add.getY().isConstant()) {
+                return null;
+            }
+            offset = add.getY();
+        } else if (index != counter.valueNode()) {
+            return null;
+        }
+        StructuredGraph graph = guard.graph();
+        ValueNode first = counter.initNode();
+        ValueNode last = counter.extremumNode();
+        if (offset != null) {
+            first = add(graph, first, offset);
+            last = add(graph, last, offset);
+        }
+        LogicNode outOfBounds = graph.unique(new ShortCircuitOrNode(graph.unique(new IntegerBelowNode(first, length)), true, graph.unique(new IntegerBelowNode(last, length)), true, 0.0));
+        LogicNode wrapped;
+        if (counter.direction() == Direction.Up) {
+            wrapped = graph.unique(new IntegerLessThanNode(last, first));
+        } else {
+            wrapped = graph.unique(new IntegerLessThanNode(first, last));
+        }
+        return graph.unique(new ShortCircuitOrNode(outOfBounds, false, wrapped, false, 0.0));
+    }
+
+    private static class LoopPredicationSpeculationReason implements SpeculationReason {
+        private final ResolvedJavaMethod method;
+        private final int bci;
+
+        LoopPredicationSpeculationReason(ResolvedJavaMethod method, int bci) {
+            this.method = method;
+            this.bci = bci;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof LoopPredicationSpeculationReason) {
+                LoopPredicationSpeculationReason that = (LoopPredicationSpeculationReason) obj;
+                return this.method.equals(that.method) && this.bci == that.bci;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return method.hashCode() ^ bci;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.phases;
+
+import java.util.List;
+
+import org.graalvm.compiler.graph.Graph;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopPolicies;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.loop.phases.LoopTransformations.RangeCheck;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.common.util.HashSetNodeEventListener;
+import org.graalvm.compiler.phases.tiers.PhaseContext;
+
+/**
+ * Removes range checks from counted loops by splitting them into pre, main and post loops (see
+ * {@link LoopTransformations#eliminateRangeChecks}). Needs to run after guards have been lowered
+ * to fixed deoptimizations but before frame state assignment.
+ */
+public class LoopRangeCheckEliminationPhase extends LoopPhase<LoopPolicies> {
+
+    private final CanonicalizerPhase canonicalizer;
+
+    public LoopRangeCheckEliminationPhase(LoopPolicies policies, CanonicalizerPhase canonicalizer) {
+        super(policies);
+        this.canonicalizer = canonicalizer;
+    }
+
+    @Override
+    @SuppressWarnings("try")
+    protected void run(StructuredGraph graph, PhaseContext context) {
+        if (graph.hasLoops()) {
+            HashSetNodeEventListener listener = new HashSetNodeEventListener();
+            try (Graph.NodeEventScope nes = graph.trackNodeEvents(listener)) {
+                LoopsData dataCounted = new LoopsData(graph);
+                dataCounted.detectedCountedLoops();
+                for (LoopEx loop : dataCounted.countedLoops()) {
+                    List<RangeCheck> rangeChecks = LoopTransformations.findRangeChecks(loop);
+                    if (!rangeChecks.isEmpty() && getPolicies().shouldEliminateRangeChecks(loop)) {
+                        LoopTransformations.eliminateRangeChecks(loop, rangeChecks);
+                    }
+                }
+                dataCounted.deleteUnusedNodes();
+            }
+            if (!listener.getNodes().isEmpty()) {
+                canonicalizer.applyIncremental(graph, context, listener.getNodes());
+            }
+        }
+    }
+
+    @Override
+    public boolean checkContract() {
+        return false;
+    }
+}
@@ -24,6 +24,10 @@
  */
 package org.graalvm.compiler.loop.phases;
 
+import static org.graalvm.compiler.core.common.GraalOptions.GenLoopSafepoints;
+import static org.graalvm.compiler.core.common.GraalOptions.StripMineCountedLoops;
+import static org.graalvm.compiler.core.common.GraalOptions.StripMiningIterations;
+
 import org.graalvm.compiler.loop.LoopEx;
 import org.graalvm.compiler.loop.LoopsData;
 import org.graalvm.compiler.nodes.FixedNode;
@@ -41,6 +45,8 @@ public class LoopSafepointEliminationPhase extends BasePhase<MidTierContext> {
     protected void run(StructuredGraph graph, MidTierContext context) {
         LoopsData loops = new LoopsData(graph);
         if (context.getOptimisticOptimizations().useLoopLimitChecks(graph.getOptions()) && graph.getGuardsStage().allowsFloatingGuards()) {
+            boolean stripMine = StripMineCountedLoops.getValue(graph.getOptions()) && GenLoopSafepoints.getValue(graph.getOptions());
+            int stripMiningIterations = StripMiningIterations.getValue(graph.getOptions());
             loops.detectedCountedLoops();
             for (LoopEx loop : loops.countedLoops()) {
                 if (loop.loop().getChildren().isEmpty() && loop.counted().getStamp().getBits() <= 32) {
@@ -50,6 +56,10 @@ public class LoopSafepointEliminationPhase extends BasePhase<MidTierContext> {
                     }
                     if (hasSafepoint) {
                         loop.counted().createOverFlowGuard();
+                        if (stripMine && stripMiningIterations > 0 && LoopTransformations.isStripMiningCandidate(loop, stripMiningIterations)) {
+                            // the outer loop polls once per strip instead
+                            LoopTransformations.stripMine(loop, stripMiningIterations);
+                        }
                         loop.loopBegin().disableSafepoint();
                     }
                 }
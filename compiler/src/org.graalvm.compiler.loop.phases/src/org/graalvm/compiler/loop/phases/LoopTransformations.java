@@ -34,11 +34,15 @@ import java.util.List;
 
 import org.graalvm.compiler.core.common.RetryableBailoutException;
 import org.graalvm.compiler.core.common.calc.CanonicalCondition;
+import org.graalvm.compiler.core.common.cfg.AbstractControlFlowGraph;
+import org.graalvm.compiler.core.common.type.IntegerStamp;
+import org.graalvm.compiler.core.common.type.Stamp;
 import org.graalvm.compiler.debug.DebugContext;
 import org.graalvm.compiler.debug.GraalError;
 import org.graalvm.compiler.graph.Graph.Mark;
 import org.graalvm.compiler.graph.Node;
 import org.graalvm.compiler.graph.Position;
+import org.graalvm.compiler.loop.BasicInductionVariable;
 import org.graalvm.compiler.loop.CountedLoopInfo;
 import org.graalvm.compiler.loop.InductionVariable;
 import org.graalvm.compiler.loop.InductionVariable.Direction;
@@ -47,6 +51,7 @@ import org.graalvm.compiler.loop.LoopFragmentInside;
 import org.graalvm.compiler.loop.LoopFragmentWhole;
 import org.graalvm.compiler.nodeinfo.InputType;
 import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.AbstractDeoptimizeNode;
 import org.graalvm.compiler.nodes.AbstractEndNode;
 import org.graalvm.compiler.nodes.AbstractMergeNode;
 import org.graalvm.compiler.nodes.BeginNode;
@@ -55,18 +60,31 @@ import org.graalvm.compiler.nodes.ControlSplitNode;
 import org.graalvm.compiler.nodes.EndNode;
 import org.graalvm.compiler.nodes.FixedNode;
 import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.FrameState;
 import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.Invoke;
+import org.graalvm.compiler.nodes.LogicConstantNode;
 import org.graalvm.compiler.nodes.LogicNode;
 import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
 import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.NodeView;
 import org.graalvm.compiler.nodes.PhiNode;
 import org.graalvm.compiler.nodes.SafepointNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.VirtualState;
+import org.graalvm.compiler.nodes.calc.AddNode;
 import org.graalvm.compiler.nodes.calc.CompareNode;
 import org.graalvm.compiler.nodes.calc.ConditionalNode;
+import org.graalvm.compiler.nodes.calc.IntegerBelowNode;
 import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.cfg.Block;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
 import org.graalvm.compiler.nodes.extended.SwitchNode;
+import org.graalvm.compiler.nodes.memory.MemoryPhiNode;
+import org.graalvm.compiler.nodes.util.GraphUtil;
 import org.graalvm.compiler.phases.common.CanonicalizerPhase;
 import org.graalvm.compiler.phases.tiers.PhaseContext;
 
@@ -228,6 +246,11 @@ public abstract class LoopTransformations {
     // be updated to produce vector alignment if applicable.
 
     public static LoopBeginNode insertPrePostLoops(LoopEx loop) {
+        LoopFragmentWhole mainLoop = splitPrePostLoops(loop);
+        return mainLoop.getDuplicatedNode(loop.loopBegin());
+    }
+
+    private static LoopFragmentWhole splitPrePostLoops(LoopEx loop) {
         StructuredGraph graph = loop.loopBegin().graph();
         graph.getDebug().log("LoopTransformations.insertPrePostLoops %s", loop);
         LoopFragmentWhole preLoop = loop.whole();
@@ -293,7 +316,7 @@ public abstract class LoopTransformations {
             graph.removeFixed(safepoint);
         }
         graph.getDebug().dump(DebugContext.DETAILED_LEVEL, graph, "InsertPrePostLoops %s", loop);
-        return mainLoopBegin;
+        return mainLoop;
     }
 
     /**
@@ -413,6 +436,345 @@ public abstract class LoopTransformations {
         }
     }
 
+    /**
+     * A bounds check in a counted loop whose index is the loop's basic induction variable plus a
+     * constant offset and whose length is loop invariant. The check is an {@link IfNode} that
+     * deoptimizes on its false successor.
+     */
+    public static final class RangeCheck {
+        private final IfNode ifNode;
+        private final ValueNode length;
+        private final int offset;
+        private final boolean unsigned;
+
+        RangeCheck(IfNode ifNode, ValueNode length, int offset, boolean unsigned) {
+            this.ifNode = ifNode;
+            this.length = length;
+            this.offset = offset;
+            this.unsigned = unsigned;
+        }
+
+        public IfNode getIfNode() {
+            return ifNode;
+        }
+
+        /**
+         * The smallest counter value for which the check can be proven from its upper bound alone.
+         * Below this value {@code index} is either negative or its computation wraps around.
+         */
+        long lowerBound() {
+            if (unsigned) {
+                return -(long) offset;
+            } else if (offset < 0) {
+                return (long) Integer.MIN_VALUE - offset;
+            }
+            return Integer.MIN_VALUE;
+        }
+
+        /**
+         * The exclusive upper bound of counter values that pass this check, i.e.
+         * {@code length - offset} saturated to the int range.
+         */
+        ValueNode upperBound(StructuredGraph graph) {
+            if (offset == 0) {
+                return length;
+            }
+            ValueNode difference = sub(graph, length, ConstantNode.forInt(offset, graph));
+            if (offset > 0) {
+                LogicNode underflow = graph.unique(new IntegerLessThanNode(length, ConstantNode.forInt(Integer.MIN_VALUE + offset, graph)));
+                return graph.unique(new ConditionalNode(underflow, ConstantNode.forInt(Integer.MIN_VALUE, graph), difference));
+            } else {
+                LogicNode overflow = graph.unique(new IntegerLessThanNode(ConstantNode.forInt(Integer.MAX_VALUE + offset, graph), length));
+                return graph.unique(new ConditionalNode(overflow, ConstantNode.forInt(Integer.MAX_VALUE, graph), difference));
+            }
+        }
+    }
+
+    /**
+     * The largest negative offset of an unsigned range check that {@link #eliminateRangeChecks}
+     * removes. The pre loop runs until the counter reaches the negated offset. It is expected to
+     * run once, so it gets a frequency of 1 and no further optimization.
+     */
+    private static final int MAX_NEGATIVE_RANGE_CHECK_OFFSET = 16;
+
+    /**
+     * Collects the range checks of {@code loop} which can be removed from its main loop by
+     * {@link #eliminateRangeChecks}. Only checks which are executed on every iteration are
+     * considered so that the pre and post loops deoptimize on their first failing iteration.
+     * Unsigned checks whose offset is more negative than
+     * {@code -}{@link #MAX_NEGATIVE_RANGE_CHECK_OFFSET} are not considered because they would keep
+     * the pre loop running for many iterations.
+     */
+    public static List<RangeCheck> findRangeChecks(LoopEx loop) {
+        List<RangeCheck> rangeChecks = new ArrayList<>();
+        if (!isRangeCheckEliminationCandidate(loop)) {
+            return rangeChecks;
+        }
+        CountedLoopInfo counted = loop.counted();
+        ValueNode counter = counted.getCounter().valueNode();
+        ControlFlowGraph cfg = loop.loopsData().getCFG();
+        for (IfNode ifNode : loop.whole().nodes().filter(IfNode.class)) {
+            if (ifNode == counted.getLimitTest() || !(ifNode.falseSuccessor().next() instanceof AbstractDeoptimizeNode)) {
+                continue;
+            }
+            LogicNode condition = ifNode.condition();
+            if (!(condition instanceof IntegerBelowNode) && !(condition instanceof IntegerLessThanNode)) {
+                continue;
+            }
+            CompareNode compare = (CompareNode) condition;
+            ValueNode index = compare.getX();
+            ValueNode length = compare.getY();
+            if (!loop.isOutsideLoop(length)) {
+                continue;
+            }
+            long offset;
+            if (index == counter) {
+                offset = 0;
+            } else if (index instanceof AddNode && ((AddNode) index).getX() == counter && ((AddNode) index).getY().isJavaConstant()) {
+                offset = ((AddNode) index).getY().asJavaConstant().asLong();
+            } else {
+                continue;
+            }
+            boolean unsigned = condition instanceof IntegerBelowNode;
+            if (offset <= Integer.MIN_VALUE || offset > Integer.MAX_VALUE || (unsigned && offset < -MAX_NEGATIVE_RANGE_CHECK_OFFSET)) {
+                continue;
+            }
+            Block block = cfg.blockFor(ifNode);
+            boolean executedEveryIteration = true;
+            for (LoopEndNode loopEnd : loop.loopBegin().loopEnds()) {
+                if (!AbstractControlFlowGraph.dominates(block, cfg.blockFor(loopEnd))) {
+                    executedEveryIteration = false;
+                    break;
+                }
+            }
+            if (executedEveryIteration) {
+                rangeChecks.add(new RangeCheck(ifNode, length, (int) offset, unsigned));
+            }
+        }
+        return rangeChecks;
+    }
+
+    private static boolean isRangeCheckEliminationCandidate(LoopEx loop) {
+        if (!loop.isCounted() || !loop.loop().getChildren().isEmpty() || !loop.loopBegin().isSimpleLoop()) {
+            return false;
+        }
+        CountedLoopInfo counted = loop.counted();
+        InductionVariable counter = counted.getCounter();
+        if (!(counter instanceof BasicInductionVariable) || !counter.isConstantStride() || counter.direction() != Direction.Up) {
+            return false;
+        }
+        Stamp counterStamp = counter.valueNode().stamp(NodeView.DEFAULT);
+        if (!(counterStamp instanceof IntegerStamp) || ((IntegerStamp) counterStamp).getBits() != 32) {
+            return false;
+        }
+        IfNode limitTest = counted.getLimitTest();
+        LogicNode condition = limitTest.condition();
+        if (!(condition instanceof IntegerLessThanNode) || ((IntegerLessThanNode) condition).getX() != counter.valueNode() || limitTest.trueSuccessor() != counted.getBody()) {
+            return false;
+        }
+        return loop.canDuplicateLoop();
+    }
+
+    /**
+     * Splits {@code loop} into pre, main and post loops such that the main loop only covers
+     * iterations in which all of {@code rangeChecks} succeed, and removes those checks from the
+     * main loop. The pre loop runs until the counter has reached the lower bound of every check
+     * and the main loop stops before the first counter value that would fail one of them. The pre
+     * and post loops keep their checks, so an out of bounds access still deoptimizes at the same
+     * iteration as in the original loop.
+     *
+     * This must run before {@link org.graalvm.compiler.phases.common.FrameStateAssignmentPhase} so
+     * that the deoptimizing branches are still part of the loop and get duplicated with it.
+     *
+     * @return the begin node of the main loop
+     */
+    public static LoopBeginNode eliminateRangeChecks(LoopEx loop, List<RangeCheck> rangeChecks) {
+        assert !rangeChecks.isEmpty() && isRangeCheckEliminationCandidate(loop);
+        StructuredGraph graph = loop.loopBegin().graph();
+        graph.getDebug().log("LoopTransformations.eliminateRangeChecks %s", loop);
+        CountedLoopInfo counted = loop.counted();
+        InductionVariable counter = counted.getCounter();
+        CompareNode preCompare = (CompareNode) counted.getLimitTest().condition();
+        ValueNode ub = preCompare.getY();
+        ValueNode start = counted.getStart();
+
+        LoopFragmentWhole mainLoop = splitPrePostLoops(loop);
+
+        long lowerBound = Integer.MIN_VALUE;
+        ValueNode upperBound = null;
+        for (RangeCheck rangeCheck : rangeChecks) {
+            lowerBound = Math.max(lowerBound, rangeCheck.lowerBound());
+            ValueNode checkBound = rangeCheck.upperBound(graph);
+            upperBound = upperBound == null ? checkBound : min(graph, upperBound, checkBound);
+        }
+
+        // Let the pre loop run until every check can be proven from its upper bound
+        ValueNode preBound = preCompare.getY();
+        ValueNode preEnd = add(graph, start, counter.strideNode());
+        if (lowerBound > Integer.MIN_VALUE) {
+            ConstantNode lowerBoundNode = ConstantNode.forInt((int) lowerBound, graph);
+            preEnd = graph.unique(new ConditionalNode(graph.unique(new IntegerLessThanNode(preEnd, lowerBoundNode)), lowerBoundNode, preEnd));
+        }
+        preCompare.replaceFirstInput(preBound, min(graph, preEnd, ub));
+        GraphUtil.tryKillUnused(preBound);
+
+        // Stop the main loop before the first iteration that would fail a check
+        CompareNode mainCompare = mainLoop.getDuplicatedNode(preCompare);
+        ValueNode mainBound = mainCompare.getY();
+        mainCompare.replaceFirstInput(mainBound, min(graph, mainBound, upperBound));
+
+        for (RangeCheck rangeCheck : rangeChecks) {
+            IfNode mainCheck = mainLoop.getDuplicatedNode(rangeCheck.getIfNode());
+            LogicNode condition = mainCheck.condition();
+            mainCheck.setCondition(LogicConstantNode.tautology(graph));
+            GraphUtil.tryKillUnused(condition);
+        }
+        graph.getDebug().dump(DebugContext.DETAILED_LEVEL, graph, "EliminateRangeChecks %s", loop);
+        return mainLoop.getDuplicatedNode(loop.loopBegin());
+    }
+
+    private static ValueNode min(StructuredGraph graph, ValueNode x, ValueNode y) {
+        return graph.unique(new ConditionalNode(graph.unique(new IntegerLessThanNode(x, y)), x, y));
+    }
+
+    /**
+     * Checks whether {@link #stripMine} can be applied to {@code loop}. Loops which are known to
+     * run at most {@code iterations} iterations are not worth strip mining.
+     */
+    public static boolean isStripMiningCandidate(LoopEx loop, int iterations) {
+        if (!loop.isCounted() || !loop.loop().getChildren().isEmpty() || !loop.loopBegin().isSimpleLoop() || loop.loopBegin().stateAfter() == null) {
+            return false;
+        }
+        CountedLoopInfo counted = loop.counted();
+        InductionVariable counter = counted.getCounter();
+        if (!(counter instanceof BasicInductionVariable) || !counter.isConstantStride() || counter.direction() != Direction.Up) {
+            return false;
+        }
+        if (counter.constantStride() * iterations > Integer.MAX_VALUE) {
+            return false;
+        }
+        Stamp counterStamp = counter.valueNode().stamp(NodeView.DEFAULT);
+        if (!(counterStamp instanceof IntegerStamp) || ((IntegerStamp) counterStamp).getBits() != 32) {
+            return false;
+        }
+        IfNode limitTest = counted.getLimitTest();
+        LogicNode condition = limitTest.condition();
+        if (!(condition instanceof IntegerLessThanNode) || ((IntegerLessThanNode) condition).getX() != counter.valueNode() || limitTest.trueSuccessor() != counted.getBody()) {
+            return false;
+        }
+        if (counted.isConstantMaxTripCount() && counted.constantMaxTripCount().isLessOrEqualTo(iterations)) {
+            return false;
+        }
+        for (PhiNode phi : loop.loopBegin().phis()) {
+            if (!(phi instanceof ValuePhiNode) && !(phi instanceof MemoryPhiNode)) {
+                return false;
+            }
+        }
+        // A call in the loop already polls for safepoints
+        return loop.whole().nodes().filter(Invoke.class).isEmpty();
+    }
+
+    // This function nests a counted loop into an outer loop such that the original (inner) loop
+    // runs at most a fixed number of iterations each time it is entered. The outer loop keeps a
+    // safepoint poll so that the inner loop can run without one while the time to safepoint
+    // stays bounded. The translation looks like:
+    //
+    //  @formatter:off
+    //
+    //  for (i = init; i < n; i += s) {        for (j = init; ; ) {                  // outer, polls
+    //      body                          ==>       end = n - j > M * s ? j + M * s : n;
+    //  }                                           for (i = j; i < end; i += s) {    // inner
+    //                                                  body
+    //                                              }
+    //                                              if (!(i < n)) {
+    //                                                  break;
+    //                                              }
+    //                                              j = i;
+    //                                          }
+    //
+    // @formatter:on
+    //
+    // Every phi of the inner loop gets a counterpart in the outer loop carrying its value from
+    // one strip to the next. The inner loop stays a counted loop with a loop invariant limit so
+    // that it can still be unrolled, vectorized and have its range checks eliminated. Other exits
+    // of the inner loop also leave the outer loop.
+
+    public static LoopBeginNode stripMine(LoopEx loop, int iterations) {
+        assert isStripMiningCandidate(loop, iterations);
+        LoopBeginNode innerLoopBegin = loop.loopBegin();
+        StructuredGraph graph = innerLoopBegin.graph();
+        graph.getDebug().log("LoopTransformations.stripMine %s", loop);
+        CountedLoopInfo counted = loop.counted();
+        InductionVariable counter = counted.getCounter();
+        IfNode limitTest = counted.getLimitTest();
+        LogicNode limitCompare = limitTest.condition();
+        ValueNode limit = counted.getLimit();
+        LoopExitNode limitExit = (LoopExitNode) limitTest.falseSuccessor();
+        FrameState innerState = innerLoopBegin.stateAfter();
+        double loopFrequency = innerLoopBegin.loopFrequency();
+
+        // The outer loop takes over the entry of the inner loop and enters it on every iteration
+        LoopBeginNode outerLoopBegin = graph.add(new LoopBeginNode());
+        EndNode forwardEnd = (EndNode) innerLoopBegin.forwardEnd();
+        EndNode innerEntry = graph.add(new EndNode());
+        innerLoopBegin.replaceFirstInput(forwardEnd, innerEntry);
+        outerLoopBegin.addForwardEnd(forwardEnd);
+        outerLoopBegin.setNext(innerEntry);
+        LoopEndNode outerLoopEnd = graph.add(new LoopEndNode(outerLoopBegin));
+
+        FrameState outerState = innerState.duplicateWithVirtualState();
+        for (PhiNode innerPhi : innerLoopBegin.phis().snapshot()) {
+            ValueNode[] values = {innerPhi.valueAt(0), innerPhi};
+            PhiNode outerPhi;
+            if (innerPhi instanceof ValuePhiNode) {
+                outerPhi = graph.addWithoutUnique(new ValuePhiNode(innerPhi.stamp(NodeView.DEFAULT), outerLoopBegin, values));
+            } else {
+                outerPhi = graph.addWithoutUnique(new MemoryPhiNode(outerLoopBegin, ((MemoryPhiNode) innerPhi).getLocationIdentity(), values));
+            }
+            innerPhi.setValueAt(0, outerPhi);
+            innerPhi.replaceAtMatchingUsages(outerPhi, usage -> usage instanceof VirtualState && outerState.isPartOfThisState((VirtualState) usage));
+        }
+        outerLoopBegin.setStateAfter(outerState);
+
+        // Limit the inner loop to one strip: end = j < n && M * s |<| n - j ? j + M * s : n
+        ValueNode stripStart = ((PhiNode) counter.valueNode()).valueAt(0);
+        ValueNode stripLength = ConstantNode.forInt((int) (counter.constantStride() * iterations), graph);
+        LogicNode fullStrip = graph.unique(new IntegerBelowNode(stripLength, sub(graph, limit, stripStart)));
+        ValueNode stripEnd = graph.unique(new ConditionalNode(fullStrip, add(graph, stripStart, stripLength), limit));
+        stripEnd = graph.unique(new ConditionalNode(graph.unique(new IntegerLessThanNode(stripStart, limit)), stripEnd, limit));
+        limitTest.setCondition(graph.unique(new IntegerLessThanNode(counter.valueNode(), stripEnd)));
+
+        // After a strip, continue the outer loop if the original limit hasn't been reached
+        LoopExitNode outerExit = graph.add(new LoopExitNode(outerLoopBegin));
+        limitExit.replaceAtUsages(outerExit);
+        FixedNode continuation = limitExit.next();
+        limitExit.setNext(null);
+        outerExit.setNext(continuation);
+        outerExit.setStateAfter(limitExit.stateAfter());
+        limitExit.setStateAfter(innerState.duplicateWithVirtualState());
+        double outerFrequency = Math.max(1.0, loopFrequency / iterations);
+        IfNode outerTest = graph.add(new IfNode(limitCompare, outerLoopEnd, outerExit, 1.0 - 1.0 / outerFrequency));
+        limitExit.setNext(outerTest);
+
+        // All other exits leave both loops
+        for (LoopExitNode innerExit : innerLoopBegin.loopExits().snapshot()) {
+            if (innerExit == limitExit) {
+                continue;
+            }
+            LoopExitNode outerEarlyExit = graph.add(new LoopExitNode(outerLoopBegin));
+            innerExit.replaceAtUsages(outerEarlyExit);
+            if (innerExit.stateAfter() != null) {
+                outerEarlyExit.setStateAfter(innerExit.stateAfter().duplicateWithVirtualState());
+            }
+            graph.addAfterFixed(innerExit, outerEarlyExit);
+        }
+
+        outerLoopBegin.setLoopFrequency(outerFrequency);
+        innerLoopBegin.setLoopFrequency(Math.min(loopFrequency, iterations));
+        graph.getDebug().dump(DebugContext.DETAILED_LEVEL, graph, "StripMine %s", loop);
+        return outerLoopBegin;
+    }
+
     public static List<ControlSplitNode> findUnswitchable(LoopEx loop) {
         List<ControlSplitNode> controls = null;
         ValueNode invariantValue = null;
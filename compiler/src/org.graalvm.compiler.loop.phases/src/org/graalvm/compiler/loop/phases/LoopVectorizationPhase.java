@@ -0,0 +1,652 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.phases;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.EconomicSet;
+import org.graalvm.collections.Equivalence;
+import org.graalvm.compiler.core.common.type.FloatStamp;
+import org.graalvm.compiler.core.common.type.IntegerStamp;
+import org.graalvm.compiler.core.common.type.Stamp;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.graph.Graph;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.loop.CountedLoopInfo;
+import org.graalvm.compiler.loop.InductionVariable;
+import org.graalvm.compiler.loop.InductionVariable.Direction;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopPolicies;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.loop.MathUtil;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.LogicNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.PhiNode;
+import org.graalvm.compiler.nodes.SafepointNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.AndNode;
+import org.graalvm.compiler.nodes.calc.BinaryNode;
+import org.graalvm.compiler.nodes.calc.ConditionalNode;
+import org.graalvm.compiler.nodes.calc.FloatDivNode;
+import org.graalvm.compiler.nodes.calc.IntegerConvertNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.calc.LeftShiftNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.NarrowNode;
+import org.graalvm.compiler.nodes.calc.NegateNode;
+import org.graalvm.compiler.nodes.calc.NotNode;
+import org.graalvm.compiler.nodes.calc.OrNode;
+import org.graalvm.compiler.nodes.calc.SignExtendNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
+import org.graalvm.compiler.nodes.calc.XorNode;
+import org.graalvm.compiler.nodes.calc.ZeroExtendNode;
+import org.graalvm.compiler.nodes.memory.FloatingReadNode;
+import org.graalvm.compiler.nodes.memory.HeapAccess.BarrierType;
+import org.graalvm.compiler.nodes.memory.MemoryNode;
+import org.graalvm.compiler.nodes.memory.MemoryPhiNode;
+import org.graalvm.compiler.nodes.memory.WriteNode;
+import org.graalvm.compiler.nodes.memory.address.AddressNode;
+import org.graalvm.compiler.nodes.memory.address.OffsetAddressNode;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+import org.graalvm.compiler.nodes.vector.VectorArithmeticNode;
+import org.graalvm.compiler.nodes.vector.VectorArithmeticNode.Operator;
+import org.graalvm.compiler.nodes.vector.VectorBroadcastNode;
+import org.graalvm.compiler.nodes.vector.VectorReadNode;
+import org.graalvm.compiler.nodes.vector.VectorStamp;
+import org.graalvm.compiler.nodes.vector.VectorWriteNode;
+import org.graalvm.compiler.phases.BasePhase;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.common.util.HashSetNodeEventListener;
+import org.graalvm.compiler.phases.tiers.MidTierContext;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.JavaKind;
+
+/**
+ * Vectorizes simple counted loops over primitive arrays. A loop qualifies if its body is a
+ * straight-line sequence of array stores whose values are computed by lane-wise arithmetic from
+ * array loads at the same induction variable, loop invariants and constants. Such a loop is split
+ * into pre, main and post loops and the main loop is widened so that each iteration processes
+ * {@code n} consecutive elements with vector instructions, where {@code n} is the number of
+ * elements that fit into a vector register. The scalar post loop handles the remaining iterations.
+ * Main loops that were already split off by another transformation, such as
+ * {@link LoopRangeCheckEliminationPhase}, are widened in place.
+ *
+ * Accesses to the same kind of array may alias, so each pair of accesses is checked for a
+ * dependence distance that would be violated by executing {@code n} iterations in lock step.
+ */
+public abstract class LoopVectorizationPhase extends BasePhase<MidTierContext> {
+
+    private final LoopPolicies policies;
+    private final CanonicalizerPhase canonicalizer;
+
+    protected LoopVectorizationPhase(LoopPolicies policies, CanonicalizerPhase canonicalizer) {
+        this.policies = policies;
+        this.canonicalizer = canonicalizer;
+    }
+
+    /**
+     * Gets the size in bytes of the vector registers that should be used for vectorized loops, or
+     * 0 if loops should not be vectorized on {@code target}.
+     */
+    protected abstract int getVectorSize(TargetDescription target);
+
+    /**
+     * Determines whether {@code operator} can be applied to vectors with {@code elementKind} lanes.
+     * Vector loads, stores and broadcasts are assumed to be available for all primitive kinds.
+     */
+    protected abstract boolean supportsOperation(TargetDescription target, Operator operator, JavaKind elementKind);
+
+    @Override
+    @SuppressWarnings("try")
+    protected void run(StructuredGraph graph, MidTierContext context) {
+        int vectorSize = getVectorSize(context.getTarget());
+        if (vectorSize == 0 || !graph.hasLoops()) {
+            return;
+        }
+        HashSetNodeEventListener listener = new HashSetNodeEventListener();
+        try (Graph.NodeEventScope nes = graph.trackNodeEvents(listener)) {
+            LoopsData dataCounted = new LoopsData(graph);
+            dataCounted.detectedCountedLoops();
+            List<LoopBeginNode> mainLoops = new ArrayList<>();
+            for (LoopEx loop : dataCounted.countedLoops()) {
+                LoopBeginNode loopBegin = loop.loopBegin();
+                /*
+                 * Main loops that have not been unrolled yet, e.g. those created by range check
+                 * elimination, already have a post loop that runs the remaining iterations.
+                 */
+                boolean isMainLoop = loopBegin.isMainLoop() && loopBegin.getUnrollFactor() == 1;
+                if (!(loopBegin.isSimpleLoop() || isMainLoop) || !LoopTransformations.isUnrollableLoop(loop)) {
+                    continue;
+                }
+                Candidate candidate = Candidate.analyze(this, loop, vectorSize, context.getTarget());
+                if (candidate != null && policies.shouldVectorize(loop, candidate.vectorLength)) {
+                    mainLoops.add(isMainLoop ? loopBegin : LoopTransformations.insertPrePostLoops(loop));
+                }
+            }
+            dataCounted.deleteUnusedNodes();
+
+            if (!mainLoops.isEmpty()) {
+                LoopsData mainData = new LoopsData(graph);
+                mainData.detectedCountedLoops();
+                for (LoopBeginNode mainLoopBegin : mainLoops) {
+                    LoopEx mainLoop = mainData.loop(mainLoopBegin);
+                    Candidate candidate = mainLoop.isCounted() ? Candidate.analyze(this, mainLoop, vectorSize, context.getTarget()) : null;
+                    if (candidate != null) {
+                        candidate.transform();
+                        graph.getDebug().dump(DebugContext.DETAILED_LEVEL, graph, "LoopVectorization %s", mainLoopBegin);
+                    } else {
+                        graph.getDebug().log(DebugContext.VERBOSE_LEVEL, "LoopVectorization main loop %s no longer vectorizable", mainLoopBegin);
+                    }
+                }
+            }
+
+            if (!listener.getNodes().isEmpty()) {
+                canonicalizer.applyIncremental(graph, context, listener.getNodes());
+                listener.getNodes().clear();
+            }
+        }
+    }
+
+    @Override
+    public boolean checkContract() {
+        return false;
+    }
+
+    /**
+     * Gets the kind of the elements of primitive arrays accessed with {@code location}, or null if
+     * {@code location} is not a primitive array location.
+     */
+    private static JavaKind getArrayElementKind(LocationIdentity location) {
+        for (JavaKind kind : JavaKind.values()) {
+            if (kind.isPrimitive() && kind != JavaKind.Void && NamedLocationIdentity.getArrayLocation(kind).equals(location)) {
+                return kind;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the kind of the vector lanes used for values of {@code elementKind} arrays. Lanes only
+     * distinguish integer and floating point values of different sizes.
+     */
+    private static JavaKind getLaneKind(JavaKind elementKind) {
+        switch (elementKind) {
+            case Boolean:
+                return JavaKind.Byte;
+            case Char:
+                return JavaKind.Short;
+            default:
+                return elementKind;
+        }
+    }
+
+    /**
+     * A memory access in the loop body. Accesses are ordered by their {@link #position} within a
+     * single iteration: writes get odd positions in control flow order and reads are placed right
+     * after the write they depend on, or at position 0 if they only depend on memory state from
+     * before the iteration.
+     */
+    private static final class MemoryAccess {
+        final LocationIdentity location;
+        final long offset;
+        final int position;
+        final boolean isWrite;
+
+        MemoryAccess(LocationIdentity location, long offset, int position, boolean isWrite) {
+            this.location = location;
+            this.offset = offset;
+            this.position = position;
+            this.isWrite = isWrite;
+        }
+    }
+
+    private static final class Candidate {
+        private final LoopVectorizationPhase phase;
+        private final TargetDescription target;
+        private final LoopEx loop;
+        private final ValuePhiNode iv;
+        private final IntegerLessThanNode limitCompare;
+        private final AbstractBeginNode body;
+        private final int elementSize;
+        private final int vectorLength;
+
+        private final List<WriteNode> writes = new ArrayList<>();
+        private final List<JavaKind> writeKinds = new ArrayList<>();
+        private final List<MemoryAccess> accesses = new ArrayList<>();
+        /** The scalar nodes that are replaced by vector nodes. */
+        private final EconomicSet<Node> tree = EconomicSet.create(Equivalence.IDENTITY);
+        /** The scalar nodes computed by the vector nodes in the transformed loop. */
+        private final EconomicMap<ValueNode, ValueNode> vectors = EconomicMap.create(Equivalence.IDENTITY);
+        private final List<VectorWriteNode> vectorWrites = new ArrayList<>();
+
+        private Candidate(LoopVectorizationPhase phase, TargetDescription target, LoopEx loop, ValuePhiNode iv, IntegerLessThanNode limitCompare, AbstractBeginNode body, int elementSize,
+                        int vectorLength) {
+            this.phase = phase;
+            this.target = target;
+            this.loop = loop;
+            this.iv = iv;
+            this.limitCompare = limitCompare;
+            this.body = body;
+            this.elementSize = elementSize;
+            this.vectorLength = vectorLength;
+        }
+
+        static Candidate analyze(LoopVectorizationPhase phase, LoopEx loop, int vectorSize, TargetDescription target) {
+            LoopBeginNode loopBegin = loop.loopBegin();
+            DebugContext debug = loopBegin.getDebug();
+            CountedLoopInfo counted = loop.counted();
+            InductionVariable counter = counted.getCounter();
+            if (!counter.isConstantStride() || counter.constantStride() != 1 || counter.direction() != Direction.Up || !(counter.valueNode() instanceof ValuePhiNode)) {
+                debug.log(DebugContext.VERBOSE_LEVEL, "LoopVectorization %s unsupported induction variable %s", loopBegin, counter);
+                return null;
+            }
+            ValuePhiNode iv = (ValuePhiNode) counter.valueNode();
+            Stamp ivStamp = iv.stamp(NodeView.DEFAULT);
+            if (iv.merge() != loopBegin || !(ivStamp instanceof IntegerStamp) || ((IntegerStamp) ivStamp).getBits() != 32 || loopBegin.loopEnds().count() != 1) {
+                return null;
+            }
+            IfNode limitTest = counted.getLimitTest();
+            if (loopBegin.next() != limitTest || !(limitTest.condition() instanceof IntegerLessThanNode) || !(limitTest.falseSuccessor() instanceof LoopExitNode)) {
+                debug.log(DebugContext.VERBOSE_LEVEL, "LoopVectorization %s unsupported limit test %s", loopBegin, limitTest);
+                return null;
+            }
+            IntegerLessThanNode limitCompare = (IntegerLessThanNode) limitTest.condition();
+            if (limitCompare.getX() != iv || !loop.isOutsideLoop(limitCompare.getY())) {
+                return null;
+            }
+            for (PhiNode phi : loopBegin.phis()) {
+                if (phi != iv && !(phi instanceof MemoryPhiNode)) {
+                    debug.log(DebugContext.VERBOSE_LEVEL, "LoopVectorization %s loop carried value %s", loopBegin, phi);
+                    return null;
+                }
+            }
+
+            // Collect the array stores of the loop body
+            AbstractBeginNode body = limitTest.trueSuccessor();
+            List<WriteNode> writes = new ArrayList<>();
+            List<JavaKind> writeKinds = new ArrayList<>();
+            int elementSize = 0;
+            FixedNode current = body.next();
+            while (current instanceof FixedWithNextNode) {
+                if (current.getClass() == WriteNode.class) {
+                    WriteNode write = (WriteNode) current;
+                    JavaKind kind = getArrayElementKind(write.getLocationIdentity());
+                    if (kind == null || write.getBarrierType() != BarrierType.NONE || write.getNullCheck() || write.stateAfter() != null) {
+                        debug.log(DebugContext.VERBOSE_LEVEL, "LoopVectorization %s unsupported write %s", loopBegin, write);
+                        return null;
+                    }
+                    if (elementSize != 0 && elementSize != kind.getByteCount()) {
+                        return null;
+                    }
+                    elementSize = kind.getByteCount();
+                    writes.add(write);
+                    writeKinds.add(getLaneKind(kind));
+                } else if (!(current instanceof SafepointNode)) {
+                    debug.log(DebugContext.VERBOSE_LEVEL, "LoopVectorization %s unsupported fixed node %s", loopBegin, current);
+                    return null;
+                }
+                current = ((FixedWithNextNode) current).next();
+            }
+            if (writes.isEmpty() || current != loopBegin.loopEnds().first()) {
+                return null;
+            }
+            int vectorLength = vectorSize / elementSize;
+            if (vectorLength < 2) {
+                return null;
+            }
+
+            Candidate candidate = new Candidate(phase, target, loop, iv, limitCompare, body, elementSize, vectorLength);
+            candidate.writes.addAll(writes);
+            candidate.writeKinds.addAll(writeKinds);
+            for (int i = 0; i < writes.size(); i++) {
+                WriteNode write = writes.get(i);
+                JavaKind kind = writeKinds.get(i);
+                Long offset = candidate.getOffset(write.getAddress());
+                if (offset == null || !candidate.analyzeTree(write.value(), kind)) {
+                    debug.log(DebugContext.VERBOSE_LEVEL, "LoopVectorization %s cannot vectorize %s", loopBegin, write);
+                    return null;
+                }
+                candidate.accesses.add(new MemoryAccess(write.getLocationIdentity(), offset, 2 * i + 1, true));
+            }
+            if (!candidate.checkUsages() || !candidate.checkDependences()) {
+                return null;
+            }
+            return candidate;
+        }
+
+        /**
+         * Gets the constant part of the offset of {@code address} if the address is an element of
+         * a loop invariant array indexed by the induction variable plus a constant, or null
+         * otherwise.
+         */
+        private Long getOffset(AddressNode address) {
+            if (!(address instanceof OffsetAddressNode)) {
+                return null;
+            }
+            OffsetAddressNode offsetAddress = (OffsetAddressNode) address;
+            if (!loop.isOutsideLoop(offsetAddress.getBase())) {
+                return null;
+            }
+            long[] affine = getAffine(offsetAddress.getOffset());
+            if (affine == null || affine[0] != elementSize) {
+                return null;
+            }
+            return affine[1];
+        }
+
+        /**
+         * Decomposes {@code node} into {@code scale * iv + constant}. Integer conversions are
+         * ignored since the indices of all elements accessed by the loop are valid array indices
+         * and thus cannot overflow.
+         */
+        private long[] getAffine(ValueNode node) {
+            if (node == iv) {
+                return new long[]{1, 0};
+            } else if (node.isJavaConstant() && node.asJavaConstant().getJavaKind().isNumericInteger()) {
+                return new long[]{0, node.asJavaConstant().asLong()};
+            } else if (node instanceof SignExtendNode || node instanceof ZeroExtendNode) {
+                return getAffine(((IntegerConvertNode<?, ?>) node).getValue());
+            } else if (node instanceof AddNode || node instanceof SubNode) {
+                long[] x = getAffine(((BinaryNode) node).getX());
+                long[] y = getAffine(((BinaryNode) node).getY());
+                if (x == null || y == null) {
+                    return null;
+                }
+                return node instanceof AddNode ? new long[]{x[0] + y[0], x[1] + y[1]} : new long[]{x[0] - y[0], x[1] - y[1]};
+            } else if (node instanceof LeftShiftNode || node instanceof MulNode) {
+                BinaryNode binary = (BinaryNode) node;
+                if (!binary.getY().isJavaConstant()) {
+                    return null;
+                }
+                long[] x = getAffine(binary.getX());
+                if (x == null) {
+                    return null;
+                }
+                long factor = binary.getY().asJavaConstant().asLong();
+                if (node instanceof LeftShiftNode) {
+                    if (factor < 0 || factor > 6) {
+                        return null;
+                    }
+                    factor = 1L << factor;
+                }
+                return new long[]{x[0] * factor, x[1] * factor};
+            }
+            return null;
+        }
+
+        private static boolean isLaneCompatible(ValueNode node, JavaKind elementKind) {
+            Stamp stamp = node.stamp(NodeView.DEFAULT);
+            if (elementKind.isNumericFloat()) {
+                return stamp instanceof FloatStamp && ((FloatStamp) stamp).getBits() == elementKind.getBitCount();
+            }
+            return stamp instanceof IntegerStamp && ((IntegerStamp) stamp).getBits() >= elementKind.getBitCount();
+        }
+
+        /**
+         * Checks whether the scalar expression {@code node} can be computed lane-wise in vectors
+         * with {@code elementKind} lanes. Integer lanes narrower than the expression compute the
+         * same low order bits as long as only operations are used whose result bits only depend on
+         * lower or equal input bits.
+         */
+        private boolean analyzeTree(ValueNode node, JavaKind elementKind) {
+            if (tree.contains(node)) {
+                return true;
+            }
+            if (!isLaneCompatible(node, elementKind)) {
+                return false;
+            }
+            if (loop.isOutsideLoop(node)) {
+                // broadcast
+                return true;
+            }
+            boolean isInteger = elementKind.isNumericInteger();
+            if (node instanceof FloatingReadNode) {
+                if (!analyzeRead((FloatingReadNode) node, elementKind)) {
+                    return false;
+                }
+            } else if (isInteger && (node instanceof SignExtendNode || node instanceof ZeroExtendNode || node instanceof NarrowNode)) {
+                if (!analyzeTree(((IntegerConvertNode<?, ?>) node).getValue(), elementKind)) {
+                    return false;
+                }
+            } else if (isInteger && node instanceof NotNode) {
+                if (!phase.supportsOperation(target, Operator.XOR, elementKind) || !analyzeTree(((NotNode) node).getValue(), elementKind)) {
+                    return false;
+                }
+            } else if (isInteger && node instanceof NegateNode) {
+                if (!phase.supportsOperation(target, Operator.SUB, elementKind) || !analyzeTree(((NegateNode) node).getValue(), elementKind)) {
+                    return false;
+                }
+            } else {
+                Operator operator = getOperator(node, isInteger);
+                if (operator == null || !phase.supportsOperation(target, operator, elementKind)) {
+                    return false;
+                }
+                BinaryNode binary = (BinaryNode) node;
+                if (!analyzeTree(binary.getX(), elementKind) || !analyzeTree(binary.getY(), elementKind)) {
+                    return false;
+                }
+            }
+            tree.add(node);
+            return true;
+        }
+
+        private static Operator getOperator(ValueNode node, boolean isInteger) {
+            if (node instanceof AddNode) {
+                return Operator.ADD;
+            } else if (node instanceof SubNode) {
+                return Operator.SUB;
+            } else if (node instanceof MulNode) {
+                return Operator.MUL;
+            } else if (node instanceof FloatDivNode) {
+                return Operator.DIV;
+            } else if (isInteger && node instanceof AndNode) {
+                return Operator.AND;
+            } else if (isInteger && node instanceof OrNode) {
+                return Operator.OR;
+            } else if (isInteger && node instanceof XorNode) {
+                return Operator.XOR;
+            }
+            return null;
+        }
+
+        private boolean analyzeRead(FloatingReadNode read, JavaKind elementKind) {
+            JavaKind kind = getArrayElementKind(read.getLocationIdentity());
+            if (kind == null || kind.getByteCount() != elementSize || kind.isNumericFloat() != elementKind.isNumericFloat()) {
+                return false;
+            }
+            Long offset = getOffset(read.getAddress());
+            if (offset == null) {
+                return false;
+            }
+            MemoryNode lastAccess = read.getLastLocationAccess();
+            int position;
+            int writeIndex = lastAccess == null ? -1 : writes.indexOf(lastAccess.asNode());
+            if (writeIndex >= 0) {
+                position = 2 * writeIndex + 2;
+            } else if (lastAccess == null || loop.isOutsideLoop(lastAccess.asNode()) ||
+                            (lastAccess instanceof MemoryPhiNode && ((MemoryPhiNode) lastAccess).merge() == loop.loopBegin())) {
+                position = 0;
+            } else {
+                return false;
+            }
+            accesses.add(new MemoryAccess(read.getLocationIdentity(), offset, position, false));
+            return true;
+        }
+
+        /**
+         * Checks that the scalar nodes that are replaced are only used by each other or by the
+         * vectorized writes.
+         */
+        private boolean checkUsages() {
+            for (Node node : tree) {
+                for (Node usage : node.usages()) {
+                    if (!tree.contains(usage) && !(usage instanceof WriteNode && writes.contains(usage) && ((WriteNode) usage).value() == node)) {
+                        loop.loopBegin().getDebug().log(DebugContext.VERBOSE_LEVEL, "LoopVectorization %s %s has scalar usage %s", loop.loopBegin(), node, usage);
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Executing {@code vectorLength} iterations in lock step moves every access of a later
+         * position before all accesses at earlier positions of the following iterations. This is
+         * only legal if no such access touches the same element as an access of an earlier
+         * position in one of the following {@code vectorLength - 1} iterations.
+         */
+        private boolean checkDependences() {
+            for (MemoryAccess a : accesses) {
+                for (MemoryAccess b : accesses) {
+                    if (a.position >= b.position || !(a.isWrite || b.isWrite) || !a.location.equals(b.location)) {
+                        continue;
+                    }
+                    long delta = b.offset - a.offset;
+                    if (delta % elementSize != 0) {
+                        return false;
+                    }
+                    long distance = delta / elementSize;
+                    if (distance > 0 && distance < vectorLength) {
+                        loop.loopBegin().getDebug().log(DebugContext.VERBOSE_LEVEL, "LoopVectorization %s dependence distance %d", loop.loopBegin(), distance);
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        void transform() {
+            LoopBeginNode loopBegin = loop.loopBegin();
+            StructuredGraph graph = loopBegin.graph();
+            List<ValueNode> scalarValues = new ArrayList<>();
+            for (int i = 0; i < writes.size(); i++) {
+                WriteNode write = writes.get(i);
+                ValueNode vector = vectorize(write.value(), writeKinds.get(i));
+                VectorWriteNode vectorWrite = graph.add(new VectorWriteNode(write.getAddress(), write.getLocationIdentity(), vector));
+                vectorWrite.setGuard(write.getGuard());
+                vectorWrite.setLastLocationAccess(write.getLastLocationAccess());
+                scalarValues.add(write.value());
+                graph.replaceFixedWithFixed(write, vectorWrite);
+                vectorWrites.add(vectorWrite);
+            }
+            for (ValueNode value : scalarValues) {
+                GraphUtil.tryKillUnused(value);
+            }
+
+            // Each iteration now covers vectorLength elements, so the last one has to start at
+            // least vectorLength - 1 elements before the original limit.
+            int lanes = vectorLength - 1;
+            ValueNode limit = limitCompare.getY();
+            LogicNode underflow = graph.unique(new IntegerLessThanNode(limit, ConstantNode.forInt(Integer.MIN_VALUE + lanes, graph)));
+            ValueNode newLimit = graph.unique(new ConditionalNode(underflow, ConstantNode.forInt(Integer.MIN_VALUE, graph), MathUtil.sub(graph, limit, ConstantNode.forInt(lanes, graph))));
+            limitCompare.replaceFirstInput(limit, newLimit);
+            ValueNode increment = iv.valueAt(1);
+            iv.setValueAt(1, graph.unique(new AddNode(iv, ConstantNode.forInt(vectorLength, graph))));
+            GraphUtil.tryKillUnused(increment);
+
+            double frequency = loopBegin.loopFrequency();
+            loopBegin.setLoopOrigFrequency(frequency);
+            loopBegin.setLoopFrequency(frequency / vectorLength);
+            loopBegin.setUnrollFactor(vectorLength);
+        }
+
+        private ValueNode vectorize(ValueNode node, JavaKind elementKind) {
+            ValueNode vector = vectors.get(node);
+            if (vector != null) {
+                return vector;
+            }
+            StructuredGraph graph = node.graph();
+            VectorStamp stamp = VectorStamp.create(elementKind, vectorLength);
+            if (!tree.contains(node)) {
+                vector = broadcast(node, stamp);
+            } else if (node instanceof FloatingReadNode) {
+                FloatingReadNode read = (FloatingReadNode) node;
+                VectorReadNode vectorRead = graph.add(new VectorReadNode(read.getAddress(), read.getLocationIdentity(), stamp, read.getGuard()));
+                MemoryNode lastAccess = read.getLastLocationAccess();
+                if (lastAccess != null && vectorWrites.contains(lastAccess.asNode())) {
+                    graph.addAfterFixed((VectorWriteNode) lastAccess, vectorRead);
+                } else {
+                    graph.addAfterFixed(body, vectorRead);
+                }
+                vector = vectorRead;
+            } else if (node instanceof IntegerConvertNode) {
+                vector = vectorize(((IntegerConvertNode<?, ?>) node).getValue(), elementKind);
+            } else if (node instanceof NotNode) {
+                ValueNode allOnes = elementKind == JavaKind.Long ? ConstantNode.forLong(-1, graph) : ConstantNode.forInt(-1, graph);
+                vector = graph.unique(new VectorArithmeticNode(Operator.XOR, vectorize(((NotNode) node).getValue(), elementKind), broadcast(allOnes, stamp)));
+            } else if (node instanceof NegateNode) {
+                ValueNode zero = elementKind == JavaKind.Long ? ConstantNode.forLong(0, graph) : ConstantNode.forInt(0, graph);
+                vector = graph.unique(new VectorArithmeticNode(Operator.SUB, broadcast(zero, stamp), vectorize(((NegateNode) node).getValue(), elementKind)));
+            } else {
+                BinaryNode binary = (BinaryNode) node;
+                Operator operator = getOperator(node, !elementKind.isNumericFloat());
+                vector = graph.unique(new VectorArithmeticNode(operator, vectorize(binary.getX(), elementKind), vectorize(binary.getY(), elementKind)));
+            }
+            vectors.put(node, vector);
+            return vector;
+        }
+
+        /**
+         * Creates a vector with the loop invariant {@code value} in every lane. The broadcast is
+         * placed in front of the loop.
+         */
+        private ValueNode broadcast(ValueNode value, VectorStamp stamp) {
+            ValueNode vector = vectors.get(value);
+            if (vector != null) {
+                return vector;
+            }
+            StructuredGraph graph = value.graph();
+            ValueNode scalar = value;
+            if (!stamp.getElementKind().isNumericFloat()) {
+                int bits = ((IntegerStamp) value.stamp(NodeView.DEFAULT)).getBits();
+                int laneBits = stamp.getElementKind() == JavaKind.Long ? 64 : 32;
+                if (bits > laneBits) {
+                    scalar = graph.addOrUniqueWithInputs(NarrowNode.create(value, laneBits, NodeView.DEFAULT));
+                } else if (bits < laneBits) {
+                    scalar = graph.addOrUniqueWithInputs(SignExtendNode.create(value, laneBits, NodeView.DEFAULT));
+                }
+            }
+            VectorBroadcastNode broadcast = graph.add(new VectorBroadcastNode(stamp, scalar));
+            graph.addBeforeFixed(loop.loopBegin().forwardEnd(), broadcast);
+            vectors.put(value, broadcast);
+            return broadcast;
+        }
+    }
+}
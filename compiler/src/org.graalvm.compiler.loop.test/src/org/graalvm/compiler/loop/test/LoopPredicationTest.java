@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.calc.IntegerBelowNode;
+import org.graalvm.compiler.nodes.calc.IsNullNode;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.SpeculationLog;
+
+public class LoopPredicationTest extends GraalCompilerTest {
+
+    private boolean expectPredicated;
+
+    @Override
+    protected SpeculationLog getSpeculationLog() {
+        return getCodeCache().createSpeculationLog();
+    }
+
+    @Override
+    protected boolean checkMidTierGraph(StructuredGraph graph) {
+        if (!expectPredicated) {
+            return true;
+        }
+        LoopsData loops = new LoopsData(graph);
+        for (LoopEx loop : loops.loops()) {
+            for (IfNode ifNode : loop.whole().nodes().filter(IfNode.class)) {
+                if (ifNode.condition() instanceof IntegerBelowNode || ifNode.condition() instanceof IsNullNode) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void testPredicated(String name, Object... args) {
+        expectPredicated = true;
+        try {
+            test(name, args);
+        } finally {
+            expectPredicated = false;
+        }
+    }
+
+    public static long sumSnippet(int[] a, int n) {
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testSum() {
+        int[] a = new int[100];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i * 3 - 17;
+        }
+        for (int n : new int[]{100, 0, 1, 50}) {
+            testPredicated("sumSnippet", a, n);
+        }
+        // the predicate fails at the loop entry and the interpreter throws the exception
+        testPredicated("sumSnippet", a, 101);
+        testPredicated("sumSnippet", null, 0);
+        testPredicated("sumSnippet", null, 1);
+    }
+
+    public static long reverseSumSnippet(int[] a, int n) {
+        long sum = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testReverseSum() {
+        int[] a = new int[40];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i ^ 0x33;
+        }
+        for (int n : new int[]{40, 0, 1, 39, 41}) {
+            testPredicated("reverseSumSnippet", a, n);
+        }
+    }
+
+    public static int[] offsetSnippet(int[] a, int from, int n) {
+        int[] b = new int[a.length];
+        for (int i = from; i < n; i += 2) {
+            b[i] = a[i + 1] - a[i];
+        }
+        return b;
+    }
+
+    @Test
+    public void testOffset() {
+        int[] a = new int[32];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i * i;
+        }
+        testPredicated("offsetSnippet", a, 0, 31);
+        testPredicated("offsetSnippet", a, 1, 31);
+        testPredicated("offsetSnippet", a, 5, 5);
+        testPredicated("offsetSnippet", a, 0, 32);
+        testPredicated("offsetSnippet", a, -1, 10);
+    }
+
+    static final class Holder {
+        int value;
+
+        Holder(int value) {
+            this.value = value;
+        }
+    }
+
+    public static long invariantFieldSnippet(int[] a, Holder holder) {
+        long sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * holder.value;
+        }
+        return sum;
+    }
+
+    @Test
+    public void testInvariantField() {
+        int[] a = new int[]{1, 2, 3, 4, 5, 6, 7};
+        testPredicated("invariantFieldSnippet", a, new Holder(3));
+        testPredicated("invariantFieldSnippet", new int[0], null);
+        testPredicated("invariantFieldSnippet", a, null);
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.calc.IntegerBelowNode;
+import org.junit.Test;
+
+public class LoopRangeCheckEliminationTest extends GraalCompilerTest {
+
+    private boolean expectEliminated;
+    private boolean expectRetained;
+
+    @Override
+    protected boolean checkMidTierGraph(StructuredGraph graph) {
+        if (!expectEliminated && !expectRetained) {
+            return true;
+        }
+        boolean eliminated = false;
+        LoopsData loops = new LoopsData(graph);
+        for (LoopEx loop : loops.loops()) {
+            if (loop.loopBegin().isMainLoop() && !hasRangeCheck(loop)) {
+                eliminated = true;
+            }
+        }
+        return eliminated == expectEliminated;
+    }
+
+    private static boolean hasRangeCheck(LoopEx loop) {
+        for (IfNode ifNode : loop.whole().nodes().filter(IfNode.class)) {
+            if (ifNode.condition() instanceof IntegerBelowNode) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void testEliminated(String name, Object... args) {
+        expectEliminated = true;
+        try {
+            test(name, args);
+        } finally {
+            expectEliminated = false;
+        }
+    }
+
+    public static long sumSnippet(int[] a, int n) {
+        long sum = 0;
+        for (int i = 0; branchProbability(0.99, i < n); i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testSum() {
+        int[] a = new int[100];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i * 7 - 31;
+        }
+        for (int n : new int[]{100, 0, 1, 2, 3, 50, 99}) {
+            testEliminated("sumSnippet", a, n);
+        }
+    }
+
+    public static int[] offsetSnippet(int[] a, int n) {
+        int[] b = new int[n];
+        for (int i = 1; branchProbability(0.99, i < n); i++) {
+            b[i - 1] = a[i] + a[i + 1];
+        }
+        return b;
+    }
+
+    @Test
+    public void testOffset() {
+        int[] a = new int[64];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i ^ 0x5A;
+        }
+        for (int n : new int[]{63, 0, 1, 2, 3, 10, 62}) {
+            testEliminated("offsetSnippet", a, n);
+        }
+    }
+
+    public static int copySnippet(int[] src, int[] dst, int from, int to) {
+        int count = 0;
+        for (int i = from; branchProbability(0.99, i < to); i += 2) {
+            dst[i] = src[i + 3];
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void testCopy() {
+        int[] src = new int[50];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = -i;
+        }
+        testEliminated("copySnippet", src, new int[50], 0, 47);
+        testEliminated("copySnippet", src, new int[50], 1, 46);
+        testEliminated("copySnippet", src, new int[50], 5, 5);
+    }
+
+    public static long sumOutOfBoundsSnippet(int[] a, int n) {
+        long sum = 0;
+        for (int i = 0; branchProbability(0.99, i < n); i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testSumOutOfBounds() {
+        int[] a = new int[20];
+        test("sumOutOfBoundsSnippet", a, 20);
+        test("sumOutOfBoundsSnippet", a, 21);
+        test("sumOutOfBoundsSnippet", a, 1000);
+        test("sumOutOfBoundsSnippet", new int[0], 5);
+    }
+
+    public static long negativeOffsetSnippet(int[] a, int from, int n) {
+        long sum = 0;
+        for (int i = from; branchProbability(0.99, i < n); i++) {
+            sum += a[i - 4];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testNegativeOffset() {
+        int[] a = new int[30];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i;
+        }
+        test("negativeOffsetSnippet", a, 4, 34);
+        test("negativeOffsetSnippet", a, 10, 20);
+        test("negativeOffsetSnippet", a, 0, 20);
+        test("negativeOffsetSnippet", a, 4, 35);
+    }
+
+    public static long largeNegativeOffsetSnippet(int[] a, int n) {
+        long sum = 0;
+        for (int i = 0; branchProbability(0.99, i < n); i++) {
+            sum += a[i - 1000];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testLargeNegativeOffset() {
+        // the pre loop would have to run 1000 iterations, so the check must stay in place
+        int[] a = new int[30];
+        expectRetained = true;
+        try {
+            test("largeNegativeOffsetSnippet", a, 0);
+            test("largeNegativeOffsetSnippet", a, 1);
+        } finally {
+            expectRetained = false;
+        }
+    }
+
+    public static long guardedAccessSnippet(int[] a, int n) {
+        long sum = 0;
+        for (int i = 0; branchProbability(0.99, i < n); i++) {
+            if ((i & 1) == 0) {
+                sum += a[i];
+            }
+        }
+        return sum;
+    }
+
+    @Test
+    public void testGuardedAccess() {
+        // the access does not happen on every iteration so its check must stay in place
+        int[] a = new int[16];
+        test("guardedAccessSnippet", a, 16);
+        test("guardedAccessSnippet", a, 17);
+        test("guardedAccessSnippet", a, 18);
+    }
+}
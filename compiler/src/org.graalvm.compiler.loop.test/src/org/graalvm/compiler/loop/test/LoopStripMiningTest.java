@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Test;
+
+public class LoopStripMiningTest extends GraalCompilerTest {
+
+    private boolean expectStripMined;
+
+    @Override
+    protected boolean checkMidTierGraph(StructuredGraph graph) {
+        if (!expectStripMined) {
+            return true;
+        }
+        LoopsData loops = new LoopsData(graph);
+        for (LoopEx loop : loops.loops()) {
+            if (!loop.loop().getChildren().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void testStripMined(String name, Object... args) {
+        // use short strips so that the tests cross several strip boundaries
+        OptionValues options = new OptionValues(getInitialOptions(), GraalOptions.StripMiningIterations, 8);
+        expectStripMined = true;
+        try {
+            test(options, name, args);
+        } finally {
+            expectStripMined = false;
+        }
+    }
+
+    public static long sumSnippet(int[] a) {
+        long sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testSum() {
+        for (int length : new int[]{100, 0, 1, 7, 8, 9, 16, 17, 1000}) {
+            int[] a = new int[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = i * 13 - 7;
+            }
+            testStripMined("sumSnippet", a);
+        }
+    }
+
+    public static long rangeSnippet(int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i += 3) {
+            sum += i;
+        }
+        return sum;
+    }
+
+    @Test
+    public void testRange() {
+        testStripMined("rangeSnippet", 0, 1000);
+        testStripMined("rangeSnippet", -20, 20);
+        testStripMined("rangeSnippet", 20, -20);
+        testStripMined("rangeSnippet", 5, 5);
+        testStripMined("rangeSnippet", Integer.MIN_VALUE, Integer.MIN_VALUE + 50);
+        testStripMined("rangeSnippet", Integer.MAX_VALUE - 100, Integer.MAX_VALUE - 2);
+    }
+
+    public static int searchSnippet(int[] a, int key) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    public void testSearch() {
+        int[] a = new int[50];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i * 2;
+        }
+        testStripMined("searchSnippet", a, 0);
+        testStripMined("searchSnippet", a, 14);
+        testStripMined("searchSnippet", a, 16);
+        testStripMined("searchSnippet", a, 98);
+        testStripMined("searchSnippet", a, 3);
+    }
+
+    public static int[] fillSnippet(int[] a, int value) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] = value + i;
+        }
+        return a;
+    }
+
+    @Test
+    public void testFill() {
+        for (int length : new int[]{0, 3, 8, 64, 65}) {
+            testStripMined("fillSnippet", new int[length], 42);
+        }
+    }
+}
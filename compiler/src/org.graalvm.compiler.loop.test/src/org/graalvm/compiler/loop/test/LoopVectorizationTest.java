@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.vector.VectorWriteNode;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jdk.vm.ci.amd64.AMD64;
+
+public class LoopVectorizationTest extends GraalCompilerTest {
+
+    private static final int[] LENGTHS = {1000, 0, 1, 2, 7, 8, 9, 31, 32, 33, 65, 100};
+
+    private boolean expectVectorization;
+
+    @Override
+    protected boolean checkMidTierGraph(StructuredGraph graph) {
+        if (expectVectorization) {
+            return graph.getNodes().filter(VectorWriteNode.class).isNotEmpty();
+        }
+        return true;
+    }
+
+    private boolean supportsVectorization() {
+        return getTarget().arch instanceof AMD64 && ((AMD64) getTarget().arch).getFeatures().contains(AMD64.CPUFeature.AVX2);
+    }
+
+    private void testVectorized(String name, boolean vectorizable, Object... args) {
+        OptionValues options = new OptionValues(getInitialOptions(), GraalOptions.VectorizeLoops, true);
+        expectVectorization = vectorizable && supportsVectorization();
+        try {
+            test(options, name, args);
+        } finally {
+            expectVectorization = false;
+        }
+    }
+
+    public static int[] intSnippet(int[] a, int b) {
+        int[] result = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = a[i] * b + 3;
+        }
+        return result;
+    }
+
+    @Test
+    public void testInt() {
+        for (int length : LENGTHS) {
+            int[] a = new int[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = i * 31 - 1000;
+            }
+            testVectorized("intSnippet", true, a, 7);
+        }
+    }
+
+    public static byte[] byteSnippet(byte[] a, int b) {
+        byte[] result = new byte[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = (byte) -((a[i] + b) ^ 0x5A);
+        }
+        return result;
+    }
+
+    @Test
+    public void testByte() {
+        for (int length : LENGTHS) {
+            byte[] a = new byte[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = (byte) (i * 13);
+            }
+            testVectorized("byteSnippet", true, a, 200);
+        }
+    }
+
+    public static long[] longSnippet(long[] a, long b) {
+        long[] result = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = a[i] + (~a[i] & b);
+        }
+        return result;
+    }
+
+    @Test
+    public void testLong() {
+        for (int length : LENGTHS) {
+            long[] a = new long[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = i * 0x1_0000_0001L;
+            }
+            testVectorized("longSnippet", true, a, 0xF0F0_F0F0_F0F0L);
+        }
+    }
+
+    public static float[] floatSnippet(float[] a, float b) {
+        float[] result = new float[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = a[i] * b - 1.5f;
+        }
+        return result;
+    }
+
+    @Test
+    public void testFloat() {
+        for (int length : LENGTHS) {
+            float[] a = new float[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = i * 0.25f;
+            }
+            testVectorized("floatSnippet", true, a, 3.0f);
+        }
+    }
+
+    public static double[] doubleSnippet(double[] a, double b) {
+        double[] result = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = (a[i] + b) / 3.0;
+        }
+        return result;
+    }
+
+    @Test
+    public void testDouble() {
+        for (int length : LENGTHS) {
+            double[] a = new double[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = i * 1.5;
+            }
+            testVectorized("doubleSnippet", true, a, -2.0);
+        }
+    }
+
+    public static int[] inPlaceSnippet(int[] input) {
+        int[] a = input.clone();
+        for (int i = 0; i < a.length; i++) {
+            a[i] = (a[i] ^ 0x55) - 3;
+        }
+        return a;
+    }
+
+    @Test
+    public void testInPlace() {
+        for (int length : LENGTHS) {
+            int[] a = new int[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = i;
+            }
+            testVectorized("inPlaceSnippet", true, a);
+        }
+    }
+
+    public static int[] twoArraysSnippet(int[] a, int[] b) {
+        int[] result = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = a[i] - b[i];
+        }
+        return result;
+    }
+
+    @Test
+    public void testRangeCheckEliminationMainLoop() {
+        // the bounds check of b is only removed by range check elimination of the default mid tier
+        Assert.assertTrue(GraalOptions.RangeCheckElimination.getValue(getInitialOptions()));
+        for (int length : LENGTHS) {
+            int[] a = new int[length];
+            int[] b = new int[length + 3];
+            for (int i = 0; i < b.length; i++) {
+                b[i] = i * 7;
+            }
+            testVectorized("twoArraysSnippet", true, a, b);
+        }
+    }
+
+    public static int[] forwardSnippet(int[] input) {
+        int[] a = input.clone();
+        for (int i = 0; i < a.length - 1; i++) {
+            a[i] = a[i + 1] + 1;
+        }
+        return a;
+    }
+
+    public static int[] recurrenceSnippet(int[] input) {
+        int[] a = input.clone();
+        for (int i = 1; i < a.length; i++) {
+            a[i] = a[i - 1] + 1;
+        }
+        return a;
+    }
+
+    @Test
+    public void testOverlap() {
+        for (int length : LENGTHS) {
+            int[] a = new int[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = i * i;
+            }
+            // vectorization depends on bounds check elimination here, so only check the results
+            testVectorized("forwardSnippet", false, a);
+            testVectorized("recurrenceSnippet", false, a);
+        }
+    }
+}
@@ -160,6 +160,54 @@ public class DefaultLoopPolicies implements LoopPolicies {
         }
     }
 
+    @Override
+    public boolean shouldVectorize(LoopEx loop, int vectorLength) {
+        LoopBeginNode loopBegin = loop.loopBegin();
+        if (!loop.isCounted()) {
+            loopBegin.getDebug().log(DebugContext.VERBOSE_LEVEL, "shouldVectorize %s isn't counted", loopBegin);
+            return false;
+        }
+        double loopFrequency = loopBegin.loopFrequency();
+        if (loopFrequency < vectorLength) {
+            loopBegin.getDebug().log(DebugContext.VERBOSE_LEVEL, "shouldVectorize %s frequency too low %s ", loopBegin, loopFrequency);
+            return false;
+        }
+        // the pre and post loops are copies of the original loop
+        OptionValues options = loop.entryPoint().getOptions();
+        int maxNodes = Options.ExactPartialUnrollMaxNodes.getValue(options);
+        maxNodes = Math.min(maxNodes, Math.max(0, MaximumDesiredSize.getValue(options) - loopBegin.graph().getNodeCount()));
+        int size = Math.max(1, loop.size() - 1 - loopBegin.phis().count());
+        if (size * 2 > maxNodes) {
+            loopBegin.getDebug().log(DebugContext.VERBOSE_LEVEL, "shouldVectorize %s loop is too large %s ", loopBegin, size);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean shouldEliminateRangeChecks(LoopEx loop) {
+        LoopBeginNode loopBegin = loop.loopBegin();
+        if (!loop.isCounted()) {
+            loopBegin.getDebug().log(DebugContext.VERBOSE_LEVEL, "shouldEliminateRangeChecks %s isn't counted", loopBegin);
+            return false;
+        }
+        double loopFrequency = loopBegin.loopFrequency();
+        if (loopFrequency < 5.0) {
+            loopBegin.getDebug().log(DebugContext.VERBOSE_LEVEL, "shouldEliminateRangeChecks %s frequency too low %s ", loopBegin, loopFrequency);
+            return false;
+        }
+        // the pre and post loops are copies of the original loop
+        OptionValues options = loop.entryPoint().getOptions();
+        int maxNodes = Options.ExactPartialUnrollMaxNodes.getValue(options);
+        maxNodes = Math.min(maxNodes, Math.max(0, MaximumDesiredSize.getValue(options) - loopBegin.graph().getNodeCount()));
+        int size = Math.max(1, loop.size() - 1 - loopBegin.phis().count());
+        if (size * 2 > maxNodes) {
+            loopBegin.getDebug().log(DebugContext.VERBOSE_LEVEL, "shouldEliminateRangeChecks %s loop is too large %s ", loopBegin, size);
+            return false;
+        }
+        return true;
+    }
+
     @Override
     public boolean shouldTryUnswitch(LoopEx loop) {
         LoopBeginNode loopBegin = loop.loopBegin();
@@ -38,6 +38,10 @@ public interface LoopPolicies {
 
     boolean shouldPartiallyUnroll(LoopEx loop);
 
+    boolean shouldVectorize(LoopEx loop, int vectorLength);
+
+    boolean shouldEliminateRangeChecks(LoopEx loop);
+
     boolean shouldTryUnswitch(LoopEx loop);
 
     boolean shouldUnswitch(LoopEx loop, List<ControlSplitNode> controlSplits);
@@ -34,7 +34,8 @@ import org.graalvm.compiler.microbenchmarks.graal.util.MethodSpec;
 import org.graalvm.compiler.nodes.StructuredGraph;
 
 /**
- * Benchmarks the performance of {@link Graph#copy(org.graalvm.compiler.debug.DebugContext)}.
+ * Benchmarks the performance of {@link Graph#copy(org.graalvm.compiler.debug.DebugContext)}. Run
+ * with {@code -prof gc} to also compare the memory allocated per copy.
  */
 public class GraphCopyBenchmark extends GraalBenchmark {
 
@@ -132,4 +133,17 @@ public class GraphCopyBenchmark extends GraalBenchmark {
     public StructuredGraph search(Search s, GraalState g) {
         return (StructuredGraph) s.graph.copy(g.debug);
     }
+
+    /**
+     * A larger graph with many frame states and phis, i.e., many nodes with edge lists.
+     */
+    @MethodSpec(declaringClass = String.class, name = "equals")
+    public static class StringEquals extends GraphState {
+    }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public StructuredGraph stringEquals(StringEquals s, GraalState g) {
+        return (StructuredGraph) s.graph.copy(g.debug);
+    }
 }
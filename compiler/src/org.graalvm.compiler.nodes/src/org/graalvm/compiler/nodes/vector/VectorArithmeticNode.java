@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.nodes.vector;
+
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_2;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_1;
+
+import org.graalvm.compiler.debug.GraalError;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.lir.gen.ArithmeticLIRGeneratorTool;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.FloatingNode;
+import org.graalvm.compiler.nodes.spi.ArithmeticLIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Lane-wise binary operation on two {@linkplain VectorStamp vectors} of the same kind. Integer
+ * lanes wrap around like the corresponding scalar Java operations.
+ */
+@NodeInfo(nameTemplate = "Vector{p#operator/s}", cycles = CYCLES_2, size = SIZE_1)
+public final class VectorArithmeticNode extends FloatingNode implements ArithmeticLIRLowerable {
+
+    public static final NodeClass<VectorArithmeticNode> TYPE = NodeClass.create(VectorArithmeticNode.class);
+
+    public enum Operator {
+        ADD,
+        SUB,
+        MUL,
+        DIV,
+        AND,
+        OR,
+        XOR
+    }
+
+    protected final Operator operator;
+    @Input ValueNode x;
+    @Input ValueNode y;
+
+    public VectorArithmeticNode(Operator operator, ValueNode x, ValueNode y) {
+        super(TYPE, x.stamp(NodeView.DEFAULT));
+        assert stamp instanceof VectorStamp && stamp.equals(y.stamp(NodeView.DEFAULT)) : x + " " + y;
+        this.operator = operator;
+        this.x = x;
+        this.y = y;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public ValueNode getX() {
+        return x;
+    }
+
+    public ValueNode getY() {
+        return y;
+    }
+
+    @Override
+    public void generate(NodeLIRBuilderTool builder, ArithmeticLIRGeneratorTool gen) {
+        Value a = builder.operand(x);
+        Value b = builder.operand(y);
+        Value result;
+        switch (operator) {
+            case ADD:
+                result = gen.emitAdd(a, b, false);
+                break;
+            case SUB:
+                result = gen.emitSub(a, b, false);
+                break;
+            case MUL:
+                result = gen.emitMul(a, b, false);
+                break;
+            case DIV:
+                result = gen.emitDiv(a, b, null);
+                break;
+            case AND:
+                result = gen.emitAnd(a, b);
+                break;
+            case OR:
+                result = gen.emitOr(a, b);
+                break;
+            case XOR:
+                result = gen.emitXor(a, b);
+                break;
+            default:
+                throw GraalError.shouldNotReachHere(operator.toString());
+        }
+        builder.setResult(this, result);
+    }
+}
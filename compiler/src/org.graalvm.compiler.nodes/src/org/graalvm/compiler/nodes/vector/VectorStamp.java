@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.nodes.vector;
+
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.core.common.spi.LIRKindTool;
+import org.graalvm.compiler.core.common.type.Stamp;
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.debug.GraalError;
+
+import jdk.vm.ci.meta.Constant;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.MemoryAccessProvider;
+import jdk.vm.ci.meta.MetaAccessProvider;
+import jdk.vm.ci.meta.ResolvedJavaType;
+
+/**
+ * Stamp of a value consisting of {@link #getLength() length} elements of the same primitive
+ * {@link #getElementKind() kind}. Vector values only exist between the vector nodes created by
+ * loop vectorization and never flow into frame states or phis.
+ */
+public final class VectorStamp extends Stamp {
+
+    private final JavaKind elementKind;
+    private final int length;
+
+    private VectorStamp(JavaKind elementKind, int length) {
+        assert elementKind.isPrimitive() && elementKind != JavaKind.Void : elementKind;
+        assert length > 1 && Integer.bitCount(length) == 1 : length;
+        this.elementKind = elementKind;
+        this.length = length;
+    }
+
+    public static VectorStamp create(JavaKind elementKind, int length) {
+        return new VectorStamp(elementKind, length);
+    }
+
+    public JavaKind getElementKind() {
+        return elementKind;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public ResolvedJavaType javaType(MetaAccessProvider metaAccess) {
+        throw GraalError.shouldNotReachHere("vector values have no Java type");
+    }
+
+    @Override
+    public JavaKind getStackKind() {
+        return JavaKind.Illegal;
+    }
+
+    @Override
+    public LIRKind getLIRKind(LIRKindTool tool) {
+        return tool.getVectorKind(elementKind, length);
+    }
+
+    @Override
+    public Stamp meet(Stamp other) {
+        assert isCompatible(other) : this + " vs. " + other;
+        return this;
+    }
+
+    @Override
+    public Stamp join(Stamp other) {
+        assert isCompatible(other) : this + " vs. " + other;
+        return this;
+    }
+
+    @Override
+    public Stamp unrestricted() {
+        return this;
+    }
+
+    @Override
+    public boolean isUnrestricted() {
+        return true;
+    }
+
+    @Override
+    public Stamp empty() {
+        return StampFactory.forVoid();
+    }
+
+    @Override
+    public Stamp constant(Constant c, MetaAccessProvider meta) {
+        throw GraalError.shouldNotReachHere("vector constants are not supported");
+    }
+
+    @Override
+    public boolean isCompatible(Stamp other) {
+        return equals(other);
+    }
+
+    @Override
+    public boolean isCompatible(Constant constant) {
+        return false;
+    }
+
+    @Override
+    public boolean hasValues() {
+        return true;
+    }
+
+    @Override
+    public Constant readConstant(MemoryAccessProvider provider, Constant base, long displacement) {
+        return null;
+    }
+
+    @Override
+    public Stamp improveWith(Stamp other) {
+        return this;
+    }
+
+    @Override
+    public int hashCode() {
+        return elementKind.hashCode() * 31 + length;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof VectorStamp) {
+            VectorStamp other = (VectorStamp) obj;
+            return elementKind == other.elementKind && length == other.length;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return elementKind.getJavaName() + "x" + length;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.nodes.vector;
+
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.core.common.type.Stamp;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.memory.AbstractWriteNode;
+import org.graalvm.compiler.nodes.memory.LIRLowerableAccess;
+import org.graalvm.compiler.nodes.memory.address.AddressNode;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+
+/**
+ * Stores all elements of a {@linkplain VectorStamp vector} value to consecutive memory locations
+ * starting at an address. The access is unaligned and never performs an implicit null check.
+ */
+@NodeInfo(nameTemplate = "VectorWrite#{p#location/s}")
+public final class VectorWriteNode extends AbstractWriteNode implements LIRLowerableAccess {
+
+    public static final NodeClass<VectorWriteNode> TYPE = NodeClass.create(VectorWriteNode.class);
+
+    public VectorWriteNode(AddressNode address, LocationIdentity location, ValueNode value) {
+        super(TYPE, address, location, value, BarrierType.NONE);
+        assert value.stamp(NodeView.DEFAULT) instanceof VectorStamp : value;
+    }
+
+    @Override
+    public void generate(NodeLIRBuilderTool gen) {
+        LIRKind writeKind = gen.getLIRGeneratorTool().getLIRKind(value().stamp(NodeView.DEFAULT));
+        gen.getLIRGeneratorTool().getArithmetic().emitStore(writeKind, gen.operand(getAddress()), gen.operand(value()), null);
+    }
+
+    @Override
+    public boolean canNullCheck() {
+        return false;
+    }
+
+    @Override
+    public Stamp getAccessStamp() {
+        return value().stamp(NodeView.DEFAULT);
+    }
+}
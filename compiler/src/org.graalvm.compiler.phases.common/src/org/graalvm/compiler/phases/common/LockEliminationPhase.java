@@ -24,9 +24,17 @@
  */
 package org.graalvm.compiler.phases.common;
 
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.Equivalence;
+import org.graalvm.compiler.graph.Node;
 import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.Invoke;
+import org.graalvm.compiler.nodes.SafepointNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.extended.ForeignCallNode;
 import org.graalvm.compiler.nodes.extended.OSRMonitorEnterNode;
 import org.graalvm.compiler.nodes.java.AccessMonitorNode;
 import org.graalvm.compiler.nodes.java.MonitorEnterNode;
@@ -34,14 +42,40 @@ import org.graalvm.compiler.nodes.java.MonitorExitNode;
 import org.graalvm.compiler.nodes.java.MonitorIdNode;
 import org.graalvm.compiler.nodes.java.RawMonitorEnterNode;
 import org.graalvm.compiler.nodes.util.GraphUtil;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.compiler.options.OptionKey;
+import org.graalvm.compiler.options.OptionType;
 import org.graalvm.compiler.phases.Phase;
 
+/**
+ * Coarsens lock regions: a monitor exit followed by a monitor enter on the same object at the
+ * same lock depth is removed together with the enter, so that both critical sections become one.
+ * The enter does not need to directly follow the exit; the code in between is pulled into the
+ * lock region as long as it is short, cannot deoptimize with a frame state that does not hold the
+ * lock, and does not block or poll for safepoints. Regions created by unrolling a loop are merged
+ * the same way, which makes this coarsen lock regions across loop iterations.
+ *
+ * The number of original lock regions merged into one region is bounded to limit the time the
+ * lock is held.
+ */
 public class LockEliminationPhase extends Phase {
 
+    public static class Options {
+        //@formatter:off
+        @Option(help = "Maximum number of fixed nodes between two lock regions that are moved into the region when coarsening them.", type = OptionType.Expert)
+        public static final OptionKey<Integer> LockCoarseningMaxNodes = new OptionKey<>(16);
+        @Option(help = "Maximum number of lock regions that are coarsened into a single region.", type = OptionType.Expert)
+        public static final OptionKey<Integer> LockCoarseningMaxRegions = new OptionKey<>(8);
+        //@formatter:on
+    }
+
     @Override
     protected void run(StructuredGraph graph) {
+        int maxNodes = Options.LockCoarseningMaxNodes.getValue(graph.getOptions());
+        int maxRegions = Options.LockCoarseningMaxRegions.getValue(graph.getOptions());
+        EconomicMap<MonitorIdNode, Integer> regionCounts = EconomicMap.create(Equivalence.IDENTITY);
         for (MonitorExitNode monitorExitNode : graph.getNodes(MonitorExitNode.TYPE)) {
-            FixedNode next = monitorExitNode.next();
+            FixedNode next = findNextMonitorEnter(monitorExitNode, maxNodes);
             if ((next instanceof MonitorEnterNode || next instanceof RawMonitorEnterNode)) {
                 // should never happen, osr monitor enters are always direct successors of the graph
                 // start
@@ -55,6 +89,12 @@ public class LockEliminationPhase extends Phase {
                     MonitorIdNode enterId = monitorEnterNode.getMonitorId();
                     MonitorIdNode exitId = monitorExitNode.getMonitorId();
                     if (enterId != exitId) {
+                        int regions = regionCount(regionCounts, enterId) + regionCount(regionCounts, exitId);
+                        if (regions > maxRegions) {
+                            continue;
+                        }
+                        regionCounts.removeKey(enterId);
+                        regionCounts.put(exitId, regions);
                         enterId.replaceAndDelete(exitId);
                     }
                     GraphUtil.removeFixedWithUnusedInputs(monitorEnterNode);
@@ -64,6 +104,42 @@ public class LockEliminationPhase extends Phase {
         }
     }
 
+    private static int regionCount(EconomicMap<MonitorIdNode, Integer> regionCounts, MonitorIdNode id) {
+        Integer count = regionCounts.get(id);
+        return count == null ? 1 : count;
+    }
+
+    /**
+     * Returns the first fixed node after {@code monitorExit} that is not part of a short sequence
+     * of nodes which may be moved into a lock region.
+     */
+    private static FixedNode findNextMonitorEnter(MonitorExitNode monitorExit, int maxNodes) {
+        FixedNode current = monitorExit.next();
+        for (int i = 0; i < maxNodes && current instanceof FixedWithNextNode; i++) {
+            if (current instanceof AccessMonitorNode || !canMoveIntoLockRegion((FixedWithNextNode) current)) {
+                break;
+            }
+            current = ((FixedWithNextNode) current).next();
+        }
+        return current;
+    }
+
+    /**
+     * Nodes with a frame state must stay outside of the lock region since deoptimizing with that
+     * state would resume in the interpreter without the lock being recorded as held.
+     */
+    private static boolean canMoveIntoLockRegion(FixedWithNextNode node) {
+        if (node instanceof Invoke || node instanceof SafepointNode || (node instanceof ForeignCallNode && ((ForeignCallNode) node).isGuaranteedSafepoint())) {
+            return false;
+        }
+        for (Node input : node.inputs()) {
+            if (input instanceof FrameState) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Check that the paired operations operate on the same object at the same lock depth.
      */
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.phases.common.inlining;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.Equivalence;
+import org.graalvm.collections.MapCursor;
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.compiler.options.OptionKey;
+import org.graalvm.compiler.options.OptionType;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.PhaseSuite;
+import org.graalvm.compiler.phases.tiers.HighTierContext;
+
+import jdk.vm.ci.meta.DeoptimizationReason;
+import jdk.vm.ci.meta.ProfilingInfo;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.ResolvedJavaType;
+
+/**
+ * A cache of the graphs produced by parsing inlining candidates, shared by all compilations. The
+ * cached graphs are taken right after parsing and dead code elimination, before any
+ * canonicalization, so that each user can specialize and canonicalize its own copy in the context
+ * of the call site.
+ *
+ * An entry is only reused if it was built with the same graph builder suite and options and if
+ * neither the profiles nor the classes of the methods that contributed to it have changed in a way
+ * that affects parsing: the number of deoptimizations recorded for the methods must be unchanged
+ * and each method must still be declared by its class (i.e., it has not been redefined). The latter
+ * is only checked periodically. Graphs that depend on assumptions are never cached.
+ */
+public final class InlineeGraphCache {
+
+    public static class Options {
+        // @formatter:off
+        @Option(help = "Share the graphs of parsed inlining candidates between compilations.", type = OptionType.Expert)
+        public static final OptionKey<Boolean> UseInlineeGraphCache = new OptionKey<>(false);
+        @Option(help = "Maximum number of graphs held by the inlinee graph cache.", type = OptionType.Expert)
+        public static final OptionKey<Integer> InlineeGraphCacheSize = new OptionKey<>(1000);
+        // @formatter:on
+    }
+
+    private static final CounterKey InlineeGraphCacheHits = DebugContext.counter("InlineeGraphCacheHits");
+    private static final CounterKey InlineeGraphCacheMisses = DebugContext.counter("InlineeGraphCacheMisses");
+    private static final CounterKey InlineeGraphCacheInvalidations = DebugContext.counter("InlineeGraphCacheInvalidations");
+
+    private static final LRUCache cache = new LRUCache();
+    private static final Map<Key, Entry> graphs = Collections.synchronizedMap(cache);
+
+    private InlineeGraphCache() {
+    }
+
+    /**
+     * Gets a mutable copy of the cached graph for {@code method} if there is one that can be used
+     * for inlining into {@code caller}.
+     *
+     * @return {@code null} if there is no valid cache entry
+     */
+    public static StructuredGraph get(ResolvedJavaMethod method, HighTierContext context, StructuredGraph caller, boolean trackNodeSourcePosition) {
+        if (!Options.UseInlineeGraphCache.getValue(caller.getOptions())) {
+            return null;
+        }
+        DebugContext debug = caller.getDebug();
+        Key key = new Key(method, context.getGraphBuilderSuite(), caller, trackNodeSourcePosition);
+        Entry entry = graphs.get(key);
+        if (entry == null) {
+            InlineeGraphCacheMisses.increment(debug);
+            return null;
+        }
+        if (!entry.isValid()) {
+            InlineeGraphCacheInvalidations.increment(debug);
+            graphs.remove(key, entry);
+            return null;
+        }
+        InlineeGraphCacheHits.increment(debug);
+        return (StructuredGraph) entry.graph.copy(debug);
+    }
+
+    /**
+     * Adds a read-only copy of {@code graph}, which was parsed for {@code method} with the same
+     * arguments, to the cache if it can be shared with other compilations.
+     */
+    public static void put(ResolvedJavaMethod method, HighTierContext context, StructuredGraph caller, boolean trackNodeSourcePosition, StructuredGraph graph) {
+        OptionValues options = caller.getOptions();
+        if (!Options.UseInlineeGraphCache.getValue(options) || (graph.getAssumptions() != null && !graph.getAssumptions().isEmpty())) {
+            return;
+        }
+        if (graph.useProfilingInfo() && !graph.getProfilingInfo().isMature()) {
+            return;
+        }
+        // The cached copy must not refer to the debug context of this compilation.
+        StructuredGraph copy = (StructuredGraph) graph.copy(DebugContext.DISABLED);
+        copy.freeze();
+        Key key = new Key(method, context.getGraphBuilderSuite(), caller, trackNodeSourcePosition);
+        Entry entry = new Entry(copy);
+        synchronized (graphs) {
+            cache.maxCacheSize = Options.InlineeGraphCacheSize.getValue(options);
+            graphs.put(key, entry);
+        }
+    }
+
+    private static final class Key {
+        private final ResolvedJavaMethod method;
+        private final PhaseSuite<HighTierContext> graphBuilderSuite;
+        private final OptionValues options;
+        private final boolean allowAssumptions;
+        private final boolean useProfilingInfo;
+        private final boolean trackNodeSourcePosition;
+        private final boolean unsafeAccessTracking;
+
+        Key(ResolvedJavaMethod method, PhaseSuite<HighTierContext> graphBuilderSuite, StructuredGraph caller, boolean trackNodeSourcePosition) {
+            this.method = method;
+            this.graphBuilderSuite = graphBuilderSuite;
+            this.options = caller.getOptions();
+            this.allowAssumptions = caller.getAssumptions() != null;
+            this.useProfilingInfo = caller.useProfilingInfo();
+            this.trackNodeSourcePosition = trackNodeSourcePosition;
+            this.unsafeAccessTracking = caller.isUnsafeAccessTrackingEnabled();
+        }
+
+        @Override
+        public int hashCode() {
+            return method.hashCode() ^ System.identityHashCode(graphBuilderSuite);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof Key) {
+                Key that = (Key) obj;
+                return method.equals(that.method) && graphBuilderSuite == that.graphBuilderSuite && options == that.options && allowAssumptions == that.allowAssumptions &&
+                                useProfilingInfo == that.useProfilingInfo && trackNodeSourcePosition == that.trackNodeSourcePosition && unsafeAccessTracking == that.unsafeAccessTracking;
+            }
+            return false;
+        }
+    }
+
+    private static final class Entry {
+        /**
+         * The number of uses after which the methods of an entry are checked again for having been
+         * redefined.
+         */
+        private static final int DECLARATION_CHECK_INTERVAL = 64;
+
+        private final StructuredGraph graph;
+        private final int deoptimizationCount;
+
+        /**
+         * The methods that contributed to {@link #graph}, grouped by their declaring class.
+         */
+        private final EconomicMap<ResolvedJavaType, List<ResolvedJavaMethod>> methodsByClass;
+
+        private final AtomicInteger uses = new AtomicInteger();
+
+        Entry(StructuredGraph graph) {
+            this.graph = graph;
+            this.deoptimizationCount = deoptimizationCount(graph);
+            this.methodsByClass = EconomicMap.create(Equivalence.DEFAULT);
+            addMethod(graph.method());
+            for (ResolvedJavaMethod m : graph.getMethods()) {
+                addMethod(m);
+            }
+        }
+
+        private void addMethod(ResolvedJavaMethod method) {
+            List<ResolvedJavaMethod> methods = methodsByClass.get(method.getDeclaringClass());
+            if (methods == null) {
+                methods = new ArrayList<>();
+                methodsByClass.put(method.getDeclaringClass(), methods);
+            }
+            if (!methods.contains(method)) {
+                methods.add(method);
+            }
+        }
+
+        /**
+         * Determines if the entry can still be used. The deoptimization count is checked on every
+         * use. Looking up the declared methods is more expensive, so it is only done on the first
+         * use and then once every {@link #DECLARATION_CHECK_INTERVAL} uses.
+         */
+        boolean isValid() {
+            if (deoptimizationCount(graph) != deoptimizationCount) {
+                return false;
+            }
+            if (uses.getAndIncrement() % DECLARATION_CHECK_INTERVAL == 0) {
+                MapCursor<ResolvedJavaType, List<ResolvedJavaMethod>> cursor = methodsByClass.getEntries();
+                while (cursor.advance()) {
+                    if (!areDeclared(cursor.getKey(), cursor.getValue())) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Determines if all of {@code methods} are still methods of their declaring class
+         * {@code type}. A redefined class declares new methods, and so invalidates any graph built
+         * from the old ones.
+         */
+        private static boolean areDeclared(ResolvedJavaType type, List<ResolvedJavaMethod> methods) {
+            ResolvedJavaMethod[] declaredMethods = null;
+            ResolvedJavaMethod[] declaredConstructors = null;
+            for (ResolvedJavaMethod method : methods) {
+                ResolvedJavaMethod[] declared;
+                if (method.isConstructor()) {
+                    if (declaredConstructors == null) {
+                        declaredConstructors = type.getDeclaredConstructors();
+                    }
+                    declared = declaredConstructors;
+                } else {
+                    if (declaredMethods == null) {
+                        declaredMethods = type.getDeclaredMethods();
+                    }
+                    declared = declaredMethods;
+                }
+                if (!contains(declared, method)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean contains(ResolvedJavaMethod[] declared, ResolvedJavaMethod method) {
+            for (ResolvedJavaMethod m : declared) {
+                if (m.equals(method)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Sums up the deoptimizations recorded in the profiles of the methods that were parsed to
+         * build {@code graph}. A change in this number means that a speculation made while parsing
+         * failed and the graph should be built again from the updated profiles.
+         */
+        private static int deoptimizationCount(StructuredGraph graph) {
+            if (!graph.useProfilingInfo()) {
+                return 0;
+            }
+            int count = deoptimizationCount(graph.getProfilingInfo());
+            List<ResolvedJavaMethod> methods = graph.getMethods();
+            for (ResolvedJavaMethod m : methods) {
+                count += deoptimizationCount(graph.getProfilingInfo(m));
+            }
+            return count;
+        }
+
+        private static int deoptimizationCount(ProfilingInfo profilingInfo) {
+            int count = 0;
+            for (DeoptimizationReason reason : DeoptimizationReason.values()) {
+                count += profilingInfo.getDeoptimizationCount(reason);
+            }
+            return count;
+        }
+    }
+
+    private static final class LRUCache extends LinkedHashMap<Key, Entry> {
+        private static final long serialVersionUID = 1L;
+        private int maxCacheSize = Options.InlineeGraphCacheSize.getDefaultValue();
+
+        LRUCache() {
+            super(16, 0.75F, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(java.util.Map.Entry<Key, Entry> eldest) {
+            return size() > maxCacheSize;
+        }
+    }
+}
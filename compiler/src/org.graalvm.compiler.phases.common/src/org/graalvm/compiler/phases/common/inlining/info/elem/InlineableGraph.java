@@ -42,6 +42,7 @@ import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
 import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.phases.common.CanonicalizerPhase;
 import org.graalvm.compiler.phases.common.DeadCodeEliminationPhase;
+import org.graalvm.compiler.phases.common.inlining.InlineeGraphCache;
 import org.graalvm.compiler.phases.common.inlining.InliningUtil;
 import org.graalvm.compiler.phases.graph.FixedNodeProbabilityCache;
 import org.graalvm.compiler.phases.tiers.HighTierContext;
@@ -183,26 +184,34 @@ public class InlineableGraph implements Inlineable {
     }
 
     /**
-     * This method builds the IR nodes for the given <code>method</code> and canonicalizes them.
-     * Provided profiling info is mature, the resulting graph is cached. The caller is responsible
-     * for cloning before modification.
-     * </p>
+     * This method builds the IR nodes for the given <code>method</code> and canonicalizes them. The
+     * graph is taken from the {@link InlineeGraphCache} if it holds a valid parsed graph for the
+     * method, otherwise the freshly parsed graph is offered to the cache before it is
+     * canonicalized. The result is always a private copy that can be modified by the caller.
      */
     @SuppressWarnings("try")
     private static StructuredGraph parseBytecodes(ResolvedJavaMethod method, HighTierContext context, CanonicalizerPhase canonicalizer, StructuredGraph caller, boolean trackNodeSourcePosition) {
         DebugContext debug = caller.getDebug();
-        StructuredGraph newGraph = new StructuredGraph.Builder(caller.getOptions(), debug, AllowAssumptions.ifNonNull(caller.getAssumptions())).method(method).trackNodeSourcePosition(
-                        trackNodeSourcePosition).useProfilingInfo(caller.useProfilingInfo()).build();
+        StructuredGraph newGraph = InlineeGraphCache.get(method, context, caller, trackNodeSourcePosition);
+        boolean cached = newGraph != null;
+        if (!cached) {
+            newGraph = new StructuredGraph.Builder(caller.getOptions(), debug, AllowAssumptions.ifNonNull(caller.getAssumptions())).method(method).trackNodeSourcePosition(
+                            trackNodeSourcePosition).useProfilingInfo(caller.useProfilingInfo()).build();
+        }
         try (DebugContext.Scope s = debug.scope("InlineGraph", newGraph)) {
-            if (!caller.isUnsafeAccessTrackingEnabled()) {
-                newGraph.disableUnsafeAccessTracking();
-            }
-            if (context.getGraphBuilderSuite() != null) {
-                context.getGraphBuilderSuite().apply(newGraph, context);
-            }
-            assert newGraph.start().next() != null : "graph needs to be populated by the GraphBuilderSuite " + method + ", " + method.canBeInlined();
+            if (!cached) {
+                if (!caller.isUnsafeAccessTrackingEnabled()) {
+                    newGraph.disableUnsafeAccessTracking();
+                }
+                if (context.getGraphBuilderSuite() != null) {
+                    context.getGraphBuilderSuite().apply(newGraph, context);
+                }
+                assert newGraph.start().next() != null : "graph needs to be populated by the GraphBuilderSuite " + method + ", " + method.canBeInlined();
 
-            new DeadCodeEliminationPhase(Optional).apply(newGraph);
+                new DeadCodeEliminationPhase(Optional).apply(newGraph);
+
+                InlineeGraphCache.put(method, context, caller, trackNodeSourcePosition, newGraph);
+            }
 
             canonicalizer.apply(newGraph, context);
 
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.amd64;
+
+import org.graalvm.compiler.api.replacements.ClassSubstitution;
+import org.graalvm.compiler.api.replacements.MethodSubstitution;
+import org.graalvm.compiler.word.Word;
+import org.graalvm.word.Pointer;
+import org.graalvm.word.WordFactory;
+
+// JaCoCo Exclude
+
+/**
+ * Substitutions for {@code jdk.internal.util.ArraysSupport} methods.
+ *
+ * Since JDK 9. The class is {@code java.util.ArraysSupport} in JDK 9 and was moved to
+ * {@code jdk.internal.util} in JDK 10, the registration takes care of the difference.
+ */
+@ClassSubstitution(className = "jdk.internal.util.ArraysSupport", optional = true)
+public class AMD64ArraysSupportSubstitutions {
+
+    /**
+     * The original method may leave a tail of fewer than 8 bytes unchecked and returns its inverted
+     * length for the caller to check. The intrinsic always compares all bytes, so there is never a
+     * tail and a missing mismatch is reported as {@code ~0}.
+     */
+    @MethodSubstitution(optional = true)
+    public static int vectorizedMismatch(Object a, long aOffset, Object b, long bOffset, int length, int log2ArrayIndexScale) {
+        Pointer aPointer = Word.objectToTrackedPointer(a).add(WordFactory.unsigned(aOffset));
+        Pointer bPointer = Word.objectToTrackedPointer(b).add(WordFactory.unsigned(bOffset));
+        long byteLength = ((long) length) << log2ArrayIndexScale;
+        long mismatch = AMD64VectorizedMismatchNode.vectorizedMismatch(aPointer, bPointer, byteLength);
+        if (mismatch < 0) {
+            return ~0;
+        }
+        return (int) (mismatch >> log2ArrayIndexScale);
+    }
+}
@@ -82,8 +82,10 @@ public class AMD64GraphBuilderPlugins {
                 registerStringPlugins(invocationPlugins, arch, replacementsBytecodeProvider);
                 registerStringLatin1Plugins(invocationPlugins, arch, replacementsBytecodeProvider);
                 registerStringUTF16Plugins(invocationPlugins, arch, replacementsBytecodeProvider);
+                registerStringCodingPlugins(invocationPlugins, arch, replacementsBytecodeProvider);
                 registerMathPlugins(invocationPlugins, arch, arithmeticStubs, replacementsBytecodeProvider);
                 registerArraysEqualsPlugins(invocationPlugins, replacementsBytecodeProvider);
+                registerArraysSupportPlugins(invocationPlugins, replacementsBytecodeProvider);
             }
         });
     }
@@ -214,6 +216,10 @@ public class AMD64GraphBuilderPlugins {
             if (arch.getFeatures().contains(CPUFeature.SSSE3)) {
                 r.registerMethodSubstitution(AMD64StringLatin1Substitutions.class, "indexOf", byte[].class, int.class, int.class);
             }
+            if (arch.getFeatures().contains(CPUFeature.SSE4_2)) {
+                r.registerMethodSubstitution(AMD64StringLatin1Substitutions.class, "inflate", byte[].class, int.class, char[].class, int.class, int.class);
+                r.registerMethodSubstitution(AMD64StringLatin1Substitutions.class, "inflate", byte[].class, int.class, byte[].class, int.class, int.class);
+            }
         }
     }
 
@@ -226,6 +232,34 @@ public class AMD64GraphBuilderPlugins {
             if (arch.getFeatures().contains(CPUFeature.SSSE3)) {
                 r.registerMethodSubstitution(AMD64StringUTF16Substitutions.class, "indexOfCharUnsafe", byte[].class, int.class, int.class, int.class);
             }
+            if (arch.getFeatures().contains(CPUFeature.SSE4_2)) {
+                r.registerMethodSubstitution(AMD64StringUTF16Substitutions.class, "compress", char[].class, int.class, byte[].class, int.class, int.class);
+                r.registerMethodSubstitution(AMD64StringUTF16Substitutions.class, "compress", byte[].class, int.class, byte[].class, int.class, int.class);
+            }
+        }
+    }
+
+    private static void registerStringCodingPlugins(InvocationPlugins plugins, AMD64 arch, BytecodeProvider replacementsBytecodeProvider) {
+        if (!arch.getFeatures().contains(CPUFeature.SSE4_2)) {
+            return;
+        }
+        Registration r = new Registration(plugins, "sun.nio.cs.ISO_8859_1$Encoder", replacementsBytecodeProvider);
+        if (Java8OrEarlier) {
+            r.registerMethodSubstitution(AMD64ISO88591EncoderSubstitutions.class, "encodeISOArray", char[].class, int.class, byte[].class, int.class, int.class);
+        } else {
+            r.registerMethodSubstitution(AMD64ISO88591EncoderSubstitutions.class, "implEncodeISOArray", char[].class, int.class, byte[].class, int.class, int.class);
+
+            r = new Registration(plugins, "java.lang.StringCoding", replacementsBytecodeProvider);
+            r.registerMethodSubstitution(AMD64StringCodingSubstitutions.class, "hasNegatives", byte[].class, int.class, int.class);
+            r.registerMethodSubstitution(AMD64StringCodingSubstitutions.class, "implEncodeISOArray", byte[].class, int.class, byte[].class, int.class, int.class);
+        }
+    }
+
+    private static void registerArraysSupportPlugins(InvocationPlugins plugins, BytecodeProvider replacementsBytecodeProvider) {
+        if (JAVA_SPECIFICATION_VERSION >= 9) {
+            String className = JAVA_SPECIFICATION_VERSION == 9 ? "java.util.ArraysSupport" : "jdk.internal.util.ArraysSupport";
+            Registration r = new Registration(plugins, className, replacementsBytecodeProvider);
+            r.registerMethodSubstitution(AMD64ArraysSupportSubstitutions.class, "vectorizedMismatch", Object.class, long.class, Object.class, long.class, int.class, int.class);
         }
     }
 
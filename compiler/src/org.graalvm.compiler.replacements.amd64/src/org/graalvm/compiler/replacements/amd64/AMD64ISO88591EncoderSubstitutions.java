@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.amd64;
+
+import org.graalvm.compiler.api.replacements.ClassSubstitution;
+import org.graalvm.compiler.api.replacements.Fold;
+import org.graalvm.compiler.api.replacements.Fold.InjectedParameter;
+import org.graalvm.compiler.api.replacements.MethodSubstitution;
+import org.graalvm.compiler.core.common.spi.ArrayOffsetProvider;
+import org.graalvm.compiler.nodes.DeoptimizeNode;
+import org.graalvm.compiler.word.Word;
+import org.graalvm.word.Pointer;
+
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
+import jdk.vm.ci.meta.JavaKind;
+
+// JaCoCo Exclude
+
+/**
+ * Substitutions for {@code sun.nio.cs.ISO_8859_1.Encoder} methods.
+ */
+@ClassSubstitution(className = "sun.nio.cs.ISO_8859_1$Encoder", optional = true)
+public class AMD64ISO88591EncoderSubstitutions {
+
+    @Fold
+    static int byteArrayBaseOffset(@InjectedParameter ArrayOffsetProvider arrayOffsetProvider) {
+        return arrayOffsetProvider.arrayBaseOffset(JavaKind.Byte);
+    }
+
+    @Fold
+    static int charArrayBaseOffset(@InjectedParameter ArrayOffsetProvider arrayOffsetProvider) {
+        return arrayOffsetProvider.arrayBaseOffset(JavaKind.Char);
+    }
+
+    @Fold
+    static int charArrayIndexScale(@InjectedParameter ArrayOffsetProvider arrayOffsetProvider) {
+        return arrayOffsetProvider.arrayScalingFactor(JavaKind.Char);
+    }
+
+    /** Marker value for the {@link InjectedParameter} injected parameter. */
+    static final ArrayOffsetProvider INJECTED = null;
+
+    /**
+     * Up to JDK 8.
+     */
+    @MethodSubstitution(optional = true)
+    public static int encodeISOArray(char[] sa, int sp, byte[] da, int dp, int len) {
+        if (len < 0 || sp < 0 || sp > sa.length - len || dp < 0 || dp > da.length - len) {
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+        Pointer srcPointer = Word.objectToTrackedPointer(sa).add(charArrayBaseOffset(INJECTED)).add(sp * charArrayIndexScale(INJECTED));
+        Pointer destPointer = Word.objectToTrackedPointer(da).add(byteArrayBaseOffset(INJECTED)).add(dp);
+        return AMD64ArrayCompressNode.compress(srcPointer, destPointer, len, JavaKind.Char);
+    }
+
+    /**
+     * Since JDK 9.
+     */
+    @MethodSubstitution(optional = true)
+    public static int implEncodeISOArray(char[] sa, int sp, byte[] da, int dp, int len) {
+        if (len < 0 || sp < 0 || sp > sa.length - len || dp < 0 || dp > da.length - len) {
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+        Pointer srcPointer = Word.objectToTrackedPointer(sa).add(charArrayBaseOffset(INJECTED)).add(sp * charArrayIndexScale(INJECTED));
+        Pointer destPointer = Word.objectToTrackedPointer(da).add(byteArrayBaseOffset(INJECTED)).add(dp);
+        return AMD64ArrayCompressNode.compress(srcPointer, destPointer, len, JavaKind.Char);
+    }
+}
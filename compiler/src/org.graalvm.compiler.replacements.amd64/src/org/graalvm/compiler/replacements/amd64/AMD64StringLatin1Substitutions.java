@@ -30,10 +30,14 @@ import org.graalvm.compiler.api.replacements.Fold;
 import org.graalvm.compiler.api.replacements.Fold.InjectedParameter;
 import org.graalvm.compiler.api.replacements.MethodSubstitution;
 import org.graalvm.compiler.core.common.spi.ArrayOffsetProvider;
+import org.graalvm.compiler.nodes.DeoptimizeNode;
 import org.graalvm.compiler.replacements.nodes.ArrayCompareToNode;
 import org.graalvm.compiler.word.Word;
 import org.graalvm.word.Pointer;
 
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
+
 // JaCoCo Exclude
 
 /**
@@ -49,6 +53,16 @@ public class AMD64StringLatin1Substitutions {
         return arrayOffsetProvider.arrayBaseOffset(JavaKind.Byte);
     }
 
+    @Fold
+    static int charArrayBaseOffset(@InjectedParameter ArrayOffsetProvider arrayOffsetProvider) {
+        return arrayOffsetProvider.arrayBaseOffset(JavaKind.Char);
+    }
+
+    @Fold
+    static int charArrayIndexScale(@InjectedParameter ArrayOffsetProvider arrayOffsetProvider) {
+        return arrayOffsetProvider.arrayScalingFactor(JavaKind.Char);
+    }
+
     /** Marker value for the {@link InjectedParameter} injected parameter. */
     static final ArrayOffsetProvider INJECTED = null;
 
@@ -91,4 +105,30 @@ public class AMD64StringLatin1Substitutions {
         }
         return result;
     }
+
+    /**
+     * @param dest is char[]
+     */
+    @MethodSubstitution(optional = true)
+    public static void inflate(byte[] src, int srcIndex, char[] dest, int destIndex, int len) {
+        if (len < 0 || srcIndex < 0 || srcIndex > src.length - len || destIndex < 0 || destIndex > dest.length - len) {
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+        Pointer srcPointer = Word.objectToTrackedPointer(src).add(byteArrayBaseOffset(INJECTED)).add(srcIndex);
+        Pointer destPointer = Word.objectToTrackedPointer(dest).add(charArrayBaseOffset(INJECTED)).add(destIndex * charArrayIndexScale(INJECTED));
+        AMD64ArrayInflateNode.inflate(srcPointer, destPointer, len, JavaKind.Char);
+    }
+
+    /**
+     * @param dest is char[] stored in a byte[]
+     */
+    @MethodSubstitution(optional = true)
+    public static void inflate(byte[] src, int srcIndex, byte[] dest, int destIndex, int len) {
+        if (len < 0 || srcIndex < 0 || srcIndex > src.length - len || destIndex < 0 || destIndex > (dest.length >> 1) - len) {
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+        Pointer srcPointer = Word.objectToTrackedPointer(src).add(byteArrayBaseOffset(INJECTED)).add(srcIndex);
+        Pointer destPointer = Word.objectToTrackedPointer(dest).add(byteArrayBaseOffset(INJECTED)).add(destIndex * charArrayIndexScale(INJECTED));
+        AMD64ArrayInflateNode.inflate(srcPointer, destPointer, len, JavaKind.Byte);
+    }
 }
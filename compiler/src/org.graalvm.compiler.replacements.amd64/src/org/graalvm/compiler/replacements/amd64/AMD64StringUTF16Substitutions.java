@@ -29,8 +29,11 @@ import org.graalvm.compiler.api.replacements.Fold;
 import org.graalvm.compiler.api.replacements.Fold.InjectedParameter;
 import org.graalvm.compiler.api.replacements.MethodSubstitution;
 import org.graalvm.compiler.core.common.spi.ArrayOffsetProvider;
+import org.graalvm.compiler.nodes.DeoptimizeNode;
 import org.graalvm.compiler.replacements.nodes.ArrayCompareToNode;
 
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
 import jdk.vm.ci.meta.JavaKind;
 import org.graalvm.compiler.word.Word;
 import org.graalvm.word.Pointer;
@@ -50,6 +53,11 @@ public class AMD64StringUTF16Substitutions {
         return arrayOffsetProvider.arrayBaseOffset(JavaKind.Byte);
     }
 
+    @Fold
+    static int charArrayBaseOffset(@InjectedParameter ArrayOffsetProvider arrayOffsetProvider) {
+        return arrayOffsetProvider.arrayBaseOffset(JavaKind.Char);
+    }
+
     @Fold
     static int charArrayIndexScale(@InjectedParameter ArrayOffsetProvider arrayOffsetProvider) {
         return arrayOffsetProvider.arrayScalingFactor(JavaKind.Char);
@@ -89,4 +97,34 @@ public class AMD64StringUTF16Substitutions {
         }
         return result;
     }
+
+    /**
+     * @param src is char[]
+     */
+    @MethodSubstitution(optional = true)
+    public static int compress(char[] src, int srcIndex, byte[] dest, int destIndex, int len) {
+        if (len < 0 || srcIndex < 0 || srcIndex > src.length - len || destIndex < 0 || destIndex > dest.length - len) {
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+        Pointer srcPointer = Word.objectToTrackedPointer(src).add(charArrayBaseOffset(INJECTED)).add(srcIndex * charArrayIndexScale(INJECTED));
+        Pointer destPointer = Word.objectToTrackedPointer(dest).add(byteArrayBaseOffset(INJECTED)).add(destIndex);
+        int copied = AMD64ArrayCompressNode.compress(srcPointer, destPointer, len, JavaKind.Char);
+        // the chars are only compressed if all of them fit into a byte
+        return copied == len ? len : 0;
+    }
+
+    /**
+     * @param src is char[] stored in a byte[]
+     */
+    @MethodSubstitution(optional = true)
+    public static int compress(byte[] src, int srcIndex, byte[] dest, int destIndex, int len) {
+        if (len < 0 || srcIndex < 0 || srcIndex > (src.length >> 1) - len || destIndex < 0 || destIndex > dest.length - len) {
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+        Pointer srcPointer = Word.objectToTrackedPointer(src).add(byteArrayBaseOffset(INJECTED)).add(srcIndex * charArrayIndexScale(INJECTED));
+        Pointer destPointer = Word.objectToTrackedPointer(dest).add(byteArrayBaseOffset(INJECTED)).add(destIndex);
+        int copied = AMD64ArrayCompressNode.compress(srcPointer, destPointer, len, JavaKind.Byte);
+        // the chars are only compressed if all of them fit into a byte
+        return copied == len ? len : 0;
+    }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.jdk9;
+
+import java.util.Arrays;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.junit.Test;
+
+/**
+ * Tests the {@code ArraysSupport.vectorizedMismatch} substitution through the public
+ * {@link Arrays} methods that use it.
+ */
+public class ArraysMismatchTest extends GraalCompilerTest {
+
+    private static final int[] LENGTHS = {0, 1, 2, 3, 4, 7, 8, 9, 15, 16, 17, 31, 32, 33, 63, 64, 65, 100, 1000};
+
+    public static int byteMismatch(byte[] a, byte[] b) {
+        return Arrays.mismatch(a, b);
+    }
+
+    public static int byteCompare(byte[] a, byte[] b) {
+        return Arrays.compare(a, b);
+    }
+
+    public static int charMismatch(char[] a, char[] b) {
+        return Arrays.mismatch(a, b);
+    }
+
+    public static int intMismatch(int[] a, int[] b) {
+        return Arrays.mismatch(a, b);
+    }
+
+    public static int intRangeMismatch(int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo) {
+        return Arrays.mismatch(a, aFrom, aTo, b, bFrom, bTo);
+    }
+
+    public static int longMismatch(long[] a, long[] b) {
+        return Arrays.mismatch(a, b);
+    }
+
+    public static int doubleMismatch(double[] a, double[] b) {
+        return Arrays.mismatch(a, b);
+    }
+
+    @Test
+    public void testByte() {
+        for (int length : LENGTHS) {
+            byte[] a = new byte[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = (byte) (i * 31);
+            }
+            test("byteMismatch", a, a.clone());
+            test("byteCompare", a, a.clone());
+            test("byteMismatch", a, Arrays.copyOf(a, length + 1));
+            for (int pos : mismatchPositions(length)) {
+                byte[] b = a.clone();
+                b[pos]++;
+                test("byteMismatch", a, b);
+                test("byteCompare", a, b);
+                test("byteCompare", b, a);
+            }
+        }
+    }
+
+    @Test
+    public void testChar() {
+        for (int length : LENGTHS) {
+            char[] a = new char[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = (char) (i * 257);
+            }
+            test("charMismatch", a, a.clone());
+            for (int pos : mismatchPositions(length)) {
+                char[] b = a.clone();
+                b[pos] ^= 0x100;
+                test("charMismatch", a, b);
+            }
+        }
+    }
+
+    @Test
+    public void testInt() {
+        for (int length : LENGTHS) {
+            int[] a = new int[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = i * 0x01010101;
+            }
+            test("intMismatch", a, a.clone());
+            for (int pos : mismatchPositions(length)) {
+                int[] b = a.clone();
+                b[pos] ^= 0x10000000;
+                test("intMismatch", a, b);
+                test("intRangeMismatch", a, 0, length, b, 0, length);
+                if (pos > 0) {
+                    test("intRangeMismatch", a, 1, length, b, 1, length);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLong() {
+        for (int length : LENGTHS) {
+            long[] a = new long[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = i * 0x0101010101010101L;
+            }
+            test("longMismatch", a, a.clone());
+            for (int pos : mismatchPositions(length)) {
+                long[] b = a.clone();
+                b[pos] ^= 1L << 63;
+                test("longMismatch", a, b);
+            }
+        }
+    }
+
+    @Test
+    public void testDouble() {
+        for (int length : LENGTHS) {
+            double[] a = new double[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = i * 0.5;
+            }
+            test("doubleMismatch", a, a.clone());
+            for (int pos : mismatchPositions(length)) {
+                double[] b = a.clone();
+                b[pos] += 1.0;
+                test("doubleMismatch", a, b);
+            }
+            if (length > 0) {
+                // different NaN bit patterns are treated as equal
+                double[] nanA = a.clone();
+                double[] nanB = a.clone();
+                nanA[length - 1] = Double.NaN;
+                nanB[length - 1] = Double.longBitsToDouble(0x7ff8000000000001L);
+                test("doubleMismatch", nanA, nanB);
+            }
+        }
+    }
+
+    private static int[] mismatchPositions(int length) {
+        if (length == 0) {
+            return new int[0];
+        }
+        return new int[]{0, length / 2, length - 1};
+    }
+}
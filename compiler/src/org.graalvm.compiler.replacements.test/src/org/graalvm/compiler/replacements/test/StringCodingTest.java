@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.test;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.junit.Test;
+
+/**
+ * Tests the string coding intrinsics (compress, inflate, hasNegatives and encodeISOArray) through
+ * the public API using them, with lengths around the vector sizes used by the intrinsics.
+ */
+public class StringCodingTest extends GraalCompilerTest {
+
+    private static final int[] LENGTHS = {0, 1, 7, 8, 9, 15, 16, 17, 31, 32, 33, 47, 63, 64, 65, 100, 1000};
+
+    private static char[] latin1Chars(int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ((i * 37) & 0xFF);
+        }
+        return chars;
+    }
+
+    public static String newString(char[] chars) {
+        return new String(chars);
+    }
+
+    @Test
+    public void testCompress() {
+        for (int length : LENGTHS) {
+            char[] chars = latin1Chars(length);
+            test("newString", chars);
+            for (int pos = 0; pos < length; pos += 5) {
+                char[] utf16 = chars.clone();
+                utf16[pos] = '\u0100';
+                test("newString", utf16);
+            }
+        }
+    }
+
+    public static char[] toCharArray(String s) {
+        return s.toCharArray();
+    }
+
+    public static String appendChar(String s, char c) {
+        return new StringBuilder(s).append(c).toString();
+    }
+
+    @Test
+    public void testInflate() {
+        for (int length : LENGTHS) {
+            String s = new String(latin1Chars(length));
+            test("toCharArray", s);
+            test("appendChar", s, '\u03bb');
+        }
+    }
+
+    public static String decodeUTF8(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testHasNegatives() {
+        for (int length : LENGTHS) {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) ('a' + i % 26);
+            }
+            test("decodeUTF8", bytes);
+            for (int pos = 0; pos < length; pos += 3) {
+                byte[] negative = bytes.clone();
+                negative[pos] = (byte) 0xE9;
+                test("decodeUTF8", negative);
+            }
+        }
+    }
+
+    public static byte[] encodeISO(String s) {
+        return s.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    public static int encodeISOBuffer(char[] chars, byte[] bytes) {
+        CharsetEncoder encoder = StandardCharsets.ISO_8859_1.newEncoder();
+        ByteBuffer out = ByteBuffer.wrap(bytes);
+        encoder.encode(CharBuffer.wrap(chars), out, true);
+        return out.position();
+    }
+
+    @Test
+    public void testEncodeISOArray() {
+        for (int length : LENGTHS) {
+            char[] chars = latin1Chars(length);
+            test("encodeISO", new String(chars) + '\u03bb');
+            test("encodeISOBuffer", chars, new byte[length]);
+            for (int pos = 0; pos < length; pos += 5) {
+                char[] utf16 = chars.clone();
+                utf16[pos] = '\u0100';
+                test("encodeISO", new String(utf16));
+                test("encodeISOBuffer", utf16, new byte[length]);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.benchmark;
+
+import org.graalvm.compiler.core.common.CompilationIdentifier;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.debug.DebugHandlersFactory;
+import org.graalvm.compiler.microbenchmarks.graal.GraalBenchmark;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.truffle.common.TruffleCompilerOptions;
+import org.graalvm.compiler.truffle.common.TruffleDebugJavaMethod;
+import org.graalvm.compiler.truffle.compiler.PartialEvaluator;
+import org.graalvm.compiler.truffle.compiler.TruffleCompilerImpl;
+import org.graalvm.compiler.truffle.runtime.DefaultInliningPolicy;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.compiler.truffle.runtime.TruffleInlining;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the compile time of SimpleLanguage programs split into the stages of a Truffle
+ * compilation: making the {@linkplain TruffleInlining inlining decisions},
+ * {@linkplain PartialEvaluator#createGraph partial evaluation} and the complete
+ * {@linkplain TruffleCompilerImpl#compileAST compilation}, which includes the former two. The size
+ * of the inlined call tree and of the graph produced by partial evaluation are reported as
+ * secondary results.
+ */
+public class PartialEvaluationBenchmark extends GraalBenchmark {
+
+    /**
+     * Sizes of the last compilation unit processed by a benchmark. JMH reports these next to the
+     * timing results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class GraphSize {
+        public int inlinedCalls;
+        public int inlinedNodes;
+        public int graphNodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            inlinedCalls = 0;
+            inlinedNodes = 0;
+            graphNodes = 0;
+        }
+
+        void record(TruffleInlining inlining) {
+            inlinedCalls = inlining.countInlinedCalls();
+            inlinedNodes = inlining.getInlinedNodeCount();
+        }
+
+        void record(StructuredGraph graph) {
+            graphNodes = graph.getNodeCount();
+        }
+    }
+
+    @Benchmark
+    public TruffleInlining inlining(SLCallTargetState s, GraphSize size) {
+        TruffleInlining inlining = new TruffleInlining(s.target, new DefaultInliningPolicy());
+        size.record(inlining);
+        return inlining;
+    }
+
+    @Benchmark
+    @SuppressWarnings("try")
+    public StructuredGraph partialEvaluation(SLCallTargetState s, GraphSize size) {
+        OptimizedCallTarget target = s.target;
+        TruffleCompilerImpl compiler = s.compiler;
+        DebugContext debug = createDebugContext();
+        try (DebugContext.Scope scope = debug.scope("TruffleCompilation", new TruffleDebugJavaMethod(target))) {
+            CompilationIdentifier compilationId = compiler.getCompilationIdentifier(target);
+            StructuredGraph graph = compiler.getPartialEvaluator().createGraph(debug, target, s.inlining, AllowAssumptions.YES, compilationId, target.getSpeculationLog(), null);
+            size.record(graph);
+            return graph;
+        } catch (Throwable e) {
+            throw debug.handle(e);
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("try")
+    public OptimizedCallTarget compilation(SLCallTargetState s, GraphSize size) {
+        OptimizedCallTarget target = s.target;
+        TruffleCompilerImpl compiler = s.compiler;
+        DebugContext debug = createDebugContext();
+        try (DebugContext.Scope scope = debug.scope("TruffleCompilation", new TruffleDebugJavaMethod(target))) {
+            TruffleInlining inlining = new TruffleInlining(target, new DefaultInliningPolicy());
+            size.record(inlining);
+            compiler.compileAST(debug, target, inlining, compiler.getCompilationIdentifier(target), null, null);
+            return target;
+        } catch (Throwable e) {
+            throw debug.handle(e);
+        }
+    }
+
+    private static DebugContext createDebugContext() {
+        OptionValues options = TruffleCompilerOptions.getOptions();
+        return DebugContext.create(options, DebugHandlersFactory.LOADER);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.benchmark;
+
+import org.graalvm.compiler.truffle.common.TruffleCompilerOptions;
+import org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleOptionsOverrideScope;
+import org.graalvm.compiler.truffle.common.TruffleCompilerRuntime;
+import org.graalvm.compiler.truffle.compiler.TruffleCompilerImpl;
+import org.graalvm.compiler.truffle.runtime.DefaultInliningPolicy;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.compiler.truffle.runtime.TruffleInlining;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.oracle.truffle.sl.SLLanguage;
+
+/**
+ * State providing an {@link OptimizedCallTarget} for the {@code main} function of a SimpleLanguage
+ * program. The program is executed a number of times before the benchmark starts so that the AST
+ * is specialized the way it would be when the runtime submits it for compilation. Compilation by
+ * the runtime itself is disabled so that the AST does not change while it is being benchmarked.
+ */
+@State(Scope.Benchmark)
+public class SLCallTargetState {
+
+    private static final int WARMUP_CALLS = 100;
+
+    @Param({"fib", "loop", "calls", "objects", "strings"}) public String program;
+
+    public TruffleCompilerImpl compiler;
+    public OptimizedCallTarget target;
+
+    /**
+     * Inlining decisions for {@link #target} made during setup, used by benchmarks that only
+     * measure partial evaluation.
+     */
+    public TruffleInlining inlining;
+
+    private Context context;
+    private TruffleOptionsOverrideScope overrideScope;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        overrideScope = TruffleCompilerOptions.overrideOptions(TruffleCompilerOptions.TruffleCompilation, false);
+        context = Context.create("sl");
+        context.eval("sl", getSource(program));
+        Value main = context.getBindings("sl").getMember("main");
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            main.execute();
+        }
+        context.enter();
+        try {
+            target = (OptimizedCallTarget) SLLanguage.getCurrentContext().getFunctionRegistry().getFunction("main").getCallTarget();
+        } finally {
+            context.leave();
+        }
+        compiler = (TruffleCompilerImpl) TruffleCompilerRuntime.getRuntime().newTruffleCompiler();
+        inlining = new TruffleInlining(target, new DefaultInliningPolicy());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        overrideScope.close();
+    }
+
+    private static String getSource(String name) {
+        switch (name) {
+            case "fib":
+                return "" +
+                                "function fib(n) {\n" +
+                                "  if (n < 2) {\n" +
+                                "    return n;\n" +
+                                "  }\n" +
+                                "  return fib(n - 1) + fib(n - 2);\n" +
+                                "}\n" +
+                                "function main() {\n" +
+                                "  return fib(10);\n" +
+                                "}\n";
+            case "loop":
+                return "" +
+                                "function main() {\n" +
+                                "  sum = 0;\n" +
+                                "  i = 0;\n" +
+                                "  while (i < 1000) {\n" +
+                                "    j = 0;\n" +
+                                "    while (j < i) {\n" +
+                                "      if (j / 3 * 3 == j) {\n" +
+                                "        sum = sum + j;\n" +
+                                "      } else {\n" +
+                                "        sum = sum - 1;\n" +
+                                "      }\n" +
+                                "      j = j + 7;\n" +
+                                "    }\n" +
+                                "    i = i + 1;\n" +
+                                "  }\n" +
+                                "  return sum;\n" +
+                                "}\n";
+            case "calls":
+                return "" +
+                                "function add(a, b) {\n" +
+                                "  return a + b;\n" +
+                                "}\n" +
+                                "function square(a) {\n" +
+                                "  return a * a;\n" +
+                                "}\n" +
+                                "function sumOfSquares(a, b) {\n" +
+                                "  return add(square(a), square(b));\n" +
+                                "}\n" +
+                                "function norm(a, b, c) {\n" +
+                                "  return add(sumOfSquares(a, b), square(c));\n" +
+                                "}\n" +
+                                "function main() {\n" +
+                                "  result = 0;\n" +
+                                "  i = 0;\n" +
+                                "  while (i < 100) {\n" +
+                                "    result = add(result, norm(i, i + 1, i + 2));\n" +
+                                "    i = i + 1;\n" +
+                                "  }\n" +
+                                "  return result;\n" +
+                                "}\n";
+            case "objects":
+                return "" +
+                                "function point(x, y) {\n" +
+                                "  p = new();\n" +
+                                "  p.x = x;\n" +
+                                "  p.y = y;\n" +
+                                "  return p;\n" +
+                                "}\n" +
+                                "function translate(p, q) {\n" +
+                                "  return point(p.x + q.x, p.y + q.y);\n" +
+                                "}\n" +
+                                "function main() {\n" +
+                                "  p = point(0, 0);\n" +
+                                "  d = point(1, 2);\n" +
+                                "  i = 0;\n" +
+                                "  while (i < 100) {\n" +
+                                "    p = translate(p, d);\n" +
+                                "    i = i + 1;\n" +
+                                "  }\n" +
+                                "  return p.x + p.y;\n" +
+                                "}\n";
+            case "strings":
+                return "" +
+                                "function label(i) {\n" +
+                                "  if (i / 2 * 2 == i) {\n" +
+                                "    return \"even\";\n" +
+                                "  }\n" +
+                                "  return \"odd\";\n" +
+                                "}\n" +
+                                "function main() {\n" +
+                                "  s = \"\";\n" +
+                                "  i = 0;\n" +
+                                "  while (i < 10) {\n" +
+                                "    s = s + i + \":\" + label(i) + \" \";\n" +
+                                "    i = i + 1;\n" +
+                                "  }\n" +
+                                "  return s;\n" +
+                                "}\n";
+            default:
+                throw new IllegalArgumentException("unknown program: " + name);
+        }
+    }
+}
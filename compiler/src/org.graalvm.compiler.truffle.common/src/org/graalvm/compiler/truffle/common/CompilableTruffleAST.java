@@ -55,6 +55,13 @@ public interface CompilableTruffleAST {
      */
     void onCompilationFailed(Supplier<String> reasonAndStackTrace, boolean bailout, boolean permanentBailout);
 
+    /**
+     * Determines if the pending compilation of this AST is a first tier compilation. A first tier
+     * compilation performs no Truffle inlining, runs a reduced set of Graal phases and is replaced
+     * by a full compilation once the AST gets hot enough.
+     */
+    boolean isFirstTierCompilation();
+
     /**
      * Gets a descriptive name for this call target.
      */
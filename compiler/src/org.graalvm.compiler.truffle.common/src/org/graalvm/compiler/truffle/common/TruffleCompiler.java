@@ -68,6 +68,22 @@ public interface TruffleCompiler {
     void doCompile(DebugContext debug, CompilationIdentifier compilationId, OptionValues options, CompilableTruffleAST compilable, TruffleInliningPlan inlining, Cancellable task,
                     TruffleCompilerListener listener);
 
+    /**
+     * Partially evaluates {@code compilable} and returns the number of nodes of the resulting
+     * graph. The graph is not compiled any further. Used to base inlining decisions on the size of
+     * the code a call target expands to rather than on the size of its AST.
+     *
+     * @param compilable the Truffle AST to be partially evaluated
+     * @param inlining a guide for Truffle level inlining to be performed during partial evaluation
+     * @param task an object that must be periodically queried to see if the partial evaluation has
+     *            been cancelled by the requestor
+     * @return the number of graph nodes or {@code -1} if the size cannot be computed by this
+     *         compiler or partial evaluation was cancelled
+     */
+    default int getGraphSize(CompilableTruffleAST compilable, TruffleInliningPlan inlining, Cancellable task) {
+        return -1;
+    }
+
     /**
      * Returns a unique name for the configuration in use by this compiler.
      */
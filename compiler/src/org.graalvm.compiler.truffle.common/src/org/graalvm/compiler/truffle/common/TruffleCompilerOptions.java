@@ -149,12 +149,40 @@ public class TruffleCompilerOptions {
     @Option(help = "Defines the maximum timespan in milliseconds that is required for a call target to be queued for compilation.", type = OptionType.User)
     public static final OptionKey<Integer> TruffleTimeThreshold = new OptionKey<>(50000);
 
+    /**
+     * deprecated use {@code PolyglotCompilerOptions.MultiTier} instead.
+     */
+    @Option(help = "Compile call targets with a fast first tier compilation before the full compilation", type = OptionType.Expert)
+    public static final OptionKey<Boolean> TruffleMultiTier = new OptionKey<>(false);
+
+    /**
+     * deprecated use {@code PolyglotCompilerOptions.FirstTierCompilationThreshold} instead.
+     */
+    @Option(help = "Compile call target in the first tier when call count exceeds this threshold", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleFirstTierCompilationThreshold = new OptionKey<>(100);
+
+    /**
+     * deprecated use {@code PolyglotCompilerOptions.ProfileStore} instead.
+     */
+    @Option(help = "File used to persist call target profiles across runs (empty to disable)", type = OptionType.Expert)
+    public static final OptionKey<String> TruffleProfileStore = new OptionKey<>("");
+
     @Option(help = "Minimum number of calls before a call target is compiled", type = OptionType.Expert)
     public static final OptionKey<Integer> TruffleMinInvokeThreshold = new OptionKey<>(3);
 
     @Option(help = "Delay compilation after an invalidation to allow for reprofiling", type = OptionType.Expert)
     public static final OptionKey<Integer> TruffleInvalidationReprofileCount = new OptionKey<>(3);
 
+    @Option(help = "Invalidations of a call target that happen within this many milliseconds of its previous invalidation are counted as repeated invalidations. " +
+                    "Each repeated invalidation doubles the reprofiling delay", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleInvalidationBackoffWindow = new OptionKey<>(1000);
+
+    @Option(help = "Disable argument and return type speculation of a call target after this many repeated invalidations (0 to never disable)", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleInvalidationSpeculationLimit = new OptionKey<>(4);
+
+    @Option(help = "Stop compiling a call target after this many repeated invalidations (0 to never stop)", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleInvalidationCompilationLimit = new OptionKey<>(12);
+
     @Option(help = "Delay compilation after a node replacement", type = OptionType.Expert)
     public static final OptionKey<Integer> TruffleReplaceReprofileCount = new OptionKey<>(3);
 
@@ -164,6 +192,18 @@ public class TruffleCompilerOptions {
     @Option(help = "Stop inlining if caller's cumulative tree size would exceed this limit", type = OptionType.Expert)
     public static final OptionKey<Integer> TruffleInliningMaxCallerSize = new OptionKey<>(2250);
 
+    /**
+     * deprecated use {@code PolyglotCompilerOptions.InliningGraphSize} instead.
+     */
+    @Option(help = "Base inlining decisions on the graph size of call targets after partial evaluation instead of their tree size", type = OptionType.Expert)
+    public static final OptionKey<Boolean> TruffleInliningGraphSize = new OptionKey<>(false);
+
+    /**
+     * deprecated use {@code PolyglotCompilerOptions.InliningMaxGraphSize} instead.
+     */
+    @Option(help = "Stop inlining if caller's cumulative graph size would exceed this limit (only used with TruffleInliningGraphSize)", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleInliningMaxGraphSize = new OptionKey<>(50000);
+
     @Option(help = "Maximum level of recursive inlining", type = OptionType.Expert)
     public static final OptionKey<Integer> TruffleMaximumRecursiveInlining = new OptionKey<>(4);
 
@@ -203,9 +243,24 @@ public class TruffleCompilerOptions {
     @Option(help = "Enable asynchronous truffle compilation in background thread", type = OptionType.Expert)
     public static final OptionKey<Boolean> TruffleBackgroundCompilation = new OptionKey<>(true);
 
-    @Option(help = "Manually set the number of compiler threads", type = OptionType.Expert)
+    @Option(help = "Manually set the maximum number of compiler threads (by default 2 if at least 4 processors are available to the process, taking a container CPU quota into account, otherwise 1)", type = OptionType.Expert)
     public static final OptionKey<Integer> TruffleCompilerThreads = new OptionKey<>(0);
 
+    @Option(help = "Stop idle compiler threads after this many milliseconds and start them again when compilations are queued (0 keeps all compiler threads running)", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleCompilerThreadKeepAlive = new OptionKey<>(10000);
+
+    @Option(help = "Start an additional compiler thread for every this many queued compilations", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleCompilerThreadBacklog = new OptionKey<>(8);
+
+    @Option(help = "Priority of the compiler threads between 1 and 10 (0 uses the maximum priority)", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleCompilerThreadPriority = new OptionKey<>(0);
+
+    @Option(help = "Compile the queued call targets with the highest call and loop count rate first instead of in submission order", type = OptionType.Expert)
+    public static final OptionKey<Boolean> TruffleCompilationQueuePriority = new OptionKey<>(true);
+
+    @Option(help = "Drop a queued compilation if its call target was not executed for this many milliseconds (0 disables dropping)", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleCompilationQueueColdTimeout = new OptionKey<>(10000);
+
     @Option(help = "Enable inlining across Truffle boundary", type = OptionType.Expert)
     public static final OptionKey<Boolean> TruffleInlineAcrossTruffleBoundary = new OptionKey<>(false);
 
@@ -60,6 +60,8 @@ import org.graalvm.compiler.core.common.CancellationBailoutException;
 import org.graalvm.compiler.core.common.CompilationIdentifier;
 import org.graalvm.compiler.core.common.RetryableBailoutException;
 import org.graalvm.compiler.core.common.util.CompilationAlarm;
+import org.graalvm.compiler.core.phases.EconomyCompilerConfiguration;
+import org.graalvm.compiler.core.phases.EconomyHighTier;
 import org.graalvm.compiler.core.target.Backend;
 import org.graalvm.compiler.debug.DebugCloseable;
 import org.graalvm.compiler.debug.DebugContext;
@@ -69,6 +71,8 @@ import org.graalvm.compiler.debug.MemUseTrackerKey;
 import org.graalvm.compiler.debug.TimerKey;
 import org.graalvm.compiler.lir.asm.CompilationResultBuilderFactory;
 import org.graalvm.compiler.lir.phases.LIRSuites;
+import org.graalvm.compiler.loop.phases.LoopPartialUnrollPhase;
+import org.graalvm.compiler.loop.phases.ReassociateInvariantPhase;
 import org.graalvm.compiler.nodes.Cancellable;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
@@ -79,7 +83,10 @@ import org.graalvm.compiler.options.EnumOptionKey;
 import org.graalvm.compiler.options.OptionValues;
 import org.graalvm.compiler.phases.OptimisticOptimizations;
 import org.graalvm.compiler.phases.PhaseSuite;
+import org.graalvm.compiler.phases.common.DeoptimizationGroupingPhase;
+import org.graalvm.compiler.phases.common.IterativeConditionalEliminationPhase;
 import org.graalvm.compiler.phases.tiers.HighTierContext;
+import org.graalvm.compiler.phases.tiers.MidTierContext;
 import org.graalvm.compiler.phases.tiers.Suites;
 import org.graalvm.compiler.phases.util.Providers;
 import org.graalvm.compiler.truffle.common.CompilableTruffleAST;
@@ -116,6 +123,8 @@ public abstract class TruffleCompilerImpl implements TruffleCompiler {
     protected final Suites suites;
     protected final GraphBuilderConfiguration config;
     protected final LIRSuites lirSuites;
+    protected final Suites firstTierSuites;
+    protected final LIRSuites firstTierLirSuites;
     protected final PartialEvaluator partialEvaluator;
     protected final Backend backend;
     protected final SnippetReflectionProvider snippetReflection;
@@ -133,6 +142,9 @@ public abstract class TruffleCompilerImpl implements TruffleCompiler {
         this.providers = backend.getProviders();
         this.suites = suites;
         this.lirSuites = lirSuites;
+        OptionValues options = TruffleCompilerOptions.getOptions();
+        this.firstTierSuites = createFirstTierSuites(suites, options);
+        this.firstTierLirSuites = Suites.createLIRSuites(new EconomyCompilerConfiguration(), options);
         this.codeInstallationTaskFactory = new TrufflePostCodeInstallationTaskFactory();
         backend.addCodeInstallationTask(codeInstallationTaskFactory);
 
@@ -147,6 +159,21 @@ public abstract class TruffleCompilerImpl implements TruffleCompiler {
         this.partialEvaluator = createPartialEvaluator();
     }
 
+    /**
+     * Creates the suites for first tier compilations from the suites used for last tier
+     * compilations. The high tier is replaced by the {@link EconomyHighTier}. The mid and low tiers
+     * are kept because they contain the lowerings and platform specific phases required for correct
+     * code, but their optional optimization phases are removed.
+     */
+    protected Suites createFirstTierSuites(Suites lastTierSuites, OptionValues options) {
+        PhaseSuite<MidTierContext> midTier = lastTierSuites.getMidTier().copy();
+        midTier.removePhase(IterativeConditionalEliminationPhase.class);
+        midTier.removePhase(LoopPartialUnrollPhase.class);
+        midTier.removePhase(ReassociateInvariantPhase.class);
+        midTier.removePhase(DeoptimizationGroupingPhase.class);
+        return new Suites(new EconomyHighTier(options), midTier, lastTierSuites.getLowTier().copy());
+    }
+
     private ResolvedJavaType[] getSkippedExceptionTypes(TruffleCompilerRuntime runtime) {
         final MetaAccessProvider metaAccess = providers.getMetaAccess();
         ResolvedJavaType[] head = metaAccess.lookupJavaTypes(new Class<?>[]{
@@ -202,6 +229,20 @@ public abstract class TruffleCompilerImpl implements TruffleCompiler {
         }
     }
 
+    @Override
+    public int getGraphSize(CompilableTruffleAST compilable, TruffleInliningPlan inliningPlan, Cancellable cancellable) {
+        /*
+         * The speculation log of the compilable belongs to its own compilations, which may run
+         * concurrently. Partial evaluation without a log does not speculate, e.g. on frame accessor
+         * intrinsification, so the size may be larger than in a compilation of the compilable.
+         */
+        StructuredGraph graph = partialEvaluator.createGraph(DebugContext.DISABLED, compilable, inliningPlan, AllowAssumptions.YES, CompilationIdentifier.INVALID_COMPILATION_ID, null, cancellable);
+        if (graph == null) {
+            return -1;
+        }
+        return graph.getNodeCount();
+    }
+
     /**
      * Opens a new {@code "Truffle"} scope if that's not the unqualified name of the current scope.
      *
@@ -419,8 +460,9 @@ public abstract class TruffleCompilerImpl implements TruffleCompiler {
                         DebugCloseable c = CompilationMemUse.start(debug)) {
 
             CompilationResult compilationResult = createCompilationResult(name, graph.compilationId());
-            result = GraalCompiler.compileGraph(graph, graph.method(), providers, backend, graphBuilderSuite, Optimizations, graph.getProfilingInfo(), suites, lirSuites, compilationResult,
-                            CompilationResultBuilderFactory.Default, false);
+            boolean firstTier = compilable != null && compilable.isFirstTierCompilation();
+            result = GraalCompiler.compileGraph(graph, graph.method(), providers, backend, graphBuilderSuite, Optimizations, graph.getProfilingInfo(), firstTier ? firstTierSuites : suites,
+                            firstTier ? firstTierLirSuites : lirSuites, compilationResult, CompilationResultBuilderFactory.Default, false);
         } catch (Throwable e) {
             throw debug.handle(e);
         }
@@ -503,6 +503,43 @@ public class TruffleGraphBuilderPlugins {
                 return false;
             }
         });
+
+        /* Indexed slot accessors: the slot index is passed directly as an int. */
+        r.register2("get" + nameSuffix, Receiver.class, int.class, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver frameNode, ValueNode slotIndexNode) {
+                int frameSlotIndex = maybeGetConstantSlotIndex(frameNode, slotIndexNode);
+                if (frameSlotIndex >= 0) {
+                    b.addPush(accessKind, new VirtualFrameGetNode(frameNode, frameSlotIndex, accessKind, accessTag));
+                    return true;
+                }
+                return false;
+            }
+        });
+
+        r.register3("set" + nameSuffix, Receiver.class, int.class, accessKind == JavaKind.Object ? Object.class : accessKind.toJavaClass(), new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver frameNode, ValueNode slotIndexNode, ValueNode value) {
+                int frameSlotIndex = maybeGetConstantSlotIndex(frameNode, slotIndexNode);
+                if (frameSlotIndex >= 0) {
+                    b.add(new VirtualFrameSetNode(frameNode, frameSlotIndex, accessTag, value));
+                    return true;
+                }
+                return false;
+            }
+        });
+
+        r.register2("is" + nameSuffix, Receiver.class, int.class, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver frameNode, ValueNode slotIndexNode) {
+                int frameSlotIndex = maybeGetConstantSlotIndex(frameNode, slotIndexNode);
+                if (frameSlotIndex >= 0) {
+                    b.addPush(JavaKind.Boolean, new VirtualFrameIsNode(frameNode, frameSlotIndex, accessTag));
+                    return true;
+                }
+                return false;
+            }
+        });
     }
 
     static int maybeGetConstantFrameSlotIndex(Receiver frameNode, ValueNode frameSlotNode, ConstantReflectionProvider constantReflection, KnownTruffleTypes types) {
@@ -521,6 +558,22 @@ public class TruffleGraphBuilderPlugins {
         return -1;
     }
 
+    static int maybeGetConstantSlotIndex(Receiver frameNode, ValueNode slotIndexNode) {
+        if (slotIndexNode.isConstant()) {
+            ValueNode frameNodeValue = frameNode.get(false);
+            if (frameNodeValue instanceof NewFrameNode) {
+                NewFrameNode newFrameNode = (NewFrameNode) frameNodeValue;
+                if (newFrameNode.getIntrinsifyAccessors()) {
+                    int index = slotIndexNode.asJavaConstant().asInt();
+                    if (newFrameNode.isValidSlotIndex(index)) {
+                        return index;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
     private static void registerFrameMethods(Registration r) {
         r.register1("getArguments", Receiver.class, new InvocationPlugin() {
             @Override
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleInvalidationReprofileCount;
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleOSR;
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleOSRCompilationThreshold;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.graalvm.compiler.truffle.common.TruffleCompilerOptions;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.BytecodeOSRNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
+
+import jdk.vm.ci.meta.SpeculationLog;
+
+/**
+ * Runtime data of a {@link BytecodeOSRNode}: counts the backward jumps of the dispatch loop and
+ * keeps one OSR compilation per requested dispatch target.
+ */
+final class BytecodeOSRMetadata {
+
+    private final BytecodeOSRNode osrNode;
+    private final int osrThreshold;
+    private final int invalidationBackoff;
+
+    /**
+     * Backward jumps since the last OSR compilation was requested or invalidated. Updated without
+     * synchronization as it is only a heuristic.
+     */
+    private int backEdgeCount;
+
+    /**
+     * The speculation log shared by all OSR compilations of this node, so that failed speculations
+     * are propagated between compilations.
+     */
+    private SpeculationLog speculationLog;
+
+    private final Map<Integer, OptimizedCallTarget> osrCompilations = new HashMap<>();
+
+    private BytecodeOSRMetadata(BytecodeOSRNode osrNode) {
+        this.osrNode = osrNode;
+        this.osrThreshold = TruffleCompilerOptions.getValue(TruffleOSRCompilationThreshold);
+        this.invalidationBackoff = TruffleCompilerOptions.getValue(TruffleInvalidationReprofileCount);
+    }
+
+    static boolean pollBackEdge(BytecodeOSRNode osrNode) {
+        if (!TruffleCompilerOptions.getValue(TruffleOSR)) {
+            return false;
+        }
+        return get(osrNode).pollBackEdge();
+    }
+
+    static Object tryOSR(BytecodeOSRNode osrNode, int target, Object interpreterState, VirtualFrame parentFrame) {
+        if (!TruffleCompilerOptions.getValue(TruffleOSR)) {
+            return null;
+        }
+        return get(osrNode).tryOSR(target, interpreterState, parentFrame);
+    }
+
+    /**
+     * Invalidates the OSR compilations of all bytecode OSR nodes enclosing a replaced node. Only
+     * called for call targets that contain a node with metadata, see
+     * {@link OptimizedCallTarget#onBytecodeOSRMetadataCreated()}.
+     */
+    static void nodeReplaced(Node newNode, CharSequence reason) {
+        CompilerAsserts.neverPartOfCompilation();
+        for (Node node = newNode; node != null; node = node.getParent()) {
+            if (node instanceof BytecodeOSRNode) {
+                Object metadata = ((BytecodeOSRNode) node).getOSRMetadata();
+                if (metadata instanceof BytecodeOSRMetadata) {
+                    ((BytecodeOSRMetadata) metadata).invalidateAll(newNode, reason);
+                }
+            }
+        }
+    }
+
+    private static BytecodeOSRMetadata get(BytecodeOSRNode osrNode) {
+        Object metadata = osrNode.getOSRMetadata();
+        if (metadata instanceof BytecodeOSRMetadata) {
+            return (BytecodeOSRMetadata) metadata;
+        }
+        if (!(osrNode instanceof Node)) {
+            throw new IllegalArgumentException("Bytecode OSR node must be of type Node.");
+        }
+        synchronized (osrNode) {
+            metadata = osrNode.getOSRMetadata();
+            if (!(metadata instanceof BytecodeOSRMetadata)) {
+                metadata = new BytecodeOSRMetadata(osrNode);
+                osrNode.setOSRMetadata(metadata);
+                RootNode rootNode = ((Node) osrNode).getRootNode();
+                if (rootNode != null && rootNode.getCallTarget() instanceof OptimizedCallTarget) {
+                    ((OptimizedCallTarget) rootNode.getCallTarget()).onBytecodeOSRMetadataCreated();
+                }
+            }
+            return (BytecodeOSRMetadata) metadata;
+        }
+    }
+
+    private boolean pollBackEdge() {
+        return ++backEdgeCount >= osrThreshold;
+    }
+
+    private Object tryOSR(int target, Object interpreterState, VirtualFrame parentFrame) {
+        OptimizedCallTarget osrTarget = getOrCompile(target, parentFrame);
+        if (osrTarget == null) {
+            return null;
+        }
+        if (osrTarget.isValid()) {
+            Object result = osrTarget.callDirect(parentFrame, interpreterState);
+            if (!osrTarget.isValid()) {
+                invalidate(target, osrTarget, osrTarget, "OSR compilation got invalidated");
+            }
+            return result;
+        }
+        if (!osrTarget.isCompiling()) {
+            invalidate(target, osrTarget, osrTarget, "OSR compilation failed or cancelled");
+        }
+        return null;
+    }
+
+    private synchronized OptimizedCallTarget getOrCompile(int target, VirtualFrame parentFrame) {
+        OptimizedCallTarget osrTarget = osrCompilations.get(target);
+        if (osrTarget == null) {
+            if (backEdgeCount < osrThreshold) {
+                // reprofiling after an invalidation
+                return null;
+            }
+            GraalTruffleRuntime runtime = GraalTruffleRuntime.getRuntime();
+            if (speculationLog == null) {
+                speculationLog = runtime.createSpeculationLog();
+            }
+            osrTarget = (OptimizedCallTarget) runtime.createCallTarget(new BytecodeOSRRootNode(osrNode, target, parentFrame.getClass()));
+            osrTarget.setSpeculationLog(speculationLog);
+            osrCompilations.put(target, osrTarget);
+            backEdgeCount = 0;
+            osrTarget.compile();
+        }
+        return osrTarget;
+    }
+
+    private synchronized void invalidate(int target, OptimizedCallTarget osrTarget, Object source, CharSequence reason) {
+        if (osrCompilations.get(target) == osrTarget) {
+            osrCompilations.remove(target);
+            backEdgeCount = Math.min(osrThreshold - invalidationBackoff, backEdgeCount);
+            osrTarget.invalidate(source, reason);
+        }
+    }
+
+    private void invalidateAll(Object source, CharSequence reason) {
+        List<OptimizedCallTarget> targets;
+        synchronized (this) {
+            targets = new ArrayList<>(osrCompilations.values());
+            osrCompilations.clear();
+            backEdgeCount = Math.min(osrThreshold - invalidationBackoff, backEdgeCount);
+        }
+        for (OptimizedCallTarget target : targets) {
+            target.invalidate(source, reason);
+        }
+    }
+
+    /**
+     * Root of an OSR compilation. The dispatch target is a constant of the compilation, the frame
+     * of the interpreter and the interpreter state are passed as arguments.
+     */
+    static final class BytecodeOSRRootNode extends RootNode {
+
+        private final BytecodeOSRNode osrNode;
+        private final int target;
+        private final Class<? extends VirtualFrame> frameClass;
+        private final SourceSection sourceSection;
+
+        BytecodeOSRRootNode(BytecodeOSRNode osrNode, int target, Class<? extends VirtualFrame> frameClass) {
+            super(null, new FrameDescriptor());
+            this.osrNode = osrNode;
+            this.target = target;
+            this.frameClass = frameClass;
+            this.sourceSection = ((Node) osrNode).getSourceSection();
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            Object[] arguments = frame.getArguments();
+            return osrNode.executeOSR(frameClass.cast(arguments[0]), target, arguments[1]);
+        }
+
+        @Override
+        public SourceSection getSourceSection() {
+            return sourceSection;
+        }
+
+        @Override
+        public boolean isCloningAllowed() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return osrNode.toString() + "<OSR@" + target + ">";
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.CompilationResultInfo;
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.GraphInfo;
+
+import com.oracle.truffle.api.frame.Frame;
+
+/**
+ * Collects compilation counters and histograms that can be polled while the application runs, for
+ * example through {@code Engine.getCompilationMetrics()}. Counters and histograms are updated lock
+ * free so that the listener can stay installed in production. Per call target data is kept in
+ * synchronized weak maps, so it does not keep call targets alive, and the number of call targets
+ * with recorded deoptimizations is bounded by {@link #MAX_DEOPTIMIZED_TARGETS}.
+ */
+final class CompilationMetricsListener extends AbstractGraalTruffleRuntimeListener {
+
+    static final String COUNTERS = "counters";
+    static final String HISTOGRAMS = "histograms";
+    static final String DEOPTIMIZATIONS = "deoptimizations";
+    static final int MAX_DEOPTIMIZED_TARGETS = 1024;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder dequeued = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder bailouts = new LongAdder();
+    private final LongAdder permanentBailouts = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder deoptimizations = new LongAdder();
+    private final LongAdder splits = new LongAdder();
+    private final LongAdder backoffs = new LongAdder();
+    private final LongAdder disabledSpeculations = new LongAdder();
+    private final LongAdder disabledCompilations = new LongAdder();
+
+    private final Histogram queueWaitTime = new Histogram();
+    private final Histogram firstTierCompilationTime = new Histogram();
+    private final Histogram lastTierCompilationTime = new Histogram();
+    private final Histogram truffleTierGraphSize = new Histogram();
+    private final Histogram graalTierGraphSize = new Histogram();
+    private final Histogram codeSize = new Histogram();
+
+    private final Map<OptimizedCallTarget, Long> queuedTimestamps = new WeakHashMap<>();
+    private final Map<OptimizedCallTarget, LongAdder> deoptimizationsPerTarget = new WeakHashMap<>();
+    private final ThreadLocal<long[]> compilationStarted = ThreadLocal.withInitial(() -> new long[1]);
+
+    private CompilationMetricsListener(GraalTruffleRuntime runtime) {
+        super(runtime);
+    }
+
+    static CompilationMetricsListener install(GraalTruffleRuntime runtime) {
+        CompilationMetricsListener listener = new CompilationMetricsListener(runtime);
+        runtime.addListener(listener);
+        return listener;
+    }
+
+    @Override
+    public void onCompilationSplit(OptimizedDirectCallNode callNode) {
+        splits.increment();
+    }
+
+    @Override
+    public void onCompilationQueued(OptimizedCallTarget target) {
+        queued.increment();
+        long now = System.nanoTime();
+        synchronized (queuedTimestamps) {
+            queuedTimestamps.put(target, now);
+        }
+    }
+
+    @Override
+    public void onCompilationDequeued(OptimizedCallTarget target, Object source, CharSequence reason) {
+        dequeued.increment();
+        synchronized (queuedTimestamps) {
+            queuedTimestamps.remove(target);
+        }
+    }
+
+    @Override
+    public void onCompilationStarted(OptimizedCallTarget target) {
+        started.increment();
+        long now = System.nanoTime();
+        compilationStarted.get()[0] = now;
+        Long queuedAt;
+        synchronized (queuedTimestamps) {
+            queuedAt = queuedTimestamps.remove(target);
+        }
+        if (queuedAt != null) {
+            queueWaitTime.accept(TimeUnit.NANOSECONDS.toMicros(now - queuedAt));
+        }
+    }
+
+    @Override
+    public void onCompilationTruffleTierFinished(OptimizedCallTarget target, TruffleInlining inliningDecision, GraphInfo graph) {
+        truffleTierGraphSize.accept(graph.getNodeCount());
+    }
+
+    @Override
+    public void onCompilationGraalTierFinished(OptimizedCallTarget target, GraphInfo graph) {
+        graalTierGraphSize.accept(graph.getNodeCount());
+    }
+
+    @Override
+    public void onCompilationSuccess(OptimizedCallTarget target, TruffleInlining inliningDecision, GraphInfo graph, CompilationResultInfo result) {
+        succeeded.increment();
+        recordCompilationTime(target);
+        codeSize.accept(result.getTargetCodeSize());
+    }
+
+    @Override
+    public void onCompilationFailed(OptimizedCallTarget target, String reason, boolean bailout, boolean permanentBailout) {
+        failed.increment();
+        if (bailout) {
+            bailouts.increment();
+            if (permanentBailout) {
+                permanentBailouts.increment();
+            }
+        }
+        recordCompilationTime(target);
+    }
+
+    @Override
+    public void onCompilationInvalidated(OptimizedCallTarget target, Object source, CharSequence reason) {
+        invalidations.increment();
+    }
+
+    @Override
+    public void onCompilationDeoptimized(OptimizedCallTarget target, Frame frame) {
+        deoptimizations.increment();
+        LongAdder count;
+        synchronized (deoptimizationsPerTarget) {
+            count = deoptimizationsPerTarget.get(target);
+            if (count == null && deoptimizationsPerTarget.size() < MAX_DEOPTIMIZED_TARGETS) {
+                count = new LongAdder();
+                deoptimizationsPerTarget.put(target, count);
+            }
+        }
+        if (count != null) {
+            // call targets beyond the limit are only counted in the total
+            count.increment();
+        }
+    }
+
+    @Override
+    public void onCompilationBackoff(OptimizedCallTarget target, int repeatedInvalidations, int reprofileCount, Object source) {
+        backoffs.increment();
+    }
+
+    @Override
+    public void onSpeculationDisabled(OptimizedCallTarget target, String speculation) {
+        disabledSpeculations.increment();
+    }
+
+    @Override
+    public void onCompilationDisabled(OptimizedCallTarget target, int repeatedInvalidations) {
+        disabledCompilations.increment();
+    }
+
+    private void recordCompilationTime(OptimizedCallTarget target) {
+        long duration = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - compilationStarted.get()[0]);
+        if (target.isFirstTierCompilation()) {
+            firstTierCompilationTime.accept(duration);
+        } else {
+            lastTierCompilationTime.accept(duration);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the metrics. The map contains the counters as {@code Map<String, Long>}
+     * under {@link #COUNTERS}, the histograms as {@code Map<String, long[]>} in the layout of
+     * {@link Histogram#snapshot()} under {@link #HISTOGRAMS} and the number of deoptimizations per
+     * call target as {@code Map<String, Long>} under {@link #DEOPTIMIZATIONS}. Call targets are
+     * listed by name; call targets that share a name get their identity hash code appended.
+     */
+    Map<String, Object> getSnapshot() {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("queueLength", (long) runtime.getCompilationQueueSize());
+        counters.put("queued", queued.sum());
+        counters.put("dequeued", dequeued.sum());
+        counters.put("started", started.sum());
+        counters.put("succeeded", succeeded.sum());
+        counters.put("failed", failed.sum());
+        counters.put("bailouts", bailouts.sum());
+        counters.put("permanentBailouts", permanentBailouts.sum());
+        counters.put("invalidations", invalidations.sum());
+        counters.put("deoptimizations", deoptimizations.sum());
+        counters.put("splits", splits.sum());
+        counters.put("backoffs", backoffs.sum());
+        counters.put("disabledSpeculations", disabledSpeculations.sum());
+        counters.put("disabledCompilations", disabledCompilations.sum());
+
+        Map<String, long[]> histograms = new LinkedHashMap<>();
+        histograms.put("queueWaitTimeMicros", queueWaitTime.snapshot());
+        histograms.put("firstTierCompilationTimeMicros", firstTierCompilationTime.snapshot());
+        histograms.put("lastTierCompilationTimeMicros", lastTierCompilationTime.snapshot());
+        histograms.put("truffleTierGraphSize", truffleTierGraphSize.snapshot());
+        histograms.put("graalTierGraphSize", graalTierGraphSize.snapshot());
+        histograms.put("codeSize", codeSize.snapshot());
+
+        Map<OptimizedCallTarget, LongAdder> deoptimizedTargets;
+        synchronized (deoptimizationsPerTarget) {
+            deoptimizedTargets = new HashMap<>(deoptimizationsPerTarget);
+        }
+        Map<String, Integer> nameCounts = new HashMap<>();
+        for (OptimizedCallTarget target : deoptimizedTargets.keySet()) {
+            nameCounts.merge(target.getName(), 1, Integer::sum);
+        }
+        Map<String, Long> deopts = new LinkedHashMap<>();
+        for (Map.Entry<OptimizedCallTarget, LongAdder> entry : deoptimizedTargets.entrySet()) {
+            OptimizedCallTarget target = entry.getKey();
+            String name = target.getName();
+            if (nameCounts.get(name) > 1) {
+                name = name + "@" + Integer.toHexString(System.identityHashCode(target));
+            }
+            deopts.put(name, entry.getValue().sum());
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put(COUNTERS, counters);
+        snapshot.put(HISTOGRAMS, histograms);
+        snapshot.put(DEOPTIMIZATIONS, deopts);
+        return snapshot;
+    }
+
+    /**
+     * Histogram with power of two buckets: bucket {@code 0} counts values smaller than {@code 1},
+     * bucket {@code i} counts values in {@code [2^(i-1), 2^i)}.
+     */
+    static final class Histogram {
+
+        static final int BUCKETS = 64;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        void accept(long value) {
+            count.increment();
+            sum.add(value);
+            min.accumulate(value);
+            max.accumulate(value);
+            buckets.incrementAndGet(value <= 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(value));
+        }
+
+        /**
+         * Returns {@code count, sum, min, max} followed by the {@link #BUCKETS} bucket counts. Min
+         * and max are {@code 0} if no value was recorded.
+         */
+        long[] snapshot() {
+            long[] result = new long[4 + BUCKETS];
+            long c = count.sum();
+            result[0] = c;
+            result[1] = sum.sum();
+            result[2] = c == 0 ? 0 : min.get();
+            result[3] = c == 0 ? 0 : max.get();
+            for (int i = 0; i < BUCKETS; i++) {
+                result[4 + i] = buckets.get(i);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * Persists the compilation profiles of call targets across runs of an application. Profiles are
+ * keyed by a hash of the source content, the start line and the name of the root node, so they
+ * survive a restart as long as the guest code did not change. The store is loaded when the first
+ * call target using it is initialized and written at runtime shutdown.
+ *
+ * Only the generic profile of the call target is stored, i.e., the argument and return type
+ * speculations and whether the call target was hot. Node specialization state is owned by the
+ * guest language and is rebuilt by executing the code.
+ */
+final class CompilationProfileStore {
+
+    private static final String HEADER = "# Truffle compilation profiles v2";
+    private static final String NO_TYPE = "-";
+
+    private static final Map<String, CompilationProfileStore> STORES = new HashMap<>();
+
+    private final Path path;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Map<OptimizedCallTarget, String> targets = new WeakHashMap<>();
+    private final Map<Source, String> sourceHashes = new WeakHashMap<>();
+
+    private CompilationProfileStore(Path path) {
+        this.path = path;
+    }
+
+    static CompilationProfileStore get(String fileName) {
+        synchronized (STORES) {
+            CompilationProfileStore store = STORES.get(fileName);
+            if (store == null) {
+                store = new CompilationProfileStore(Paths.get(fileName));
+                store.load();
+                STORES.put(fileName, store);
+            }
+            return store;
+        }
+    }
+
+    static void saveAll() {
+        List<CompilationProfileStore> stores;
+        synchronized (STORES) {
+            stores = new ArrayList<>(STORES.values());
+        }
+        for (CompilationProfileStore store : stores) {
+            store.save();
+        }
+    }
+
+    /**
+     * Registers a newly created profile of {@code target} with this store and seeds it with the
+     * profile recorded by a previous run, if any.
+     */
+    void restore(OptimizedCallTarget target, OptimizedCompilationProfile profile) {
+        CompilerAsserts.neverPartOfCompilation();
+        RootNode rootNode = target.getRootNode();
+        String key = keyOf(rootNode);
+        if (key == null) {
+            return;
+        }
+        Entry entry;
+        synchronized (this) {
+            targets.put(target, key);
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return;
+        }
+        ClassLoader loader = rootNode.getClass().getClassLoader();
+        Class<?>[] argumentTypes = null;
+        if (entry.argumentTypes != null) {
+            argumentTypes = new Class<?>[entry.argumentTypes.length];
+            for (int i = 0; i < argumentTypes.length; i++) {
+                argumentTypes[i] = resolve(entry.argumentTypes[i], loader);
+            }
+        }
+        profile.seed(entry.callCount, entry.callAndLoopCount, entry.hot, argumentTypes, resolve(entry.returnType, loader));
+    }
+
+    private synchronized void save() {
+        Map<String, Entry> current = new HashMap<>();
+        for (Map.Entry<OptimizedCallTarget, String> e : targets.entrySet()) {
+            OptimizedCallTarget target = e.getKey();
+            if (target == null) {
+                continue;
+            }
+            OptimizedCompilationProfile profile = target.getCompilationProfile();
+            Entry entry = Entry.create(target, profile);
+            Entry previous = current.get(e.getValue());
+            // split call targets share the key, keep the profile of the busiest one
+            if (previous == null || previous.callAndLoopCount < entry.callAndLoopCount) {
+                current.put(e.getValue(), entry);
+            }
+        }
+        entries.putAll(current);
+
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                    writer.write(e.getKey());
+                    writer.write('\t');
+                    e.getValue().write(writer);
+                    writer.newLine();
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            OptimizedCallTarget.runtime().log("[truffle] failed to write compilation profiles to " + path + ": " + e);
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (!HEADER.equals(line)) {
+                OptimizedCallTarget.runtime().log("[truffle] ignoring compilation profiles in " + path + ": unknown format");
+                return;
+            }
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("\t", -1);
+                if (columns.length < 6) {
+                    continue;
+                }
+                String[] argumentTypes = null;
+                String types = columns[5];
+                if (types.length() >= 2 && types.startsWith("(") && types.endsWith(")")) {
+                    types = types.substring(1, types.length() - 1);
+                    argumentTypes = types.isEmpty() ? new String[0] : types.split(",", -1);
+                }
+                try {
+                    entries.put(columns[0], new Entry(Integer.parseInt(columns[1]), Integer.parseInt(columns[2]), Boolean.parseBoolean(columns[3]), columns[4], argumentTypes));
+                } catch (NumberFormatException e) {
+                    // skip malformed lines
+                }
+            }
+        } catch (IOException e) {
+            OptimizedCallTarget.runtime().log("[truffle] failed to read compilation profiles from " + path + ": " + e);
+        }
+    }
+
+    private String keyOf(RootNode rootNode) {
+        SourceSection section = rootNode.getSourceSection();
+        if (section == null || !section.isAvailable()) {
+            return null;
+        }
+        Source source = section.getSource();
+        String hash;
+        synchronized (this) {
+            hash = sourceHashes.get(source);
+        }
+        if (hash == null) {
+            // hash outside of the lock, a source may occasionally be hashed more than once
+            hash = hash(source.getCharacters());
+            synchronized (this) {
+                sourceHashes.put(source, hash);
+            }
+        }
+        String name = String.valueOf(rootNode.getName()).replace('\t', ' ').replace('\n', ' ');
+        return hash + ":" + section.getStartLine() + ":" + name;
+    }
+
+    private static String hash(CharSequence characters) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(characters.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    private static Class<?> resolve(String className, ClassLoader loader) {
+        if (className == null || className.equals(NO_TYPE)) {
+            return null;
+        }
+        try {
+            return Class.forName(className, false, loader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            // the class is not available in this run, do not speculate on it
+            return null;
+        }
+    }
+
+    private static String nameOf(Class<?> type) {
+        return type == null ? NO_TYPE : type.getName();
+    }
+
+    private static final class Entry {
+
+        final int callCount;
+        final int callAndLoopCount;
+        final boolean hot;
+        final String returnType;
+        final String[] argumentTypes;
+
+        Entry(int callCount, int callAndLoopCount, boolean hot, String returnType, String[] argumentTypes) {
+            this.callCount = callCount;
+            this.callAndLoopCount = callAndLoopCount;
+            this.hot = hot;
+            this.returnType = returnType;
+            this.argumentTypes = argumentTypes;
+        }
+
+        static Entry create(OptimizedCallTarget target, OptimizedCompilationProfile profile) {
+            int callAndLoopCount = profile.getInterpreterCallAndLoopCount();
+            boolean hot = target.isValid() || callAndLoopCount >= profile.getCompilationCallAndLoopThreshold();
+            Class<?>[] types = profile.getStoredArgumentTypes();
+            String[] argumentTypes = null;
+            if (types != null) {
+                argumentTypes = new String[types.length];
+                for (int i = 0; i < types.length; i++) {
+                    argumentTypes[i] = nameOf(types[i]);
+                }
+            }
+            return new Entry(profile.getInterpreterCallCount(), callAndLoopCount, hot, nameOf(profile.getStoredReturnType()), argumentTypes);
+        }
+
+        void write(BufferedWriter writer) throws IOException {
+            writer.write(Integer.toString(callCount));
+            writer.write('\t');
+            writer.write(Integer.toString(callAndLoopCount));
+            writer.write('\t');
+            writer.write(Boolean.toString(hot));
+            writer.write('\t');
+            writer.write(returnType);
+            writer.write('\t');
+            writer.write(argumentTypes == null ? NO_TYPE : "(" + String.join(",", argumentTypes) + ")");
+        }
+    }
+}
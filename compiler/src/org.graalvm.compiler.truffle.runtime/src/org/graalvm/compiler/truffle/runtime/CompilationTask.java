@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A compilation of an {@link OptimizedCallTarget} that is waiting in or running from the
+ * {@linkplain GraalTruffleRuntime.BackgroundCompileQueue background compile queue}.
+ * <p>
+ * The task carries a weight used by {@link CompilationTaskQueue} to order waiting compilations.
+ * The weight approximates how often the call target is currently executed in the interpreter, i.e.
+ * the rate at which its call and loop count grows. Compilations that were not triggered by the
+ * profile, for example OSR compilations or explicit requests, are always ordered first.
+ */
+public final class CompilationTask extends FutureTask<Void> {
+
+    private final WeakReference<OptimizedCallTarget> targetRef;
+    private final boolean requested;
+    private final boolean waitedFor;
+
+    /*
+     * The following fields are only written while the task is not contained in a queue, i.e. on
+     * creation and during re-weighting.
+     */
+    private double weight;
+    private int lastCount;
+    private long lastTime;
+    private long lastActive;
+
+    CompilationTask(OptimizedCallTarget target, Runnable runnable, boolean waitedFor) {
+        this(target, runnable, waitedFor, System.nanoTime());
+    }
+
+    /**
+     * Creates a task for compiling {@code target}.
+     *
+     * @param waitedFor specifies if a thread waits for the compilation to finish. Such tasks are
+     *            never dropped from the queue for being cold.
+     * @param now the current {@linkplain System#nanoTime() time}
+     */
+    public CompilationTask(OptimizedCallTarget target, Runnable runnable, boolean waitedFor, long now) {
+        super(runnable, null);
+        this.targetRef = new WeakReference<>(target);
+        this.waitedFor = waitedFor;
+        OptimizedCompilationProfile profile = target.getCompilationProfile();
+        int count = profile != null ? profile.getInterpreterCallAndLoopCount() : 0;
+        this.requested = count == 0;
+        if (requested) {
+            this.weight = Double.POSITIVE_INFINITY;
+        } else {
+            long elapsed = Math.max(1L, now - profile.getTimestamp());
+            this.weight = (double) count / elapsed;
+        }
+        this.lastCount = count;
+        this.lastTime = now;
+        this.lastActive = now;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    OptimizedCallTarget getTarget() {
+        return targetRef.get();
+    }
+
+    /**
+     * Recomputes the weight from the call and loop count rate observed since the last update.
+     * Older observations decay by half with every update so that targets which stopped being
+     * executed lose their priority.
+     *
+     * @return {@code false} if the target has not been executed for more than
+     *         {@code coldTimeoutNanos} and the task may be dropped, else {@code true}
+     */
+    boolean updateWeight(long now, long coldTimeoutNanos) {
+        if (requested) {
+            return true;
+        }
+        OptimizedCallTarget target = targetRef.get();
+        if (target == null) {
+            return false;
+        }
+        OptimizedCompilationProfile profile = target.getCompilationProfile();
+        int count = profile.getInterpreterCallAndLoopCount();
+        long elapsed = now - lastTime;
+        if (elapsed > 0) {
+            double recentRate = (double) Math.max(0, count - lastCount) / elapsed;
+            weight = (weight + recentRate) / 2;
+            lastTime = now;
+        }
+        if (count != lastCount) {
+            lastCount = count;
+            lastActive = now;
+        }
+        return coldTimeoutNanos <= 0 || waitedFor || now - lastActive <= coldTimeoutNanos;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Work queue of the background compiler threads that hands out the {@link CompilationTask} with
+ * the highest {@linkplain CompilationTask#getWeight() weight} first.
+ * <p>
+ * Weights of waiting tasks change while they wait. Since the order of a priority queue must not
+ * change while elements are contained in it, waiting tasks are periodically drained, re-weighted
+ * and re-inserted whenever a compiler thread asks for new work. Tasks that were cancelled, whose
+ * call target was collected or whose call target went cold in the meantime are not re-inserted.
+ */
+public final class CompilationTaskQueue extends PriorityBlockingQueue<Runnable> {
+
+    private static final long serialVersionUID = 2946532376457410237L;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long REWEIGHT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final String COLD_REASON = "Call target went cold while queued for compilation.";
+
+    private final long coldTimeoutNanos;
+    private final AtomicBoolean reweighting = new AtomicBoolean();
+    private volatile long lastReweight = System.nanoTime();
+
+    public CompilationTaskQueue(int coldTimeoutMillis) {
+        super(INITIAL_CAPACITY, CompilationTaskQueue::compareWeights);
+        this.coldTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(coldTimeoutMillis);
+    }
+
+    private static int compareWeights(Runnable r1, Runnable r2) {
+        // higher weights first
+        return Double.compare(weightOf(r2), weightOf(r1));
+    }
+
+    private static double weightOf(Runnable r) {
+        return r instanceof CompilationTask ? ((CompilationTask) r).getWeight() : 0.0D;
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        reweight();
+        return super.take();
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        reweight();
+        return super.poll(timeout, unit);
+    }
+
+    @Override
+    public Runnable poll() {
+        reweight();
+        return super.poll();
+    }
+
+    private void reweight() {
+        long now = System.nanoTime();
+        if (now - lastReweight >= REWEIGHT_INTERVAL_NANOS) {
+            reweight(now);
+        }
+    }
+
+    /**
+     * Re-weights all waiting tasks and drops the tasks that may no longer be compiled.
+     *
+     * @param now the current {@linkplain System#nanoTime() time}
+     */
+    public void reweight(long now) {
+        if (isEmpty() || !reweighting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Runnable> waiting = new ArrayList<>(size());
+            drainTo(waiting);
+            List<Runnable> retained = new ArrayList<>(waiting.size());
+            for (Runnable r : waiting) {
+                if (r instanceof CompilationTask) {
+                    CompilationTask task = (CompilationTask) r;
+                    if (task.isCancelled()) {
+                        continue;
+                    }
+                    if (!task.updateWeight(now, coldTimeoutNanos)) {
+                        drop(task);
+                        continue;
+                    }
+                }
+                retained.add(r);
+            }
+            addAll(retained);
+            lastReweight = System.nanoTime();
+        } finally {
+            reweighting.set(false);
+        }
+    }
+
+    private static void drop(CompilationTask task) {
+        OptimizedCallTarget target = task.getTarget();
+        if (target == null) {
+            // nobody to notify about a collected call target
+            task.cancel(false);
+        } else if (!target.cancelInstalledTask(null, COLD_REASON)) {
+            /*
+             * The task is no longer installed in the call target. Cancel it directly and still
+             * report the target as dequeued so that listeners see a terminal event for every
+             * queued compilation.
+             */
+            task.cancel(false);
+            OptimizedCallTarget.runtime().getListener().onCompilationDequeued(target, null, COLD_REASON);
+        }
+    }
+}
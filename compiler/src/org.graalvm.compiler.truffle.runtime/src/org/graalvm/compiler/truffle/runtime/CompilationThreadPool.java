@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor of the background compiler threads that adapts the number of threads to the amount of
+ * queued work.
+ * <p>
+ * A compiler thread is started for every {@code backlogPerThread} waiting compilations, up to
+ * {@code maxThreads}. Threads that find no work for {@code keepAliveMillis} terminate, so an idle
+ * runtime does not keep any compiler threads alive. A keep alive time of {@code 0} disables the
+ * adaptation and keeps {@code maxThreads} threads running.
+ */
+public final class CompilationThreadPool extends ThreadPoolExecutor {
+
+    private static final Path CGROUP_ROOT = Paths.get("/sys/fs/cgroup");
+
+    private final int maxThreads;
+    private final int backlogPerThread;
+    private final boolean elastic;
+
+    public CompilationThreadPool(int maxThreads, int backlogPerThread, int keepAliveMillis, BlockingQueue<Runnable> queue, ThreadFactory factory) {
+        super(keepAliveMillis > 0 ? 1 : maxThreads, maxThreads, keepAliveMillis, TimeUnit.MILLISECONDS, queue, factory);
+        this.maxThreads = maxThreads;
+        this.backlogPerThread = Math.max(1, backlogPerThread);
+        this.elastic = keepAliveMillis > 0;
+        if (elastic) {
+            allowCoreThreadTimeOut(true);
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(command);
+        if (elastic) {
+            grow();
+        }
+    }
+
+    /*
+     * The executor only creates threads beyond the current core size when the queue rejects a
+     * task, which an unbounded queue never does. The core size is therefore raised with the
+     * backlog and the new threads are started eagerly.
+     */
+    private void grow() {
+        int backlog = getQueue().size();
+        int wanted = Math.min(maxThreads, 1 + backlog / backlogPerThread);
+        int current = getCorePoolSize();
+        if (wanted > current) {
+            synchronized (this) {
+                if (wanted > getCorePoolSize()) {
+                    setCorePoolSize(wanted);
+                    prestartAllCoreThreads();
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        if (elastic && getCorePoolSize() > 1 && getQueue().isEmpty()) {
+            synchronized (this) {
+                if (getCorePoolSize() > 1 && getQueue().isEmpty()) {
+                    // surplus idle threads terminate, the remaining ones after the keep alive time
+                    setCorePoolSize(1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of processors this process may use, taking a CPU quota of the enclosing
+     * Linux control group into account. Older JDKs report the processor count of the host even if
+     * the process runs in a container restricted to fewer processors.
+     */
+    static int getAvailableProcessors() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int quota = readCGroupCPUQuota(CGROUP_ROOT);
+        if (quota > 0) {
+            processors = Math.min(processors, quota);
+        }
+        return Math.max(1, processors);
+    }
+
+    /**
+     * Returns the CPU quota of the control group mounted at {@code cgroupRoot} in processors
+     * rounded up, or {@code -1} if there is no quota or it could not be determined.
+     */
+    public static int readCGroupCPUQuota(Path cgroupRoot) {
+        try {
+            // cgroup v2: "<quota> <period>" or "max <period>"
+            List<String> lines = readLines(cgroupRoot.resolve("cpu.max"));
+            if (lines != null && !lines.isEmpty()) {
+                String[] values = lines.get(0).trim().split("\\s+");
+                if (values.length == 2 && !values[0].equals("max")) {
+                    return quotaToProcessors(Long.parseLong(values[0]), Long.parseLong(values[1]));
+                }
+                return -1;
+            }
+            // cgroup v1
+            List<String> quota = readLines(cgroupRoot.resolve("cpu").resolve("cpu.cfs_quota_us"));
+            List<String> period = readLines(cgroupRoot.resolve("cpu").resolve("cpu.cfs_period_us"));
+            if (quota != null && period != null && !quota.isEmpty() && !period.isEmpty()) {
+                return quotaToProcessors(Long.parseLong(quota.get(0).trim()), Long.parseLong(period.get(0).trim()));
+            }
+        } catch (NumberFormatException | IOException | SecurityException e) {
+            // no usable quota
+        }
+        return -1;
+    }
+
+    private static int quotaToProcessors(long quota, long period) {
+        if (quota <= 0 || period <= 0) {
+            return -1;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (quota + period - 1) / period);
+    }
+
+    private static List<String> readLines(Path path) throws IOException {
+        if (!Files.isReadable(path)) {
+            return null;
+        }
+        return Files.readAllLines(path, StandardCharsets.US_ASCII);
+    }
+}
@@ -34,8 +34,20 @@ import com.oracle.truffle.api.CompilerOptions;
 public class DefaultInliningPolicy implements TruffleInliningPolicy {
 
     private static final String REASON_RECURSION = "number of recursions > " + TruffleCompilerOptions.getValue(TruffleMaximumRecursiveInlining);
-    private static final String REASON_MAXIMUM_NODE_COUNT = "deepNodeCount * callSites  > " + TruffleCompilerOptions.getValue(TruffleInliningMaxCallerSize);
-    private static final String REASON_MAXIMUM_TOTAL_NODE_COUNT = "totalNodeCount > " + TruffleCompilerOptions.getValue(TruffleInliningMaxCallerSize);
+
+    private final int maxCallerSize;
+    private final String reasonMaximumNodeCount;
+    private final String reasonMaximumTotalNodeCount;
+
+    public DefaultInliningPolicy() {
+        this(TruffleCompilerOptions.getValue(TruffleInliningMaxCallerSize));
+    }
+
+    protected DefaultInliningPolicy(int maxCallerSize) {
+        this.maxCallerSize = maxCallerSize;
+        this.reasonMaximumNodeCount = "deepNodeCount * callSites  > " + maxCallerSize;
+        this.reasonMaximumTotalNodeCount = "totalNodeCount > " + maxCallerSize;
+    }
 
     @Override
     public double calculateScore(TruffleInliningProfile profile) {
@@ -53,14 +65,10 @@ public class DefaultInliningPolicy implements TruffleInliningPolicy {
             return false;
         }
 
-        int inliningMaxCallerSize = TruffleCompilerOptions.getValue(TruffleInliningMaxCallerSize);
-
-        if (options instanceof GraalCompilerOptions) {
-            inliningMaxCallerSize = Math.max(inliningMaxCallerSize, ((GraalCompilerOptions) options).getMinInliningMaxCallerSize());
-        }
+        int inliningMaxCallerSize = getInliningMaxCallerSize(options);
 
         if (currentNodeCount + profile.getDeepNodeCount() > inliningMaxCallerSize) {
-            profile.setFailedReason(REASON_MAXIMUM_TOTAL_NODE_COUNT);
+            profile.setFailedReason(reasonMaximumTotalNodeCount);
             return false;
         }
 
@@ -70,10 +78,17 @@ public class DefaultInliningPolicy implements TruffleInliningPolicy {
 
         int cappedCallSites = Math.min(Math.max(profile.getCallSites(), 1), 10);
         if (profile.getDeepNodeCount() * cappedCallSites > inliningMaxCallerSize) {
-            profile.setFailedReason(REASON_MAXIMUM_NODE_COUNT);
+            profile.setFailedReason(reasonMaximumNodeCount);
             return false;
         }
 
         return true;
     }
+
+    protected int getInliningMaxCallerSize(CompilerOptions options) {
+        if (options instanceof GraalCompilerOptions) {
+            return Math.max(maxCallerSize, ((GraalCompilerOptions) options).getMinInliningMaxCallerSize());
+        }
+        return maxCallerSize;
+    }
 }
@@ -184,6 +184,13 @@ public final class FrameWithBoxing implements VirtualFrame, MaterializedFrame {
         return locals;
     }
 
+    private Object[] resizeAndCheck(int slot) {
+        if (!resize()) {
+            throw new IllegalArgumentException(String.format("The frame slot index %d is not known by the frame descriptor.", slot));
+        }
+        return locals;
+    }
+
     @Override
     public Object getValue(FrameSlot slot) {
         return getObject(slot);
@@ -202,36 +209,178 @@ public final class FrameWithBoxing implements VirtualFrame, MaterializedFrame {
 
     @Override
     public boolean isObject(FrameSlot slot) {
-        return getObject(slot) != null;
+        return isObject(slot.getIndex());
     }
 
     @Override
     public boolean isByte(FrameSlot slot) {
-        return getObject(slot) instanceof Byte;
+        return isByte(slot.getIndex());
     }
 
     @Override
     public boolean isBoolean(FrameSlot slot) {
-        return getObject(slot) instanceof Boolean;
+        return isBoolean(slot.getIndex());
     }
 
     @Override
     public boolean isInt(FrameSlot slot) {
-        return getObject(slot) instanceof Integer;
+        return isInt(slot.getIndex());
     }
 
     @Override
     public boolean isLong(FrameSlot slot) {
-        return getObject(slot) instanceof Long;
+        return isLong(slot.getIndex());
     }
 
     @Override
     public boolean isFloat(FrameSlot slot) {
-        return getObject(slot) instanceof Float;
+        return isFloat(slot.getIndex());
     }
 
     @Override
     public boolean isDouble(FrameSlot slot) {
+        return isDouble(slot.getIndex());
+    }
+
+    @Override
+    public Object getObject(int slot) {
+        Object[] curLocals = this.getLocals();
+        if (CompilerDirectives.inInterpreter() && slot >= curLocals.length) {
+            curLocals = resizeAndCheck(slot);
+        }
+        return curLocals[slot];
+    }
+
+    @Override
+    public void setObject(int slot, Object value) {
+        Object[] curLocals = this.getLocals();
+        if (CompilerDirectives.inInterpreter() && slot >= curLocals.length) {
+            curLocals = resizeAndCheck(slot);
+        }
+        curLocals[slot] = value;
+    }
+
+    @Override
+    public byte getByte(int slot) throws FrameSlotTypeException {
+        Object result = getObject(slot);
+        if (CompilerDirectives.inInterpreter() && !(result instanceof Byte)) {
+            throw new FrameSlotTypeException();
+        }
+        return (Byte) result;
+    }
+
+    @Override
+    public void setByte(int slot, byte value) {
+        setObject(slot, value);
+    }
+
+    @Override
+    public boolean getBoolean(int slot) throws FrameSlotTypeException {
+        Object result = getObject(slot);
+        if (CompilerDirectives.inInterpreter() && !(result instanceof Boolean)) {
+            throw new FrameSlotTypeException();
+        }
+        return (Boolean) result;
+    }
+
+    @Override
+    public void setBoolean(int slot, boolean value) {
+        setObject(slot, value);
+    }
+
+    @Override
+    public int getInt(int slot) throws FrameSlotTypeException {
+        Object result = getObject(slot);
+        if (CompilerDirectives.inInterpreter() && !(result instanceof Integer)) {
+            throw new FrameSlotTypeException();
+        }
+        return (Integer) result;
+    }
+
+    @Override
+    public void setInt(int slot, int value) {
+        setObject(slot, value);
+    }
+
+    @Override
+    public long getLong(int slot) throws FrameSlotTypeException {
+        Object result = getObject(slot);
+        if (CompilerDirectives.inInterpreter() && !(result instanceof Long)) {
+            throw new FrameSlotTypeException();
+        }
+        return (Long) result;
+    }
+
+    @Override
+    public void setLong(int slot, long value) {
+        setObject(slot, value);
+    }
+
+    @Override
+    public float getFloat(int slot) throws FrameSlotTypeException {
+        Object result = getObject(slot);
+        if (CompilerDirectives.inInterpreter() && !(result instanceof Float)) {
+            throw new FrameSlotTypeException();
+        }
+        return (Float) result;
+    }
+
+    @Override
+    public void setFloat(int slot, float value) {
+        setObject(slot, value);
+    }
+
+    @Override
+    public double getDouble(int slot) throws FrameSlotTypeException {
+        Object result = getObject(slot);
+        if (CompilerDirectives.inInterpreter() && !(result instanceof Double)) {
+            throw new FrameSlotTypeException();
+        }
+        return (Double) result;
+    }
+
+    @Override
+    public void setDouble(int slot, double value) {
+        setObject(slot, value);
+    }
+
+    @Override
+    public Object getValue(int slot) {
+        return getObject(slot);
+    }
+
+    @Override
+    public boolean isObject(int slot) {
+        return getObject(slot) != null;
+    }
+
+    @Override
+    public boolean isByte(int slot) {
+        return getObject(slot) instanceof Byte;
+    }
+
+    @Override
+    public boolean isBoolean(int slot) {
+        return getObject(slot) instanceof Boolean;
+    }
+
+    @Override
+    public boolean isInt(int slot) {
+        return getObject(slot) instanceof Integer;
+    }
+
+    @Override
+    public boolean isLong(int slot) {
+        return getObject(slot) instanceof Long;
+    }
+
+    @Override
+    public boolean isFloat(int slot) {
+        return getObject(slot) instanceof Float;
+    }
+
+    @Override
+    public boolean isDouble(int slot) {
         return getObject(slot) instanceof Double;
     }
 
@@ -28,6 +28,7 @@ import java.lang.reflect.Field;
 import java.util.Arrays;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
@@ -58,6 +59,9 @@ public final class FrameWithoutBoxing implements VirtualFrame, MaterializedFrame
     public static final byte BOOLEAN_TAG = 6;
     public static final byte BYTE_TAG = 7;
 
+    private static final int LOCATION_COUNT = 256;
+    @CompilationFinal(dimensions = 1) private static final Object[] LOCATIONS = createLocations();
+
     static {
         assert OBJECT_TAG == FrameSlotKind.Object.tag;
         assert ILLEGAL_TAG == FrameSlotKind.Illegal.tag;
@@ -97,7 +101,7 @@ public final class FrameWithoutBoxing implements VirtualFrame, MaterializedFrame
     public Object getObject(FrameSlot slot) throws FrameSlotTypeException {
         int slotIndex = slot.getIndex();
         boolean condition = verifyGet(slotIndex, OBJECT_TAG);
-        return getObjectUnsafe(slotIndex, slot, condition);
+        return getObjectUnsafe(slotIndex, condition);
     }
 
     private Object[] getLocals() {
@@ -112,163 +116,163 @@ public final class FrameWithoutBoxing implements VirtualFrame, MaterializedFrame
         return unsafeCast(tags, byte[].class, true, true, true);
     }
 
-    Object getObjectUnsafe(int slotIndex, FrameSlot slot, boolean condition) {
-        return unsafeGetObject(getLocals(), Unsafe.ARRAY_OBJECT_BASE_OFFSET + slotIndex * (long) Unsafe.ARRAY_OBJECT_INDEX_SCALE, condition, slot);
+    Object getObjectUnsafe(int slotIndex, boolean condition) {
+        return unsafeGetObject(getLocals(), Unsafe.ARRAY_OBJECT_BASE_OFFSET + slotIndex * (long) Unsafe.ARRAY_OBJECT_INDEX_SCALE, condition, location(slotIndex));
     }
 
     @Override
     public void setObject(FrameSlot slot, Object value) {
         int slotIndex = slot.getIndex();
         verifySet(slotIndex, OBJECT_TAG);
-        setObjectUnsafe(slotIndex, slot, value);
+        setObjectUnsafe(slotIndex, value);
     }
 
-    private void setObjectUnsafe(int slotIndex, FrameSlot slot, Object value) {
-        unsafePutObject(getLocals(), Unsafe.ARRAY_OBJECT_BASE_OFFSET + slotIndex * (long) Unsafe.ARRAY_OBJECT_INDEX_SCALE, value, slot);
+    private void setObjectUnsafe(int slotIndex, Object value) {
+        unsafePutObject(getLocals(), Unsafe.ARRAY_OBJECT_BASE_OFFSET + slotIndex * (long) Unsafe.ARRAY_OBJECT_INDEX_SCALE, value, location(slotIndex));
     }
 
     @Override
     public byte getByte(FrameSlot slot) throws FrameSlotTypeException {
         int slotIndex = slot.getIndex();
         boolean condition = verifyGet(slotIndex, BYTE_TAG);
-        return getByteUnsafe(slotIndex, slot, condition);
+        return getByteUnsafe(slotIndex, condition);
     }
 
-    byte getByteUnsafe(int slotIndex, FrameSlot slot, boolean condition) {
+    byte getByteUnsafe(int slotIndex, boolean condition) {
         long offset = getPrimitiveOffset(slotIndex);
-        return (byte) unsafeGetInt(getPrimitiveLocals(), offset, condition, slot);
+        return (byte) unsafeGetInt(getPrimitiveLocals(), offset, condition, location(slotIndex));
     }
 
     @Override
     public void setByte(FrameSlot slot, byte value) {
         int slotIndex = slot.getIndex();
         verifySet(slotIndex, BYTE_TAG);
-        setByteUnsafe(slotIndex, slot, value);
+        setByteUnsafe(slotIndex, value);
     }
 
-    private void setByteUnsafe(int slotIndex, FrameSlot slot, byte value) {
+    private void setByteUnsafe(int slotIndex, byte value) {
         long offset = getPrimitiveOffset(slotIndex);
-        unsafePutInt(getPrimitiveLocals(), offset, value, slot);
+        unsafePutInt(getPrimitiveLocals(), offset, value, location(slotIndex));
     }
 
     @Override
     public boolean getBoolean(FrameSlot slot) throws FrameSlotTypeException {
         int slotIndex = slot.getIndex();
         boolean condition = verifyGet(slotIndex, BOOLEAN_TAG);
-        return getBooleanUnsafe(slotIndex, slot, condition);
+        return getBooleanUnsafe(slotIndex, condition);
     }
 
-    boolean getBooleanUnsafe(int slotIndex, FrameSlot slot, boolean condition) {
+    boolean getBooleanUnsafe(int slotIndex, boolean condition) {
         long offset = getPrimitiveOffset(slotIndex);
-        return unsafeGetInt(getPrimitiveLocals(), offset, condition, slot) != 0;
+        return unsafeGetInt(getPrimitiveLocals(), offset, condition, location(slotIndex)) != 0;
     }
 
     @Override
     public void setBoolean(FrameSlot slot, boolean value) {
         int slotIndex = slot.getIndex();
         verifySet(slotIndex, BOOLEAN_TAG);
-        setBooleanUnsafe(slotIndex, slot, value);
+        setBooleanUnsafe(slotIndex, value);
     }
 
-    private void setBooleanUnsafe(int slotIndex, FrameSlot slot, boolean value) {
+    private void setBooleanUnsafe(int slotIndex, boolean value) {
         long offset = getPrimitiveOffset(slotIndex);
-        unsafePutInt(getPrimitiveLocals(), offset, value ? 1 : 0, slot);
+        unsafePutInt(getPrimitiveLocals(), offset, value ? 1 : 0, location(slotIndex));
     }
 
     @Override
     public float getFloat(FrameSlot slot) throws FrameSlotTypeException {
         int slotIndex = slot.getIndex();
         boolean condition = verifyGet(slotIndex, FLOAT_TAG);
-        return getFloatUnsafe(slotIndex, slot, condition);
+        return getFloatUnsafe(slotIndex, condition);
     }
 
-    float getFloatUnsafe(int slotIndex, FrameSlot slot, boolean condition) {
+    float getFloatUnsafe(int slotIndex, boolean condition) {
         long offset = getPrimitiveOffset(slotIndex);
-        return unsafeGetFloat(getPrimitiveLocals(), offset, condition, slot);
+        return unsafeGetFloat(getPrimitiveLocals(), offset, condition, location(slotIndex));
     }
 
     @Override
     public void setFloat(FrameSlot slot, float value) {
         int slotIndex = slot.getIndex();
         verifySet(slotIndex, FLOAT_TAG);
-        setFloatUnsafe(slotIndex, slot, value);
+        setFloatUnsafe(slotIndex, value);
     }
 
-    private void setFloatUnsafe(int slotIndex, FrameSlot slot, float value) {
+    private void setFloatUnsafe(int slotIndex, float value) {
         long offset = getPrimitiveOffset(slotIndex);
-        unsafePutFloat(getPrimitiveLocals(), offset, value, slot);
+        unsafePutFloat(getPrimitiveLocals(), offset, value, location(slotIndex));
     }
 
     @Override
     public long getLong(FrameSlot slot) throws FrameSlotTypeException {
         int slotIndex = slot.getIndex();
         boolean condition = verifyGet(slotIndex, LONG_TAG);
-        return getLongUnsafe(slotIndex, slot, condition);
+        return getLongUnsafe(slotIndex, condition);
     }
 
-    long getLongUnsafe(int slotIndex, FrameSlot slot, boolean condition) {
+    long getLongUnsafe(int slotIndex, boolean condition) {
         long offset = getPrimitiveOffset(slotIndex);
-        return unsafeGetLong(getPrimitiveLocals(), offset, condition, slot);
+        return unsafeGetLong(getPrimitiveLocals(), offset, condition, location(slotIndex));
     }
 
     @Override
     public void setLong(FrameSlot slot, long value) {
         int slotIndex = slot.getIndex();
         verifySet(slotIndex, LONG_TAG);
-        setLongUnsafe(slotIndex, slot, value);
+        setLongUnsafe(slotIndex, value);
     }
 
-    private void setLongUnsafe(int slotIndex, FrameSlot slot, long value) {
+    private void setLongUnsafe(int slotIndex, long value) {
         long offset = getPrimitiveOffset(slotIndex);
-        unsafePutLong(getPrimitiveLocals(), offset, value, slot);
+        unsafePutLong(getPrimitiveLocals(), offset, value, location(slotIndex));
     }
 
     @Override
     public int getInt(FrameSlot slot) throws FrameSlotTypeException {
         int slotIndex = slot.getIndex();
         boolean condition = verifyGet(slotIndex, INT_TAG);
-        return getIntUnsafe(slotIndex, slot, condition);
+        return getIntUnsafe(slotIndex, condition);
     }
 
-    int getIntUnsafe(int slotIndex, FrameSlot slot, boolean condition) {
+    int getIntUnsafe(int slotIndex, boolean condition) {
         long offset = getPrimitiveOffset(slotIndex);
-        return unsafeGetInt(getPrimitiveLocals(), offset, condition, slot);
+        return unsafeGetInt(getPrimitiveLocals(), offset, condition, location(slotIndex));
     }
 
     @Override
     public void setInt(FrameSlot slot, int value) {
         int slotIndex = slot.getIndex();
         verifySet(slotIndex, INT_TAG);
-        setIntUnsafe(slotIndex, slot, value);
+        setIntUnsafe(slotIndex, value);
     }
 
-    private void setIntUnsafe(int slotIndex, FrameSlot slot, int value) {
+    private void setIntUnsafe(int slotIndex, int value) {
         long offset = getPrimitiveOffset(slotIndex);
-        unsafePutInt(getPrimitiveLocals(), offset, value, slot);
+        unsafePutInt(getPrimitiveLocals(), offset, value, location(slotIndex));
     }
 
     @Override
     public double getDouble(FrameSlot slot) throws FrameSlotTypeException {
         int slotIndex = slot.getIndex();
         boolean condition = verifyGet(slotIndex, DOUBLE_TAG);
-        return getDoubleUnsafe(slotIndex, slot, condition);
+        return getDoubleUnsafe(slotIndex, condition);
     }
 
-    double getDoubleUnsafe(int slotIndex, FrameSlot slot, boolean condition) {
+    double getDoubleUnsafe(int slotIndex, boolean condition) {
         long offset = getPrimitiveOffset(slotIndex);
-        return unsafeGetDouble(getPrimitiveLocals(), offset, condition, slot);
+        return unsafeGetDouble(getPrimitiveLocals(), offset, condition, location(slotIndex));
     }
 
     @Override
     public void setDouble(FrameSlot slot, double value) {
         int slotIndex = slot.getIndex();
         verifySet(slotIndex, DOUBLE_TAG);
-        setDoubleUnsafe(slotIndex, slot, value);
+        setDoubleUnsafe(slotIndex, value);
     }
 
-    private void setDoubleUnsafe(int slotIndex, FrameSlot slot, double value) {
+    private void setDoubleUnsafe(int slotIndex, double value) {
         long offset = getPrimitiveOffset(slotIndex);
-        unsafePutDouble(getPrimitiveLocals(), offset, value, slot);
+        unsafePutDouble(getPrimitiveLocals(), offset, value, location(slotIndex));
     }
 
     @Override
@@ -299,13 +303,34 @@ public final class FrameWithoutBoxing implements VirtualFrame, MaterializedFrame
         }
     }
 
+    /**
+     * Returns the location identity of the unsafe accesses to the slot with the given index. The
+     * identity only depends on the index so that FrameSlot based and indexed accesses to the same
+     * slot alias. Slots beyond {@link #LOCATION_COUNT} share one identity.
+     */
+    private static Object location(int slotIndex) {
+        return LOCATIONS[slotIndex < LOCATION_COUNT ? slotIndex : LOCATION_COUNT];
+    }
+
+    private static Object[] createLocations() {
+        Object[] locations = new Object[LOCATION_COUNT + 1];
+        for (int i = 0; i < locations.length; i++) {
+            locations[i] = new Object();
+        }
+        return locations;
+    }
+
     private static long getPrimitiveOffset(int slotIndex) {
         return Unsafe.ARRAY_LONG_BASE_OFFSET + slotIndex * (long) Unsafe.ARRAY_LONG_INDEX_SCALE;
     }
 
     @Override
     public Object getValue(FrameSlot slot) {
-        int slotIndex = slot.getIndex();
+        return getValue(slot.getIndex());
+    }
+
+    @Override
+    public Object getValue(int slotIndex) {
         if (CompilerDirectives.inInterpreter() && slotIndex >= getTags().length) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
             resize();
@@ -313,31 +338,31 @@ public final class FrameWithoutBoxing implements VirtualFrame, MaterializedFrame
         byte tag = getTags()[slotIndex];
         boolean condition = (tag == BOOLEAN_TAG);
         if (condition) {
-            return getBooleanUnsafe(slotIndex, slot, condition);
+            return getBooleanUnsafe(slotIndex, condition);
         }
         condition = (tag == BYTE_TAG);
         if (condition) {
-            return getByteUnsafe(slotIndex, slot, condition);
+            return getByteUnsafe(slotIndex, condition);
         }
         condition = (tag == INT_TAG);
         if (condition) {
-            return getIntUnsafe(slotIndex, slot, condition);
+            return getIntUnsafe(slotIndex, condition);
         }
         condition = (tag == DOUBLE_TAG);
         if (condition) {
-            return getDoubleUnsafe(slotIndex, slot, condition);
+            return getDoubleUnsafe(slotIndex, condition);
         }
         condition = (tag == LONG_TAG);
         if (condition) {
-            return getLongUnsafe(slotIndex, slot, condition);
+            return getLongUnsafe(slotIndex, condition);
         }
         condition = (tag == FLOAT_TAG);
         if (condition) {
-            return getFloatUnsafe(slotIndex, slot, condition);
+            return getFloatUnsafe(slotIndex, condition);
         }
         condition = tag == OBJECT_TAG;
         assert condition;
-        return getObjectUnsafe(slotIndex, slot, condition);
+        return getObjectUnsafe(slotIndex, condition);
 
     }
 
@@ -355,7 +380,10 @@ public final class FrameWithoutBoxing implements VirtualFrame, MaterializedFrame
     }
 
     byte getTag(FrameSlot slot) {
-        int slotIndex = slot.getIndex();
+        return getTag(slot.getIndex());
+    }
+
+    private byte getTag(int slotIndex) {
         byte[] cachedTags = getTags();
         if (slotIndex < cachedTags.length) {
             return cachedTags[slotIndex];
@@ -401,6 +429,130 @@ public final class FrameWithoutBoxing implements VirtualFrame, MaterializedFrame
         return getTag(slot) == DOUBLE_TAG;
     }
 
+    /*
+     * Indexed slot accessors. They share the storage and the location identities with the
+     * FrameSlot based accessors.
+     */
+
+    @Override
+    public Object getObject(int slot) throws FrameSlotTypeException {
+        boolean condition = verifyGet(slot, OBJECT_TAG);
+        return getObjectUnsafe(slot, condition);
+    }
+
+    @Override
+    public void setObject(int slot, Object value) {
+        verifySet(slot, OBJECT_TAG);
+        setObjectUnsafe(slot, value);
+    }
+
+    @Override
+    public byte getByte(int slot) throws FrameSlotTypeException {
+        boolean condition = verifyGet(slot, BYTE_TAG);
+        return getByteUnsafe(slot, condition);
+    }
+
+    @Override
+    public void setByte(int slot, byte value) {
+        verifySet(slot, BYTE_TAG);
+        setByteUnsafe(slot, value);
+    }
+
+    @Override
+    public boolean getBoolean(int slot) throws FrameSlotTypeException {
+        boolean condition = verifyGet(slot, BOOLEAN_TAG);
+        return getBooleanUnsafe(slot, condition);
+    }
+
+    @Override
+    public void setBoolean(int slot, boolean value) {
+        verifySet(slot, BOOLEAN_TAG);
+        setBooleanUnsafe(slot, value);
+    }
+
+    @Override
+    public int getInt(int slot) throws FrameSlotTypeException {
+        boolean condition = verifyGet(slot, INT_TAG);
+        return getIntUnsafe(slot, condition);
+    }
+
+    @Override
+    public void setInt(int slot, int value) {
+        verifySet(slot, INT_TAG);
+        setIntUnsafe(slot, value);
+    }
+
+    @Override
+    public long getLong(int slot) throws FrameSlotTypeException {
+        boolean condition = verifyGet(slot, LONG_TAG);
+        return getLongUnsafe(slot, condition);
+    }
+
+    @Override
+    public void setLong(int slot, long value) {
+        verifySet(slot, LONG_TAG);
+        setLongUnsafe(slot, value);
+    }
+
+    @Override
+    public float getFloat(int slot) throws FrameSlotTypeException {
+        boolean condition = verifyGet(slot, FLOAT_TAG);
+        return getFloatUnsafe(slot, condition);
+    }
+
+    @Override
+    public void setFloat(int slot, float value) {
+        verifySet(slot, FLOAT_TAG);
+        setFloatUnsafe(slot, value);
+    }
+
+    @Override
+    public double getDouble(int slot) throws FrameSlotTypeException {
+        boolean condition = verifyGet(slot, DOUBLE_TAG);
+        return getDoubleUnsafe(slot, condition);
+    }
+
+    @Override
+    public void setDouble(int slot, double value) {
+        verifySet(slot, DOUBLE_TAG);
+        setDoubleUnsafe(slot, value);
+    }
+
+    @Override
+    public boolean isObject(int slot) {
+        return getTag(slot) == OBJECT_TAG;
+    }
+
+    @Override
+    public boolean isByte(int slot) {
+        return getTag(slot) == BYTE_TAG;
+    }
+
+    @Override
+    public boolean isBoolean(int slot) {
+        return getTag(slot) == BOOLEAN_TAG;
+    }
+
+    @Override
+    public boolean isInt(int slot) {
+        return getTag(slot) == INT_TAG;
+    }
+
+    @Override
+    public boolean isLong(int slot) {
+        return getTag(slot) == LONG_TAG;
+    }
+
+    @Override
+    public boolean isFloat(int slot) {
+        return getTag(slot) == FLOAT_TAG;
+    }
+
+    @Override
+    public boolean isDouble(int slot) {
+        return getTag(slot) == DOUBLE_TAG;
+    }
+
     @SuppressWarnings({"unchecked", "unused"})
     private static <T> T unsafeCast(Object value, Class<T> type, boolean condition, boolean nonNull, boolean exact) {
         return (T) value;
@@ -24,6 +24,7 @@
  */
 package org.graalvm.compiler.truffle.runtime;
 
+import java.util.Map;
 import java.util.function.Supplier;
 
 import org.graalvm.compiler.truffle.common.TruffleCompilerOptions;
@@ -34,7 +35,9 @@ import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.impl.TVMCI;
+import com.oracle.truffle.api.nodes.BytecodeOSRNode;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.RootNode;
 
@@ -169,4 +172,19 @@ final class GraalTVMCI extends TVMCI {
             }
         }
     }
+
+    @Override
+    protected boolean pollBytecodeOSRBackEdge(BytecodeOSRNode osrNode) {
+        return BytecodeOSRMetadata.pollBackEdge(osrNode);
+    }
+
+    @Override
+    protected Object tryBytecodeOSR(BytecodeOSRNode osrNode, int target, Object interpreterState, VirtualFrame parentFrame) {
+        return BytecodeOSRMetadata.tryOSR(osrNode, target, interpreterState, parentFrame);
+    }
+
+    @Override
+    protected Map<String, Object> getCompilationMetrics() {
+        return GraalTruffleRuntime.getRuntime().getCompilationMetrics();
+    }
 }
@@ -111,13 +111,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.ServiceConfigurationError;
 import java.util.ServiceLoader;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -130,8 +132,14 @@ import static org.graalvm.compiler.debug.DebugContext.NO_GLOBAL_METRIC_VALUES;
 import static org.graalvm.compiler.serviceprovider.GraalServices.Java8OrEarlier;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleCompilation;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleCompilationExceptionsAreThrown;
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleCompilationQueueColdTimeout;
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleCompilationQueuePriority;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleCompileOnly;
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleCompilerThreadBacklog;
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleCompilerThreadKeepAlive;
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleCompilerThreadPriority;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleCompilerThreads;
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleInliningGraphSize;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleProfilingEnabled;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleUseFrameWithoutBoxing;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.getValue;
@@ -157,23 +165,46 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
         private final ExecutorService compilationExecutor;
 
         public BackgroundCompileQueue() {
-            CompilerThreadFactory factory = new CompilerThreadFactory("TruffleCompilerThread");
+            int priority = TruffleCompilerOptions.getValue(TruffleCompilerThreadPriority);
+            CompilerThreadFactory factory = new CompilerThreadFactory("TruffleCompilerThread") {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = super.newThread(r);
+                    if (priority != 0) {
+                        thread.setPriority(Math.max(Thread.MIN_PRIORITY, Math.min(Thread.MAX_PRIORITY, priority)));
+                    }
+                    return thread;
+                }
+            };
 
             int selectedProcessors = TruffleCompilerOptions.getValue(TruffleCompilerThreads);
             if (selectedProcessors == 0) {
                 // No manual selection made, check how many processors are available.
-                int availableProcessors = Runtime.getRuntime().availableProcessors();
+                int availableProcessors = CompilationThreadPool.getAvailableProcessors();
                 if (availableProcessors >= 4) {
                     selectedProcessors = 2;
                 }
             }
             selectedProcessors = Math.max(1, selectedProcessors);
-            compilationExecutor = Executors.newFixedThreadPool(selectedProcessors, factory);
+            BlockingQueue<Runnable> queue;
+            if (TruffleCompilerOptions.getValue(TruffleCompilationQueuePriority)) {
+                queue = new CompilationTaskQueue(TruffleCompilerOptions.getValue(TruffleCompilationQueueColdTimeout));
+            } else {
+                queue = new LinkedBlockingQueue<>();
+            }
+            compilationExecutor = new CompilationThreadPool(selectedProcessors, TruffleCompilerOptions.getValue(TruffleCompilerThreadBacklog),
+                            TruffleCompilerOptions.getValue(TruffleCompilerThreadKeepAlive), queue, factory);
         }
 
         public ExecutorService getCompilationExecutor() {
             return compilationExecutor;
         }
+
+        Future<?> submitTask(OptimizedCallTarget target, Runnable runnable, boolean waitedFor) {
+            CompilationTask task = new CompilationTask(target, runnable, waitedFor);
+            compilationExecutor.execute(task);
+            return task;
+        }
     }
 
     private Object cachedIncludesExcludes;
@@ -181,6 +212,7 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
     private ArrayList<String> excludes;
 
     private final GraalTruffleRuntimeListenerDispatcher listeners = new GraalTruffleRuntimeListenerDispatcher();
+    private volatile CompilationMetricsListener compilationMetrics;
 
     protected volatile TruffleCompiler truffleCompiler;
     protected LoopNodeFactory loopNodeFactory;
@@ -423,6 +455,7 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
         TraceSplittingListener.install(this);
         StatisticsListener.install(this);
         TraceASTCompilationListener.install(this);
+        compilationMetrics = CompilationMetricsListener.install(this);
         installShutdownHooks();
     }
 
@@ -694,8 +727,18 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
         listeners.remove(listener);
     }
 
+    /**
+     * Writes the profiles of all call targets using a
+     * {@linkplain PolyglotCompilerOptions#ProfileStore profile store}. Profiles are also written
+     * when the runtime shuts down.
+     */
+    public void saveCompilationProfiles() {
+        CompilationProfileStore.saveAll();
+    }
+
     private void shutdown() {
         getListener().onShutdown();
+        CompilationProfileStore.saveAll();
         TruffleCompiler tcp = truffleCompiler;
         if (tcp != null) {
             tcp.shutdown();
@@ -706,12 +749,14 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
     protected void doCompile(OptionValues options, OptimizedCallTarget callTarget, Cancellable task) {
         listeners.onCompilationStarted(callTarget);
         TruffleCompiler compiler = getTruffleCompiler();
-        TruffleInlining inlining = new TruffleInlining(callTarget, new DefaultInliningPolicy());
+        // first tier compilations perform no Truffle inlining
+        TruffleInlining inlining = callTarget.isFirstTierCompilation() ? new TruffleInlining(Collections.emptyList()) : new TruffleInlining(callTarget, createInliningPolicy(compiler, task));
         CompilationIdentifier compilationId = compiler.getCompilationIdentifier(callTarget);
         try (DebugContext debug = compilationId != null ? compiler.openDebugContext(options, compilationId, callTarget) : null) {
             try (Scope s = debug != null ? debug.scope("Truffle", new TruffleDebugJavaMethod(callTarget)) : null) {
                 maybeDumpTruffleTree(debug, options, callTarget, inlining);
-                compiler.doCompile(debug, compilationId, options, callTarget, inlining, task, listeners.isEmpty() ? null : listeners);
+                // the listeners are always passed as they record the tier of the installed code
+                compiler.doCompile(debug, compilationId, options, callTarget, inlining, task, listeners);
             } catch (RuntimeException | Error e) {
                 throw e;
             } catch (Throwable e) {
@@ -721,6 +766,13 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
         dequeueInlinedCallSites(inlining, callTarget);
     }
 
+    private static TruffleInliningPolicy createInliningPolicy(TruffleCompiler compiler, Cancellable task) {
+        if (getValue(TruffleInliningGraphSize)) {
+            return new GraphSizeInliningPolicy(compiler, task);
+        }
+        return new DefaultInliningPolicy();
+    }
+
     @SuppressWarnings("try")
     private static void maybeDumpTruffleTree(DebugContext inDebug, OptionValues options, OptimizedCallTarget callTarget, TruffleInlining inlining) {
         DebugContext debug = inDebug;
@@ -764,13 +816,23 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
 
     protected abstract BackgroundCompileQueue getCompileQueue();
 
-    @SuppressWarnings("try")
     public CancellableCompileTask submitForCompilation(OptimizedCallTarget optimizedCallTarget) {
+        return submitForCompilation(optimizedCallTarget, true);
+    }
+
+    /**
+     * Submits a compilation of {@code optimizedCallTarget} to the background compile queue.
+     *
+     * @param mayBeAsynchronous {@code false} if the caller is going to
+     *            {@linkplain #finishCompilation wait} for the compilation to finish
+     */
+    @SuppressWarnings("try")
+    public CancellableCompileTask submitForCompilation(OptimizedCallTarget optimizedCallTarget, boolean mayBeAsynchronous) {
         BackgroundCompileQueue l = getCompileQueue();
         final WeakReference<OptimizedCallTarget> weakCallTarget = new WeakReference<>(optimizedCallTarget);
         final OptionValues optionOverrides = TruffleCompilerOptions.getCurrentOptionOverrides();
         CancellableCompileTask cancellable = new CancellableCompileTask();
-        cancellable.setFuture(l.compilationExecutor.submit(new Runnable() {
+        cancellable.setFuture(l.submitTask(optimizedCallTarget, new Runnable() {
             @Override
             public void run() {
                 OptimizedCallTarget callTarget = weakCallTarget.get();
@@ -783,7 +845,7 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
                     }
                 }
             }
-        }));
+        }, !mayBeAsynchronous));
         // task and future must never diverge from each other
         assert cancellable.future != null;
         return cancellable;
@@ -873,6 +935,19 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
         return Collections.emptyList();
     }
 
+    /**
+     * Returns a snapshot of the compilation metrics collected since the runtime was started.
+     *
+     * @see CompilationMetricsListener#getSnapshot()
+     */
+    public Map<String, Object> getCompilationMetrics() {
+        CompilationMetricsListener metrics = compilationMetrics;
+        if (metrics == null) {
+            return Collections.emptyMap();
+        }
+        return metrics.getSnapshot();
+    }
+
     public int getCompilationQueueSize() {
         ExecutorService executor = getCompileQueue().compilationExecutor;
         if (executor instanceof ThreadPoolExecutor) {
@@ -40,7 +40,7 @@ import com.oracle.truffle.api.nodes.Node;
  * <pre>
  * ( (split | (queue . unqueue))*
  *    . queue . started
- *    . (truffleTierFinished . graalTierFinished . success)
+ *    . (truffleTierFinished . graalTierFinished . success . tierInstalled)
  *      | ([truffleTierFinished] . [graalTierFinished] . failed)
  *    . invalidate )*
  * </pre>
@@ -122,6 +122,19 @@ public interface GraalTruffleRuntimeListener {
     default void onCompilationSuccess(OptimizedCallTarget target, TruffleInlining inliningDecision, GraphInfo graph, CompilationResultInfo result) {
     }
 
+    /**
+     * Notifies this object when machine code was installed for {@code target}, right after
+     * {@link #onCompilationSuccess}. With multi-tier compilation a call target is first compiled
+     * in the {@linkplain OptimizedCallTarget#FIRST_TIER first tier} and later recompiled in the
+     * {@linkplain OptimizedCallTarget#LAST_TIER last tier}. Without multi-tier compilation every
+     * compilation is a last tier compilation.
+     *
+     * @param target the call target whose machine code was installed
+     * @param tier the tier of the installed machine code
+     */
+    default void onCompilationTierInstalled(OptimizedCallTarget target, int tier) {
+    }
+
     /**
      * Notifies this object when compilation of {@code target} fails.
      *
@@ -160,6 +173,40 @@ public interface GraalTruffleRuntimeListener {
     default void onCompilationDeoptimized(OptimizedCallTarget target, Frame frame) {
     }
 
+    /**
+     * Notifies this object when {@code target} was invalidated repeatedly within a short time and
+     * its next compilation is delayed longer than after a regular invalidation.
+     *
+     * @param target the call target that was invalidated
+     * @param repeatedInvalidations the number of invalidations that followed each other closely
+     * @param reprofileCount the number of calls the call target is profiled before it is compiled
+     *            again
+     * @param source the source object that caused the invalidation, e.g. an
+     *            {@link OptimizedAssumption} or a replaced {@link Node}. May be {@code null}.
+     */
+    default void onCompilationBackoff(OptimizedCallTarget target, int repeatedInvalidations, int reprofileCount, Object source) {
+    }
+
+    /**
+     * Notifies this object when a speculation of {@code target} is disabled because it caused
+     * repeated invalidations.
+     *
+     * @param target the call target whose speculation was disabled
+     * @param speculation a description of the disabled speculation
+     */
+    default void onSpeculationDisabled(OptimizedCallTarget target, String speculation) {
+    }
+
+    /**
+     * Notifies this object when the runtime stops compiling {@code target} because it was
+     * invalidated too often.
+     *
+     * @param target the call target that is no longer compiled
+     * @param repeatedInvalidations the number of invalidations that followed each other closely
+     */
+    default void onCompilationDisabled(OptimizedCallTarget target, int repeatedInvalidations) {
+    }
+
     /**
      * Notifies this object the {@link GraalTruffleRuntime} is being shut down.
      */
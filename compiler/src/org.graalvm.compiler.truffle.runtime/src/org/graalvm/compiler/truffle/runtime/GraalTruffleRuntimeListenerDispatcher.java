@@ -103,6 +103,13 @@ final class GraalTruffleRuntimeListenerDispatcher extends ArrayList<GraalTruffle
         }
     }
 
+    @Override
+    public void onCompilationTierInstalled(OptimizedCallTarget target, int tier) {
+        for (GraalTruffleRuntimeListener l : this) {
+            l.onCompilationTierInstalled(target, tier);
+        }
+    }
+
     @Override
     public void onCompilationInvalidated(OptimizedCallTarget target, Object source, CharSequence reason) {
         for (GraalTruffleRuntimeListener l : this) {
@@ -117,6 +124,27 @@ final class GraalTruffleRuntimeListenerDispatcher extends ArrayList<GraalTruffle
         }
     }
 
+    @Override
+    public void onCompilationBackoff(OptimizedCallTarget target, int repeatedInvalidations, int reprofileCount, Object source) {
+        for (GraalTruffleRuntimeListener l : this) {
+            l.onCompilationBackoff(target, repeatedInvalidations, reprofileCount, source);
+        }
+    }
+
+    @Override
+    public void onSpeculationDisabled(OptimizedCallTarget target, String speculation) {
+        for (GraalTruffleRuntimeListener l : this) {
+            l.onSpeculationDisabled(target, speculation);
+        }
+    }
+
+    @Override
+    public void onCompilationDisabled(OptimizedCallTarget target, int repeatedInvalidations) {
+        for (GraalTruffleRuntimeListener l : this) {
+            l.onCompilationDisabled(target, repeatedInvalidations);
+        }
+    }
+
     @Override
     public void onShutdown() {
         for (GraalTruffleRuntimeListener l : this) {
@@ -138,7 +166,11 @@ final class GraalTruffleRuntimeListenerDispatcher extends ArrayList<GraalTruffle
 
     @Override
     public void onSuccess(CompilableTruffleAST compilable, TruffleInliningPlan inliningPlan, GraphInfo graph, CompilationResultInfo result) {
-        onCompilationSuccess((OptimizedCallTarget) compilable, (TruffleInlining) inliningPlan, graph, result);
+        OptimizedCallTarget target = (OptimizedCallTarget) compilable;
+        int tier = target.isFirstTierCompilation() ? OptimizedCallTarget.FIRST_TIER : OptimizedCallTarget.LAST_TIER;
+        target.setCompiledTier(tier);
+        onCompilationSuccess(target, (TruffleInlining) inliningPlan, graph, result);
+        onCompilationTierInstalled(target, tier);
     }
 
     @Override
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleInliningMaxCallerSize;
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleInliningMaxGraphSize;
+
+import org.graalvm.compiler.nodes.Cancellable;
+import org.graalvm.compiler.truffle.common.TruffleCompiler;
+import org.graalvm.compiler.truffle.common.TruffleCompilerOptions;
+
+import com.oracle.truffle.api.CompilerOptions;
+
+/**
+ * Inlining policy that measures call targets by the size of their graph after partial evaluation.
+ * Each call target is partially evaluated on its own, without inlining, the first time it is
+ * considered. The size is cached in the call target and reused by the inlining decisions of all
+ * its callers. The deep size of a call site is the sum of the graph sizes of the inlined call
+ * targets.
+ */
+public final class GraphSizeInliningPolicy extends DefaultInliningPolicy {
+
+    private final TruffleCompiler compiler;
+    private final Cancellable task;
+    private final int astToGraphSizeRatio;
+
+    public GraphSizeInliningPolicy(TruffleCompiler compiler, Cancellable task) {
+        super(TruffleCompilerOptions.getValue(TruffleInliningMaxGraphSize));
+        this.compiler = compiler;
+        this.task = task;
+        this.astToGraphSizeRatio = Math.max(1, TruffleCompilerOptions.getValue(TruffleInliningMaxGraphSize) / Math.max(1, TruffleCompilerOptions.getValue(TruffleInliningMaxCallerSize)));
+    }
+
+    @Override
+    public int getNodeCount(OptimizedCallTarget target) {
+        int size = target.getGraphSize(compiler, task);
+        if (size < 0) {
+            // the compiler cannot measure this call target, estimate from its AST size
+            return target.getNonTrivialNodeCount() * astToGraphSizeRatio;
+        }
+        return size;
+    }
+
+    @Override
+    protected int getInliningMaxCallerSize(CompilerOptions options) {
+        // the minimum caller size of the compiler options is given in AST nodes
+        return super.getInliningMaxCallerSize(null);
+    }
+}
@@ -41,12 +41,15 @@ import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.NodeUtil;
 import com.oracle.truffle.api.nodes.NodeVisitor;
 import com.oracle.truffle.api.nodes.RootNode;
+import jdk.vm.ci.code.BailoutException;
 import jdk.vm.ci.code.InstalledCode;
 import jdk.vm.ci.meta.JavaConstant;
 import jdk.vm.ci.meta.SpeculationLog;
 import org.graalvm.compiler.api.replacements.SnippetReflectionProvider;
 import org.graalvm.compiler.core.common.SuppressFBWarnings;
+import org.graalvm.compiler.nodes.Cancellable;
 import org.graalvm.compiler.truffle.common.CompilableTruffleAST;
+import org.graalvm.compiler.truffle.common.TruffleCompiler;
 import org.graalvm.compiler.truffle.common.TruffleCompilerOptions;
 import org.graalvm.compiler.truffle.common.TruffleCompilerRuntime;
 import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime.LazyFrameBoxingQuery;
@@ -55,6 +58,7 @@ import org.graalvm.options.OptionValues;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -86,6 +90,8 @@ import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.Truffle
 public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootCallTarget, ReplaceObserver, com.oracle.truffle.api.LoopCountReceiver {
 
     private static final String NODE_REWRITING_ASSUMPTION_NAME = "nodeRewritingAssumption";
+    public static final int FIRST_TIER = 1;
+    public static final int LAST_TIER = 2;
     static final String CALL_BOUNDARY_METHOD_NAME = "callProxy";
 
     /** The AST to be executed when this call target is called. */
@@ -101,9 +107,26 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
     private volatile RootNode uninitializedRootNode;
 
     private volatile int cachedNonTrivialNodeCount = -1;
+    private static final int GRAPH_SIZE_UNKNOWN = -1;
+    private static final int GRAPH_SIZE_FAILED = -2;
+    private volatile int cachedGraphSize = GRAPH_SIZE_UNKNOWN;
     private volatile SpeculationLog speculationLog;
     private volatile int callSitesKnown;
     private volatile CancellableCompileTask compilationTask;
+
+    /**
+     * Whether the pending or running compilation is a first tier compilation. Partial evaluation
+     * of this call target reads this field as a constant so that only first tier code counts its
+     * calls.
+     */
+    @CompilationFinal private volatile boolean firstTierCompilation;
+    /** The tier of the most recently installed machine code or {@code 0} if unknown. */
+    private volatile int compiledTier;
+    /**
+     * Whether a node of this call target ever created {@link BytecodeOSRMetadata}. Node rewrites
+     * only look for enclosing bytecode OSR nodes if it is set.
+     */
+    private volatile boolean bytecodeOSRMetadataCreated;
     /**
      * When this call target is inlined, the inlining {@link InstalledCode} registers this
      * assumption. It gets invalidated when a node rewrite in this call target is performed. This
@@ -253,6 +276,9 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
         Object[] args = originalArguments;
         OptimizedCompilationProfile profile = this.compilationProfile;
         if (CompilerDirectives.inCompiledCode() && profile != null) {
+            if (firstTierCompilation) {
+                profile.firstTierCall(this);
+            }
             args = profile.injectArgumentProfile(originalArguments);
         }
         Object result = callProxy(createFrame(getRootNode().getFrameDescriptor(), args));
@@ -307,7 +333,13 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
     }
 
     private OptimizedCompilationProfile createCompilationProfile() {
-        return OptimizedCompilationProfile.create(PolyglotCompilerOptions.getPolyglotValues(rootNode));
+        OptionValues options = PolyglotCompilerOptions.getPolyglotValues(rootNode);
+        OptimizedCompilationProfile profile = OptimizedCompilationProfile.create(options);
+        String profileStore = PolyglotCompilerOptions.getValue(options, PolyglotCompilerOptions.ProfileStore);
+        if (profileStore != null && !profileStore.isEmpty()) {
+            CompilationProfileStore.get(profileStore).restore(this, profile);
+        }
+        return profile;
     }
 
     /**
@@ -316,7 +348,18 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
      * the background. Use {@link #isCompiling()} to find out whether it is actually compiling.
      */
     public final boolean compile() {
-        if (isValid()) {
+        return compile(true);
+    }
+
+    /**
+     * Compiles this call target in the first or in the last tier.
+     *
+     * @param lastTierCompilation {@code true} to request a compilation with full optimizations and
+     *            Truffle inlining, {@code false} to request a cheap first tier compilation
+     * @see #compile()
+     */
+    public final boolean compile(boolean lastTierCompilation) {
+        if (isCompiledWithTier(lastTierCompilation)) {
             return true;
         }
         if (!isCompiling()) {
@@ -324,26 +367,27 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
                 return false;
             }
 
+            boolean allowBackgroundCompilation = !TruffleCompilerOptions.getValue(TrufflePerformanceWarningsAreFatal) &&
+                            !TruffleCompilerOptions.getValue(TruffleCompilationExceptionsAreThrown);
+            boolean mayBeAsynchronous = TruffleCompilerOptions.getValue(TruffleBackgroundCompilation) && allowBackgroundCompilation;
             CancellableCompileTask task = null;
             // Do not try to compile this target concurrently,
             // but do not block other threads if compilation is not asynchronous.
             synchronized (this) {
-                if (isValid()) {
+                if (isCompiledWithTier(lastTierCompilation)) {
                     return true;
                 }
                 if (this.compilationProfile == null) {
                     initialize();
                 }
                 if (!isCompiling()) {
-                    this.compilationTask = task = runtime().submitForCompilation(this);
+                    this.firstTierCompilation = !lastTierCompilation;
+                    this.compilationTask = task = runtime().submitForCompilation(this, mayBeAsynchronous);
                 }
             }
             if (task != null) {
                 Future<?> submitted = task.getFuture();
                 if (submitted != null) {
-                    boolean allowBackgroundCompilation = !TruffleCompilerOptions.getValue(TrufflePerformanceWarningsAreFatal) &&
-                                    !TruffleCompilerOptions.getValue(TruffleCompilationExceptionsAreThrown);
-                    boolean mayBeAsynchronous = TruffleCompilerOptions.getValue(TruffleBackgroundCompilation) && allowBackgroundCompilation;
                     runtime().finishCompilation(this, submitted, mayBeAsynchronous);
                     return !mayBeAsynchronous;
                 }
@@ -352,6 +396,34 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
         return false;
     }
 
+    private boolean isCompiledWithTier(boolean lastTierCompilation) {
+        return isValid() && (!lastTierCompilation || compiledTier != FIRST_TIER);
+    }
+
+    @Override
+    public final boolean isFirstTierCompilation() {
+        return firstTierCompilation;
+    }
+
+    /**
+     * Records the tier of the machine code that was just installed for this call target.
+     */
+    final void setCompiledTier(int tier) {
+        assert tier == FIRST_TIER || tier == LAST_TIER;
+        this.compiledTier = tier;
+    }
+
+    /**
+     * Returns the tier of the machine code attached to this call target: {@link #FIRST_TIER},
+     * {@link #LAST_TIER} or {@code 0} if the call target is not compiled.
+     */
+    public final int getCompilationTier() {
+        if (!isValid()) {
+            return 0;
+        }
+        return compiledTier == FIRST_TIER ? FIRST_TIER : LAST_TIER;
+    }
+
     public final boolean isCompiling() {
         CancellableCompileTask task = getCompilationTask();
         if (task != null) {
@@ -390,6 +462,7 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
      */
     public void invalidate(Object source, CharSequence reason) {
         cachedNonTrivialNodeCount = -1;
+        cachedGraphSize = GRAPH_SIZE_UNKNOWN;
         if (isValid()) {
             invalidateCode();
             runtime().getListener().onCompilationInvalidated(this, source, reason);
@@ -559,18 +632,26 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
         getCompilationProfile().reportLoopCount(count);
     }
 
+    void onBytecodeOSRMetadataCreated() {
+        bytecodeOSRMetadataCreated = true;
+    }
+
     @Override
     public boolean nodeReplaced(Node oldNode, Node newNode, CharSequence reason) {
         CompilerAsserts.neverPartOfCompilation();
         invalidate(newNode, reason);
         /* Notify compiled method that have inlined this call target that the tree changed. */
         invalidateNodeRewritingAssumption();
+        /* OSR compilations of bytecode dispatch loops are not observed by any call target. */
+        if (bytecodeOSRMetadataCreated) {
+            BytecodeOSRMetadata.nodeReplaced(newNode, reason);
+        }
 
         OptimizedCompilationProfile profile = this.compilationProfile;
         if (profile != null) {
             profile.reportNodeReplaced();
             if (cancelInstalledTask(newNode, reason)) {
-                profile.reportInvalidated();
+                profile.reportInvalidated(this, newNode);
             }
         }
         return false;
@@ -606,6 +687,36 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
         return cachedNonTrivialNodeCount;
     }
 
+    /**
+     * Returns the number of graph nodes this call target expands to when partially evaluated
+     * without inlining. The size is computed once and shared by the inlining decisions of all
+     * callers until the call target is invalidated. If the size cannot be computed, e.g. because of
+     * a permanent bailout, that is remembered as well so that partial evaluation is not repeated
+     * for every caller.
+     *
+     * @return the graph size or {@code -1} if it cannot be computed
+     */
+    final int getGraphSize(TruffleCompiler compiler, Cancellable task) {
+        int size = cachedGraphSize;
+        if (size == GRAPH_SIZE_UNKNOWN) {
+            try {
+                size = compiler.getGraphSize(this, new TruffleInlining(Collections.emptyList()), task);
+            } catch (BailoutException e) {
+                // bailouts are reported when this call target is compiled on its own
+                if (!e.isPermanent()) {
+                    return -1;
+                }
+                size = GRAPH_SIZE_FAILED;
+            }
+            if (task != null && task.isCancelled()) {
+                return -1;
+            }
+            size = size < 0 ? GRAPH_SIZE_FAILED : size;
+            cachedGraphSize = size;
+        }
+        return size == GRAPH_SIZE_FAILED ? -1 : size;
+    }
+
     public static int calculateNonTrivialNodes(Node node) {
         NonTrivialNodeCountVisitor visitor = new NonTrivialNodeCountVisitor();
         node.accept(visitor);
@@ -26,7 +26,10 @@ package org.graalvm.compiler.truffle.runtime;
 
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleArgumentTypeSpeculation;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleCompileImmediately;
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleInvalidationBackoffWindow;
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleInvalidationCompilationLimit;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleInvalidationReprofileCount;
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleInvalidationSpeculationLimit;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleMinInvokeThreshold;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleReplaceReprofileCount;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleReturnTypeSpeculation;
@@ -43,6 +46,7 @@ import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.CompilerOptions;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
@@ -55,11 +59,32 @@ public class OptimizedCompilationProfile {
     private int invalidationCount;
     private int deferredCount;
 
+    /*
+     * Deoptimization storm protection: invalidations that follow each other within the backoff
+     * window are counted as repeated invalidations. Each repeated invalidation doubles the
+     * reprofiling delay. Too many repeated invalidations disable the type speculations of this
+     * profile and eventually the compilation of the call target.
+     */
+    private int repeatedInvalidations;
+    private long lastInvalidationTimestamp;
+    private volatile boolean argumentTypeSpeculationDisabled;
+    private volatile boolean compilationDisabled;
+
     private int interpreterCallCount;
     private int interpreterCallAndLoopCount;
     private int compilationCallThreshold;
     private int compilationCallAndLoopThreshold;
 
+    /*
+     * Multi-tier compilation: the interpreter triggers a first tier compilation at the first tier
+     * thresholds. Calls of the first tier code are counted in firstTierCallCount and together with
+     * the interpreter counts trigger the last tier compilation at the regular thresholds.
+     */
+    private final boolean multiTier;
+    private int firstTierCompilationCallThreshold;
+    private int firstTierCompilationCallAndLoopThreshold;
+    private int firstTierCallCount;
+
     private long timestamp;
 
     /*
@@ -81,6 +106,12 @@ public class OptimizedCompilationProfile {
 
     private volatile boolean compilationFailed;
 
+    /*
+     * Set if the argument types were seeded from a persisted profile. Seeded types may be replaced
+     * by types explicitly initialized by the language.
+     */
+    private boolean seededArgumentTypes;
+
     public OptimizedCompilationProfile(OptionValues options) {
         int callThreshold = TruffleCompilerOptions.getValue(TruffleMinInvokeThreshold);
         int callAndLoopThreshold = PolyglotCompilerOptions.getValue(options, PolyglotCompilerOptions.CompilationThreshold);
@@ -88,6 +119,11 @@ public class OptimizedCompilationProfile {
         assert callAndLoopThreshold >= 0;
         this.compilationCallThreshold = Math.min(callThreshold, callAndLoopThreshold);
         this.compilationCallAndLoopThreshold = callAndLoopThreshold;
+        this.multiTier = PolyglotCompilerOptions.getValue(options, PolyglotCompilerOptions.MultiTier);
+        int firstTierCallAndLoopThreshold = Math.min(callAndLoopThreshold, PolyglotCompilerOptions.getValue(options, PolyglotCompilerOptions.FirstTierCompilationThreshold));
+        assert firstTierCallAndLoopThreshold >= 0;
+        this.firstTierCompilationCallThreshold = Math.min(callThreshold, firstTierCallAndLoopThreshold);
+        this.firstTierCompilationCallAndLoopThreshold = firstTierCallAndLoopThreshold;
         this.timestamp = System.nanoTime();
     }
 
@@ -99,7 +135,12 @@ public class OptimizedCompilationProfile {
 
     void initializeArgumentTypes(Class<?>[] argumentTypes) {
         CompilerAsserts.neverPartOfCompilation();
-        if (profiledArgumentTypesAssumption != null) {
+        if (profiledArgumentTypesAssumption != null && seededArgumentTypes) {
+            this.profiledArgumentTypesAssumption.invalidate();
+            this.seededArgumentTypes = false;
+            this.profiledArgumentTypes = argumentTypes;
+            this.profiledArgumentTypesAssumption = createValidAssumption("Custom profiled argument types");
+        } else if (profiledArgumentTypesAssumption != null) {
             this.profiledArgumentTypesAssumption.invalidate();
             throw new AssertionError("Argument types already initialized. initializeArgumentTypes must be called before any profile is initialized.");
         } else {
@@ -108,6 +149,56 @@ public class OptimizedCompilationProfile {
         }
     }
 
+    /**
+     * Seeds this profile with the profile recorded for the same root in a previous run. The call
+     * and loop counts continue from the recorded counts. Hot roots get their compilation
+     * thresholds lowered such that they are compiled on their next call, the call and loop count
+     * of other roots is kept below the compilation thresholds. The seeded type speculations are
+     * guarded by assumptions and are invalidated like any other profile if they turn out to be
+     * wrong.
+     */
+    final void seed(int callCount, int callAndLoopCount, boolean hot, Class<?>[] argumentTypes, Class<?> returnType) {
+        CompilerAsserts.neverPartOfCompilation();
+        int seededCallAndLoopCount = callAndLoopCount;
+        if (!hot) {
+            // compilation requires both counts to reach their threshold
+            seededCallAndLoopCount = Math.min(seededCallAndLoopCount, Math.min(compilationCallAndLoopThreshold, firstTierCompilationCallAndLoopThreshold) - 1);
+        }
+        interpreterCallCount = Math.max(interpreterCallCount, callCount);
+        interpreterCallAndLoopCount = Math.max(interpreterCallAndLoopCount, seededCallAndLoopCount);
+        if (argumentTypes != null && profiledArgumentTypesAssumption == null && TruffleCompilerOptions.getValue(TruffleArgumentTypeSpeculation)) {
+            profiledArgumentTypes = argumentTypes;
+            profiledArgumentTypesAssumption = createValidAssumption("Profiled Argument Types");
+            seededArgumentTypes = true;
+        }
+        if (returnType != null && profiledReturnTypeAssumption == null && TruffleCompilerOptions.getValue(TruffleReturnTypeSpeculation)) {
+            profiledReturnType = returnType;
+            profiledReturnTypeAssumption = createValidAssumption("Profiled Return Type");
+        }
+        if (hot) {
+            compilationCallThreshold = Math.min(compilationCallThreshold, interpreterCallCount + 1);
+            compilationCallAndLoopThreshold = Math.min(compilationCallAndLoopThreshold, interpreterCallAndLoopCount + 1);
+            firstTierCompilationCallThreshold = Math.min(firstTierCompilationCallThreshold, interpreterCallCount + 1);
+            firstTierCompilationCallAndLoopThreshold = Math.min(firstTierCompilationCallAndLoopThreshold, interpreterCallAndLoopCount + 1);
+        }
+    }
+
+    /**
+     * Returns the currently speculated argument types without initializing the profile.
+     */
+    final Class<?>[] getStoredArgumentTypes() {
+        OptimizedAssumption assumption = profiledArgumentTypesAssumption;
+        return assumption != null && assumption.isValid() ? profiledArgumentTypes : null;
+    }
+
+    /**
+     * Returns the currently speculated return type without initializing the profile.
+     */
+    final Class<?> getStoredReturnType() {
+        OptimizedAssumption assumption = profiledReturnTypeAssumption;
+        return assumption != null && assumption.isValid() ? profiledReturnType : null;
+    }
+
     List<OptimizedAssumption> getProfiledTypesAssumptions() {
         List<OptimizedAssumption> result = new ArrayList<>();
         if (getProfiledArgumentTypes() != null) {
@@ -119,7 +210,7 @@ public class OptimizedCompilationProfile {
         return result;
     }
 
-    Class<?>[] getProfiledArgumentTypes() {
+    public Class<?>[] getProfiledArgumentTypes() {
         if (profiledArgumentTypesAssumption == null) {
             /*
              * We always need an assumption. If this method is called before the profile was
@@ -273,10 +364,58 @@ public class OptimizedCompilationProfile {
         interpreterCallAndLoopCount += count;
     }
 
-    final void reportInvalidated() {
+    /**
+     * Reports that compiled code of {@code callTarget} was invalidated because of {@code source},
+     * e.g. a failed {@link OptimizedAssumption} or a replaced node.
+     */
+    final void reportInvalidated(OptimizedCallTarget callTarget, Object source) {
         invalidationCount++;
+        long now = System.nanoTime();
+        long window = TruffleCompilerOptions.getValue(TruffleInvalidationBackoffWindow) * 1_000_000L;
+        if (lastInvalidationTimestamp != 0 && now - lastInvalidationTimestamp <= window) {
+            repeatedInvalidations++;
+        } else {
+            repeatedInvalidations = 0;
+        }
+        lastInvalidationTimestamp = now;
+
         int reprofile = TruffleCompilerOptions.getValue(TruffleInvalidationReprofileCount);
+        if (repeatedInvalidations > 0) {
+            long backoff = (long) reprofile << Math.min(repeatedInvalidations, 20);
+            reprofile = (int) Math.min(backoff, Integer.MAX_VALUE / 2);
+            OptimizedCallTarget.runtime().getListener().onCompilationBackoff(callTarget, repeatedInvalidations, reprofile, source);
+        }
         ensureProfiling(reprofile, reprofile);
+
+        int speculationLimit = TruffleCompilerOptions.getValue(TruffleInvalidationSpeculationLimit);
+        if (speculationLimit > 0 && repeatedInvalidations >= speculationLimit) {
+            disableSpeculation(callTarget, source);
+        }
+        int compilationLimit = TruffleCompilerOptions.getValue(TruffleInvalidationCompilationLimit);
+        if (compilationLimit > 0 && repeatedInvalidations >= compilationLimit && !compilationDisabled) {
+            compilationDisabled = true;
+            OptimizedCallTarget.runtime().getListener().onCompilationDisabled(callTarget, repeatedInvalidations);
+        }
+    }
+
+    /**
+     * Disables the type speculation of this profile that caused a repeated invalidation. The return
+     * type speculation needs no handling here since it is never profiled again after its first
+     * failure. Failing assumptions of the guest language cannot be disabled by the runtime, they
+     * only lead to a longer reprofiling delay and eventually to disabled compilation.
+     */
+    private void disableSpeculation(OptimizedCallTarget callTarget, Object source) {
+        if (source == null) {
+            return;
+        }
+        if (source == profiledArgumentTypesAssumption && !argumentTypeSpeculationDisabled) {
+            /*
+             * The argument types are cleared after the assumption is invalidated. Clearing them
+             * here could race with code that still sees a valid assumption.
+             */
+            argumentTypeSpeculationDisabled = true;
+            OptimizedCallTarget.runtime().getListener().onSpeculationDisabled(callTarget, "Profiled Argument Types");
+        }
     }
 
     final void reportNodeReplaced() {
@@ -288,16 +427,41 @@ public class OptimizedCompilationProfile {
     final boolean interpreterCall(OptimizedCallTarget callTarget) {
         int intCallCount = ++interpreterCallCount;
         int intAndLoopCallCount = ++interpreterCallAndLoopCount;
-        if (!callTarget.isCompiling() && !compilationFailed) {
+        if (!callTarget.isCompiling() && !compilationFailed && !compilationDisabled) {
+            if (TruffleCompilerOptions.getValue(TruffleCompileImmediately)) {
+                return callTarget.compile(true);
+            }
             // check if call target is hot enough to get compiled, but took not too long to get hot
-            if ((intAndLoopCallCount >= compilationCallAndLoopThreshold && intCallCount >= compilationCallThreshold && !isDeferredCompile(callTarget)) ||
-                            TruffleCompilerOptions.getValue(TruffleCompileImmediately)) {
-                return callTarget.compile();
+            if (multiTier) {
+                if (intAndLoopCallCount >= firstTierCompilationCallAndLoopThreshold && intCallCount >= firstTierCompilationCallThreshold && !isDeferredCompile(callTarget)) {
+                    boolean lastTier = intAndLoopCallCount >= compilationCallAndLoopThreshold && intCallCount >= compilationCallThreshold;
+                    return callTarget.compile(lastTier);
+                }
+            } else if (intAndLoopCallCount >= compilationCallAndLoopThreshold && intCallCount >= compilationCallThreshold && !isDeferredCompile(callTarget)) {
+                return callTarget.compile(true);
             }
         }
         return false;
     }
 
+    /**
+     * Called on every call of first tier compiled code. Requests the last tier compilation once
+     * the calls in the interpreter and in the first tier code reach the compilation threshold.
+     */
+    final void firstTierCall(OptimizedCallTarget callTarget) {
+        int firstTierCount = ++firstTierCallCount;
+        if (firstTierCount + interpreterCallAndLoopCount >= compilationCallAndLoopThreshold) {
+            lastTierCompile(callTarget);
+        }
+    }
+
+    @TruffleBoundary
+    private void lastTierCompile(OptimizedCallTarget callTarget) {
+        if (!callTarget.isCompiling() && !compilationFailed && !compilationDisabled) {
+            callTarget.compile(true);
+        }
+    }
+
     private boolean isDeferredCompile(OptimizedCallTarget target) {
         // Workaround for https://bugs.eclipse.org/bugs/show_bug.cgi?id=440019
         int threshold = target.getOptionValue(PolyglotCompilerOptions.QueueTimeThreshold);
@@ -319,7 +483,8 @@ public class OptimizedCompilationProfile {
         if (timeElapsed > (threshold * 1_000_000L)) {
 
             int callThreshold = TruffleCompilerOptions.getValue(TruffleMinInvokeThreshold);
-            int callAndLoopThreshold = PolyglotCompilerOptions.getValue(target.getRootNode(), PolyglotCompilerOptions.CompilationThreshold);
+            int callAndLoopThreshold = multiTier ? firstTierCompilationCallAndLoopThreshold
+                            : PolyglotCompilerOptions.getValue(target.getRootNode(), PolyglotCompilerOptions.CompilationThreshold);
 
             // defer compilation
             ensureProfiling(0, Math.min(callThreshold, callAndLoopThreshold));
@@ -345,6 +510,10 @@ public class OptimizedCompilationProfile {
     private void updateProfiledArgumentTypes(Object[] args, Class<?>[] types) {
         CompilerAsserts.neverPartOfCompilation();
         profiledArgumentTypesAssumption.invalidate();
+        if (argumentTypeSpeculationDisabled) {
+            profiledArgumentTypes = null;
+            return;
+        }
         for (int j = 0; j < types.length; j++) {
             types[j] = joinTypes(types[j], classOf(args[j]));
         }
@@ -385,6 +554,18 @@ public class OptimizedCompilationProfile {
         if (increaseCallsThreshold > 0) {
             this.compilationCallThreshold += increaseCallsThreshold;
         }
+
+        if (multiTier) {
+            int increaseFirstTierCallAndLoopThreshold = callsAndLoop - (this.firstTierCompilationCallAndLoopThreshold - this.interpreterCallAndLoopCount);
+            if (increaseFirstTierCallAndLoopThreshold > 0) {
+                this.firstTierCompilationCallAndLoopThreshold += increaseFirstTierCallAndLoopThreshold;
+            }
+
+            int increaseFirstTierCallsThreshold = calls - (this.firstTierCompilationCallThreshold - this.interpreterCallCount);
+            if (increaseFirstTierCallsThreshold > 0) {
+                this.firstTierCompilationCallThreshold += increaseFirstTierCallsThreshold;
+            }
+        }
     }
 
     public Map<String, Object> getDebugProperties() {
@@ -394,7 +575,13 @@ public class OptimizedCompilationProfile {
         String invalidations = String.format("%5d", invalidationCount);
         properties.put("Calls/Thres", callsThreshold);
         properties.put("CallsAndLoop/Thres", loopsThreshold);
+        if (multiTier) {
+            properties.put("Tier1Calls", String.format("%7d", firstTierCallCount));
+        }
         properties.put("Inval#", invalidations);
+        if (repeatedInvalidations > 0) {
+            properties.put("RepeatedInval#", String.format("%5d", repeatedInvalidations));
+        }
         return properties;
     }
 
@@ -402,6 +589,22 @@ public class OptimizedCompilationProfile {
         return invalidationCount;
     }
 
+    /**
+     * Returns the number of invalidations that followed the previous invalidation within the
+     * backoff window.
+     */
+    public int getRepeatedInvalidationCount() {
+        return repeatedInvalidations;
+    }
+
+    /**
+     * Returns {@code true} if the call target is no longer compiled because it was invalidated too
+     * often.
+     */
+    public boolean isCompilationDisabled() {
+        return compilationDisabled;
+    }
+
     public int getInterpreterCallAndLoopCount() {
         return interpreterCallAndLoopCount;
     }
@@ -422,6 +625,14 @@ public class OptimizedCompilationProfile {
         return compilationCallThreshold;
     }
 
+    public int getFirstTierCallCount() {
+        return firstTierCallCount;
+    }
+
+    public boolean isMultiTier() {
+        return multiTier;
+    }
+
     public long getTimestamp() {
         return timestamp;
     }
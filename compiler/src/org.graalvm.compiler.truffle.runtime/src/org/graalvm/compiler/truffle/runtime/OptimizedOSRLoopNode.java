@@ -553,25 +553,25 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
 
                 switch (speculatedTag) {
                     case FrameWithoutBoxing.BOOLEAN_TAG:
-                        target.setBoolean(slot, source.getBooleanUnsafe(index, slot, tagsCondition));
+                        target.setBoolean(slot, source.getBooleanUnsafe(index, tagsCondition));
                         break;
                     case FrameWithoutBoxing.BYTE_TAG:
-                        target.setByte(slot, source.getByteUnsafe(index, slot, tagsCondition));
+                        target.setByte(slot, source.getByteUnsafe(index, tagsCondition));
                         break;
                     case FrameWithoutBoxing.DOUBLE_TAG:
-                        target.setDouble(slot, source.getDoubleUnsafe(index, slot, tagsCondition));
+                        target.setDouble(slot, source.getDoubleUnsafe(index, tagsCondition));
                         break;
                     case FrameWithoutBoxing.FLOAT_TAG:
-                        target.setFloat(slot, source.getFloatUnsafe(index, slot, tagsCondition));
+                        target.setFloat(slot, source.getFloatUnsafe(index, tagsCondition));
                         break;
                     case FrameWithoutBoxing.INT_TAG:
-                        target.setInt(slot, source.getIntUnsafe(index, slot, tagsCondition));
+                        target.setInt(slot, source.getIntUnsafe(index, tagsCondition));
                         break;
                     case FrameWithoutBoxing.LONG_TAG:
-                        target.setLong(slot, source.getLongUnsafe(index, slot, tagsCondition));
+                        target.setLong(slot, source.getLongUnsafe(index, tagsCondition));
                         break;
                     case FrameWithoutBoxing.OBJECT_TAG:
-                        target.setObject(slot, source.getObjectUnsafe(index, slot, tagsCondition));
+                        target.setObject(slot, source.getObjectUnsafe(index, tagsCondition));
                         break;
                     default:
                         CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -58,6 +58,29 @@ public final class PolyglotCompilerOptions {
                     category = OptionCategory.EXPERT)
     public static final OptionKey<Integer> QueueTimeThreshold = new OptionKey<>(50000);
 
+    @Option(help = "Enable multi-tier compilation. Guest language roots are first compiled without inlining and with fewer optimizations " +
+                    "once they reach the first tier compilation threshold. They are compiled again with all optimizations once they reach the compilation threshold.",
+                    category = OptionCategory.EXPERT)
+    public static final OptionKey<Boolean> MultiTier = new OptionKey<>(false);
+
+    @Option(help = "Minimum number of invocations or loop iterations needed to compile a guest language root in the first tier, if multi-tier compilation is enabled.",
+                    category = OptionCategory.EXPERT)
+    public static final OptionKey<Integer> FirstTierCompilationThreshold = new OptionKey<>(100);
+
+    @Option(help = "Path of a file used to persist compilation profiles of guest language roots across runs. " +
+                    "Profiles are saved at shutdown and used at startup to compile roots that were hot in a previous run immediately.",
+                    category = OptionCategory.EXPERT)
+    public static final OptionKey<String> ProfileStore = new OptionKey<>("");
+
+    @Option(help = "Base inlining decisions on the number of compiler graph nodes of guest language roots after partial evaluation instead of their number of AST nodes. " +
+                    "The graph size of a root is computed once and shared by the compilations of all its callers.",
+                    category = OptionCategory.EXPERT)
+    public static final OptionKey<Boolean> InliningGraphSize = new OptionKey<>(false);
+
+    @Option(help = "Maximum number of compiler graph nodes per compilation unit, if inlining is based on the graph size.",
+                    category = OptionCategory.EXPERT)
+    public static final OptionKey<Integer> InliningMaxGraphSize = new OptionKey<>(50000);
+
     /*
      * TODO planned options:
      *
@@ -110,6 +133,11 @@ public final class PolyglotCompilerOptions {
     private static void initializePolyglotToGraalMapping() {
         TRUFFLE_TO_GRAAL.put(CompilationThreshold, TruffleCompilerOptions.TruffleCompilationThreshold);
         TRUFFLE_TO_GRAAL.put(QueueTimeThreshold, TruffleCompilerOptions.TruffleTimeThreshold);
+        TRUFFLE_TO_GRAAL.put(MultiTier, TruffleCompilerOptions.TruffleMultiTier);
+        TRUFFLE_TO_GRAAL.put(FirstTierCompilationThreshold, TruffleCompilerOptions.TruffleFirstTierCompilationThreshold);
+        TRUFFLE_TO_GRAAL.put(ProfileStore, TruffleCompilerOptions.TruffleProfileStore);
+        TRUFFLE_TO_GRAAL.put(InliningGraphSize, TruffleCompilerOptions.TruffleInliningGraphSize);
+        TRUFFLE_TO_GRAAL.put(InliningMaxGraphSize, TruffleCompilerOptions.TruffleInliningMaxGraphSize);
     }
 
     @SuppressWarnings("unchecked")
@@ -73,7 +73,7 @@ public class TruffleInlining implements Iterable<TruffleInliningDecision>, Truff
             return Collections.emptyList();
         }
         int[] visitedNodes = {0};
-        int nodeCount = sourceTarget.getNonTrivialNodeCount();
+        int nodeCount = policy.getNodeCount(sourceTarget);
         List<TruffleInliningDecision> exploredCallSites = exploreCallSites(new ArrayList<>(Arrays.asList(sourceTarget)), nodeCount, policy, visitedNodes, new HashMap<>());
         return decideInlining(exploredCallSites, policy, nodeCount, options);
     }
@@ -134,11 +134,15 @@ public class TruffleInlining implements Iterable<TruffleInliningDecision>, Truff
 
         List<TruffleInliningDecision> childCallSites = Collections.emptyList();
         double frequency = calculateFrequency(parentTarget, callNode);
-        int nodeCount = callNode.getCurrentCallTarget().getNonTrivialNodeCount();
+        int nodeCount = policy.getNodeCount(callNode.getCurrentCallTarget());
 
         int recursions = countRecursions(callStack);
         int deepNodeCount = nodeCount;
 
+        /*
+         * The exploration budget counts explored call sites and stays derived from the AST based
+         * TruffleInliningMaxCallerSize, independent of the unit the policy measures sizes in.
+         */
         if (visitedNodes[0] < (100 * TruffleCompilerOptions.getValue(TruffleInliningMaxCallerSize)) &&
                         callStack.size() < 15 &&
                         recursions <= TruffleCompilerOptions.getValue(TruffleMaximumRecursiveInlining)) {
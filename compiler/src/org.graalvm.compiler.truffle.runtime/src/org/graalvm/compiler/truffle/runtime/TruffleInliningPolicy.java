@@ -32,4 +32,11 @@ public interface TruffleInliningPolicy {
 
     double calculateScore(TruffleInliningProfile profile);
 
+    /**
+     * Returns the size of a call target in the unit used by {@link #isAllowed}.
+     */
+    default int getNodeCount(OptimizedCallTarget target) {
+        return target.getNonTrivialNodeCount();
+    }
+
 }
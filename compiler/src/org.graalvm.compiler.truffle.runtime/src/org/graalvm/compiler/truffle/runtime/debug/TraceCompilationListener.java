@@ -101,6 +101,29 @@ public final class TraceCompilationListener extends AbstractGraalTruffleRuntimeL
         runtime.logEvent(0, "opt deopt", target.toString(), target.getDebugProperties(null));
     }
 
+    @Override
+    public void onCompilationBackoff(OptimizedCallTarget target, int repeatedInvalidations, int reprofileCount, Object source) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        addSourceInfo(properties, source);
+        properties.put("Repeated", repeatedInvalidations);
+        properties.put("Reprofile", reprofileCount);
+        runtime.logEvent(0, "opt backoff", target.toString(), properties);
+    }
+
+    @Override
+    public void onSpeculationDisabled(OptimizedCallTarget target, String speculation) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("Speculation", speculation);
+        runtime.logEvent(0, "opt spec off", target.toString(), properties);
+    }
+
+    @Override
+    public void onCompilationDisabled(OptimizedCallTarget target, int repeatedInvalidations) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("Repeated", repeatedInvalidations);
+        runtime.logEvent(0, "opt disabled", target.toString(), properties);
+    }
+
     @Override
     public void onCompilationTruffleTierFinished(OptimizedCallTarget target, TruffleInlining inliningDecision, GraphInfo graph) {
         final Times current = currentCompilation.get();
@@ -139,6 +162,7 @@ public final class TraceCompilationListener extends AbstractGraalTruffleRuntimeL
                         (timeCompilationFinished - compilation.timePartialEvaluationFinished) / 1e6));
         properties.put("DirectCallNodes", String.format("I %4d/D %4d", inlinedCalls, dispatchedCalls));
         properties.put("GraalNodes", String.format("%5d/%5d", compilation.nodeCountPartialEval, nodeCountLowered));
+        properties.put("Tier", target.isFirstTierCompilation() ? OptimizedCallTarget.FIRST_TIER : OptimizedCallTarget.LAST_TIER);
         properties.put("CodeSize", result.getTargetCodeSize());
         properties.put("CodeAddress", "0x" + Long.toHexString(target.getCodeAddress()));
         properties.put("Source", formatSourceSection(target.getRootNode().getSourceSection()));
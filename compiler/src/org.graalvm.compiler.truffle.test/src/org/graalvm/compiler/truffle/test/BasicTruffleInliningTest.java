@@ -26,11 +26,19 @@ package org.graalvm.compiler.truffle.test;
 
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleFunctionInlining;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleInliningMaxCallerSize;
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleInliningMaxGraphSize;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleMaximumRecursiveInlining;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.overrideOptions;
 
+import org.graalvm.compiler.truffle.common.TruffleCompiler;
 import org.graalvm.compiler.truffle.common.TruffleCompilerOptions;
+import org.graalvm.compiler.truffle.runtime.DefaultInliningPolicy;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.runtime.GraphSizeInliningPolicy;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.compiler.truffle.runtime.OptimizedDirectCallNode;
 import org.graalvm.compiler.truffle.runtime.TruffleInlining;
+import org.graalvm.compiler.truffle.runtime.TruffleInliningPolicy;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -92,6 +100,54 @@ public class BasicTruffleInliningTest extends TruffleInliningTest {
         assertNotInlined(decisions, "callee");
     }
 
+    @Test
+    public void testDontInlineFunctionsBigInPolicyUnit() {
+        // sizes as reported by the policy, e.g. the graph size after partial evaluation
+        policy = new DefaultInliningPolicy() {
+            @Override
+            public int getNodeCount(OptimizedCallTarget target) {
+                return "callee".equals(target.getName()) ? TruffleCompilerOptions.getValue(TruffleInliningMaxCallerSize) : super.getNodeCount(target);
+            }
+        };
+        // @formatter:off
+        TruffleInlining decisions = builder.
+                target("callee").
+                target("caller").
+                    calls("callee").
+                buildDecisions();
+        // @formatter:on
+        assertNotInlined(decisions, "callee");
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testGraphSizePolicy() {
+        TruffleCompiler compiler = GraalTruffleRuntime.getRuntime().getTruffleCompiler();
+        // @formatter:off
+        OptimizedCallTarget caller = builder.
+                target("callee", 10).
+                target("caller").
+                    calls("callee").
+                buildTarget();
+        // @formatter:on
+        OptimizedCallTarget callee = ((OptimizedDirectCallNode) ((InlineTestRootNode) caller.getRootNode()).children[0]).getCurrentCallTarget();
+
+        TruffleInliningPolicy graphSizePolicy = new GraphSizeInliningPolicy(compiler, null);
+        int calleeSize = compiler.getGraphSize(callee, new TruffleInlining(callee, new DefaultInliningPolicy()), null);
+        Assert.assertTrue(calleeSize > 0);
+        Assert.assertEquals(calleeSize, graphSizePolicy.getNodeCount(callee));
+        int callerSize = graphSizePolicy.getNodeCount(caller);
+
+        assertInlined(new TruffleInlining(caller, new DefaultInliningPolicy()), "callee");
+        assertInlined(new TruffleInlining(caller, graphSizePolicy), "callee");
+
+        // the same call site is rejected once the graph sizes exceed the graph budget
+        try (TruffleCompilerOptions.TruffleOptionsOverrideScope scope = overrideOptions(TruffleInliningMaxGraphSize, callerSize + calleeSize - 1)) {
+            assertInlined(new TruffleInlining(caller, new DefaultInliningPolicy()), "callee");
+            assertNotInlined(new TruffleInlining(caller, new GraphSizeInliningPolicy(compiler, null)), "callee");
+        }
+    }
+
     @Test
     public void testInlineIntoBigFunctions() {
         // @formatter:off
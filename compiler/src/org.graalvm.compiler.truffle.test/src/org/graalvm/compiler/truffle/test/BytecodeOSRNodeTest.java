@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleOSRCompilationThreshold;
+
+import org.graalvm.compiler.truffle.common.TruffleCompilerOptions;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.api.frame.FrameSlotTypeException;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.BytecodeOSRNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+
+public class BytecodeOSRNodeTest extends TestWithSynchronousCompiling {
+
+    private static final GraalTruffleRuntime runtime = (GraalTruffleRuntime) Truffle.getRuntime();
+
+    private static final int OSR_THRESHOLD = TruffleCompilerOptions.getValue(TruffleOSRCompilationThreshold);
+
+    /*
+     * Test that a long running dispatch loop continues in compiled code and that the frame state
+     * of the interpreter is visible to the OSR compilation.
+     */
+    @Test
+    public void testOSRInSingleInvocation() {
+        FrameDescriptor descriptor = new FrameDescriptor();
+        FrameSlot counter = descriptor.addFrameSlot("counter", FrameSlotKind.Int);
+        CountingDispatchNode dispatch = new CountingDispatchNode(counter);
+        CallTarget target = runtime.createCallTarget(new DispatchRootNode(descriptor, dispatch));
+        Assert.assertEquals(OSR_THRESHOLD * 2, target.call(OSR_THRESHOLD * 2));
+        Assert.assertTrue(dispatch.executedCompiled);
+    }
+
+    /*
+     * Test that a dispatch loop that is not hot enough is never compiled.
+     */
+    @Test
+    public void testNoOSRBelowThreshold() {
+        FrameDescriptor descriptor = new FrameDescriptor();
+        FrameSlot counter = descriptor.addFrameSlot("counter", FrameSlotKind.Int);
+        CountingDispatchNode dispatch = new CountingDispatchNode(counter);
+        CallTarget target = runtime.createCallTarget(new DispatchRootNode(descriptor, dispatch));
+        Assert.assertEquals(OSR_THRESHOLD / 2, target.call(OSR_THRESHOLD / 2));
+        Assert.assertFalse(dispatch.executedCompiled);
+    }
+
+    private static final class DispatchRootNode extends RootNode {
+
+        @Child private CountingDispatchNode dispatch;
+
+        DispatchRootNode(FrameDescriptor descriptor, CountingDispatchNode dispatch) {
+            super(null, descriptor);
+            this.dispatch = dispatch;
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            frame.setInt(dispatch.counter, 0);
+            return dispatch.executeLoop(frame, 0, (int) frame.getArguments()[0]);
+        }
+    }
+
+    /*
+     * Dispatch loop with two targets: 0 increments the counter, 1 checks the loop condition and
+     * jumps back to 0.
+     */
+    private static final class CountingDispatchNode extends Node implements BytecodeOSRNode {
+
+        final FrameSlot counter;
+        boolean executedCompiled;
+        private Object osrMetadata;
+
+        CountingDispatchNode(FrameSlot counter) {
+            this.counter = counter;
+        }
+
+        Object executeLoop(VirtualFrame frame, int startTarget, int limit) {
+            try {
+                int target = startTarget;
+                while (true) {
+                    if (target == 0) {
+                        frame.setInt(counter, frame.getInt(counter) + 1);
+                        target = 1;
+                    } else {
+                        int count = frame.getInt(counter);
+                        if (count >= limit) {
+                            if (CompilerDirectives.inCompiledCode()) {
+                                markCompiled();
+                            }
+                            return count;
+                        }
+                        if (BytecodeOSRNode.pollOSRBackEdge(this)) {
+                            Object result = BytecodeOSRNode.tryOSR(this, 0, limit, frame);
+                            if (result != null) {
+                                return result;
+                            }
+                        }
+                        target = 0;
+                    }
+                }
+            } catch (FrameSlotTypeException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        @CompilerDirectives.TruffleBoundary
+        private void markCompiled() {
+            executedCompiled = true;
+        }
+
+        @Override
+        public Object executeOSR(VirtualFrame osrFrame, int target, Object interpreterState) {
+            return executeLoop(osrFrame, target, (int) interpreterState);
+        }
+
+        @Override
+        public Object getOSRMetadata() {
+            return osrMetadata;
+        }
+
+        @Override
+        public void setOSRMetadata(Object osrMetadata) {
+            this.osrMetadata = osrMetadata;
+        }
+    }
+}
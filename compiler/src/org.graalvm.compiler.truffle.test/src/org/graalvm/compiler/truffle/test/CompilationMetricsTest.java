@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import org.graalvm.compiler.truffle.common.TruffleCompilerOptions;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine.CompilationMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.sl.SLLanguage;
+import com.oracle.truffle.sl.runtime.SLFunction;
+
+public class CompilationMetricsTest extends TestWithSynchronousCompiling {
+
+    @Test
+    public void testCompilationIsCounted() {
+        Context context = Context.create("sl");
+        context.enter();
+        try {
+            CompilationMetrics before = context.getEngine().getCompilationMetrics();
+
+            context.eval("sl", "function metricsTest(a) { return a + 1; }");
+            SLFunction function = SLLanguage.getCurrentContext().getFunctionRegistry().getFunction("metricsTest");
+            OptimizedCallTarget target = (OptimizedCallTarget) function.getCallTarget();
+            int threshold = TruffleCompilerOptions.getValue(TruffleCompilerOptions.TruffleCompilationThreshold);
+            for (int i = 0; i < threshold; i++) {
+                target.call(42L);
+            }
+            assertCompiled(target);
+
+            CompilationMetrics after = context.getEngine().getCompilationMetrics();
+            Assert.assertTrue(after.getCounter("started") > before.getCounter("started"));
+            Assert.assertTrue(after.getCounter("succeeded") > before.getCounter("succeeded"));
+            CompilationMetrics.Histogram graphSize = after.getHistograms().get("truffleTierGraphSize");
+            Assert.assertNotNull(graphSize);
+            Assert.assertTrue(graphSize.getCount() > before.getHistograms().get("truffleTierGraphSize").getCount());
+            Assert.assertTrue(graphSize.getMax() > 0);
+            long bucketSum = 0;
+            for (int i = 0; i < graphSize.getBucketCount(); i++) {
+                bucketSum += graphSize.getBucket(i);
+            }
+            Assert.assertEquals(graphSize.getCount(), bucketSum);
+        } finally {
+            context.leave();
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.compiler.truffle.runtime.OptimizedCompilationProfile;
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.sl.SLLanguage;
+
+public class CompilationProfileStoreTest {
+
+    private static final String SOURCE = "" +
+                    "function warm(n) {\n" +
+                    "  return n + 1;\n" +
+                    "}\n" +
+                    "function cold(n) {\n" +
+                    "  return n - 1;\n" +
+                    "}\n";
+
+    private static final int THRESHOLD = 100;
+    private static final int WARM_CALLS = 20;
+    private static final int COLD_CALLS = 3;
+
+    private static Context createContext(Path store) {
+        return Context.newBuilder("sl").option("compiler.ProfileStore", store.toString()).option("compiler.CompilationThreshold", String.valueOf(THRESHOLD)).build();
+    }
+
+    private static OptimizedCallTarget getTarget(String name) {
+        return (OptimizedCallTarget) SLLanguage.getCurrentContext().getFunctionRegistry().getFunction(name).getCallTarget();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path directory = Files.createTempDirectory(CompilationProfileStoreTest.class.getSimpleName());
+        Path firstRun = directory.resolve("first.profiles");
+        Path secondRun = directory.resolve("second.profiles");
+        try {
+            Context context = createContext(firstRun);
+            context.enter();
+            try {
+                context.eval("sl", SOURCE);
+                OptimizedCallTarget warm = getTarget("warm");
+                OptimizedCallTarget cold = getTarget("cold");
+                for (int i = 0; i < WARM_CALLS; i++) {
+                    warm.call(42L);
+                }
+                for (int i = 0; i < COLD_CALLS; i++) {
+                    cold.call(42L);
+                }
+                ((GraalTruffleRuntime) Truffle.getRuntime()).saveCompilationProfiles();
+            } finally {
+                context.leave();
+                context.close();
+            }
+            assertTrue(Files.isRegularFile(firstRun));
+
+            // a store that was not loaded yet reads the profiles from the file
+            Files.copy(firstRun, secondRun);
+            context = createContext(secondRun);
+            context.enter();
+            try {
+                context.eval("sl", SOURCE);
+                OptimizedCompilationProfile warm = getTarget("warm").getCompilationProfile();
+                assertEquals(WARM_CALLS, warm.getInterpreterCallCount());
+                assertEquals(WARM_CALLS, warm.getInterpreterCallAndLoopCount());
+                OptimizedCompilationProfile cold = getTarget("cold").getCompilationProfile();
+                assertEquals(COLD_CALLS, cold.getInterpreterCallCount());
+                assertEquals(COLD_CALLS, cold.getInterpreterCallAndLoopCount());
+                // neither root was hot, seeding must not change the thresholds
+                assertEquals(THRESHOLD, warm.getCompilationCallAndLoopThreshold());
+                assertFalse(getTarget("warm").isValid());
+            } finally {
+                context.leave();
+                context.close();
+            }
+        } finally {
+            Files.deleteIfExists(firstRun);
+            Files.deleteIfExists(secondRun);
+            Files.deleteIfExists(directory);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.graalvm.compiler.truffle.common.TruffleCompilerOptions;
+import org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleOptionsOverrideScope;
+import org.graalvm.compiler.truffle.runtime.CompilationTask;
+import org.graalvm.compiler.truffle.runtime.CompilationTaskQueue;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntimeListener;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+
+public class CompilationTaskQueueTest {
+
+    private static final GraalTruffleRuntime runtime = (GraalTruffleRuntime) Truffle.getRuntime();
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final int COLD_TIMEOUT_MILLIS = 1000;
+
+    private static final Runnable NOOP = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    private TruffleOptionsOverrideScope noCompilationScope;
+
+    @Before
+    public void before() {
+        // the tests only count calls, call targets must not be compiled
+        noCompilationScope = TruffleCompilerOptions.overrideOptions(TruffleCompilerOptions.TruffleCompilation, false);
+    }
+
+    @After
+    public void after() {
+        noCompilationScope.close();
+    }
+
+    private static final class ConstantRootNode extends RootNode {
+
+        ConstantRootNode() {
+            super(null);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return 42;
+        }
+    }
+
+    private static OptimizedCallTarget createTarget(int calls) {
+        OptimizedCallTarget target = (OptimizedCallTarget) runtime.createCallTarget(new ConstantRootNode());
+        call(target, calls);
+        return target;
+    }
+
+    private static void call(OptimizedCallTarget target, int calls) {
+        for (int i = 0; i < calls; i++) {
+            target.call();
+        }
+    }
+
+    @Test
+    public void testHotterTargetFirst() {
+        OptimizedCallTarget cold = createTarget(10);
+        OptimizedCallTarget hot = createTarget(1000);
+        long now = System.nanoTime() + SECOND;
+        CompilationTaskQueue queue = new CompilationTaskQueue(0);
+        CompilationTask coldTask = new CompilationTask(cold, NOOP, false, now);
+        CompilationTask hotTask = new CompilationTask(hot, NOOP, false, now);
+        queue.add(coldTask);
+        queue.add(hotTask);
+        assertTrue(hotTask.getWeight() > coldTask.getWeight());
+        assertSame(hotTask, queue.poll());
+        assertSame(coldTask, queue.poll());
+    }
+
+    @Test
+    public void testRequestedFirst() {
+        OptimizedCallTarget hot = createTarget(1000);
+        // a target that was never called was not submitted by its profile
+        OptimizedCallTarget requested = createTarget(0);
+        long now = System.nanoTime() + SECOND;
+        CompilationTaskQueue queue = new CompilationTaskQueue(0);
+        CompilationTask hotTask = new CompilationTask(hot, NOOP, false, now);
+        CompilationTask requestedTask = new CompilationTask(requested, NOOP, false, now);
+        queue.add(hotTask);
+        queue.add(requestedTask);
+        assertSame(requestedTask, queue.poll());
+        assertSame(hotTask, queue.poll());
+    }
+
+    @Test
+    public void testReweight() {
+        OptimizedCallTarget first = createTarget(10);
+        OptimizedCallTarget second = createTarget(1000);
+        long now = System.nanoTime() + SECOND;
+        CompilationTaskQueue queue = new CompilationTaskQueue(0);
+        CompilationTask firstTask = new CompilationTask(first, NOOP, false, now);
+        CompilationTask secondTask = new CompilationTask(second, NOOP, false, now);
+        queue.add(firstTask);
+        queue.add(secondTask);
+
+        // the first target gets hot while waiting, the second is no longer executed
+        call(first, 100_000);
+        queue.reweight(now + SECOND);
+        assertTrue(firstTask.getWeight() > secondTask.getWeight());
+        assertSame(firstTask, queue.poll());
+        assertSame(secondTask, queue.poll());
+    }
+
+    @Test
+    public void testDropColdTask() {
+        OptimizedCallTarget cold = createTarget(10);
+        OptimizedCallTarget active = createTarget(10);
+        OptimizedCallTarget waitedFor = createTarget(10);
+        long now = System.nanoTime();
+        CompilationTaskQueue queue = new CompilationTaskQueue(COLD_TIMEOUT_MILLIS);
+        CompilationTask coldTask = new CompilationTask(cold, NOOP, false, now);
+        CompilationTask activeTask = new CompilationTask(active, NOOP, false, now);
+        CompilationTask waitedForTask = new CompilationTask(waitedFor, NOOP, true, now);
+        queue.add(coldTask);
+        queue.add(activeTask);
+        queue.add(waitedForTask);
+
+        List<OptimizedCallTarget> dequeued = new ArrayList<>();
+        GraalTruffleRuntimeListener listener = new GraalTruffleRuntimeListener() {
+            @Override
+            public void onCompilationDequeued(OptimizedCallTarget target, Object source, CharSequence reason) {
+                synchronized (dequeued) {
+                    dequeued.add(target);
+                }
+            }
+        };
+        runtime.addListener(listener);
+        try {
+            call(active, 10);
+            queue.reweight(now + 2 * SECOND);
+        } finally {
+            runtime.removeListener(listener);
+        }
+
+        assertTrue(coldTask.isCancelled());
+        assertFalse(activeTask.isCancelled());
+        assertFalse(waitedForTask.isCancelled());
+        assertEquals(2, queue.size());
+        assertFalse(queue.contains(coldTask));
+        synchronized (dequeued) {
+            assertTrue(dequeued.contains(cold));
+            assertFalse(dequeued.contains(active));
+            assertFalse(dequeued.contains(waitedFor));
+        }
+    }
+
+    @Test
+    public void testCancelledTaskRemoved() {
+        OptimizedCallTarget target = createTarget(10);
+        long now = System.nanoTime();
+        CompilationTaskQueue queue = new CompilationTaskQueue(0);
+        CompilationTask task = new CompilationTask(target, NOOP, false, now);
+        queue.add(task);
+        task.cancel(false);
+        queue.reweight(now + SECOND);
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.graalvm.compiler.truffle.runtime.CompilationThreadPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompilationThreadPoolTest {
+
+    private static final int KEEP_ALIVE_MILLIS = 60000;
+
+    /**
+     * Queue that reports a synthetic length to the pool, independent of the tasks it holds.
+     */
+    @SuppressWarnings("serial")
+    private static final class SyntheticQueue extends LinkedBlockingQueue<Runnable> {
+
+        volatile int length;
+
+        @Override
+        public int size() {
+            return length;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return length == 0;
+        }
+    }
+
+    private static final Runnable NOOP = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    private SyntheticQueue queue;
+    private CompilationThreadPool pool;
+    private Path cgroup;
+
+    @Before
+    public void setUp() throws IOException {
+        queue = new SyntheticQueue();
+        cgroup = Files.createTempDirectory("cgroup");
+    }
+
+    @After
+    public void tearDown() throws IOException, InterruptedException {
+        if (pool != null) {
+            pool.shutdownNow();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        Files.walkFileTree(cgroup, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @Test
+    public void testGrowAndShrink() throws InterruptedException {
+        pool = new CompilationThreadPool(4, 2, KEEP_ALIVE_MILLIS, queue, Executors.defaultThreadFactory());
+        assertEquals(1, pool.getCorePoolSize());
+
+        CountDownLatch release = new CountDownLatch(1);
+        queue.length = 5;
+        pool.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        // one thread plus one per two queued compilations
+        assertEquals(3, pool.getCorePoolSize());
+        assertEquals(3, pool.getPoolSize());
+
+        queue.length = 100;
+        pool.execute(NOOP);
+        assertEquals(4, pool.getCorePoolSize());
+
+        // surplus threads are released as soon as a task finishes with an empty queue
+        queue.length = 0;
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pool.getCorePoolSize() != 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, pool.getCorePoolSize());
+    }
+
+    @Test
+    public void testFixedSize() throws InterruptedException {
+        pool = new CompilationThreadPool(4, 2, 0, queue, Executors.defaultThreadFactory());
+        assertEquals(4, pool.getCorePoolSize());
+
+        CountDownLatch done = new CountDownLatch(1);
+        pool.execute(done::countDown);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        queue.length = 100;
+        pool.execute(NOOP);
+        assertEquals(4, pool.getCorePoolSize());
+        assertEquals(4, pool.getMaximumPoolSize());
+    }
+
+    @Test
+    public void testNoCGroup() {
+        assertEquals(-1, CompilationThreadPool.readCGroupCPUQuota(cgroup));
+    }
+
+    @Test
+    public void testCGroupV2Quota() throws IOException {
+        write("cpu.max", "150000 100000");
+        assertEquals(2, CompilationThreadPool.readCGroupCPUQuota(cgroup));
+        write("cpu.max", "400000 100000");
+        assertEquals(4, CompilationThreadPool.readCGroupCPUQuota(cgroup));
+    }
+
+    @Test
+    public void testCGroupV2Unlimited() throws IOException {
+        write("cpu.max", "max 100000");
+        // a cgroup v2 file takes precedence over cgroup v1 files
+        write("cpu/cpu.cfs_quota_us", "100000");
+        write("cpu/cpu.cfs_period_us", "100000");
+        assertEquals(-1, CompilationThreadPool.readCGroupCPUQuota(cgroup));
+    }
+
+    @Test
+    public void testCGroupV1Quota() throws IOException {
+        write("cpu/cpu.cfs_quota_us", "50000");
+        write("cpu/cpu.cfs_period_us", "100000");
+        assertEquals(1, CompilationThreadPool.readCGroupCPUQuota(cgroup));
+        write("cpu/cpu.cfs_quota_us", "300000");
+        assertEquals(3, CompilationThreadPool.readCGroupCPUQuota(cgroup));
+    }
+
+    @Test
+    public void testCGroupV1Unlimited() throws IOException {
+        write("cpu/cpu.cfs_quota_us", "-1");
+        write("cpu/cpu.cfs_period_us", "100000");
+        assertEquals(-1, CompilationThreadPool.readCGroupCPUQuota(cgroup));
+    }
+
+    @Test
+    public void testCGroupMalformed() throws IOException {
+        write("cpu.max", "unlimited");
+        assertEquals(-1, CompilationThreadPool.readCGroupCPUQuota(cgroup));
+        write("cpu.max", "abc 100000");
+        assertEquals(-1, CompilationThreadPool.readCGroupCPUQuota(cgroup));
+    }
+
+    private void write(String name, String content) throws IOException {
+        Path file = cgroup.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, (content + "\n").getBytes(StandardCharsets.US_ASCII));
+    }
+}
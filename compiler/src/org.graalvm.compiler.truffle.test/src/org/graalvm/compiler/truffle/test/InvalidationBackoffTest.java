@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.compiler.truffle.common.TruffleCompilerOptions;
+import org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleOptionsOverrideScope;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntimeListener;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.compiler.truffle.runtime.OptimizedCompilationProfile;
+import org.junit.Test;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+
+public class InvalidationBackoffTest extends TestWithSynchronousCompiling {
+
+    private static final GraalTruffleRuntime runtime = (GraalTruffleRuntime) Truffle.getRuntime();
+
+    private static final class AssumptionRootNode extends RootNode {
+
+        @CompilationFinal Assumption assumption = Truffle.getRuntime().createAssumption();
+
+        AssumptionRootNode() {
+            super(null);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            if (frame.getArguments().length > 0) {
+                return frame.getArguments()[0];
+            }
+            return assumption.isValid() ? 42 : 41;
+        }
+    }
+
+    private static final class SpeculationDisabledListener implements GraalTruffleRuntimeListener {
+
+        int count;
+
+        @Override
+        public void onSpeculationDisabled(OptimizedCallTarget target, String speculation) {
+            count++;
+        }
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testRepeatedInvalidationsDisableCompilation() {
+        int limit = 3;
+        try (TruffleOptionsOverrideScope s = TruffleCompilerOptions.overrideOptions(TruffleCompilerOptions.TruffleInvalidationBackoffWindow, 60_000,
+                        TruffleCompilerOptions.TruffleInvalidationCompilationLimit, limit)) {
+            AssumptionRootNode rootNode = new AssumptionRootNode();
+            OptimizedCallTarget target = (OptimizedCallTarget) runtime.createCallTarget(rootNode);
+            target.call();
+            OptimizedCompilationProfile profile = target.getCompilationProfile();
+
+            int previousThreshold = profile.getCompilationCallAndLoopThreshold();
+            for (int i = 0; i <= limit; i++) {
+                rootNode.assumption = Truffle.getRuntime().createAssumption();
+                target.compile();
+                assertCompiled(target);
+                rootNode.assumption.invalidate();
+                assertNotCompiled(target);
+                assertEquals(i, profile.getRepeatedInvalidationCount());
+                if (i > 0) {
+                    // the reprofiling delay grows with every repeated invalidation
+                    assertTrue(profile.getCompilationCallAndLoopThreshold() > previousThreshold);
+                }
+                previousThreshold = profile.getCompilationCallAndLoopThreshold();
+            }
+            assertTrue(profile.isCompilationDisabled());
+
+            rootNode.assumption = Truffle.getRuntime().createAssumption();
+            for (int i = 0; i < previousThreshold * 2; i++) {
+                assertEquals(42, target.call());
+            }
+            assertNotCompiled(target);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testInvalidationsOutsideWindowAreNotRepeated() throws InterruptedException {
+        try (TruffleOptionsOverrideScope s = TruffleCompilerOptions.overrideOptions(TruffleCompilerOptions.TruffleInvalidationBackoffWindow, 1)) {
+            AssumptionRootNode rootNode = new AssumptionRootNode();
+            OptimizedCallTarget target = (OptimizedCallTarget) runtime.createCallTarget(rootNode);
+            target.call();
+            OptimizedCompilationProfile profile = target.getCompilationProfile();
+            for (int i = 0; i < 3; i++) {
+                rootNode.assumption = Truffle.getRuntime().createAssumption();
+                target.compile();
+                assertCompiled(target);
+                rootNode.assumption.invalidate();
+                assertEquals(0, profile.getRepeatedInvalidationCount());
+                Thread.sleep(10);
+            }
+            assertFalse(profile.isCompilationDisabled());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testRepeatedInvalidationsDisableArgumentTypeSpeculation() {
+        int limit = 2;
+        try (TruffleOptionsOverrideScope s = TruffleCompilerOptions.overrideOptions(TruffleCompilerOptions.TruffleInvalidationBackoffWindow, 60_000,
+                        TruffleCompilerOptions.TruffleInvalidationSpeculationLimit, limit, TruffleCompilerOptions.TruffleInvalidationCompilationLimit, 0)) {
+            AssumptionRootNode rootNode = new AssumptionRootNode();
+            OptimizedCallTarget target = (OptimizedCallTarget) runtime.createCallTarget(rootNode);
+            target.callDirect(1);
+            OptimizedCompilationProfile profile = target.getCompilationProfile();
+            assertNotNull(profile.getProfiledArgumentTypes());
+
+            SpeculationDisabledListener listener = new SpeculationDisabledListener();
+            runtime.addListener(listener);
+            try {
+                // invalidations by guest language assumptions do not disable speculation
+                for (int i = 0; i < limit; i++) {
+                    rootNode.assumption = Truffle.getRuntime().createAssumption();
+                    target.compile();
+                    assertCompiled(target);
+                    rootNode.assumption.invalidate();
+                    assertNotCompiled(target);
+                    assertEquals(i, profile.getRepeatedInvalidationCount());
+                }
+                assertEquals(0, listener.count);
+                assertNotNull(profile.getProfiledArgumentTypes());
+
+                // the next repeated invalidation is caused by the argument type profile
+                target.compile();
+                assertCompiled(target);
+                target.callDirect("a");
+                assertNotCompiled(target);
+                assertEquals(limit, profile.getRepeatedInvalidationCount());
+                assertNull(profile.getProfiledArgumentTypes());
+                assertEquals(1, listener.count);
+
+                // argument types are not profiled again
+                target.callDirect(2);
+                target.callDirect("b");
+                assertNull(profile.getProfiledArgumentTypes());
+                assertEquals(1, listener.count);
+                assertFalse(profile.isCompilationDisabled());
+            } finally {
+                runtime.removeListener(listener);
+            }
+        }
+    }
+}
@@ -54,6 +54,12 @@ public class ObjectState {
     private LockState locks;
     private boolean ensureVirtualized;
 
+    /**
+     * A heap allocated copy of the virtual object that holds the current entries, or {@code null}.
+     * It is invalidated whenever an entry changes.
+     */
+    private ValueNode copy;
+
     private EscapeObjectState cachedState;
 
     /**
@@ -89,6 +95,7 @@ public class ObjectState {
         locks = other.locks;
         cachedState = other.cachedState;
         ensureVirtualized = other.ensureVirtualized;
+        copy = other.copy;
     }
 
     public ObjectState cloneState() {
@@ -171,6 +178,7 @@ public class ObjectState {
     public void setEntry(int index, ValueNode value) {
         assert isVirtual();
         cachedState = null;
+        copy = null;
         entries[index] = value;
     }
 
@@ -180,9 +188,20 @@ public class ObjectState {
         materializedValue = materialized;
         entries = null;
         cachedState = null;
+        copy = null;
         assert !isVirtual();
     }
 
+    public ValueNode getCopy() {
+        assert isVirtual();
+        return copy;
+    }
+
+    public void setCopy(ValueNode copy) {
+        assert isVirtual();
+        this.copy = copy;
+    }
+
     public void updateMaterializedValue(ValueNode value) {
         assert !isVirtual();
         assert value != null;
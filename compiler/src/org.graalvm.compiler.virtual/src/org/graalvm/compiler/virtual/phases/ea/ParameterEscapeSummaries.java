@@ -0,0 +1,599 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.virtual.phases.ea;
+
+import static org.graalvm.compiler.bytecode.Bytecodes.AALOAD;
+import static org.graalvm.compiler.bytecode.Bytecodes.AASTORE;
+import static org.graalvm.compiler.bytecode.Bytecodes.ALOAD;
+import static org.graalvm.compiler.bytecode.Bytecodes.ALOAD_0;
+import static org.graalvm.compiler.bytecode.Bytecodes.ALOAD_3;
+import static org.graalvm.compiler.bytecode.Bytecodes.ARETURN;
+import static org.graalvm.compiler.bytecode.Bytecodes.ARRAYLENGTH;
+import static org.graalvm.compiler.bytecode.Bytecodes.ASTORE;
+import static org.graalvm.compiler.bytecode.Bytecodes.ASTORE_3;
+import static org.graalvm.compiler.bytecode.Bytecodes.ATHROW;
+import static org.graalvm.compiler.bytecode.Bytecodes.BALOAD;
+import static org.graalvm.compiler.bytecode.Bytecodes.BASTORE;
+import static org.graalvm.compiler.bytecode.Bytecodes.CALOAD;
+import static org.graalvm.compiler.bytecode.Bytecodes.CASTORE;
+import static org.graalvm.compiler.bytecode.Bytecodes.DALOAD;
+import static org.graalvm.compiler.bytecode.Bytecodes.DASTORE;
+import static org.graalvm.compiler.bytecode.Bytecodes.DRETURN;
+import static org.graalvm.compiler.bytecode.Bytecodes.DSTORE;
+import static org.graalvm.compiler.bytecode.Bytecodes.DUP2;
+import static org.graalvm.compiler.bytecode.Bytecodes.DUP2_X1;
+import static org.graalvm.compiler.bytecode.Bytecodes.DUP2_X2;
+import static org.graalvm.compiler.bytecode.Bytecodes.DUP;
+import static org.graalvm.compiler.bytecode.Bytecodes.DUP_X1;
+import static org.graalvm.compiler.bytecode.Bytecodes.DUP_X2;
+import static org.graalvm.compiler.bytecode.Bytecodes.FALOAD;
+import static org.graalvm.compiler.bytecode.Bytecodes.FASTORE;
+import static org.graalvm.compiler.bytecode.Bytecodes.FRETURN;
+import static org.graalvm.compiler.bytecode.Bytecodes.FSTORE;
+import static org.graalvm.compiler.bytecode.Bytecodes.GETFIELD;
+import static org.graalvm.compiler.bytecode.Bytecodes.GETSTATIC;
+import static org.graalvm.compiler.bytecode.Bytecodes.GOTO;
+import static org.graalvm.compiler.bytecode.Bytecodes.GOTO_W;
+import static org.graalvm.compiler.bytecode.Bytecodes.IALOAD;
+import static org.graalvm.compiler.bytecode.Bytecodes.IASTORE;
+import static org.graalvm.compiler.bytecode.Bytecodes.INSTANCEOF;
+import static org.graalvm.compiler.bytecode.Bytecodes.INVOKEDYNAMIC;
+import static org.graalvm.compiler.bytecode.Bytecodes.INVOKEINTERFACE;
+import static org.graalvm.compiler.bytecode.Bytecodes.INVOKESPECIAL;
+import static org.graalvm.compiler.bytecode.Bytecodes.INVOKESTATIC;
+import static org.graalvm.compiler.bytecode.Bytecodes.INVOKEVIRTUAL;
+import static org.graalvm.compiler.bytecode.Bytecodes.IRETURN;
+import static org.graalvm.compiler.bytecode.Bytecodes.ISTORE;
+import static org.graalvm.compiler.bytecode.Bytecodes.ISTORE_0;
+import static org.graalvm.compiler.bytecode.Bytecodes.JSR;
+import static org.graalvm.compiler.bytecode.Bytecodes.JSR_W;
+import static org.graalvm.compiler.bytecode.Bytecodes.LALOAD;
+import static org.graalvm.compiler.bytecode.Bytecodes.LASTORE;
+import static org.graalvm.compiler.bytecode.Bytecodes.LOOKUPSWITCH;
+import static org.graalvm.compiler.bytecode.Bytecodes.LRETURN;
+import static org.graalvm.compiler.bytecode.Bytecodes.LSTORE;
+import static org.graalvm.compiler.bytecode.Bytecodes.MULTIANEWARRAY;
+import static org.graalvm.compiler.bytecode.Bytecodes.PUTFIELD;
+import static org.graalvm.compiler.bytecode.Bytecodes.PUTSTATIC;
+import static org.graalvm.compiler.bytecode.Bytecodes.RET;
+import static org.graalvm.compiler.bytecode.Bytecodes.RETURN;
+import static org.graalvm.compiler.bytecode.Bytecodes.SALOAD;
+import static org.graalvm.compiler.bytecode.Bytecodes.SASTORE;
+import static org.graalvm.compiler.bytecode.Bytecodes.SWAP;
+import static org.graalvm.compiler.bytecode.Bytecodes.TABLESWITCH;
+
+import java.util.ArrayDeque;
+
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.EconomicSet;
+import org.graalvm.collections.Equivalence;
+import org.graalvm.compiler.bytecode.BytecodeLookupSwitch;
+import org.graalvm.compiler.bytecode.BytecodeStream;
+import org.graalvm.compiler.bytecode.BytecodeSwitch;
+import org.graalvm.compiler.bytecode.BytecodeTableSwitch;
+import org.graalvm.compiler.bytecode.Bytecodes;
+
+import jdk.vm.ci.meta.ExceptionHandler;
+import jdk.vm.ci.meta.JavaField;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.JavaMethod;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.Signature;
+
+/**
+ * Computes and caches which object arguments of a method are <em>local</em>: neither the argument
+ * nor any object reachable from it escapes the method (it is not stored to the heap, returned,
+ * thrown or passed to code that may let it escape) and the method does not write to it.
+ *
+ * The summaries are computed by a flow-sensitive abstract interpretation of the bytecode that
+ * tracks, for every local and stack slot, the set of arguments it may be derived from. Calls are
+ * resolved with the summaries of statically bound callees up to a fixed depth; every other call
+ * lets all of its arguments escape.
+ *
+ * An instance belongs to a single compilation, so that summaries never outlive a redefinition of
+ * the methods they were computed from.
+ */
+public final class ParameterEscapeSummaries {
+
+    /**
+     * The summary of a method. Bit {@code i} of a mask corresponds to the {@code i}th argument,
+     * counting the receiver of non-static methods.
+     */
+    static final class Summary {
+        static final Summary ESCAPING = new Summary(-1L, -1L);
+
+        private final long escaping;
+        private final long written;
+
+        Summary(long escaping, long written) {
+            this.escaping = escaping;
+            this.written = written;
+        }
+
+        boolean isLocal(int argument) {
+            return argument < Long.SIZE && (escaping & (1L << argument)) == 0 && (written & (1L << argument)) == 0;
+        }
+
+        boolean doesNotEscape(int argument) {
+            return argument < Long.SIZE && (escaping & (1L << argument)) == 0;
+        }
+
+        boolean isNotWritten(int argument) {
+            return argument < Long.SIZE && (written & (1L << argument)) == 0;
+        }
+    }
+
+    private final int maxDepth;
+    private final int maxBytecodeSize;
+    private final EconomicMap<ResolvedJavaMethod, Summary> summaries = EconomicMap.create(Equivalence.DEFAULT);
+
+    /**
+     * The methods currently being analyzed by this instance.
+     */
+    private final EconomicSet<ResolvedJavaMethod> inProgress = EconomicSet.create(Equivalence.DEFAULT);
+
+    public ParameterEscapeSummaries(int maxDepth, int maxBytecodeSize) {
+        this.maxDepth = maxDepth;
+        this.maxBytecodeSize = maxBytecodeSize;
+    }
+
+    /**
+     * Determines if the argument at index {@code argument} (counting the receiver) of a call to
+     * {@code method} is local to the method.
+     */
+    public boolean isLocalArgument(ResolvedJavaMethod method, int argument) {
+        return getSummary(method, 0).isLocal(argument);
+    }
+
+    Summary getSummary(ResolvedJavaMethod method, int depth) {
+        Summary summary = summaries.get(method);
+        if (summary != null) {
+            return summary;
+        }
+        if (depth > maxDepth || !method.hasBytecodes() || method.getCodeSize() > maxBytecodeSize) {
+            // not cached since the callee may be analyzable from a shallower call site
+            return Summary.ESCAPING;
+        }
+        if (inProgress.contains(method)) {
+            // recursive calls see the pessimistic summary
+            return Summary.ESCAPING;
+        }
+        inProgress.add(method);
+        try {
+            summary = new Analysis(method, depth).run();
+        } finally {
+            inProgress.remove(method);
+        }
+        summaries.put(method, summary);
+        return summary;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class UnsupportedBytecodeException extends RuntimeException {
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private static final class Frame {
+        final long[] locals;
+        final long[] stack;
+        int stackSize;
+
+        Frame(int maxLocals, int maxStack) {
+            this.locals = new long[maxLocals];
+            this.stack = new long[maxStack];
+        }
+
+        Frame(Frame other) {
+            this.locals = other.locals.clone();
+            this.stack = other.stack.clone();
+            this.stackSize = other.stackSize;
+        }
+
+        void push(long value) {
+            if (stackSize >= stack.length) {
+                throw new UnsupportedBytecodeException();
+            }
+            stack[stackSize++] = value;
+        }
+
+        void push(JavaKind kind, long value) {
+            if (kind != JavaKind.Void) {
+                push(kind == JavaKind.Object ? value : 0L);
+                if (kind.needsTwoSlots()) {
+                    push(0L);
+                }
+            }
+        }
+
+        long pop() {
+            if (stackSize <= 0) {
+                throw new UnsupportedBytecodeException();
+            }
+            return stack[--stackSize];
+        }
+
+        long pop(JavaKind kind) {
+            if (kind.needsTwoSlots()) {
+                pop();
+            }
+            return pop();
+        }
+
+        void pop(int slots) {
+            for (int i = 0; i < slots; i++) {
+                pop();
+            }
+        }
+
+        long peek(int offset) {
+            if (stackSize - 1 - offset < 0) {
+                throw new UnsupportedBytecodeException();
+            }
+            return stack[stackSize - 1 - offset];
+        }
+
+        void store(int index, long value) {
+            if (index >= locals.length) {
+                throw new UnsupportedBytecodeException();
+            }
+            locals[index] = value;
+        }
+
+        /**
+         * Merges {@code other} into this frame and returns true if this frame changed.
+         */
+        boolean merge(Frame other) {
+            if (stackSize != other.stackSize) {
+                throw new UnsupportedBytecodeException();
+            }
+            boolean changed = false;
+            for (int i = 0; i < locals.length; i++) {
+                long merged = locals[i] | other.locals[i];
+                changed |= merged != locals[i];
+                locals[i] = merged;
+            }
+            for (int i = 0; i < stackSize; i++) {
+                long merged = stack[i] | other.stack[i];
+                changed |= merged != stack[i];
+                stack[i] = merged;
+            }
+            return changed;
+        }
+    }
+
+    private final class Analysis {
+        private final ResolvedJavaMethod method;
+        private final int depth;
+        private final BytecodeStream stream;
+        private final Frame[] frames;
+        private final ArrayDeque<Integer> worklist = new ArrayDeque<>();
+        private long escaping;
+        private long written;
+
+        Analysis(ResolvedJavaMethod method, int depth) {
+            this.method = method;
+            this.depth = depth;
+            byte[] code = method.getCode();
+            this.stream = new BytecodeStream(code);
+            this.frames = new Frame[code.length];
+        }
+
+        Summary run() {
+            try {
+                Frame entry = new Frame(method.getMaxLocals(), method.getMaxStackSize());
+                int slot = 0;
+                int argument = 0;
+                if (!method.isStatic()) {
+                    entry.store(slot++, argumentBit(argument++));
+                }
+                Signature signature = method.getSignature();
+                for (int i = 0; i < signature.getParameterCount(false); i++) {
+                    JavaKind kind = signature.getParameterKind(i);
+                    entry.store(slot, kind == JavaKind.Object ? argumentBit(argument) : 0L);
+                    slot += kind.getSlotCount();
+                    argument++;
+                }
+                mergeInto(0, entry);
+                while (!worklist.isEmpty()) {
+                    int bci = worklist.removeFirst();
+                    interpret(bci, new Frame(frames[bci]));
+                }
+                return new Summary(escaping, written);
+            } catch (UnsupportedBytecodeException e) {
+                return Summary.ESCAPING;
+            }
+        }
+
+        private long argumentBit(int argument) {
+            return argument < Long.SIZE ? 1L << argument : 0L;
+        }
+
+        private void mergeInto(int bci, Frame frame) {
+            if (bci < 0 || bci >= frames.length) {
+                throw new UnsupportedBytecodeException();
+            }
+            if (frames[bci] == null) {
+                frames[bci] = new Frame(frame);
+                worklist.addLast(bci);
+            } else if (frames[bci].merge(frame)) {
+                worklist.addLast(bci);
+            }
+        }
+
+        private void mergeIntoHandlers(int bci, Frame frame) {
+            for (ExceptionHandler handler : method.getExceptionHandlers()) {
+                if (handler.getStartBCI() <= bci && bci < handler.getEndBCI()) {
+                    Frame handlerFrame = new Frame(frame);
+                    handlerFrame.stackSize = 0;
+                    handlerFrame.push(0L);
+                    mergeInto(handler.getHandlerBCI(), handlerFrame);
+                }
+            }
+        }
+
+        private void interpret(int bci, Frame frame) {
+            stream.setBCI(bci);
+            int opcode = stream.currentBC();
+            mergeIntoHandlers(bci, frame);
+            boolean fallThrough = true;
+            switch (opcode) {
+                case ALOAD:
+                    frame.push(frame.locals[stream.readLocalIndex()]);
+                    break;
+                case ASTORE:
+                    frame.store(stream.readLocalIndex(), frame.pop());
+                    break;
+                case ISTORE:
+                case FSTORE:
+                    frame.pop();
+                    frame.store(stream.readLocalIndex(), 0L);
+                    break;
+                case LSTORE:
+                case DSTORE:
+                    frame.pop(2);
+                    frame.store(stream.readLocalIndex(), 0L);
+                    frame.store(stream.readLocalIndex() + 1, 0L);
+                    break;
+                case DUP:
+                    frame.push(frame.peek(0));
+                    break;
+                case DUP_X1:
+                    dupX(frame, 1, 1);
+                    break;
+                case DUP_X2:
+                    dupX(frame, 1, 2);
+                    break;
+                case DUP2:
+                    dupX(frame, 2, 0);
+                    break;
+                case DUP2_X1:
+                    dupX(frame, 2, 1);
+                    break;
+                case DUP2_X2:
+                    dupX(frame, 2, 2);
+                    break;
+                case SWAP: {
+                    long a = frame.pop();
+                    long b = frame.pop();
+                    frame.push(a);
+                    frame.push(b);
+                    break;
+                }
+                case AALOAD:
+                    // elements are reachable from the array
+                    frame.pop();
+                    frame.push(frame.pop());
+                    break;
+                case IALOAD:
+                case FALOAD:
+                case BALOAD:
+                case CALOAD:
+                case SALOAD:
+                    frame.pop(2);
+                    frame.push(0L);
+                    break;
+                case LALOAD:
+                case DALOAD:
+                    frame.pop(2);
+                    frame.push(JavaKind.Long, 0L);
+                    break;
+                case AASTORE:
+                    escaping |= frame.pop();
+                    frame.pop();
+                    written |= frame.pop();
+                    break;
+                case IASTORE:
+                case FASTORE:
+                case BASTORE:
+                case CASTORE:
+                case SASTORE:
+                    frame.pop(2);
+                    written |= frame.pop();
+                    break;
+                case LASTORE:
+                case DASTORE:
+                    frame.pop(3);
+                    written |= frame.pop();
+                    break;
+                case GETSTATIC:
+                    frame.push(lookupField(opcode).getJavaKind(), 0L);
+                    break;
+                case PUTSTATIC:
+                    escaping |= frame.pop(lookupField(opcode).getJavaKind());
+                    break;
+                case GETFIELD: {
+                    // values loaded from an argument are reachable from it
+                    JavaKind kind = lookupField(opcode).getJavaKind();
+                    frame.push(kind, frame.pop());
+                    break;
+                }
+                case PUTFIELD: {
+                    JavaKind kind = lookupField(opcode).getJavaKind();
+                    long value = frame.pop(kind);
+                    if (kind == JavaKind.Object) {
+                        escaping |= value;
+                    }
+                    written |= frame.pop();
+                    break;
+                }
+                case INVOKEVIRTUAL:
+                case INVOKESPECIAL:
+                case INVOKESTATIC:
+                case INVOKEINTERFACE:
+                case INVOKEDYNAMIC:
+                    invoke(frame, opcode);
+                    break;
+                case ARRAYLENGTH:
+                case INSTANCEOF:
+                    frame.pop();
+                    frame.push(0L);
+                    break;
+                case MULTIANEWARRAY:
+                    frame.pop(stream.readUByte(bci + 3));
+                    frame.push(0L);
+                    break;
+                case ARETURN:
+                case ATHROW:
+                    escaping |= frame.pop();
+                    fallThrough = false;
+                    break;
+                case IRETURN:
+                case LRETURN:
+                case FRETURN:
+                case DRETURN:
+                case RETURN:
+                    fallThrough = false;
+                    break;
+                case GOTO:
+                case GOTO_W:
+                    mergeInto(stream.readBranchDest(), frame);
+                    fallThrough = false;
+                    break;
+                case TABLESWITCH:
+                case LOOKUPSWITCH: {
+                    frame.pop();
+                    BytecodeSwitch bytecodeSwitch = opcode == TABLESWITCH ? new BytecodeTableSwitch(stream, bci) : new BytecodeLookupSwitch(stream, bci);
+                    for (int i = 0; i < bytecodeSwitch.numberOfCases(); i++) {
+                        mergeInto(bytecodeSwitch.targetAt(i), frame);
+                    }
+                    mergeInto(bytecodeSwitch.defaultTarget(), frame);
+                    fallThrough = false;
+                    break;
+                }
+                case JSR:
+                case JSR_W:
+                case RET:
+                    throw new UnsupportedBytecodeException();
+                default:
+                    if (opcode >= ALOAD_0 && opcode <= ALOAD_3) {
+                        frame.push(frame.locals[opcode - ALOAD_0]);
+                    } else if (opcode >= ISTORE_0 && opcode <= ASTORE_3) {
+                        int index = (opcode - ISTORE_0) % 4;
+                        int group = (opcode - ISTORE_0) / 4;
+                        long value = frame.pop();
+                        if (group == 1 || group == 3) {
+                            // long and double
+                            frame.pop();
+                            frame.store(index + 1, 0L);
+                        }
+                        frame.store(index, group == 4 ? value : 0L);
+                    } else {
+                        // all other instructions only consume and produce primitive values
+                        int effect = Bytecodes.stackEffectOf(opcode);
+                        if (effect < 0) {
+                            frame.pop(-effect);
+                        } else {
+                            for (int i = 0; i < effect; i++) {
+                                frame.push(0L);
+                            }
+                        }
+                        if (Bytecodes.isBranch(opcode)) {
+                            mergeInto(stream.readBranchDest(), frame);
+                        }
+                    }
+                    break;
+            }
+            if (fallThrough) {
+                mergeInto(stream.nextBCI(), frame);
+            }
+        }
+
+        /**
+         * Duplicates the top {@code size} slots and inserts them below the next {@code skip}
+         * slots.
+         */
+        private void dupX(Frame frame, int size, int skip) {
+            long[] top = new long[size + skip];
+            for (int i = top.length - 1; i >= 0; i--) {
+                top[i] = frame.pop();
+            }
+            for (int i = skip; i < top.length; i++) {
+                frame.push(top[i]);
+            }
+            for (long value : top) {
+                frame.push(value);
+            }
+        }
+
+        private JavaField lookupField(int opcode) {
+            return method.getConstantPool().lookupField(stream.readCPI(), method, opcode);
+        }
+
+        private void invoke(Frame frame, int opcode) {
+            int cpi = opcode == INVOKEDYNAMIC ? stream.readCPI4() : stream.readCPI();
+            JavaMethod target = method.getConstantPool().lookupMethod(cpi, opcode);
+            Signature signature = target.getSignature();
+            boolean hasReceiver = opcode != INVOKESTATIC && opcode != INVOKEDYNAMIC;
+            int parameterCount = signature.getParameterCount(false);
+            long[] arguments = new long[parameterCount + (hasReceiver ? 1 : 0)];
+            for (int i = parameterCount - 1; i >= 0; i--) {
+                arguments[i + (hasReceiver ? 1 : 0)] = frame.pop(signature.getParameterKind(i));
+            }
+            if (hasReceiver) {
+                arguments[0] = frame.pop();
+            }
+            Summary callee = Summary.ESCAPING;
+            if (opcode != INVOKEDYNAMIC && target instanceof ResolvedJavaMethod) {
+                ResolvedJavaMethod resolved = (ResolvedJavaMethod) target;
+                if (opcode == INVOKESTATIC || opcode == INVOKESPECIAL || resolved.canBeStaticallyBound()) {
+                    callee = getSummary(resolved, depth + 1);
+                }
+            }
+            for (int i = 0; i < arguments.length; i++) {
+                if (!callee.doesNotEscape(i)) {
+                    escaping |= arguments[i];
+                }
+                if (!callee.isNotWritten(i)) {
+                    written |= arguments[i];
+                }
+            }
+            // a result derived from an argument would have let that argument escape
+            frame.push(signature.getReturnKind(), 0L);
+        }
+    }
+}
@@ -26,6 +26,7 @@ package org.graalvm.compiler.virtual.phases.ea;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.graalvm.compiler.debug.DebugCloseable;
@@ -176,6 +177,12 @@ public abstract class PartialEscapeBlockState<T extends PartialEscapeBlockState<
         }
     }
 
+    public void setCopy(int object, ValueNode copy) {
+        if (objectStates[object].getCopy() != copy) {
+            getObjectStateForModification(object).setCopy(copy);
+        }
+    }
+
     public void updateMaterializedValue(int object, ValueNode value) {
         if (objectStates[object].getMaterializedValue() != value) {
             getObjectStateForModification(object).updateMaterializedValue(value);
@@ -244,6 +251,54 @@ public abstract class PartialEscapeBlockState<T extends PartialEscapeBlockState<
         });
     }
 
+    /**
+     * Allocates a copy of the given virtual object before the given fixed node while the object
+     * itself stays virtual. This is only correct if the copy cannot be distinguished from the
+     * object, i.e., if the copy does not escape and is never modified. The copy is reused until an
+     * entry of the object changes. Returns {@code null} if the object cannot be copied.
+     */
+    @SuppressWarnings("try")
+    public ValueNode materializeCopyBefore(FixedNode fixed, VirtualObjectNode virtual, GraphEffectList materializeEffects) {
+        ObjectState obj = getObjectState(virtual);
+        assert obj.isVirtual() && !obj.hasLocks();
+        if (obj.getCopy() != null) {
+            return obj.getCopy();
+        }
+        ValueNode[] entries = obj.getEntries().clone();
+        for (ValueNode entry : entries) {
+            if (entry instanceof VirtualObjectNode) {
+                return null;
+            }
+        }
+        VirtualObjectNode copyVirtual = virtual.duplicate();
+        ValueNode representation = copyVirtual.getMaterializedRepresentation(fixed, entries, null);
+        if (!(representation instanceof AllocatedObjectNode)) {
+            return null;
+        }
+        AllocatedObjectNode copy = (AllocatedObjectNode) representation;
+        materializeEffects.add("materializeCopyBefore", new Effect() {
+            @Override
+            public void apply(StructuredGraph graph, ArrayList<Node> obsoleteNodes) {
+                graph.addWithoutUnique(copyVirtual);
+                CommitAllocationNode commit;
+                try (DebugCloseable context = graph.withNodeSourcePosition(NodeSourcePosition.placeholder(graph.method()))) {
+                    commit = graph.add(new CommitAllocationNode());
+                    graph.addBeforeFixed(fixed, commit);
+                }
+                graph.addWithoutUnique(copy);
+                commit.getVirtualObjects().add(copyVirtual);
+                copy.setCommit(commit);
+                for (ValueNode value : entries) {
+                    commit.getValues().add(graph.addOrUniqueWithInputs(value));
+                }
+                commit.addLocks(Collections.emptyList());
+                commit.getEnsureVirtual().add(false);
+            }
+        });
+        setCopy(virtual.getObjectId(), copy);
+        return copy;
+    }
+
     private void materializeWithCommit(FixedNode fixed, VirtualObjectNode virtual, List<AllocatedObjectNode> objects, List<List<MonitorIdNode>> locks, List<ValueNode> values,
                     List<Boolean> ensureVirtual, List<ValueNode> otherAllocations) {
         ObjectState obj = getObjectState(virtual);
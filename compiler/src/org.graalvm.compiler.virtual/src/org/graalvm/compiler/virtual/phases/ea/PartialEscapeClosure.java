@@ -34,6 +34,7 @@ import org.graalvm.collections.EconomicMap;
 import org.graalvm.collections.EconomicSet;
 import org.graalvm.collections.Equivalence;
 import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.core.common.cfg.AbstractControlFlowGraph;
 import org.graalvm.compiler.core.common.cfg.Loop;
 import org.graalvm.compiler.core.common.spi.ConstantFieldProvider;
 import org.graalvm.compiler.core.common.type.Stamp;
@@ -65,6 +66,13 @@ import org.graalvm.compiler.nodes.ValueProxyNode;
 import org.graalvm.compiler.nodes.VirtualState;
 import org.graalvm.compiler.nodes.VirtualState.NodeClosure;
 import org.graalvm.compiler.nodes.cfg.Block;
+import org.graalvm.compiler.nodes.java.AbstractNewObjectNode;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.java.MethodCallTargetNode;
+import org.graalvm.compiler.nodes.java.StoreFieldNode;
+import org.graalvm.compiler.nodes.java.StoreIndexedNode;
 import org.graalvm.compiler.nodes.spi.LoweringProvider;
 import org.graalvm.compiler.nodes.spi.NodeWithState;
 import org.graalvm.compiler.nodes.spi.Virtualizable;
@@ -72,12 +80,14 @@ import org.graalvm.compiler.nodes.spi.VirtualizableAllocation;
 import org.graalvm.compiler.nodes.spi.VirtualizerTool;
 import org.graalvm.compiler.nodes.virtual.AllocatedObjectNode;
 import org.graalvm.compiler.nodes.virtual.VirtualObjectNode;
+import org.graalvm.compiler.options.OptionValues;
 import org.graalvm.compiler.virtual.nodes.VirtualObjectState;
 
 import jdk.vm.ci.meta.ConstantReflectionProvider;
 import jdk.vm.ci.meta.JavaConstant;
 import jdk.vm.ci.meta.JavaKind;
 import jdk.vm.ci.meta.MetaAccessProvider;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
 
 public abstract class PartialEscapeClosure<BlockT extends PartialEscapeBlockState<BlockT>> extends EffectsClosure<BlockT> {
 
@@ -107,6 +117,17 @@ public abstract class PartialEscapeClosure<BlockT extends PartialEscapeBlockStat
     public final ArrayList<VirtualObjectNode> virtualObjects = new ArrayList<>();
     public final DebugContext debug;
 
+    /**
+     * Summaries of the arguments that callees neither let escape nor modify, or {@code null} if
+     * virtual objects passed to calls are always materialized.
+     */
+    private final ParameterEscapeSummaries escapeSummaries;
+
+    /**
+     * Caches for which allocations {@link #staysVirtual(ValueNode)} holds.
+     */
+    private final EconomicMap<ValueNode, Boolean> allocationsStayingVirtual = EconomicMap.create(Equivalence.IDENTITY);
+
     @Override
     public boolean needsApplyEffects() {
         if (hasChanged()) {
@@ -191,6 +212,12 @@ public abstract class PartialEscapeClosure<BlockT extends PartialEscapeBlockStat
         this.hasVirtualInputs = graph.createNodeBitMap();
         this.debug = graph.getDebug();
         this.tool = new VirtualizerToolImpl(metaAccess, constantReflection, constantFieldProvider, this, graph.getAssumptions(), graph.getOptions(), debug, loweringProvider);
+        OptionValues options = graph.getOptions();
+        if (GraalOptions.InterproceduralEscapeAnalysis.getValue(options)) {
+            this.escapeSummaries = new ParameterEscapeSummaries(GraalOptions.EscapeSummaryMaxDepth.getValue(options), GraalOptions.EscapeSummaryMaxBytecodeSize.getValue(options));
+        } else {
+            this.escapeSummaries = null;
+        }
     }
 
     /**
@@ -355,6 +382,14 @@ public abstract class PartialEscapeClosure<BlockT extends PartialEscapeBlockStat
             if (input instanceof ValueNode) {
                 ValueNode alias = getAlias((ValueNode) input);
                 if (alias instanceof VirtualObjectNode) {
+                    if (node instanceof MethodCallTargetNode && canPassCopy((ValueNode) input, insertBefore, (VirtualObjectNode) alias, state)) {
+                        ValueNode copy = state.materializeCopyBefore(insertBefore, (VirtualObjectNode) alias, effects);
+                        if (copy != null) {
+                            effects.replaceFirstInput(node, input, copy);
+                            VirtualUtil.trace(node.getOptions(), debug, "passing copy of %s to %s", alias, node);
+                            continue;
+                        }
+                    }
                     int id = ((VirtualObjectNode) alias).getObjectId();
                     ensureMaterialized(state, id, insertBefore, effects, COUNTER_MATERIALIZATIONS_UNHANDLED);
                     effects.replaceFirstInput(node, input, state.getObjectState(id).getMaterializedValue());
@@ -367,6 +402,82 @@ public abstract class PartialEscapeClosure<BlockT extends PartialEscapeBlockStat
         }
     }
 
+    /**
+     * Determines if a call can be given a copy of a virtual object instead of materializing the
+     * object. This is only worthwhile if the object stays virtual on every path, since otherwise
+     * the copy would be allocated in addition to the materialized object, so the copy is only used
+     * if the allocation is used by nothing but accesses, frame states and calls which neither let
+     * the object escape nor modify it. Calls in a loop that does not contain the allocation would
+     * allocate a copy in every iteration, so the object is materialized before the loop instead.
+     */
+    private boolean canPassCopy(ValueNode input, FixedNode call, VirtualObjectNode virtual, BlockT state) {
+        if (escapeSummaries == null) {
+            return false;
+        }
+        ObjectState obj = state.getObjectState(virtual);
+        if (!obj.isVirtual() || obj.hasLocks() || obj.getEnsureVirtualized() || state.contains(virtual)) {
+            return false;
+        }
+        for (ValueNode entry : obj.getEntries()) {
+            if (entry instanceof VirtualObjectNode) {
+                return false;
+            }
+        }
+        if (isInLoopWithout(call, input)) {
+            return false;
+        }
+        Boolean result = allocationsStayingVirtual.get(input);
+        if (result == null) {
+            result = staysVirtual(input);
+            allocationsStayingVirtual.put(input, result);
+        }
+        return result;
+    }
+
+    private boolean isInLoopWithout(FixedNode call, ValueNode allocation) {
+        Loop<Block> loop = cfg.blockFor(call).getLoop();
+        return loop != null && !AbstractControlFlowGraph.dominates(loop.getHeader(), cfg.blockFor(allocation));
+    }
+
+    private boolean staysVirtual(ValueNode allocation) {
+        if (!(allocation instanceof AbstractNewObjectNode)) {
+            return false;
+        }
+        for (Node usage : allocation.usages()) {
+            if (usage instanceof VirtualState || usage instanceof LoadFieldNode || usage instanceof LoadIndexedNode || usage instanceof ArrayLengthNode) {
+                continue;
+            } else if (usage instanceof StoreFieldNode) {
+                if (((StoreFieldNode) usage).value() == allocation) {
+                    return false;
+                }
+            } else if (usage instanceof StoreIndexedNode) {
+                if (((StoreIndexedNode) usage).value() == allocation) {
+                    return false;
+                }
+            } else if (usage instanceof MethodCallTargetNode) {
+                if (!isLocalArgument((MethodCallTargetNode) usage, allocation)) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isLocalArgument(MethodCallTargetNode callTarget, ValueNode value) {
+        ResolvedJavaMethod target = callTarget.targetMethod();
+        if (target == null || !(callTarget.invokeKind().isDirect() || target.canBeStaticallyBound())) {
+            return false;
+        }
+        for (int i = 0; i < callTarget.arguments().size(); i++) {
+            if (callTarget.arguments().get(i) == value && !escapeSummaries.isLocalArgument(target, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void processNodeWithState(NodeWithState nodeWithState, BlockT state, GraphEffectList effects) {
         for (FrameState fs : nodeWithState.states()) {
             FrameState frameState = getUniqueFramestate(nodeWithState, fs);
@@ -528,6 +639,13 @@ public abstract class PartialEscapeClosure<BlockT extends PartialEscapeBlockStat
 
     @Override
     protected void processLoopExit(LoopExitNode exitNode, BlockT initialState, BlockT exitState, GraphEffectList effects) {
+        for (int i = 0; i < exitState.getStateCount(); i++) {
+            ObjectState exitObjState = exitState.getObjectStateOptional(i);
+            if (exitObjState != null && exitObjState.isVirtual()) {
+                // copies allocated within the loop are not available after it without a proxy
+                exitState.setCopy(i, null);
+            }
+        }
         if (exitNode.graph().hasValueProxies()) {
             EconomicMap<Integer, ProxyNode> proxies = EconomicMap.create(Equivalence.DEFAULT);
             for (ProxyNode proxy : exitNode.proxies()) {
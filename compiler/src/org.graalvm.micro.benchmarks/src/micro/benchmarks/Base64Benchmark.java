@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.util.Base64;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the cost of {@link Base64.Encoder#encode(byte[], byte[])}.
+ */
+public class Base64Benchmark extends BenchmarkBase {
+
+    @State(Scope.Benchmark)
+    public static class BenchState {
+        @Param({"48", "1023", "65535"}) int size;
+
+        byte[] src;
+        byte[] dst;
+        Base64.Encoder encoder = Base64.getEncoder();
+        Base64.Encoder urlEncoder = Base64.getUrlEncoder();
+        Base64.Encoder mimeEncoder = Base64.getMimeEncoder();
+
+        @Setup
+        public void setup() {
+            src = new byte[size];
+            new Random(42).nextBytes(src);
+            // large enough for the line separators of the MIME encoder
+            dst = new byte[2 * size + 16];
+        }
+    }
+
+    @Benchmark
+    public int encode(BenchState state) {
+        return state.encoder.encode(state.src, state.dst);
+    }
+
+    @Benchmark
+    public int encodeURL(BenchState state) {
+        return state.urlEncoder.encode(state.src, state.dst);
+    }
+
+    @Benchmark
+    public int encodeMIME(BenchState state) {
+        return state.mimeEncoder.encode(state.src, state.dst);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the cost of computing {@link Adler32} and {@link CRC32} checksums over byte arrays
+ * and direct byte buffers.
+ */
+public class ChecksumBenchmark extends BenchmarkBase {
+
+    @State(Scope.Benchmark)
+    public static class BenchState {
+        @Param({"64", "1024", "65536"}) int size;
+
+        byte[] bytes;
+        ByteBuffer directBuffer;
+
+        @Setup
+        public void setup() {
+            bytes = new byte[size];
+            new Random(42).nextBytes(bytes);
+            directBuffer = ByteBuffer.allocateDirect(size);
+            directBuffer.put(bytes);
+        }
+    }
+
+    @Benchmark
+    public long adler32Bytes(BenchState state) {
+        Adler32 adler = new Adler32();
+        adler.update(state.bytes, 0, state.bytes.length);
+        return adler.getValue();
+    }
+
+    @Benchmark
+    public long adler32DirectBuffer(BenchState state) {
+        Adler32 adler = new Adler32();
+        state.directBuffer.rewind();
+        adler.update(state.directBuffer);
+        return adler.getValue();
+    }
+
+    @Benchmark
+    public long crc32Bytes(BenchState state) {
+        CRC32 crc = new CRC32();
+        crc.update(state.bytes, 0, state.bytes.length);
+        return crc.getValue();
+    }
+}
@@ -35,8 +35,10 @@ import java.net.URI;
 import java.net.URL;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -205,6 +207,265 @@ public final class Engine implements AutoCloseable {
         return impl.getImplementationName();
     }
 
+    /**
+     * Returns a snapshot of the statistics of the parsed source caches of this engine. The
+     * statistics are accumulated over all languages and contexts of the engine. The size and
+     * eviction policy of the caches can be configured with the <code>engine.SourceCacheSize</code>
+     * and <code>engine.SourceCachePolicy</code> options.
+     *
+     * @see Source.Builder#cached(boolean) to configure caching behavior by source.
+     * @since 1.0
+     */
+    public SourceCacheStatistics getSourceCacheStatistics() {
+        return new SourceCacheStatistics(impl.getSourceCacheHits(), impl.getSourceCacheMisses(), impl.getSourceCacheEvictions());
+    }
+
+    /**
+     * A snapshot of the statistics of the parsed source caches of an engine.
+     *
+     * @see Engine#getSourceCacheStatistics()
+     * @since 1.0
+     */
+    public static final class SourceCacheStatistics {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        SourceCacheStatistics(long hits, long misses, long evictions) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        /**
+         * Returns the number of times a cached source was evaluated and the parse result was
+         * found in the cache.
+         *
+         * @since 1.0
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * Returns the number of times a cached source was evaluated and had to be parsed.
+         *
+         * @since 1.0
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Returns the number of parse results that were evicted from a bounded cache.
+         *
+         * @since 1.0
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @since 1.0
+         */
+        @Override
+        public String toString() {
+            return "SourceCacheStatistics[hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "]";
+        }
+    }
+
+    /**
+     * Returns a snapshot of the metrics of the compiler of the polyglot runtime. The metrics can be
+     * polled periodically while the application runs, e.g. to export them to a monitoring system.
+     * Compilation happens per runtime, therefore the metrics are accumulated over all engines of
+     * the runtime. Returns empty metrics if the runtime does not compile guest language code. The
+     * names of counters and histograms are specific to the runtime and may change without notice.
+     *
+     * @since 1.0
+     */
+    public CompilationMetrics getCompilationMetrics() {
+        return new CompilationMetrics(impl.getCompilationMetrics());
+    }
+
+    /**
+     * A snapshot of the compilation metrics of a polyglot runtime, consisting of named counters,
+     * named histograms and the number of deoptimizations per guest language root. For example, the
+     * Graal runtime provides counters for the compilation queue length, queued, started, succeeded
+     * and failed compilations, bailouts, invalidations and deoptimizations, as well as histograms
+     * for the queue wait time, the compilation time per tier, the graph sizes and the code size.
+     *
+     * @see Engine#getCompilationMetrics()
+     * @since 1.0
+     */
+    public static final class CompilationMetrics {
+
+        private final Map<String, Long> counters;
+        private final Map<String, Histogram> histograms;
+        private final Map<String, Long> deoptimizations;
+
+        @SuppressWarnings("unchecked")
+        CompilationMetrics(Map<String, Object> metrics) {
+            Map<String, Long> c = (Map<String, Long>) metrics.get("counters");
+            Map<String, long[]> h = (Map<String, long[]>) metrics.get("histograms");
+            Map<String, Long> d = (Map<String, Long>) metrics.get("deoptimizations");
+            this.counters = c == null ? Collections.emptyMap() : Collections.unmodifiableMap(new LinkedHashMap<>(c));
+            Map<String, Histogram> histogramMap = new LinkedHashMap<>();
+            if (h != null) {
+                for (Map.Entry<String, long[]> entry : h.entrySet()) {
+                    histogramMap.put(entry.getKey(), new Histogram(entry.getValue()));
+                }
+            }
+            this.histograms = Collections.unmodifiableMap(histogramMap);
+            this.deoptimizations = d == null ? Collections.emptyMap() : Collections.unmodifiableMap(new LinkedHashMap<>(d));
+        }
+
+        /**
+         * Returns the counters of this snapshot by name.
+         *
+         * @since 1.0
+         */
+        public Map<String, Long> getCounters() {
+            return counters;
+        }
+
+        /**
+         * Returns the value of a counter or <code>0</code> if the runtime does not provide the
+         * counter.
+         *
+         * @since 1.0
+         */
+        public long getCounter(String name) {
+            Long value = counters.get(name);
+            return value == null ? 0 : value;
+        }
+
+        /**
+         * Returns the histograms of this snapshot by name.
+         *
+         * @since 1.0
+         */
+        public Map<String, Histogram> getHistograms() {
+            return histograms;
+        }
+
+        /**
+         * Returns the number of deoptimizations of compiled code by the name of the guest
+         * language root. Roots that share a name are distinguished by a runtime specific suffix.
+         * The number of roots listed may be limited by the runtime.
+         *
+         * @since 1.0
+         */
+        public Map<String, Long> getDeoptimizations() {
+            return deoptimizations;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @since 1.0
+         */
+        @Override
+        public String toString() {
+            return "CompilationMetrics[counters=" + counters + ", histograms=" + histograms + "]";
+        }
+
+        /**
+         * Distribution of recorded values. Values are counted in power of two buckets: bucket
+         * <code>0</code> counts values smaller than <code>1</code> and bucket <code>i</code>
+         * counts values greater or equal to <code>2^(i-1)</code> and smaller than
+         * <code>2^i</code>.
+         *
+         * @since 1.0
+         */
+        public static final class Histogram {
+
+            private static final int HEADER = 4;
+
+            private final long[] data;
+
+            Histogram(long[] data) {
+                this.data = data.length < HEADER ? new long[HEADER] : data.clone();
+            }
+
+            /**
+             * Returns the number of recorded values.
+             *
+             * @since 1.0
+             */
+            public long getCount() {
+                return data[0];
+            }
+
+            /**
+             * Returns the sum of the recorded values.
+             *
+             * @since 1.0
+             */
+            public long getSum() {
+                return data[1];
+            }
+
+            /**
+             * Returns the smallest recorded value or <code>0</code> if no value was recorded.
+             *
+             * @since 1.0
+             */
+            public long getMin() {
+                return data[2];
+            }
+
+            /**
+             * Returns the largest recorded value or <code>0</code> if no value was recorded.
+             *
+             * @since 1.0
+             */
+            public long getMax() {
+                return data[3];
+            }
+
+            /**
+             * Returns the average of the recorded values or <code>0</code> if no value was
+             * recorded.
+             *
+             * @since 1.0
+             */
+            public double getMean() {
+                return getCount() == 0 ? 0 : (double) getSum() / getCount();
+            }
+
+            /**
+             * Returns the number of buckets.
+             *
+             * @since 1.0
+             */
+            public int getBucketCount() {
+                return data.length - HEADER;
+            }
+
+            /**
+             * Returns the number of recorded values in a bucket.
+             *
+             * @since 1.0
+             */
+            public long getBucket(int index) {
+                return data[HEADER + index];
+            }
+
+            /**
+             * {@inheritDoc}
+             *
+             * @since 1.0
+             */
+            @Override
+            public String toString() {
+                return "Histogram[count=" + getCount() + ", min=" + getMin() + ", max=" + getMax() + ", mean=" + getMean() + "]";
+            }
+        }
+    }
+
     /**
      * Creates a new engine instance with default configuration. The engine is constructed with the
      * same configuration as it will be as when constructed implicitly using the context builder.
@@ -328,6 +328,14 @@ public abstract class AbstractPolyglotImpl {
 
         public abstract String getImplementationName();
 
+        public abstract long getSourceCacheHits();
+
+        public abstract long getSourceCacheMisses();
+
+        public abstract long getSourceCacheEvictions();
+
+        public abstract Map<String, Object> getCompilationMetrics();
+
     }
 
     public abstract static class AbstractExceptionImpl {
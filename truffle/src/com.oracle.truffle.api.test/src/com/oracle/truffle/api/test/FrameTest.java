@@ -27,9 +27,11 @@ package com.oracle.truffle.api.test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.junit.Test;
 
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.TruffleRuntime;
@@ -180,4 +182,43 @@ public class FrameTest {
         Object ret = Truffle.getRuntime().createCallTarget(frn).call();
         assertEquals("Returns itself", frn, ret);
     }
+
+    @Test
+    public void indexedSlotAccess() throws FrameSlotTypeException {
+        FrameDescriptor descriptor = new FrameDescriptor();
+        int intSlot = descriptor.addFrameSlot("int").getIndex();
+        int objectSlot = descriptor.addFrameSlot("object").getIndex();
+        Assumption version = descriptor.getVersion();
+        VirtualFrame frame = Truffle.getRuntime().createVirtualFrame(new Object[0], descriptor);
+
+        assertTrue(frame.isObject(intSlot));
+        assertNull(frame.getValue(intSlot));
+
+        frame.setInt(intSlot, 42);
+        frame.setObject(objectSlot, "foo");
+        assertTrue(frame.isInt(intSlot));
+        assertEquals(42, frame.getInt(intSlot));
+        assertEquals("foo", frame.getObject(objectSlot));
+        assertEquals(42, frame.getValue(intSlot));
+
+        // indexed accesses share the storage with frame slot accesses
+        assertEquals(42, frame.getInt(descriptor.findFrameSlot("int")));
+
+        frame.setDouble(intSlot, 4.2);
+        assertTrue(frame.isDouble(intSlot));
+        assertEquals(4.2, frame.getDouble(intSlot), 0);
+        try {
+            frame.getInt(intSlot);
+            fail();
+        } catch (FrameSlotTypeException e) {
+            // expected
+        }
+
+        // the slot kinds of the descriptor are neither used nor updated
+        assertEquals(FrameSlotKind.Illegal, descriptor.getFrameSlotKind(descriptor.findFrameSlot("int")));
+        assertTrue(version.isValid());
+
+        MaterializedFrame materialized = frame.materialize();
+        assertEquals(4.2, materialized.getDouble(intSlot), 0);
+    }
 }
@@ -28,6 +28,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
@@ -40,6 +42,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.Source;
 import org.junit.Assert;
 import org.junit.Test;
@@ -183,6 +186,60 @@ public class PolyglotCachingTest {
         Assert.assertTrue(refsCleared > 0);
     }
 
+    @Test
+    public void testBoundedCacheSharesEqualSources() {
+        setupTestLang();
+
+        Engine engine = Engine.newBuilder().option("engine.SourceCacheSize", "2").build();
+        Context context = Context.newBuilder().engine(engine).build();
+        assertParsedEval(context, Source.create(ProxyLanguage.ID, "0"));
+        // an equal source built separately shares the cache entry
+        assertCachedEval(context, Source.create(ProxyLanguage.ID, "0"));
+
+        Engine.SourceCacheStatistics statistics = engine.getSourceCacheStatistics();
+        assertEquals(1, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+        assertEquals(0, statistics.getEvictions());
+        context.close();
+        engine.close();
+    }
+
+    @Test
+    public void testBoundedCacheEvictsLeastRecentlyUsed() {
+        setupTestLang();
+
+        Engine engine = Engine.newBuilder().option("engine.SourceCacheSize", "2").option("engine.SourceCachePolicy", "lru").build();
+        Context context = Context.newBuilder().engine(engine).build();
+        Source source0 = Source.create(ProxyLanguage.ID, "0");
+        Source source1 = Source.create(ProxyLanguage.ID, "1");
+        Source source2 = Source.create(ProxyLanguage.ID, "2");
+        assertParsedEval(context, source0);
+        assertParsedEval(context, source1);
+        assertCachedEval(context, source0);
+        // evicts source1 which is the least recently used
+        assertParsedEval(context, source2);
+        assertCachedEval(context, source0);
+        assertParsedEval(context, source1);
+
+        Engine.SourceCacheStatistics statistics = engine.getSourceCacheStatistics();
+        assertEquals(2, statistics.getHits());
+        assertEquals(4, statistics.getMisses());
+        assertEquals(2, statistics.getEvictions());
+        context.close();
+        engine.close();
+    }
+
+    @Test
+    public void testInvalidSourceCachePolicy() {
+        try {
+            Engine.newBuilder().option("engine.SourceCacheSize", "2").option("engine.SourceCachePolicy", "lfu").build();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("'lru'"));
+            assertTrue(e.getMessage(), e.getMessage().contains("'size'"));
+        }
+    }
+
     long parseCount;
     CallTarget lastParsedTarget;
 
@@ -116,6 +116,7 @@ class PolyglotEngineImpl extends org.graalvm.polyglot.impl.AbstractPolyglotImpl.
 
     final OptionValuesImpl engineOptionValues;
     final OptionValuesImpl compilerOptionValues;
+    final PolyglotSourceCache.Statistics sourceCacheStatistics = new PolyglotSourceCache.Statistics();
     ClassLoader contextClassLoader;     // effectively final
     boolean boundEngine;    // effectively final
     Handler logHandler;     // effectively final
@@ -972,6 +973,26 @@ class PolyglotEngineImpl extends org.graalvm.polyglot.impl.AbstractPolyglotImpl.
         return Truffle.getRuntime().getName();
     }
 
+    @Override
+    public long getSourceCacheHits() {
+        return sourceCacheStatistics.hits.get();
+    }
+
+    @Override
+    public long getSourceCacheMisses() {
+        return sourceCacheStatistics.misses.get();
+    }
+
+    @Override
+    public long getSourceCacheEvictions() {
+        return sourceCacheStatistics.evictions.get();
+    }
+
+    @Override
+    public Map<String, Object> getCompilationMetrics() {
+        return VMAccessor.SPI.getCompilationMetrics();
+    }
+
     @Override
     @SuppressWarnings({"all"})
     public synchronized Context createContext(OutputStream configOut, OutputStream configErr, InputStream configIn, boolean allowHostAccess,
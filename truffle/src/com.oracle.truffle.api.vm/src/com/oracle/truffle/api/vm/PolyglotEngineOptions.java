@@ -24,6 +24,8 @@
  */
 package com.oracle.truffle.api.vm;
 
+import java.util.function.Function;
+
 import com.oracle.truffle.api.Option;
 import org.graalvm.options.OptionCategory;
 import org.graalvm.options.OptionKey;
@@ -35,6 +37,8 @@ final class PolyglotEngineOptions {
     static final String OPTION_GROUP_LOG = "log";
     static final String PREINITIALIZE_CONTEXT_NAME = "PreinitializeContexts";
     private static final String INSTRUMENT_EXCEPTIONS_ARE_THROWN_NAME = "InstrumentExceptionsAreThrown";
+    private static final String SOURCE_CACHE_SIZE_NAME = "SourceCacheSize";
+    private static final String SOURCE_CACHE_POLICY_NAME = "SourceCachePolicy";
     @Option(name = PREINITIALIZE_CONTEXT_NAME, category = OptionCategory.EXPERT, help = "Preinitialize language contexts for given languages.") static final OptionKey<String> PreinitializeContexts = new OptionKey<>(
                     null, OptionType.defaultType(String.class));
     /**
@@ -43,4 +47,20 @@ final class PolyglotEngineOptions {
      */
     @Option(name = INSTRUMENT_EXCEPTIONS_ARE_THROWN_NAME, category = OptionCategory.DEBUG, help = "Propagates exceptions thrown by instruments.") static final OptionKey<Boolean> InstrumentExceptionsAreThrown = new OptionKey<>(
                     false);
+
+    @Option(name = SOURCE_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Maximum number of parsed sources cached per language. " +
+                    "If set, sources are cached by content and entries are evicted explicitly, otherwise parsed sources are cached until the source is garbage collected.") static final OptionKey<Integer> SourceCacheSize = new OptionKey<>(
+                    0);
+
+    @Option(name = SOURCE_CACHE_POLICY_NAME, category = OptionCategory.EXPERT, help = "Eviction policy of a bounded source cache: 'lru' evicts the least recently used source, " +
+                    "'size' evicts the source that is cheapest to parse again, weighted by AST size and number of hits.") static final OptionKey<String> SourceCachePolicy = new OptionKey<>(
+                    PolyglotSourceCache.POLICY_LRU, new OptionType<>("SourceCachePolicy", PolyglotSourceCache.POLICY_LRU, new Function<String, String>() {
+                        public String apply(String policy) {
+                            if (!PolyglotSourceCache.POLICY_LRU.equals(policy) && !PolyglotSourceCache.POLICY_SIZE.equals(policy)) {
+                                throw new IllegalArgumentException("Invalid source cache policy '" + policy + "'. Allowed values are '" + PolyglotSourceCache.POLICY_LRU + "' and '" +
+                                                PolyglotSourceCache.POLICY_SIZE + "'.");
+                            }
+                            return policy;
+                        }
+                    }));
 }
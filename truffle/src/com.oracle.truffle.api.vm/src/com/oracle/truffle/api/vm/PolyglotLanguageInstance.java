@@ -49,7 +49,9 @@ final class PolyglotLanguageInstance {
         } catch (Exception e) {
             throw new IllegalStateException(String.format("Error initializing language '%s' using class '%s'.", language.cache.getId(), language.cache.getClassName()), e);
         }
-        this.sourceCache = new PolyglotSourceCache();
+        PolyglotEngineImpl engine = language.engine;
+        this.sourceCache = new PolyglotSourceCache(engine.sourceCacheStatistics, engine.engineOptionValues.get(PolyglotEngineOptions.SourceCacheSize),
+                        engine.engineOptionValues.get(PolyglotEngineOptions.SourceCachePolicy));
     }
 
     boolean areOptionsCompatible(OptionValuesImpl newOptionValues) {
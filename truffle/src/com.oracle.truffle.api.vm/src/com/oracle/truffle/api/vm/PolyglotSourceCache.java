@@ -29,37 +29,51 @@ import static com.oracle.truffle.api.vm.VMAccessor.LANGUAGE;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.nodes.NodeUtil;
 import com.oracle.truffle.api.source.Source;
 
 final class PolyglotSourceCache {
 
+    static final String POLICY_LRU = "lru";
+    static final String POLICY_SIZE = "size";
+
     private final ConcurrentHashMap<Object, CallTarget> sourceCache;
     private final ReferenceQueue<Source> deadSources = new ReferenceQueue<>();
+    private final BoundedCache boundedCache;
+    private final Statistics statistics;
 
-    PolyglotSourceCache() {
-        this.sourceCache = new ConcurrentHashMap<>();
+    /**
+     * Creates a source cache. If {@code maximumSize} is positive the cache is bounded, keyed by
+     * source content and evicts entries according to the given {@code policy}. Otherwise the cache
+     * is unbounded and entries are collected together with their sources.
+     */
+    PolyglotSourceCache(Statistics statistics, int maximumSize, String policy) {
+        this.statistics = statistics;
+        if (maximumSize > 0) {
+            this.sourceCache = null;
+            this.boundedCache = new BoundedCache(maximumSize, POLICY_SIZE.equals(policy), statistics);
+        } else {
+            this.sourceCache = new ConcurrentHashMap<>();
+            this.boundedCache = null;
+        }
     }
 
     CallTarget parseCached(PolyglotLanguageContext context, Source source, String[] argumentNames) {
-        cleanupStaleEntries();
-
         CallTarget target;
         if (source.isCached()) {
-            Object sourceId = VMAccessor.SOURCE.getSourceIdentifier(source);
-            WeakSourceKey ref = new WeakSourceKey(sourceId, source, argumentNames, deadSources);
-            target = sourceCache.get(ref);
-            if (target == null) {
-                target = parseImpl(context, argumentNames, VMAccessor.SOURCE.copySource(source));
-                CallTarget prev = sourceCache.putIfAbsent(ref, target);
-                if (prev != null) {
-                    /*
-                     * Parsed twice -> discard the one not in the cache.
-                     */
-                    target = prev;
-                }
+            if (boundedCache != null) {
+                target = parseBounded(context, source, argumentNames);
+            } else {
+                target = parseWeak(context, source, argumentNames);
             }
         } else {
             target = parseImpl(context, argumentNames, source);
@@ -67,6 +81,52 @@ final class PolyglotSourceCache {
         return target;
     }
 
+    private CallTarget parseWeak(PolyglotLanguageContext context, Source source, String[] argumentNames) {
+        cleanupStaleEntries();
+
+        Object sourceId = VMAccessor.SOURCE.getSourceIdentifier(source);
+        WeakSourceKey ref = new WeakSourceKey(sourceId, source, argumentNames, deadSources);
+        CallTarget target = sourceCache.get(ref);
+        if (target == null) {
+            statistics.misses.incrementAndGet();
+            target = parseImpl(context, argumentNames, VMAccessor.SOURCE.copySource(source));
+            CallTarget prev = sourceCache.putIfAbsent(ref, target);
+            if (prev != null) {
+                /*
+                 * Parsed twice -> discard the one not in the cache.
+                 */
+                target = prev;
+            }
+        } else {
+            statistics.hits.incrementAndGet();
+        }
+        return target;
+    }
+
+    private CallTarget parseBounded(PolyglotLanguageContext context, Source source, String[] argumentNames) {
+        ContentKey key = new ContentKey(source, argumentNames);
+        CallTarget target = boundedCache.get(key);
+        if (target == null) {
+            statistics.misses.incrementAndGet();
+            /*
+             * Parse outside of the lock. If the source was parsed twice the first target that made
+             * it into the cache wins.
+             */
+            target = parseImpl(context, argumentNames, VMAccessor.SOURCE.copySource(source));
+            target = boundedCache.putIfAbsent(key, target, weightOf(target));
+        } else {
+            statistics.hits.incrementAndGet();
+        }
+        return target;
+    }
+
+    private static int weightOf(CallTarget target) {
+        if (target instanceof RootCallTarget) {
+            return Math.max(1, NodeUtil.countNodes(((RootCallTarget) target).getRootNode()));
+        }
+        return 1;
+    }
+
     private static CallTarget parseImpl(PolyglotLanguageContext context, String[] argumentNames, Source source) {
         CallTarget parsedTarget = LANGUAGE.parse(context.requireEnv(), source, null, argumentNames);
         if (parsedTarget == null) {
@@ -82,6 +142,21 @@ final class PolyglotSourceCache {
         }
     }
 
+    private static String[] normalizeArguments(String[] arguments) {
+        return arguments != null && arguments.length == 0 ? null : arguments;
+    }
+
+    /**
+     * Hit, miss and eviction counters of all source caches of an engine.
+     */
+    static final class Statistics {
+
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+
+    }
+
     private static final class WeakSourceKey extends WeakReference<Source> {
 
         final Object key;
@@ -90,7 +165,7 @@ final class PolyglotSourceCache {
         WeakSourceKey(Object key, Source value, String[] arguments, ReferenceQueue<? super Source> q) {
             super(value, q);
             this.key = key;
-            this.arguments = arguments != null && arguments.length == 0 ? null : arguments;
+            this.arguments = normalizeArguments(arguments);
         }
 
         @Override
@@ -113,4 +188,174 @@ final class PolyglotSourceCache {
         }
     }
 
+    /**
+     * Identifies a source by its content, such that equal sources that were built separately
+     * share a cache entry. The key strongly references the characters of the source, therefore it
+     * is only used for bounded caches.
+     */
+    private static final class ContentKey {
+
+        private final String language;
+        private final String mimeType;
+        private final String name;
+        private final String path;
+        private final boolean internal;
+        private final boolean interactive;
+        private final CharSequence characters;
+        private final String[] arguments;
+        private final int hash;
+
+        ContentKey(Source source, String[] arguments) {
+            this.language = source.getLanguage();
+            this.mimeType = source.getMimeType();
+            this.name = source.getName();
+            this.path = source.getPath();
+            this.internal = source.isInternal();
+            this.interactive = source.isInteractive();
+            this.characters = source.getCharacters();
+            this.arguments = normalizeArguments(arguments);
+            this.hash = computeHash();
+        }
+
+        private int computeHash() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + Objects.hashCode(language);
+            result = prime * result + Objects.hashCode(mimeType);
+            result = prime * result + Objects.hashCode(name);
+            result = prime * result + Objects.hashCode(path);
+            result = prime * result + (internal ? 1231 : 1237);
+            result = prime * result + (interactive ? 1231 : 1237);
+            result = prime * result + Arrays.hashCode(arguments);
+            if (characters instanceof String) {
+                result = prime * result + characters.hashCode();
+            } else {
+                for (int i = 0; i < characters.length(); i++) {
+                    result = prime * result + characters.charAt(i);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof ContentKey)) {
+                return false;
+            }
+            ContentKey other = (ContentKey) obj;
+            /*
+             * Compare characters last as it is likely the most expensive comparison.
+             */
+            return hash == other.hash && //
+                            internal == other.internal && //
+                            interactive == other.interactive && //
+                            Objects.equals(language, other.language) && //
+                            Objects.equals(mimeType, other.mimeType) && //
+                            Objects.equals(name, other.name) && //
+                            Objects.equals(path, other.path) && //
+                            Arrays.equals(arguments, other.arguments) && //
+                            compareCharacters(other.characters);
+        }
+
+        private boolean compareCharacters(CharSequence otherCharacters) {
+            if (characters == otherCharacters) {
+                return true;
+            } else if (characters.length() != otherCharacters.length()) {
+                return false;
+            } else if (characters instanceof String && otherCharacters instanceof String) {
+                return characters.equals(otherCharacters);
+            }
+            for (int i = 0; i < characters.length(); i++) {
+                if (characters.charAt(i) != otherCharacters.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class CacheEntry {
+
+        final CallTarget target;
+        final int weight;
+        int hits;
+
+        CacheEntry(CallTarget target, int weight) {
+            this.target = target;
+            this.weight = weight;
+        }
+
+    }
+
+    /**
+     * A cache with a fixed maximum number of entries. The least recently used entry is evicted
+     * first, unless the cache is size weighted. A size weighted cache evicts the entry that is the
+     * cheapest to recreate, estimated by the AST size of the parsed target multiplied by the
+     * number of hits, preferring the least recently used entry on ties.
+     */
+    private static final class BoundedCache {
+
+        private final int maximumSize;
+        private final boolean sizeWeighted;
+        private final Statistics statistics;
+        private final LinkedHashMap<ContentKey, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        BoundedCache(int maximumSize, boolean sizeWeighted, Statistics statistics) {
+            this.maximumSize = maximumSize;
+            this.sizeWeighted = sizeWeighted;
+            this.statistics = statistics;
+        }
+
+        synchronized CallTarget get(ContentKey key) {
+            CacheEntry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            entry.hits++;
+            return entry.target;
+        }
+
+        synchronized CallTarget putIfAbsent(ContentKey key, CallTarget target, int weight) {
+            CacheEntry prev = entries.get(key);
+            if (prev != null) {
+                return prev.target;
+            }
+            entries.put(key, new CacheEntry(target, weight));
+            while (entries.size() > maximumSize) {
+                evict(key);
+            }
+            return target;
+        }
+
+        private void evict(ContentKey added) {
+            Iterator<Map.Entry<ContentKey, CacheEntry>> iterator = entries.entrySet().iterator();
+            Map.Entry<ContentKey, CacheEntry> victim = iterator.next();
+            if (sizeWeighted) {
+                long victimCost = costOf(victim.getValue());
+                while (iterator.hasNext()) {
+                    Map.Entry<ContentKey, CacheEntry> candidate = iterator.next();
+                    long cost = costOf(candidate.getValue());
+                    // never evict the entry that was just added
+                    if (cost < victimCost && candidate.getKey() != added) {
+                        victim = candidate;
+                        victimCost = cost;
+                    }
+                }
+            }
+            entries.remove(victim.getKey());
+            statistics.evictions.incrementAndGet();
+        }
+
+        private static long costOf(CacheEntry entry) {
+            return (long) entry.weight * (entry.hits + 1);
+        }
+    }
+
 }
@@ -26,6 +26,7 @@ package com.oracle.truffle.api.vm;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 
 import org.graalvm.options.OptionDescriptors;
 
@@ -98,4 +99,9 @@ class VMAccessor extends Accessor {
         return super.isGuestCallStackElement(element);
     }
 
+    @Override
+    protected Map<String, Object> getCompilationMetrics() {
+        return super.getCompilationMetrics();
+    }
+
 }
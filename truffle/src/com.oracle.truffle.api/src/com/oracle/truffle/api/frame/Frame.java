@@ -27,6 +27,15 @@ package com.oracle.truffle.api.frame;
 /**
  * Represents a frame containing values of local variables of the guest language. Instances of this
  * type must not be stored in a field or cast to {@link java.lang.Object}.
+ * <p>
+ * <b>Indexed slot access:</b> local variables can also be accessed by the
+ * {@link FrameSlot#getIndex() index} of their frame slot, e.g. using {@link #getInt(int)} and
+ * {@link #setInt(int, int)}. Languages that know their slots statically can look up the index once
+ * and store it in a constant field of a node. Indexed accesses neither look up nor update the
+ * {@link FrameSlotKind kind} of a slot in the {@link FrameDescriptor}, so they do not invalidate the
+ * {@link FrameDescriptor#getVersion() version} of the descriptor. The type of the value stored in
+ * a slot is tracked per frame and can be checked with {@link #isInt(int)} and friends. Reading a
+ * slot with an accessor of a different type throws a {@link FrameSlotTypeException}.
  * 
  * @since 0.8 or earlier
  */
@@ -240,4 +249,224 @@ public interface Frame {
      * @since 0.8 or earlier
      */
     boolean isDouble(FrameSlot slot);
+
+    /**
+     * Read access to a local variable of type {@link Object} by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable
+     * @throws FrameSlotTypeException if the local variable does not hold a value of type {@link Object}
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    Object getObject(int slot) throws FrameSlotTypeException;
+
+    /**
+     * Write access to a local variable of type {@link Object} by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @param value the new value of the local variable
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    void setObject(int slot, Object value);
+
+    /**
+     * Read access to a local variable of type byte by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable
+     * @throws FrameSlotTypeException if the local variable does not hold a value of type byte
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    byte getByte(int slot) throws FrameSlotTypeException;
+
+    /**
+     * Write access to a local variable of type byte by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @param value the new value of the local variable
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    void setByte(int slot, byte value);
+
+    /**
+     * Read access to a local variable of type boolean by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable
+     * @throws FrameSlotTypeException if the local variable does not hold a value of type boolean
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    boolean getBoolean(int slot) throws FrameSlotTypeException;
+
+    /**
+     * Write access to a local variable of type boolean by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @param value the new value of the local variable
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    void setBoolean(int slot, boolean value);
+
+    /**
+     * Read access to a local variable of type int by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable
+     * @throws FrameSlotTypeException if the local variable does not hold a value of type int
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    int getInt(int slot) throws FrameSlotTypeException;
+
+    /**
+     * Write access to a local variable of type int by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @param value the new value of the local variable
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    void setInt(int slot, int value);
+
+    /**
+     * Read access to a local variable of type long by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable
+     * @throws FrameSlotTypeException if the local variable does not hold a value of type long
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    long getLong(int slot) throws FrameSlotTypeException;
+
+    /**
+     * Write access to a local variable of type long by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @param value the new value of the local variable
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    void setLong(int slot, long value);
+
+    /**
+     * Read access to a local variable of type float by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable
+     * @throws FrameSlotTypeException if the local variable does not hold a value of type float
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    float getFloat(int slot) throws FrameSlotTypeException;
+
+    /**
+     * Write access to a local variable of type float by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @param value the new value of the local variable
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    void setFloat(int slot, float value);
+
+    /**
+     * Read access to a local variable of type double by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable
+     * @throws FrameSlotTypeException if the local variable does not hold a value of type double
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    double getDouble(int slot) throws FrameSlotTypeException;
+
+    /**
+     * Write access to a local variable of type double by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @param value the new value of the local variable
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    void setDouble(int slot, double value);
+
+    /**
+     * Read access to a local variable of any type by its slot index.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable or the default value if unset
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    Object getValue(int slot);
+
+    /**
+     * Check whether the local variable with the given slot index currently holds a value of type
+     * object.
+     *
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    boolean isObject(int slot);
+
+    /**
+     * Check whether the local variable with the given slot index currently holds a value of type
+     * byte.
+     *
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    boolean isByte(int slot);
+
+    /**
+     * Check whether the local variable with the given slot index currently holds a value of type
+     * boolean.
+     *
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    boolean isBoolean(int slot);
+
+    /**
+     * Check whether the local variable with the given slot index currently holds a value of type
+     * int.
+     *
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    boolean isInt(int slot);
+
+    /**
+     * Check whether the local variable with the given slot index currently holds a value of type
+     * long.
+     *
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    boolean isLong(int slot);
+
+    /**
+     * Check whether the local variable with the given slot index currently holds a value of type
+     * float.
+     *
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    boolean isFloat(int slot);
+
+    /**
+     * Check whether the local variable with the given slot index currently holds a value of type
+     * double.
+     *
+     * @see Frame indexed slot access
+     * @since 1.0
+     */
+    boolean isDouble(int slot);
 }
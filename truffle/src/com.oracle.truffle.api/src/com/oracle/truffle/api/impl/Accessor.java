@@ -30,6 +30,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
@@ -57,6 +58,8 @@ import com.oracle.truffle.api.TruffleOptions;
 import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.MaterializedFrame;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.BytecodeOSRNode;
 import com.oracle.truffle.api.nodes.ExecutableNode;
 import com.oracle.truffle.api.nodes.LanguageInfo;
 import com.oracle.truffle.api.nodes.Node;
@@ -111,6 +114,20 @@ public abstract class Accessor {
         public void reportPolymorphicSpecialize(Node node) {
             SUPPORT.reportPolymorphicSpecialize(node);
         }
+
+        public boolean pollBytecodeOSRBackEdge(BytecodeOSRNode osrNode) {
+            if (SUPPORT == null) {
+                return false;
+            }
+            return SUPPORT.pollBytecodeOSRBackEdge(osrNode);
+        }
+
+        public Object tryBytecodeOSR(BytecodeOSRNode osrNode, int target, Object interpreterState, VirtualFrame parentFrame) {
+            if (SUPPORT == null) {
+                return null;
+            }
+            return SUPPORT.tryBytecodeOSR(osrNode, target, interpreterState, parentFrame);
+        }
     }
 
     public abstract static class SourceSupport {
@@ -735,6 +752,13 @@ public abstract class Accessor {
         return SUPPORT.getCompilerOptionDescriptors();
     }
 
+    protected Map<String, Object> getCompilationMetrics() {
+        if (SUPPORT == null) {
+            return Collections.emptyMap();
+        }
+        return SUPPORT.getCompilationMetrics();
+    }
+
     protected boolean isGuestCallStackElement(StackTraceElement element) {
         if (SUPPORT == null) {
             return false;
@@ -171,13 +171,34 @@ final class DefaultVirtualFrame implements VirtualFrame {
         return slotIndex;
     }
 
+    private int getSlotIndexChecked(int slotIndex) {
+        if (slotIndex >= tags.length) {
+            if (!resize()) {
+                throw new IllegalArgumentException(String.format("The frame slot index %d is not known by the frame descriptor.", slotIndex));
+            }
+        }
+        return slotIndex;
+    }
+
     private void verifySet(FrameSlot slot, FrameSlotKind accessKind) {
         int slotIndex = getSlotIndexChecked(slot);
         tags[slotIndex] = (byte) accessKind.ordinal();
     }
 
-    private void verifyGet(FrameSlot slot, FrameSlotKind accessKind) throws FrameSlotTypeException {
+    private void verifySet(int slot, FrameSlotKind accessKind) {
         int slotIndex = getSlotIndexChecked(slot);
+        tags[slotIndex] = (byte) accessKind.ordinal();
+    }
+
+    private void verifyGet(FrameSlot slot, FrameSlotKind accessKind) throws FrameSlotTypeException {
+        verifyTag(getSlotIndexChecked(slot), accessKind);
+    }
+
+    private void verifyGet(int slot, FrameSlotKind accessKind) throws FrameSlotTypeException {
+        verifyTag(getSlotIndexChecked(slot), accessKind);
+    }
+
+    private void verifyTag(int slotIndex, FrameSlotKind accessKind) throws FrameSlotTypeException {
         byte tag = tags[slotIndex];
         if (accessKind == FrameSlotKind.Object ? tag != 0 : tag != accessKind.ordinal()) {
             throw new FrameSlotTypeException();
@@ -235,4 +256,128 @@ final class DefaultVirtualFrame implements VirtualFrame {
     public boolean isDouble(FrameSlot slot) {
         return getTag(slot) == FrameSlotKind.Double.ordinal();
     }
+
+    @Override
+    public Object getObject(int slot) throws FrameSlotTypeException {
+        verifyGet(slot, FrameSlotKind.Object);
+        return locals[slot];
+    }
+
+    @Override
+    public void setObject(int slot, Object value) {
+        verifySet(slot, FrameSlotKind.Object);
+        locals[slot] = value;
+    }
+
+    @Override
+    public byte getByte(int slot) throws FrameSlotTypeException {
+        verifyGet(slot, FrameSlotKind.Byte);
+        return (byte) locals[slot];
+    }
+
+    @Override
+    public void setByte(int slot, byte value) {
+        verifySet(slot, FrameSlotKind.Byte);
+        locals[slot] = value;
+    }
+
+    @Override
+    public boolean getBoolean(int slot) throws FrameSlotTypeException {
+        verifyGet(slot, FrameSlotKind.Boolean);
+        return (boolean) locals[slot];
+    }
+
+    @Override
+    public void setBoolean(int slot, boolean value) {
+        verifySet(slot, FrameSlotKind.Boolean);
+        locals[slot] = value;
+    }
+
+    @Override
+    public int getInt(int slot) throws FrameSlotTypeException {
+        verifyGet(slot, FrameSlotKind.Int);
+        return (int) locals[slot];
+    }
+
+    @Override
+    public void setInt(int slot, int value) {
+        verifySet(slot, FrameSlotKind.Int);
+        locals[slot] = value;
+    }
+
+    @Override
+    public long getLong(int slot) throws FrameSlotTypeException {
+        verifyGet(slot, FrameSlotKind.Long);
+        return (long) locals[slot];
+    }
+
+    @Override
+    public void setLong(int slot, long value) {
+        verifySet(slot, FrameSlotKind.Long);
+        locals[slot] = value;
+    }
+
+    @Override
+    public float getFloat(int slot) throws FrameSlotTypeException {
+        verifyGet(slot, FrameSlotKind.Float);
+        return (float) locals[slot];
+    }
+
+    @Override
+    public void setFloat(int slot, float value) {
+        verifySet(slot, FrameSlotKind.Float);
+        locals[slot] = value;
+    }
+
+    @Override
+    public double getDouble(int slot) throws FrameSlotTypeException {
+        verifyGet(slot, FrameSlotKind.Double);
+        return (double) locals[slot];
+    }
+
+    @Override
+    public void setDouble(int slot, double value) {
+        verifySet(slot, FrameSlotKind.Double);
+        locals[slot] = value;
+    }
+
+    @Override
+    public Object getValue(int slot) {
+        return locals[getSlotIndexChecked(slot)];
+    }
+
+    @Override
+    public boolean isObject(int slot) {
+        return tags[getSlotIndexChecked(slot)] == FrameSlotKind.Object.ordinal();
+    }
+
+    @Override
+    public boolean isByte(int slot) {
+        return tags[getSlotIndexChecked(slot)] == FrameSlotKind.Byte.ordinal();
+    }
+
+    @Override
+    public boolean isBoolean(int slot) {
+        return tags[getSlotIndexChecked(slot)] == FrameSlotKind.Boolean.ordinal();
+    }
+
+    @Override
+    public boolean isInt(int slot) {
+        return tags[getSlotIndexChecked(slot)] == FrameSlotKind.Int.ordinal();
+    }
+
+    @Override
+    public boolean isLong(int slot) {
+        return tags[getSlotIndexChecked(slot)] == FrameSlotKind.Long.ordinal();
+    }
+
+    @Override
+    public boolean isFloat(int slot) {
+        return tags[getSlotIndexChecked(slot)] == FrameSlotKind.Float.ordinal();
+    }
+
+    @Override
+    public boolean isDouble(int slot) {
+        return tags[getSlotIndexChecked(slot)] == FrameSlotKind.Double.ordinal();
+    }
 }
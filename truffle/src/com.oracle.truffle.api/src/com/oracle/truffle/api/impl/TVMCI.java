@@ -24,6 +24,8 @@
  */
 package com.oracle.truffle.api.impl;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Supplier;
 
@@ -35,8 +37,10 @@ import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.impl.Accessor.EngineSupport;
 import com.oracle.truffle.api.impl.Accessor.InstrumentSupport;
+import com.oracle.truffle.api.nodes.BytecodeOSRNode;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.RootNode;
 
@@ -288,4 +292,38 @@ public abstract class TVMCI {
     @SuppressWarnings("unused")
     protected void reportPolymorphicSpecialize(Node node) {
     }
+
+    /**
+     * Reports a backward jump of a bytecode dispatch loop.
+     *
+     * @since 1.0
+     */
+    @SuppressWarnings("unused")
+    protected boolean pollBytecodeOSRBackEdge(BytecodeOSRNode osrNode) {
+        return false;
+    }
+
+    /**
+     * Requests on-stack replacement of a bytecode dispatch loop.
+     *
+     * @since 1.0
+     */
+    @SuppressWarnings("unused")
+    protected Object tryBytecodeOSR(BytecodeOSRNode osrNode, int target, Object interpreterState, VirtualFrame parentFrame) {
+        return null;
+    }
+
+    /**
+     * Returns a snapshot of the compilation metrics of the runtime. The map contains counters as
+     * <code>Map&lt;String, Long&gt;</code> under <code>"counters"</code>, histograms as
+     * <code>Map&lt;String, long[]&gt;</code> under <code>"histograms"</code> and deoptimizations
+     * per call target as <code>Map&lt;String, Long&gt;</code> under
+     * <code>"deoptimizations"</code>. A histogram array contains the count, sum, minimum and
+     * maximum of the recorded values followed by the counts of power of two buckets.
+     *
+     * @since 1.0
+     */
+    protected Map<String, Object> getCompilationMetrics() {
+        return Collections.emptyMap();
+    }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.api.nodes;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * Interface for nodes of bytecode interpreters that support on-stack replacement (OSR). Unlike
+ * {@link LoopNode loop nodes}, which replace an AST loop with compiled code, a bytecode OSR node
+ * implements a dispatch loop that keeps its state in a bytecode index and the frame. Bytecode OSR
+ * nodes must extend {@link Node} or a subclass of {@link Node}.
+ * <p>
+ * The dispatch loop reports every backward jump with {@link #pollOSRBackEdge(BytecodeOSRNode)}. If
+ * the runtime decides that the loop is hot it returns <code>true</code> and the interpreter should
+ * call {@link #tryOSR(BytecodeOSRNode, int, Object, VirtualFrame)} with the target of the jump.
+ * The runtime then compiles an entry point specialized for that dispatch target and executes
+ * {@link #executeOSR(VirtualFrame, int, Object)} in compiled code with the interpreter frame.
+ *
+ * <pre>
+ * Object executeLoop(VirtualFrame frame, int startBci) {
+ *     int bci = startBci;
+ *     while (true) {
+ *         ...
+ *         if (nextBci &lt;= bci &amp;&amp; BytecodeOSRNode.pollOSRBackEdge(this)) {
+ *             Object result = BytecodeOSRNode.tryOSR(this, nextBci, null, frame);
+ *             if (result != null) {
+ *                 return result;
+ *             }
+ *         }
+ *         bci = nextBci;
+ *     }
+ * }
+ *
+ * public Object executeOSR(VirtualFrame osrFrame, int target, Object interpreterState) {
+ *     return executeLoop(osrFrame, target);
+ * }
+ * </pre>
+ *
+ * Runtimes that do not support OSR never request it.
+ *
+ * @since 1.0
+ */
+public interface BytecodeOSRNode extends NodeInterface {
+
+    /**
+     * Continues the execution of the dispatch loop at the given target and returns the result of
+     * the loop. The runtime invokes this method from an OSR compilation in which the target is a
+     * constant, which allows the dispatch loop to be specialized for entering at the target. The
+     * returned value must not be <code>null</code>.
+     *
+     * @param osrFrame the frame of the interpreter that requested OSR
+     * @param target the dispatch target passed to
+     *            {@link #tryOSR(BytecodeOSRNode, int, Object, VirtualFrame)}
+     * @param interpreterState additional interpreter state passed to
+     *            {@link #tryOSR(BytecodeOSRNode, int, Object, VirtualFrame)}
+     * @since 1.0
+     */
+    Object executeOSR(VirtualFrame osrFrame, int target, Object interpreterState);
+
+    /**
+     * Returns the runtime data stored with {@link #setOSRMetadata(Object)}. The value is owned by
+     * the runtime and should be kept in a field of the node that is not copied with the node.
+     *
+     * @since 1.0
+     */
+    Object getOSRMetadata();
+
+    /**
+     * Stores runtime data associated with this node.
+     *
+     * @see #getOSRMetadata()
+     * @since 1.0
+     */
+    void setOSRMetadata(Object osrMetadata);
+
+    /**
+     * Reports a backward jump of the dispatch loop to the runtime. Returns <code>true</code> if
+     * OSR should be attempted with {@link #tryOSR(BytecodeOSRNode, int, Object, VirtualFrame)}.
+     * Always returns <code>false</code> in compiled code.
+     *
+     * @since 1.0
+     */
+    static boolean pollOSRBackEdge(BytecodeOSRNode osrNode) {
+        if (CompilerDirectives.inInterpreter()) {
+            return Node.ACCESSOR.nodes().pollBytecodeOSRBackEdge(osrNode);
+        }
+        return false;
+    }
+
+    /**
+     * Requests on-stack replacement at the given dispatch target. If compiled code for the target
+     * is available, it is executed with the interpreter frame and its result is returned. Returns
+     * <code>null</code> if OSR is not possible yet, e.g. because the compilation is still in
+     * progress, in which case the interpreter must continue executing the dispatch loop.
+     *
+     * @param osrNode the node that implements the dispatch loop
+     * @param target the dispatch target at which execution continues, e.g. a bytecode index
+     * @param interpreterState additional interpreter state passed to
+     *            {@link #executeOSR(VirtualFrame, int, Object)}, may be <code>null</code>
+     * @param parentFrame the frame of the interpreter
+     * @since 1.0
+     */
+    static Object tryOSR(BytecodeOSRNode osrNode, int target, Object interpreterState, VirtualFrame parentFrame) {
+        CompilerAsserts.neverPartOfCompilation();
+        return Node.ACCESSOR.nodes().tryBytecodeOSR(osrNode, target, interpreterState, parentFrame);
+    }
+}